@@ -0,0 +1,156 @@
+package mb.dnm.access.db;
+
+import mb.dnm.core.context.TransactionContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cglib.proxy.Enhancer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link TransactionProxyInterceptor} 와 {@link TransactionRouter} 의 호출 당 비용을 비교한다.<br>
+ * 쿼리 실행 비용을 제외하기 위해 아무 작업도 하지 않는 {@code QueryExecutor} 와 모든 JDBC 호출을 무시하는 {@code DataSource} 를 사용한다.
+ * <ul>
+ *     <li>{@code standalone}: 트랜잭션 그룹 없이 호출마다 트랜잭션을 생성하고 commit 한다.</li>
+ *     <li>{@code groupSwitch}: 두 executor 의 그룹 트랜잭션을 번갈아 사용한다.</li>
+ *     <li>{@code passThrough}: 트랜잭션이 적용되지 않는 메소드를 호출한다.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransactionRouterBenchmark {
+    private static final String EXECUTOR_A = "BENCH_A";
+    private static final String EXECUTOR_B = "BENCH_B";
+
+    @Param({"interceptor", "router"})
+    public String proxyType;
+
+    private QueryExecutor executorA;
+    private QueryExecutor executorB;
+    private TransactionContext standaloneTx;
+    private TransactionContext groupTxA;
+    private TransactionContext groupTxB;
+
+    @Setup
+    public void setUp() throws Exception {
+        registerExecutors();
+        if ("router".equals(proxyType)) {
+            executorA = TransactionRouter.createProxy(new NoopQueryExecutor(), EXECUTOR_A);
+            executorB = TransactionRouter.createProxy(new NoopQueryExecutor(), EXECUTOR_B);
+        } else {
+            executorA = createInterceptorProxy(new NoopQueryExecutor());
+            executorB = createInterceptorProxy(new NoopQueryExecutor());
+        }
+        standaloneTx = newTransactionContext(EXECUTOR_A, false);
+        groupTxA = newTransactionContext(EXECUTOR_A, true);
+        groupTxB = newTransactionContext(EXECUTOR_B, true);
+    }
+
+    @Benchmark
+    public int standalone() {
+        return executorA.doInsert(standaloneTx, "INSERT", null);
+    }
+
+    @Benchmark
+    public int groupSwitch() {
+        return executorA.doInsert(groupTxA, "INSERT", null) + executorB.doInsert(groupTxB, "INSERT", null);
+    }
+
+    @Benchmark
+    public int passThrough() {
+        return executorA.getBatchSize();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static QueryExecutor createInterceptorProxy(QueryExecutor target) {
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(QueryExecutor.class);
+        enhancer.setCallback(new TransactionProxyInterceptor(target));
+        return (QueryExecutor) enhancer.create();
+    }
+
+    private static TransactionContext newTransactionContext(String name, boolean groupTxEnabled) throws Exception {
+        Constructor<TransactionContext> constructor = TransactionContext.class.getDeclaredConstructor(String.class);
+        constructor.setAccessible(true);
+        TransactionContext txCtx = constructor.newInstance(name);
+        txCtx.setGroupTxEnabled(groupTxEnabled);
+        return txCtx;
+    }
+
+    private static synchronized void registerExecutors() throws Exception {
+        if (DataSourceProvider.access().getTransactionManager(EXECUTOR_A) != null)
+            return;
+        List<ExecutorTemplate> templates = new ArrayList<>();
+        for (String name : new String[]{EXECUTOR_A, EXECUTOR_B}) {
+            ExecutorTemplate template = new ExecutorTemplate();
+            template.setTemplateName(name);
+            template.setDataSource(newNoopDataSource());
+            templates.add(template);
+        }
+        DataSourceProvider.access().setQueryExecutors(templates);
+    }
+
+    private static DataSource newNoopDataSource() {
+        ClassLoader classLoader = TransactionRouterBenchmark.class.getClassLoader();
+        final Connection connection = (Connection) Proxy.newProxyInstance(classLoader, new Class[]{Connection.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return defaultValue(method.getReturnType());
+            }
+        });
+        return (DataSource) Proxy.newProxyInstance(classLoader, new Class[]{DataSource.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("getConnection".equals(name))
+                    return connection;
+                if ("hashCode".equals(name))
+                    return System.identityHashCode(proxy);
+                if ("equals".equals(name))
+                    return proxy == args[0];
+                return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class)
+            return false;
+        if (type == int.class)
+            return 0;
+        return null;
+    }
+
+    /**
+     * 쿼리를 실행하지 않는 {@code QueryExecutor}
+     */
+    public static class NoopQueryExecutor extends QueryExecutor {
+        @Override
+        public int doInsert(TransactionContext txCtx, String sqlId, Map<String, Object> insertRow) {
+            return 1;
+        }
+    }
+}
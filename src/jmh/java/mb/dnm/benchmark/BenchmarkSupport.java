@@ -0,0 +1,107 @@
+package mb.dnm.benchmark;
+
+import mb.dnm.access.file.FileParserTemplate;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.service.AbstractService;
+import mb.dnm.storage.InterfaceInfo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * 벤치마크에서 공통으로 사용하는 합성 데이터와 객체를 생성한다.
+ */
+public final class BenchmarkSupport {
+    /**
+     * 벤치마크용 인터페이스 ID
+     */
+    public static final String INTERFACE_ID = "BENCH_IF";
+
+    private BenchmarkSupport() {}
+
+    /**
+     * 벤치마크용 {@code ServiceContext} 를 생성한다.
+     *
+     * @param serviceId 실행할 Service-Strategy ID
+     * @return the service context
+     */
+    public static ServiceContext newContext(String serviceId) {
+        InterfaceInfo info = new InterfaceInfo();
+        info.setInterfaceId(INTERFACE_ID);
+        info.setInterfaceName("Benchmark interface");
+        info.setServiceId(serviceId);
+        return new ServiceContext(info);
+    }
+
+    /**
+     * {@code COL_0} ~ {@code COL_(columns-1)} 컬럼을 가진 row 들을 생성한다.
+     *
+     * @param count   row 수
+     * @param columns 컬럼 수
+     * @return the list
+     */
+    public static List<Map<String, Object>> rows(int count, int columns) {
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int c = 0; c < columns; c++) {
+                row.put("COL_" + c, (c % 3 == 0) ? (Object) (i * 31 + c) : "value_" + i + "_" + c);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * {@link #rows(int, int)} 와 같은 내용을 {@code template} 형식의 구분자 데이터로 생성한다. 첫 record 는 header 이다.
+     *
+     * @param count    row 수
+     * @param columns  컬럼 수
+     * @param template the template
+     * @return the string
+     */
+    public static String delimitedData(int count, int columns, FileParserTemplate template) {
+        String delimiter = template.getDelimiter();
+        String recordSeparator = template.getRecordSeparator();
+        StringBuilder data = new StringBuilder(count * columns * 16);
+        for (int c = 0; c < columns; c++) {
+            if (c > 0) {
+                data.append(delimiter);
+            }
+            data.append("COL_").append(c);
+        }
+        data.append(recordSeparator);
+        for (Map<String, Object> row : rows(count, columns)) {
+            int c = 0;
+            for (Object value : row.values()) {
+                if (c++ > 0) {
+                    data.append(delimiter);
+                }
+                data.append(value);
+            }
+            data.append(recordSeparator);
+        }
+        return data.toString();
+    }
+
+    /**
+     * 기본 구분자({@code |}, {@code \n}) 와 header 를 사용하는 {@code FileParserTemplate} 을 생성한다.
+     *
+     * @return the file parser template
+     */
+    public static FileParserTemplate delimitedTemplate() {
+        return new FileParserTemplate("\n", "|", "", "", "", "&lf;", "&cr;", true, false);
+    }
+
+    /**
+     * 아무 작업도 하지 않는 Service. Service-Chain 자체의 비용을 측정할 때 사용한다.
+     */
+    public static class NoopService extends AbstractService {
+        @Override
+        public void process(ServiceContext ctx) {
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package mb.dnm.benchmark;
+
+import mb.dnm.access.file.DelimitedRecordReader;
+import mb.dnm.access.file.FileParser;
+import mb.dnm.access.file.FileParserTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link FileParser#readDataToRecord(String, FileParserTemplate)} 가 구분자 데이터를 row 로 변환하는 비용과
+ * {@link DelimitedRecordReader} 가 파일을 memory-mapped 방식으로 읽으며 row 를 하나씩 변환하는 비용을 측정한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileParserBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rowCount;
+
+    @Param({"10"})
+    public int columnCount;
+
+    private FileParserTemplate template;
+    private String data;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        template = BenchmarkSupport.delimitedTemplate();
+        data = BenchmarkSupport.delimitedData(rowCount, columnCount, template);
+        file = Files.createTempFile("file-parser-bench", ".dat");
+        Files.write(file, data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> readDataToRecord() {
+        return FileParser.readDataToRecord(data, template);
+    }
+
+    @Benchmark
+    public int streamRecords() throws IOException {
+        int count = 0;
+        try (DelimitedRecordReader reader = DelimitedRecordReader.open(file, StandardCharsets.UTF_8, template)) {
+            reader.readHeader();
+            while (reader.nextRecord() != null) {
+                ++count;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,64 @@
+package mb.dnm.benchmark;
+
+import mb.dnm.core.Service;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.service.general.IterationGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link IterationGroup} 이 {@code fetchSize} 별로 입력 List 를 순회하는 비용을 측정한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IterationGroupBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int fetchSize;
+
+    @Param({"10000"})
+    public int rowCount;
+
+    private IterationGroup iterationGroup;
+    private List<Map<String, Object>> rows;
+
+    @Setup
+    public void setUp() {
+        rows = BenchmarkSupport.rows(rowCount, 10);
+        List<Service> services = new ArrayList<>();
+        services.add(new BenchmarkSupport.NoopService());
+        services.add(new BenchmarkSupport.NoopService());
+        iterationGroup = new IterationGroup();
+        iterationGroup.setInput("rows");
+        iterationGroup.setIterationInputName("row");
+        iterationGroup.setFetchSize(fetchSize);
+        iterationGroup.setServices(services);
+    }
+
+    @Benchmark
+    public ServiceContext iterate() throws Throwable {
+        ServiceContext ctx = BenchmarkSupport.newContext("BENCH_ITERATION");
+        ctx.addContextParam("rows", rows);
+        iterationGroup.process(ctx);
+        return ctx;
+    }
+}
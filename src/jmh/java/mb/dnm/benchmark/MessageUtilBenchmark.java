@@ -0,0 +1,51 @@
+package mb.dnm.benchmark;
+
+import mb.dnm.util.MessageUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link MessageUtil#mapToJson(Map, boolean)} 의 직렬화 비용을 측정한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageUtilBenchmark {
+
+    @Param({"10", "1000"})
+    public int rowCount;
+
+    @Param({"false", "true"})
+    public boolean prettyFormat;
+
+    private Map<String, Object> message;
+
+    @Setup
+    public void setUp() {
+        message = new HashMap<>();
+        message.put("if_id", BenchmarkSupport.INTERFACE_ID);
+        message.put("rows", BenchmarkSupport.rows(rowCount, 10));
+    }
+
+    @Benchmark
+    public String mapToJson() throws Exception {
+        return MessageUtil.mapToJson(message, prettyFormat);
+    }
+}
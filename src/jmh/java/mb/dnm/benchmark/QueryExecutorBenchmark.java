@@ -0,0 +1,131 @@
+package mb.dnm.benchmark;
+
+import mb.dnm.access.db.DataSourceProvider;
+import mb.dnm.access.db.ExecutorTemplate;
+import mb.dnm.access.db.QueryExecutor;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.core.context.TransactionContext;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * 내장 H2 메모리 DB 를 대상으로 {@link QueryExecutor} 의 Select 와 Batch insert 비용을 측정한다.<br>
+ * 실제 DB 의 네트워크 비용은 포함되지 않으므로 MyBatis, 트랜잭션 proxy, 결과 row 변환 비용의 비교에 사용한다.
+ * {@code compactRows} 는 {@link ExecutorTemplate} 설정이므로 fork 마다 한 번 등록되며, fork 를 사용하지 않고 실행하면 처음 등록된 설정이 유지된다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryExecutorBenchmark {
+    private static final String EXECUTOR_NAME = "BENCH_DB";
+
+    @Param({"1000", "10000"})
+    public int rowCount;
+
+    @Param({"false", "true"})
+    public boolean compactRows;
+
+    private QueryExecutor executor;
+    private TransactionContext txCtx;
+    private Map<String, Object> selectParam;
+    private List<Map<String, Object>> insertRows;
+    private Map<String, Object> commonParam;
+
+    @Setup
+    public void setUp() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+        createTables(dataSource, rowCount);
+
+        if (DataSourceProvider.access().getExecutor(EXECUTOR_NAME) == null) {
+            ExecutorTemplate template = new ExecutorTemplate();
+            template.setTemplateName(EXECUTOR_NAME);
+            template.setDataSource(dataSource);
+            template.setCompactRows(compactRows);
+            template.setMapperLocations(new Resource[]{new ClassPathResource("mb/dnm/benchmark/SQL_BENCH.xml")});
+            DataSourceProvider.access().setQueryExecutors(Collections.singletonList(template));
+        }
+        executor = DataSourceProvider.access().getExecutor(EXECUTOR_NAME);
+
+        ServiceContext ctx = BenchmarkSupport.newContext("BENCH_QUERY");
+        ctx.setGroupTransaction(EXECUTOR_NAME, false);
+        txCtx = ctx.getTransactionContext(EXECUTOR_NAME);
+        commonParam = ctx.getContextInformation();
+
+        selectParam = new HashMap<>();
+        selectParam.put("limit", rowCount);
+        insertRows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("ID", i);
+            row.put("NAME", "name_" + i);
+            row.put("VAL", "value_" + i);
+            row.put("CREATED", new Timestamp(System.currentTimeMillis()));
+            insertRows.add(row);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTarget() {
+        executor.doDelete(txCtx, "BENCH.TRUNCATE", null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> select() {
+        return executor.doSelect(txCtx, "BENCH.SELECT", selectParam);
+    }
+
+    @Benchmark
+    public int batchInsert() {
+        return executor.doBatchInsert(txCtx, "BENCH.INSERT", insertRows, commonParam);
+    }
+
+    private static void createTables(JdbcDataSource dataSource, int rowCount) throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            try (Statement stmt = con.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS BENCH_SOURCE");
+                stmt.execute("DROP TABLE IF EXISTS BENCH_TARGET");
+                stmt.execute("CREATE TABLE BENCH_SOURCE (ID INT PRIMARY KEY, NAME VARCHAR(64), VAL VARCHAR(64), CREATED TIMESTAMP)");
+                stmt.execute("CREATE TABLE BENCH_TARGET (ID INT PRIMARY KEY, NAME VARCHAR(64), VAL VARCHAR(64), CREATED TIMESTAMP)");
+            }
+            try (PreparedStatement pstmt = con.prepareStatement("INSERT INTO BENCH_SOURCE VALUES (?, ?, ?, ?)")) {
+                for (int i = 0; i < rowCount; i++) {
+                    pstmt.setInt(1, i);
+                    pstmt.setString(2, "name_" + i);
+                    pstmt.setString(3, "value_" + i);
+                    pstmt.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+    }
+}
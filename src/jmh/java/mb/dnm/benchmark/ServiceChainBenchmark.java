@@ -0,0 +1,56 @@
+package mb.dnm.benchmark;
+
+import mb.dnm.core.Service;
+import mb.dnm.core.ServiceProcessor;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.storage.StorageManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link ServiceProcessor#unfoldServices(ServiceContext)} 가 합성 Service-Chain 을 실행하는 비용을 측정한다.<br>
+ * 각 Service 는 아무 작업도 하지 않으므로 측정값은 {@code ServiceContext} 생성, Service-Chaining, callback 처리 비용이다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceChainBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int chainLength;
+
+    private String serviceId;
+
+    @Setup
+    public void setUp() {
+        serviceId = "BENCH_CHAIN_" + chainLength;
+        List<Service> services = new ArrayList<>(chainLength);
+        for (int i = 0; i < chainLength; i++) {
+            services.add(new BenchmarkSupport.NoopService());
+        }
+        StorageManager.access().setServiceRegistry(Collections.singletonMap(serviceId, services));
+    }
+
+    @Benchmark
+    public ServiceContext unfoldServices() {
+        return ServiceProcessor.unfoldServices(BenchmarkSupport.newContext(serviceId));
+    }
+}
@@ -0,0 +1,43 @@
+package mb.dnm.benchmark;
+
+import mb.dnm.core.context.ServiceContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link ServiceContext#getContextInformation()} 의 호출 비용을 측정한다.<br>
+ * DB 쿼리 실행 시 마다 공통 파라미터로 호출되는 메소드이다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ServiceContextBenchmark {
+
+    private ServiceContext ctx;
+
+    @Setup
+    public void setUp() {
+        ctx = BenchmarkSupport.newContext("BENCH_CONTEXT");
+        ctx.stampEndTime();
+    }
+
+    @Benchmark
+    public Map<String, Object> getContextInformation() {
+        return ctx.getContextInformation();
+    }
+}
@@ -0,0 +1,87 @@
+package mb.dnm.benchmark;
+
+import mb.dnm.access.file.FileTemplate;
+import mb.dnm.code.DataType;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.service.file.WriteFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link WriteFile} 이 {@code List<Map<String, Object>>} 를 구분자 형식의 파일로 쓰는 비용을 측정한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WriteFileBenchmark {
+    private static final String SOURCE_NAME = "BENCH_LOCAL";
+
+    @Param({"1000", "100000"})
+    public int rowCount;
+
+    @Param({"false", "true"})
+    public boolean addMetadata;
+
+    private Path writeDir;
+    private WriteFile writeFile;
+    private List<Map<String, Object>> rows;
+
+    @Setup
+    public void setUp() throws Exception {
+        writeDir = Files.createTempDirectory("bench_write_file");
+        rows = BenchmarkSupport.rows(rowCount, 10);
+        writeFile = new WriteFile();
+        writeFile.setSourceAlias("LOCAL");
+        writeFile.setInput("rows");
+        writeFile.setAddMetadata(addMetadata);
+    }
+
+    @TearDown
+    public void tearDown() {
+        File[] files = writeDir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        writeDir.toFile().delete();
+    }
+
+    @Benchmark
+    public ServiceContext writeFormattedData() throws Throwable {
+        ServiceContext ctx = BenchmarkSupport.newContext("BENCH_WRITE_FILE");
+        FileTemplate template = new FileTemplate();
+        template.setTemplateName(SOURCE_NAME);
+        template.setCharset("UTF-8");
+        template.setFileName("BENCH_FILE.txt");
+        template.setDataType(DataType.STRING);
+        template.setLocalWriteDir(writeDir.toString());
+        ctx.getInfo().setSourceAliasMap(Collections.singletonMap("LOCAL", SOURCE_NAME));
+        ctx.getInfo().setFileTemplateMap(Collections.singletonMap(SOURCE_NAME, template));
+        ctx.addContextParam("rows", rows);
+        writeFile.process(ctx);
+        return ctx;
+    }
+}
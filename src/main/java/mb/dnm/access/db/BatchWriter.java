@@ -0,0 +1,93 @@
+package mb.dnm.access.db;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.mybatis.spring.SqlSessionTemplate;
+
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * {@link QueryExecutor} 의 Batch insert/update/delete 를 수행하는 객체이다.<br>
+ * row 파라미터는 {@link OverlayParameterMap} 으로 공통 파라미터와 겹쳐서 전달되므로 row 마다 파라미터가 복사되지 않으며,
+ * {@code batchSize} 만큼 Batch 에 추가될 때 마다 flush 하여 JDBC 드라이버에 쌓이는 Batch 의 크기를 제한한다.
+ *
+ * @see QueryExecutor#setBatchSize(int)
+ */
+class BatchWriter {
+
+    /**
+     * Batch 로 실행할 쿼리의 종류
+     */
+    enum Operation {
+        INSERT, UPDATE, DELETE
+    }
+
+    private final SqlSessionTemplate session;
+    private final int batchSize;
+
+    /**
+     * Instantiates a new Batch writer.
+     *
+     * @param session   BATCH ExecutorType 의 SqlSessionTemplate
+     * @param batchSize flush 단위. 0 이하인 경우 모든 row 를 Batch 에 추가한 뒤 한 번에 flush 한다.
+     */
+    BatchWriter(SqlSessionTemplate session, int batchSize) {
+        this.session = session;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * row 들을 Batch 로 실행한다.
+     *
+     * @param operation   the operation
+     * @param sqlId       the sql id
+     * @param rows        the rows
+     * @param commonParam 모든 row 에 공통으로 사용되는 파라미터. null 인 경우 row 만 사용한다.
+     * @return 실행에 영향을 받은 row 수
+     */
+    int write(Operation operation, String sqlId, Iterator<? extends Map<String, Object>> rows, Map<String, Object> commonParam) {
+        int affected = 0;
+        int pending = 0;
+        while (rows.hasNext()) {
+            Map<String, Object> param = new OverlayParameterMap(rows.next(), commonParam);
+            switch (operation) {
+                case INSERT: session.insert(sqlId, param); break;
+                case UPDATE: session.update(sqlId, param); break;
+                case DELETE: session.delete(sqlId, param); break;
+            }
+            ++pending;
+            if (pending == batchSize) {
+                affected += countAffectedRows(session.flushStatements());
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            affected += countAffectedRows(session.flushStatements());
+        }
+        return affected;
+    }
+
+    /**
+     * flush 된 모든 {@link BatchResult} 의 영향을 받은 row 수를 합산한다.<br>
+     * 하나의 flush 에 여러 Statement 가 포함될 수 있으므로 모든 {@code BatchResult} 를 합산해야 한다.
+     *
+     * @param batchResults the batch results
+     * @return the int
+     */
+    static int countAffectedRows(List<BatchResult> batchResults) {
+        int count = 0;
+        for (BatchResult batchResult : batchResults) {
+            for (int i : batchResult.getUpdateCounts()) {
+                if (i == Statement.SUCCESS_NO_INFO) {//쿼리가 정상 수행됐으나 결과 정보를 알 수 없는 상태
+                    ++count;
+                } else if (i > 0) {
+                    count += i;
+                }
+            }
+        }
+        return count;
+    }
+}
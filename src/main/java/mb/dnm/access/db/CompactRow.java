@@ -0,0 +1,262 @@
+package mb.dnm.access.db;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+/**
+ * DB 조회 결과의 한 row 를 적은 메모리로 저장하는 {@code Map<컬럼명, 데이터>} 구현체이다.<br>
+ * 컬럼명과 컬럼 인덱스는 같은 조회 결과의 row 들이 {@link RowSchema} 로 공유하고 각 row 는 데이터만 배열로 저장하므로
+ * row 마다 {@code HashMap} 의 Entry 와 컬럼명 key 가 생성되지 않는다.<br>
+ * {@code Map} 의 모든 연산을 지원하므로 기존의 {@code HashMap} row 와 동일하게 사용할 수 있으며, 순회 순서는 조회 결과의 컬럼 순서와 같다.<br>
+ * 값이 null 인 컬럼과 존재하지 않는 컬럼은 구분되며, MyBatis 의 {@code callSettersOnNulls} 설정이 false 인 경우와 같이 값이 null 인 컬럼이 생략된 row 도 그대로 표현된다.
+ *
+ * @see RowSchema
+ * @see QueryExecutor#setCompactRows(boolean)
+ */
+public class CompactRow extends AbstractMap<String, Object> implements Serializable {
+    private static final long serialVersionUID = 8170421837019264455L;
+    private final RowSchema schema;
+    private Object[] values;
+    private int size = 0;
+    private transient int modCount = 0;
+
+    /**
+     * 존재하지 않는 컬럼을 나타내는 값. 역직렬화 후에도 동일성이 유지되도록 enum 으로 정의한다.
+     */
+    private enum Absent {
+        INSTANCE
+    }
+
+    /**
+     * Instantiates a new Compact row.
+     *
+     * @param schema the schema
+     */
+    public CompactRow(RowSchema schema) {
+        this.schema = schema;
+        this.values = new Object[schema.size()];
+        Arrays.fill(values, Absent.INSTANCE);
+    }
+
+    /**
+     * {@code Map} 의 내용을 복사하여 {@code CompactRow} 를 생성한다. {@code row} 에 존재하지만 {@code schema} 에 없는 컬럼은 {@code schema} 에 추가된다.
+     *
+     * @param schema the schema
+     * @param row    the row
+     * @return the compact row
+     */
+    public static CompactRow copyOf(RowSchema schema, Map<String, Object> row) {
+        CompactRow compactRow = new CompactRow(schema);
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            compactRow.put(entry.getKey(), entry.getValue());
+        }
+        return compactRow;
+    }
+
+    /**
+     * 이 row 가 사용하는 {@link RowSchema} 를 가져온다.
+     *
+     * @return the schema
+     */
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * 컬럼 인덱스로 값을 지정한다. JDBC {@code ResultSet} 으로부터 row 를 생성할 때 컬럼명 조회 없이 값을 지정하기 위해 사용한다.
+     *
+     * @param idx   the column index of the schema
+     * @param value the value
+     */
+    void setValue(int idx, Object value) {
+        ensureCapacity(idx);
+        if (values[idx] == Absent.INSTANCE) {
+            ++size;
+        }
+        values[idx] = value;
+        ++modCount;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int idx = schema.indexOf(key);
+        return idx != -1 && idx < values.length && values[idx] != Absent.INSTANCE;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int idx = schema.indexOf(key);
+        if (idx == -1 || idx >= values.length)
+            return null;
+        Object value = values[idx];
+        return value == Absent.INSTANCE ? null : value;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int idx = schema.indexOrAdd(key);
+        ensureCapacity(idx);
+        Object old = values[idx];
+        values[idx] = value;
+        ++modCount;
+        if (old == Absent.INSTANCE) {
+            ++size;
+            return null;
+        }
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int idx = schema.indexOf(key);
+        if (idx == -1 || idx >= values.length)
+            return null;
+        return removeAt(idx);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, Absent.INSTANCE);
+        size = 0;
+        ++modCount;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new EntrySet();
+    }
+
+    private Object removeAt(int idx) {
+        Object old = values[idx];
+        if (old == Absent.INSTANCE)
+            return null;
+        values[idx] = Absent.INSTANCE;
+        --size;
+        ++modCount;
+        return old;
+    }
+
+    private void ensureCapacity(int idx) {
+        if (idx < values.length)
+            return;
+        int oldLength = values.length;
+        values = Arrays.copyOf(values, Math.max(idx + 1, schema.size()));
+        Arrays.fill(values, oldLength, values.length, Absent.INSTANCE);
+    }
+
+    private class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<String, Object>> {
+        private int next = -1;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            do {
+                ++next;
+            } while (next < values.length && values[next] == Absent.INSTANCE);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            if (next >= values.length)
+                throw new NoSuchElementException();
+            last = next;
+            advance();
+            return new RowEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1)
+                throw new IllegalStateException();
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            removeAt(last);
+            expectedModCount = modCount;
+            last = -1;
+        }
+    }
+
+    private class RowEntry implements Entry<String, Object> {
+        private final int idx;
+
+        RowEntry(int idx) {
+            this.idx = idx;
+        }
+
+        @Override
+        public String getKey() {
+            return schema.getLabel(idx);
+        }
+
+        @Override
+        public Object getValue() {
+            Object value = values[idx];
+            return value == Absent.INSTANCE ? null : value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = getValue();
+            values[idx] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            Object key = getKey();
+            Object value = getValue();
+            return key.equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
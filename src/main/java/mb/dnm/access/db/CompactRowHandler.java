@@ -0,0 +1,72 @@
+package mb.dnm.access.db;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.mybatis.spring.SqlSessionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Select 쿼리의 결과 row 를 {@link CompactRow} 로 모으는 {@code ResultHandler} 이다.<br>
+ * 하나의 {@code CompactRowHandler} 로 수집된 row 들은 하나의 {@link RowSchema} 를 공유한다.
+ * {@link #select(SqlSessionTemplate, String, Object)} 로 조회하는 동안 {@link CompactRowObjectFactory} 가 MyBatis 의 row 를 {@code CompactRow} 로 직접 생성하므로
+ * row 의 순회 순서는 조회 결과의 컬럼 순서와 같다. {@code resultType} 이 {@code map} 이 아닌 경우 등 MyBatis 가 다른 {@code Map} 을 생성한 경우에는 {@code CompactRow} 로 복사한다.
+ *
+ * @see QueryExecutor#setCompactRows(boolean)
+ */
+class CompactRowHandler implements ResultHandler<Map<String, Object>> {
+    private final RowSchema schema = new RowSchema();
+    private final List<Map<String, Object>> rows = new ArrayList<>();
+    private final CompactRowObjectFactory rowFactory;
+
+    /**
+     * Instantiates a new Compact row handler.
+     *
+     * @param rowFactory the row factory. null 인 경우 MyBatis 가 생성한 row 를 복사한다.
+     */
+    CompactRowHandler(CompactRowObjectFactory rowFactory) {
+        this.rowFactory = rowFactory;
+    }
+
+    /**
+     * Select 쿼리를 실행하여 결과 row 를 이 handler 에 수집한다.
+     *
+     * @param executor    the executor
+     * @param sqlId       the sql id
+     * @param selectParam the select param
+     */
+    void select(SqlSessionTemplate executor, String sqlId, Object selectParam) {
+        if (rowFactory == null) {
+            executor.select(sqlId, selectParam, this);
+            return;
+        }
+        RowSchema previous = rowFactory.bind(schema);
+        try {
+            executor.select(sqlId, selectParam, this);
+        } finally {
+            rowFactory.bind(previous);
+        }
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends Map<String, Object>> resultContext) {
+        Map<String, Object> row = resultContext.getResultObject();
+        if (row == null || (row instanceof CompactRow && ((CompactRow) row).getSchema() == schema)) {
+            rows.add(row);
+        } else {
+            rows.add(CompactRow.copyOf(schema, row));
+        }
+    }
+
+    /**
+     * 수집된 row 를 가져온다.
+     *
+     * @return the rows
+     */
+    List<Map<String, Object>> getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,88 @@
+package mb.dnm.access.db;
+
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+
+/**
+ * MyBatis 가 {@code Map} 타입의 row 를 생성할 때 {@code HashMap} 대신 {@link CompactRow} 를 생성하는 {@code ObjectFactory} 이다.<br>
+ * {@link #bind(RowSchema)} 로 현재 Thread 에 {@link RowSchema} 가 지정된 동안에만 {@code CompactRow} 를 생성하며, 그 외의 객체 생성은 기존 {@code ObjectFactory} 에 위임한다.<br>
+ * MyBatis 는 {@code ResultSetMetaData} 의 컬럼 순서대로 row 에 값을 넣으므로 첫 row 가 조회 결과의 컬럼 순서로 {@code RowSchema} 를 구성하고,
+ * 이후의 row 들은 row 마다 {@code HashMap} 을 생성하지 않고 컬럼 인덱스에 값만 저장한다.
+ *
+ * @see CompactRowHandler
+ * @see QueryExecutor#setCompactRows(boolean)
+ */
+final class CompactRowObjectFactory implements ObjectFactory {
+    private final ObjectFactory delegate;
+    private final ThreadLocal<RowSchema> boundSchema = new ThreadLocal<>();
+
+    private CompactRowObjectFactory(ObjectFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * {@code Configuration} 의 {@code ObjectFactory} 를 {@code CompactRowObjectFactory} 로 감싼다. 이미 감싸진 경우 기존 객체를 반환한다.
+     *
+     * @param configuration the configuration
+     * @return the compact row object factory
+     */
+    static CompactRowObjectFactory install(Configuration configuration) {
+        synchronized (configuration) {
+            ObjectFactory current = configuration.getObjectFactory();
+            if (current instanceof CompactRowObjectFactory) {
+                return (CompactRowObjectFactory) current;
+            }
+            CompactRowObjectFactory factory = new CompactRowObjectFactory(current);
+            configuration.setObjectFactory(factory);
+            return factory;
+        }
+    }
+
+    /**
+     * 현재 Thread 에서 생성되는 row 가 사용할 {@link RowSchema} 를 지정한다.
+     *
+     * @param schema the schema. null 인 경우 기존 {@code ObjectFactory} 로 row 를 생성한다.
+     * @return 이전에 지정되어 있던 schema. 조회가 끝나면 이 값으로 다시 지정해야 한다.
+     */
+    RowSchema bind(RowSchema schema) {
+        RowSchema previous = boundSchema.get();
+        if (schema == null) {
+            boundSchema.remove();
+        } else {
+            boundSchema.set(schema);
+        }
+        return previous;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T create(Class<T> type) {
+        if (type == Map.class) {
+            RowSchema schema = boundSchema.get();
+            if (schema != null) {
+                return (T) new CompactRow(schema);
+            }
+        }
+        return delegate.create(type);
+    }
+
+    @Override
+    public <T> T create(Class<T> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+        return delegate.create(type, constructorArgTypes, constructorArgs);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+        delegate.setProperties(properties);
+    }
+
+    @Override
+    public <T> boolean isCollection(Class<T> type) {
+        return delegate.isCollection(type);
+    }
+}
@@ -2,7 +2,6 @@ package mb.dnm.access.db;
 
 import lombok.extern.slf4j.Slf4j;
 import org.mybatis.spring.SqlSessionFactoryBean;
-import org.springframework.cglib.proxy.Enhancer;
 import org.springframework.core.io.Resource;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 
@@ -110,15 +109,14 @@ public class DataSourceProvider implements Serializable {
                 }
 
                 QueryExecutor executor = new QueryExecutor();
+                executor.setCompactRows(executorFactory.isCompactRows());
+                executor.setBatchSize(executorFactory.getBatchSize());
 
                 DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
                 txManagers.put(name, txManager);
                 executor.initialize(sqlFactoryBean.getObject());
 
-                Enhancer enhancer = new Enhancer();
-                enhancer.setSuperclass(QueryExecutor.class);
-                enhancer.setCallback(new TransactionProxyInterceptor(executor));
-                QueryExecutor proxy = (QueryExecutor) enhancer.create();
+                QueryExecutor proxy = TransactionRouter.createProxy(executor, name);
                 executorMap.put(name, proxy);
             }
             initialized = true;
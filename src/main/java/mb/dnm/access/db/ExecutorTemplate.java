@@ -49,6 +49,16 @@ public class ExecutorTemplate implements Serializable {
     private Resource[] mapperLocations;
 
     private int defaultFetchSize = 65535;
+    /**
+     * 기본값: false<br>
+     * {@link QueryExecutor} 의 Select 쿼리 결과 row 를 {@link CompactRow} 로 반환할 지에 대한 설정
+     * */
+    private boolean compactRows = false;
+    /**
+     * 기본값: 1000<br>
+     * {@link QueryExecutor} 의 Batch insert/update/delete 시 JDBC Batch 를 flush 하는 row 단위
+     * */
+    private int batchSize = 1000;
 
     /**
      * {@code ExecutorTemplate}의 이름을 반환한다.
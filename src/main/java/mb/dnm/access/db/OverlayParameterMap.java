@@ -0,0 +1,82 @@
+package mb.dnm.access.db;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Batch 작업 시 row 파라미터와 공통 파라미터를 복사하지 않고 겹쳐서 보여주는 쿼리 파라미터 {@code Map} 이다.<br>
+ * 값은 이 {@code Map} 에 직접 put 된 값, row 파라미터, 공통 파라미터 순서로 조회된다.
+ * MyBatis 가 쿼리 실행 중 파라미터에 값을 지정하는 경우(예: selectKey, useGeneratedKeys) 원본 row 와 공통 파라미터는 변경되지 않는다.
+ *
+ * @see BatchWriter
+ */
+class OverlayParameterMap extends AbstractMap<String, Object> {
+    private final Map<String, Object> row;
+    private final Map<String, Object> commonParam;
+    private Map<String, Object> own;
+
+    /**
+     * Instantiates a new Overlay parameter map.
+     *
+     * @param row         the row parameter. null 인 경우 빈 row 로 간주한다.
+     * @param commonParam the common parameter. null 인 경우 공통 파라미터가 없는 것으로 간주한다.
+     */
+    OverlayParameterMap(Map<String, Object> row, Map<String, Object> commonParam) {
+        this.row = row;
+        this.commonParam = commonParam;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (own != null && own.containsKey(key))
+            return own.get(key);
+        if (row != null) {
+            Object value = row.get(key);
+            if (value != null || row.containsKey(key))
+                return value;
+        }
+        return commonParam == null ? null : commonParam.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (own != null && own.containsKey(key))
+                || (row != null && row.containsKey(key))
+                || (commonParam != null && commonParam.containsKey(key));
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object old = get(key);
+        if (own == null) {
+            own = new HashMap<>();
+        }
+        own.put(key, value);
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        throw new UnsupportedOperationException("The batch parameter does not support remove");
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        //entrySet 은 로그 출력 등 드물게 사용되므로 호출 시점에 병합된 Map 을 생성한다.
+        Map<String, Object> merged = new HashMap<>();
+        if (commonParam != null) {
+            merged.putAll(commonParam);
+        }
+        if (row != null) {
+            merged.putAll(row);
+        }
+        if (own != null) {
+            merged.putAll(own);
+        }
+        return new HashSet<>(merged.entrySet());
+    }
+}
@@ -0,0 +1,147 @@
+package mb.dnm.access.db;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * {@link PartitionedWriter} 의 파티션 단위 쓰기 결과이다.<br>
+ * 파티션은 입력 순서대로 commit 되므로 {@code committedRows} 는 항상 입력 List 의 앞부분에 해당하는 row 수이며, 실패한 경우 그 다음 row 부터 다시 처리하면 된다.
+ *
+ * @see PartitionedWriter
+ */
+public class PartitionReport {
+
+    /**
+     * 파티션의 처리 상태
+     */
+    public enum Status {
+        /**
+         * 쓰기와 commit 이 완료되었다.
+         */
+        COMMITTED,
+        /**
+         * 쓰기 중 에러가 발생하여 rollback 되었다.
+         */
+        FAILED,
+        /**
+         * 앞선 파티션이 실패하여 rollback 되었거나 실행되지 않았다.
+         */
+        ROLLED_BACK
+    }
+
+    private final int partitionCount;
+    private final int[] rowCounts;
+    private final int[] affectedRows;
+    private final Status[] statuses;
+    private final Throwable[] errors;
+
+    PartitionReport(int partitionCount) {
+        this.partitionCount = partitionCount;
+        this.rowCounts = new int[partitionCount];
+        this.affectedRows = new int[partitionCount];
+        this.statuses = new Status[partitionCount];
+        this.errors = new Throwable[partitionCount];
+    }
+
+    void record(int partition, int rowCount, int affected, Status status, Throwable error) {
+        rowCounts[partition] = rowCount;
+        affectedRows[partition] = affected;
+        statuses[partition] = status;
+        errors[partition] = error;
+    }
+
+    /**
+     * 파티션의 수를 가져온다.
+     *
+     * @return the partition count
+     */
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * 모든 파티션이 commit 되었는지 확인한다.
+     *
+     * @return the boolean
+     */
+    public boolean isSuccess() {
+        for (Status status : statuses) {
+            if (status != Status.COMMITTED)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * commit 된 파티션의 쿼리 실행에 영향을 받은 row 수의 합을 가져온다.
+     *
+     * @return the affected rows
+     */
+    public int getAffectedRows() {
+        int sum = 0;
+        for (int i = 0; i < partitionCount; i++) {
+            if (statuses[i] == Status.COMMITTED) {
+                sum += affectedRows[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * commit 된 파티션의 입력 row 수의 합을 가져온다.
+     *
+     * @return the committed rows
+     */
+    public int getCommittedRows() {
+        int sum = 0;
+        for (int i = 0; i < partitionCount; i++) {
+            if (statuses[i] == Status.COMMITTED) {
+                sum += rowCounts[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 가장 앞선 파티션에서 발생한 에러를 가져온다.
+     *
+     * @return the first error, 에러가 없는 경우 null
+     */
+    public Throwable getFirstError() {
+        for (Throwable error : errors) {
+            if (error != null)
+                return error;
+        }
+        return null;
+    }
+
+    /**
+     * 파티션별 처리 결과를 {@code Map} 으로 변환한다.
+     *
+     * @return the map
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("partition_count", partitionCount);
+        map.put("success", isSuccess());
+        map.put("committed_rows", getCommittedRows());
+        map.put("affected_rows", getAffectedRows());
+        List<Map<String, Object>> partitions = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            Map<String, Object> partition = new LinkedHashMap<>();
+            partition.put("partition", i);
+            partition.put("rows", rowCounts[i]);
+            partition.put("affected_rows", affectedRows[i]);
+            partition.put("status", String.valueOf(statuses[i]));
+            if (errors[i] != null) {
+                partition.put("error", String.valueOf(errors[i].getMessage()));
+            }
+            partitions.add(partition);
+        }
+        map.put("partitions", partitions);
+        return map;
+    }
+}
@@ -0,0 +1,206 @@
+package mb.dnm.access.db;
+
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.core.context.TransactionContext;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Batch insert/update 의 입력 List 를 {@code chunkSize} 단위의 파티션으로 나누어 여러 커넥션에서 동시에 실행하는 객체이다.<br>
+ * 각 파티션은 {@link QueryExecutor} 의 DataSource 에서 가져온 별도의 커넥션과 트랜잭션으로 실행되며, 최대 {@code parallelism} 개의 파티션이 동시에 실행된다.<br><br>
+ *
+ * 파티션의 쓰기는 동시에 수행되지만 commit 은 입력 순서대로 수행된다. 어떤 파티션이 실패하면 그 뒤의 파티션들은 모두 rollback 되므로
+ * commit 된 데이터는 항상 입력 List 의 앞부분이며, {@link PartitionReport#getCommittedRows()} 다음 row 부터 다시 처리할 수 있다.<br>
+ * 트랜잭션 그룹이 열려있는 경우에는 하나의 트랜잭션을 유지해야 하므로 사용할 수 없다.
+ *
+ * @see PartitionReport
+ * @see mb.dnm.service.db.Insert
+ * @see mb.dnm.service.db.Update
+ */
+@Slf4j
+public class PartitionedWriter {
+    /**
+     * {@link PartitionReport} 가 {@code ServiceContext} 에 저장될 때 사용되는 파라미터명
+     */
+    public static final String REPORT_PARAM = "$partition_report";
+    private static final PartitionThreadFactory THREAD_FACTORY = new PartitionThreadFactory();
+
+    private final QueryExecutor executor;
+    private final TransactionContext txCtx;
+    private final int parallelism;
+    private final int chunkSize;
+
+    /**
+     * Instantiates a new Partitioned writer.
+     *
+     * @param executor    the executor
+     * @param txCtx       쿼리를 실행하는 ServiceContext 의 TransactionContext. 트랜잭션 설정만 사용된다.
+     * @param parallelism 동시에 실행할 파티션의 수
+     * @param chunkSize   파티션 당 row 수
+     */
+    public PartitionedWriter(QueryExecutor executor, TransactionContext txCtx, int parallelism, int chunkSize) {
+        if (txCtx.isGroupTxEnabled())
+            throw new IllegalStateException("The partitioned write can not be used with the group transaction of the executor '" + txCtx.getName() + "'");
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be greater than 0");
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("chunkSize must be greater than 0");
+        this.executor = executor;
+        this.txCtx = txCtx;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 파티션 단위로 Batch insert 를 실행한다.
+     *
+     * @param sqlId       the sql id
+     * @param rows        the rows
+     * @param commonParam the common param
+     * @return the partition report
+     * @throws InterruptedException the interrupted exception
+     */
+    public PartitionReport insert(String sqlId, List<Map<String, Object>> rows, Map<String, Object> commonParam) throws InterruptedException {
+        return write(BatchWriter.Operation.INSERT, sqlId, rows, commonParam);
+    }
+
+    /**
+     * 파티션 단위로 Batch update 를 실행한다.
+     *
+     * @param sqlId       the sql id
+     * @param rows        the rows
+     * @param commonParam the common param
+     * @return the partition report
+     * @throws InterruptedException the interrupted exception
+     */
+    public PartitionReport update(String sqlId, List<Map<String, Object>> rows, Map<String, Object> commonParam) throws InterruptedException {
+        return write(BatchWriter.Operation.UPDATE, sqlId, rows, commonParam);
+    }
+
+    private PartitionReport write(final BatchWriter.Operation operation, final String sqlId, final List<Map<String, Object>> rows
+            , final Map<String, Object> commonParam) throws InterruptedException {
+        final int rowCount = rows.size();
+        final int partitionCount = Math.max(1, (rowCount + chunkSize - 1) / chunkSize);
+        final PartitionReport report = new PartitionReport(partitionCount);
+        final CountDownLatch[] completed = new CountDownLatch[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            completed[i] = new CountDownLatch(1);
+        }
+        final AtomicInteger nextPartition = new AtomicInteger();
+        final AtomicBoolean broken = new AtomicBoolean(false);
+
+        int workerCount = Math.min(parallelism, partitionCount);
+        log.debug("Writing {} rows of the query '{}' in {} partitions with {} workers", rowCount, sqlId, partitionCount, workerCount);
+        //Thread 수가 parallelism 을 넘지 않도록 write 마다 pool 을 만들고 완료되면 종료한다.
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount, THREAD_FACTORY);
+        List<Future<?>> futures = new ArrayList<>(workerCount);
+        for (int w = 0; w < workerCount; w++) {
+            futures.add(workers.submit(new Runnable() {
+                @Override
+                public void run() {
+                    int partition;
+                    while ((partition = nextPartition.getAndIncrement()) < partitionCount) {
+                        int from = partition * chunkSize;
+                        int to = Math.min(from + chunkSize, rowCount);
+                        writePartition(operation, sqlId, rows.subList(from, to), commonParam, partition, report, completed, broken);
+                    }
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ie) {
+            broken.set(true);
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            throw ie;
+        } catch (ExecutionException ee) {
+            //writePartition 에서 모든 예외를 처리하므로 발생하지 않는다.
+            throw new IllegalStateException(ee.getCause());
+        } finally {
+            workers.shutdown();
+        }
+        return report;
+    }
+
+    private void writePartition(BatchWriter.Operation operation, String sqlId, List<Map<String, Object>> chunk, Map<String, Object> commonParam
+            , int partition, PartitionReport report, CountDownLatch[] completed, AtomicBoolean broken) {
+        String executorName = txCtx.getName();
+        DataSourceTransactionManager txManager = DataSourceProvider.access().getTransactionManager(executorName);
+        //파티션마다 독립된 트랜잭션을 그룹 트랜잭션으로 열어두고, 앞선 파티션이 commit 된 뒤에 commit 한다.
+        TransactionContext partitionTx = txCtx.newIndependentContext();
+        partitionTx.setGroupTxEnabled(true);
+        int affected = 0;
+        try {
+            if (!broken.get()) {
+                if (operation == BatchWriter.Operation.INSERT) {
+                    affected = executor.doBatchInsert(partitionTx, sqlId, chunk, commonParam);
+                } else {
+                    affected = executor.doBatchUpdate(partitionTx, sqlId, chunk, commonParam);
+                }
+            }
+            if (partition > 0) {
+                completed[partition - 1].await();
+            }
+            TransactionStatus txStatus = partitionTx.getTransactionStatus();
+            if (broken.get()) {
+                rollback(txManager, txStatus);
+                report.record(partition, chunk.size(), 0, PartitionReport.Status.ROLLED_BACK, null);
+            } else {
+                if (txStatus != null && !txStatus.isCompleted()) {
+                    txManager.commit(txStatus);
+                }
+                report.record(partition, chunk.size(), affected, PartitionReport.Status.COMMITTED, null);
+            }
+        } catch (Throwable t) {
+            broken.set(true);
+            rollback(txManager, partitionTx.getTransactionStatus());
+            report.record(partition, chunk.size(), 0, PartitionReport.Status.FAILED, t);
+            log.warn("[TX]Partition {} of the query '{}' failed. Following partitions will be rolled back. Cause: {}", partition, sqlId, t.getMessage());
+        } finally {
+            completed[partition].countDown();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.clear();
+            }
+        }
+    }
+
+    private void rollback(DataSourceTransactionManager txManager, TransactionStatus txStatus) {
+        if (txStatus == null || txStatus.isCompleted())
+            return;
+        try {
+            txManager.rollback(txStatus);
+        } catch (Throwable t) {
+            log.warn("[TX]Rollback of a partition failed. Cause: {}", t.getMessage());
+        }
+    }
+
+    private static class PartitionThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "partition-writer-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -5,13 +5,23 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import mb.dnm.core.context.TransactionContext;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.jdbc.UncategorizedSQLException;
 
 import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -25,13 +35,31 @@ import java.util.Map;
 @Slf4j
 public class QueryExecutor implements Serializable {
     private static final long serialVersionUID = -447383890877348209L;
+    /**
+     * {@link Iterator} 로 전달된 row 를 Batch 로 처리할 때 batch size 가 지정되지 않은 경우 사용하는 flush 단위이다.
+     */
+    public static final int DEFAULT_STREAM_FLUSH_SIZE = 1000;
     @Getter
     private SqlSessionFactory sqlSessionFactory;
     private Map<ExecutorType, SqlSessionTemplate> sqlSessionTemplateMap;
     @Setter @Getter
     private int defaultFetchSize = 0;
+    /**
+     * 기본값: 1000<br>
+     * Batch insert/update/delete 시 JDBC Batch 를 flush 하는 row 단위이다. 0 이하인 경우 모든 row 를 Batch 에 추가한 뒤 한 번에 flush 한다.
+     */
+    @Setter @Getter
+    private int batchSize = 1000;
     @Setter @Getter
     private ExecutorType defaultExecutorType = ExecutorType.BATCH;
+    /**
+     * 기본값: false<br>
+     * Select 쿼리의 결과 row 를 {@code HashMap} 대신 {@link CompactRow} 로 반환할 지에 대한 설정이다.
+     * 같은 조회 결과의 row 들이 컬럼명을 공유하므로 컬럼이 많거나 row 가 많은 조회 결과의 메모리 사용량이 줄어든다.
+     */
+    @Setter @Getter
+    private boolean compactRows = false;
+    private transient CompactRowObjectFactory rowFactory;
 
     /**
      * Instantiates a new Query executor.
@@ -49,6 +77,7 @@ public class QueryExecutor implements Serializable {
             throw new NullPointerException("sqlSessionFactory is null");
         }
         this.sqlSessionFactory = sqlSessionFactory;
+        this.rowFactory = CompactRowObjectFactory.install(sqlSessionFactory.getConfiguration());
         sqlSessionTemplateMap = new HashMap<>();
         log.debug("QueryExecutor initialized with SqlSessionFactory: {}", sqlSessionFactory);
     }
@@ -87,7 +116,7 @@ public class QueryExecutor implements Serializable {
      * @return 실행된 Select 쿼리의 결과 List. 결과가 없는 경우 빈 List가 반환된다.
      */
     public List<Map<String, Object>> doSelect(TransactionContext txCtx, String sqlId) {
-        return getDefaultExecutor().selectList(sqlId);
+        return selectRows(getDefaultExecutor(), sqlId, null);
     }
 
     /**
@@ -100,7 +129,7 @@ public class QueryExecutor implements Serializable {
      * @return 실행된 Select 쿼리의 결과 {@code List<Map<String, Object>>}. 결과가 없는 경우 빈 {@code List<Map<String, Object>>}가 반환된다.
      */
     public List<Map<String, Object>> doSelect(TransactionContext txCtx, String sqlId, Map<String, Object> selectParam) {
-        return getDefaultExecutor().selectList(sqlId, selectParam);
+        return selectRows(getDefaultExecutor(), sqlId, selectParam);
     }
 
     /**
@@ -131,10 +160,16 @@ public class QueryExecutor implements Serializable {
     public List<Map<String, Object>> doSelects(TransactionContext txCtx, String sqlId, List<Map<String, Object>> selectParam, Map<String, Object> commonParam) {
         List<Map<String, Object>> result = new ArrayList<>();
         SqlSessionTemplate executor = getDefaultExecutor();
+        //compactRows 인 경우 반복 수행되는 쿼리의 결과 row 들이 하나의 RowSchema 를 공유하도록 같은 handler 를 사용한다.
+        CompactRowHandler compactRowHandler = compactRows ? new CompactRowHandler(rowFactory) : null;
 
         if (selectParam == null || selectParam.isEmpty()) {
-            List<Map<String, Object>> subResult = executor.selectList(sqlId, commonParam);
-            result.addAll(subResult);
+            if (compactRowHandler != null) {
+                compactRowHandler.select(executor, sqlId, commonParam);
+            } else {
+                List<Map<String, Object>> subResult = executor.selectList(sqlId, commonParam);
+                result.addAll(subResult);
+            }
         } else {
             for (Map<String, Object> param : selectParam) {
                 Map<String, Object> addParam = new HashMap<>();
@@ -142,10 +177,17 @@ public class QueryExecutor implements Serializable {
                     addParam.putAll(commonParam);
                 }
                 addParam.putAll(param);
-                List<Map<String, Object>> subResult = executor.selectList(sqlId, addParam);
-                result.addAll(subResult);
+                if (compactRowHandler != null) {
+                    compactRowHandler.select(executor, sqlId, addParam);
+                } else {
+                    List<Map<String, Object>> subResult = executor.selectList(sqlId, addParam);
+                    result.addAll(subResult);
+                }
             }
         }
+        if (compactRowHandler != null) {
+            return compactRowHandler.getRows();
+        }
         return result;
     }
 
@@ -207,26 +249,82 @@ public class QueryExecutor implements Serializable {
     public int doHandleSelect(TransactionContext txCtx, String sqlId, List<Map<String, Object>> selectParam, Map<String, Object> commonParam, ResultHandlingSupport resultHandlingSupport) {
         int fetchedCnt = 0;
         SqlSessionTemplate executor = getDefaultExecutor();
+        RowSchema rowSchema = compactRows ? new RowSchema() : null;
+        resultHandlingSupport.setRowSchema(rowSchema);
         txCtx.setConstant(true); /*ResultHandling 이 진행되는 동안 내부 프로세스에서 doHandleSelect(...) 에서 사용되는 트랜잭션을 종료시키지 않기 위한 flag 추가. 2024-12-11 오유현*/
-        if (selectParam == null || selectParam.isEmpty()) {
-            executor.select(sqlId, commonParam, resultHandlingSupport.getHandler());
-            resultHandlingSupport.flushBuffer();
-            fetchedCnt = resultHandlingSupport.getTotalFetchedCount();
-        } else {
-            for (Map<String, Object> param : selectParam) {
-                Map<String, Object> addParam = new HashMap<>();
-                if (commonParam != null) {
-                    addParam.putAll(commonParam);
-                }
-                addParam.putAll(param);
-                executor.select(sqlId, addParam, resultHandlingSupport.getHandler());
+        //compactRows 인 경우 MyBatis 가 row 를 rowSchema 의 CompactRow 로 직접 생성한다.
+        RowSchema previousSchema = rowFactory == null ? null : rowFactory.bind(rowSchema);
+        try {
+            if (selectParam == null || selectParam.isEmpty()) {
+                executor.select(sqlId, commonParam, resultHandlingSupport.getHandler());
                 resultHandlingSupport.flushBuffer();
-                fetchedCnt += resultHandlingSupport.getTotalFetchedCount();
+                fetchedCnt = resultHandlingSupport.getTotalFetchedCount();
+            } else {
+                for (Map<String, Object> param : selectParam) {
+                    Map<String, Object> addParam = new HashMap<>();
+                    if (commonParam != null) {
+                        addParam.putAll(commonParam);
+                    }
+                    addParam.putAll(param);
+                    executor.select(sqlId, addParam, resultHandlingSupport.getHandler());
+                    resultHandlingSupport.flushBuffer();
+                    fetchedCnt += resultHandlingSupport.getTotalFetchedCount();
+                }
+            }
+        } finally {
+            if (rowFactory != null) {
+                rowFactory.bind(previousSchema);
             }
         }
         return fetchedCnt;
     }
 
+    /**
+     * Select 쿼리를 실행하고 결과를 한 row 씩 가져올 수 있는 {@link RowCursor} 를 반환한다.<br>
+     * 조회 결과는 {@code fetchSize} 단위로 DB 로부터 전송되므로 조회 결과의 크기와 관계없이 일정한 메모리로 처리할 수 있다.<br>
+     * Cursor 는 트랜잭션의 JDBC 커넥션을 사용하므로 트랜잭션 그룹이 열려있는 경우에만 사용 가능하다.(StartTransaction 서비스 참고)
+     *
+     * @param txCtx       TransactionContext 객체
+     * @param sqlId       실행될 Select 쿼리의 ID
+     * @param selectParam Select 쿼리를 실행할 때 사용할 파라미터
+     * @param fetchSize   JDBC fetch size. 0 이하인 경우 Mapper 에 지정된 fetchSize 또는 JDBC 드라이버의 기본값을 사용한다.
+     * @return the row cursor
+     */
+    public RowCursor doOpenRowCursor(TransactionContext txCtx, String sqlId, Map<String, Object> selectParam, int fetchSize) {
+        if (txCtx == null || !txCtx.isGroupTxEnabled()) {
+            throw new IllegalStateException("The row cursor of the query '" + sqlId + "' requires a group transaction");
+        }
+        SqlSessionTemplate session = getDefaultExecutor();
+        Configuration configuration = sqlSessionFactory.getConfiguration();
+        MappedStatement mappedStatement = configuration.getMappedStatement(sqlId);
+        BoundSql boundSql = mappedStatement.getBoundSql(selectParam);
+
+        Connection connection = session.getConnection();
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(boundSql.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (fetchSize > 0) {
+                statement.setFetchSize(fetchSize);
+            } else if (mappedStatement.getFetchSize() != null) {
+                statement.setFetchSize(mappedStatement.getFetchSize());
+            }
+            if (mappedStatement.getTimeout() != null) {
+                statement.setQueryTimeout(mappedStatement.getTimeout());
+            }
+            new DefaultParameterHandler(mappedStatement, selectParam, boundSql).setParameters(statement);
+            ResultSet resultSet = statement.executeQuery();
+            return new RowCursor(sqlId, statement, resultSet, configuration.isCallSettersOnNulls(), compactRows);
+        } catch (SQLException e) {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (SQLException ignore) {
+                }
+            }
+            throw new UncategorizedSQLException("Opening row cursor of the query '" + sqlId + "'", boundSql.getSql(), e);
+        }
+    }
+
     /**
      * Do call list.
      *
@@ -305,10 +403,19 @@ public class QueryExecutor implements Serializable {
      * @return the list
      */
     public List<Map<String, Object>> doFetch(TransactionContext txCtx, String sqlId) {
-        List<Map<String, Object>> result = getDefaultExecutor().selectList(sqlId);
+        List<Map<String, Object>> result = selectRows(getDefaultExecutor(), sqlId, null);
         return result;
     }
 
+    private List<Map<String, Object>> selectRows(SqlSessionTemplate executor, String sqlId, Object selectParam) {
+        if (!compactRows) {
+            return executor.selectList(sqlId, selectParam);
+        }
+        CompactRowHandler handler = new CompactRowHandler(rowFactory);
+        handler.select(executor, sqlId, selectParam);
+        return handler.getRows();
+    }
+
     /**
      * Do insert int.
      *
@@ -374,7 +481,7 @@ public class QueryExecutor implements Serializable {
      * @return the int
      */
     public int doBatchInsert(TransactionContext txCtx, String sqlId, List<Map<String, Object>> insertRows) {
-        return doBatchInsert(txCtx, sqlId, insertRows, null, defaultFetchSize);
+        return doBatchInsert(txCtx, sqlId, insertRows, null, batchSize);
     }
 
     /**
@@ -387,7 +494,7 @@ public class QueryExecutor implements Serializable {
      * @return the int
      */
     public int doBatchInsert(TransactionContext txCtx, String sqlId, List<Map<String, Object>> insertRows, Map<String, Object> commonParam) {
-        return doBatchInsert(txCtx, sqlId, insertRows, commonParam, defaultFetchSize);
+        return doBatchInsert(txCtx, sqlId, insertRows, commonParam, batchSize);
     }
 
 
@@ -398,47 +505,32 @@ public class QueryExecutor implements Serializable {
      * @param sqlId       the sql id
      * @param insertRows  the insert rows
      * @param commonParam the common param
-     * @param fetchSize   the fetch size
+     * @param batchSize   Batch 의 flush 단위. 0 이하인 경우 모든 row 를 한 번에 flush 한다.
      * @return the int
      */
-    public int doBatchInsert(TransactionContext txCtx, String sqlId, List<Map<String, Object>> insertRows, Map<String, Object> commonParam, int fetchSize) {
-        SqlSessionTemplate session = getBatchExecutor();
-        int insertCount = 0;
-
+    public int doBatchInsert(TransactionContext txCtx, String sqlId, List<Map<String, Object>> insertRows, Map<String, Object> commonParam, int batchSize) {
         if (insertRows == null || insertRows.isEmpty()) {
             return doInsert(txCtx, sqlId, null);
         }
+        return new BatchWriter(getBatchExecutor(), batchSize).write(BatchWriter.Operation.INSERT, sqlId, insertRows.iterator(), commonParam);
+    }
 
-        if (fetchSize <= 0) {
-            for (Map<String, Object> row : insertRows) {
-                Map<String, Object> addParam = new HashMap<>();
-                if (commonParam != null) {
-                    addParam.putAll(commonParam);
-                }
-                addParam.putAll(row);
-                session.insert(sqlId, addParam);
-            }
-            insertCount = getBatchResultCount(session.flushStatements());
-        } else {
-            int count = 0;
-            for (Map<String, Object> row : insertRows) {
-                Map<String, Object> addParam = new HashMap<>();
-                if (commonParam != null) {
-                    addParam.putAll(commonParam);
-                }
-                addParam.putAll(row);
-                session.insert(sqlId, addParam);
-                ++count;
-                if (count % fetchSize == 0) {
-                    insertCount += getBatchResultCount(session.flushStatements());
-                    count = 0;
-                }
-            }
-            if (count > 0) {
-                insertCount += getBatchResultCount(session.flushStatements());
-            }
+    /**
+     * {@link Iterator} 로 전달된 row 를 Batch 로 insert 한다.<br>
+     * row 를 모두 메모리에 적재하지 않고 {@code batchSize} 만큼 Batch 에 추가할 때 마다 flush 하므로 {@link RowCursor} 와 같이 크기를 알 수 없는 입력에 사용한다.
+     *
+     * @param txCtx       the tx ctx
+     * @param sqlId       the sql id
+     * @param insertRows  the insert rows
+     * @param commonParam the common param
+     * @param batchSize   Batch 의 flush 단위. 0 이하인 경우 {@link #DEFAULT_STREAM_FLUSH_SIZE} 를 사용한다.
+     * @return the int
+     */
+    public int doBatchInsert(TransactionContext txCtx, String sqlId, Iterator<Map<String, Object>> insertRows, Map<String, Object> commonParam, int batchSize) {
+        if (batchSize <= 0) {
+            batchSize = DEFAULT_STREAM_FLUSH_SIZE;
         }
-        return insertCount;
+        return new BatchWriter(getBatchExecutor(), batchSize).write(BatchWriter.Operation.INSERT, sqlId, insertRows, commonParam);
     }
 
     /**
@@ -450,7 +542,7 @@ public class QueryExecutor implements Serializable {
      * @return the int
      */
     public int doBatchUpdate(TransactionContext txCtx, String sqlId, List<Map<String, Object>> updateParams) {
-        return doBatchUpdate(txCtx, sqlId, updateParams, null, defaultFetchSize);
+        return doBatchUpdate(txCtx, sqlId, updateParams, null, batchSize);
     }
 
     /**
@@ -463,7 +555,7 @@ public class QueryExecutor implements Serializable {
      * @return the int
      */
     public int doBatchUpdate(TransactionContext txCtx, String sqlId, List<Map<String, Object>> updateParams, Map<String, Object> commonParam) {
-        return doBatchUpdate(txCtx, sqlId, updateParams, commonParam, defaultFetchSize);
+        return doBatchUpdate(txCtx, sqlId, updateParams, commonParam, batchSize);
     }
 
     /**
@@ -473,47 +565,14 @@ public class QueryExecutor implements Serializable {
      * @param sqlId        the sql id
      * @param updateParams the update params
      * @param commonParam  the common param
-     * @param fetchSize    the fetch size
+     * @param batchSize    Batch 의 flush 단위. 0 이하인 경우 모든 row 를 한 번에 flush 한다.
      * @return the int
      */
-    public int doBatchUpdate(TransactionContext txCtx, String sqlId, List<Map<String, Object>> updateParams, Map<String, Object> commonParam, int fetchSize) {
-        SqlSessionTemplate session = getBatchExecutor();
-        int updateCount = 0;
-
+    public int doBatchUpdate(TransactionContext txCtx, String sqlId, List<Map<String, Object>> updateParams, Map<String, Object> commonParam, int batchSize) {
         if (updateParams == null || updateParams.isEmpty()) {
             return doUpdate(txCtx, sqlId, commonParam);
         }
-
-        if (fetchSize <= 0) {
-            for (Map<String, Object> param : updateParams) {
-                Map<String, Object> addParam = new HashMap<>();
-                if (commonParam != null) {
-                    addParam.putAll(commonParam);
-                }
-                addParam.putAll(param);
-                session.update(sqlId, addParam);
-            }
-            updateCount = getBatchResultCount(session.flushStatements());
-        } else {
-            int count = 0;
-            for (Map<String, Object> param : updateParams) {
-                Map<String, Object> addParam = new HashMap<>();
-                if (commonParam != null) {
-                    addParam.putAll(commonParam);
-                }
-                addParam.putAll(param);
-                session.update(sqlId, addParam);
-                ++count;
-                if (count % fetchSize == 0) {
-                    updateCount += getBatchResultCount(session.flushStatements());
-                    count = 0;
-                }
-            }
-            if (count > 0) {
-                updateCount += getBatchResultCount(session.flushStatements());
-            }
-        }
-        return updateCount;
+        return new BatchWriter(getBatchExecutor(), batchSize).write(BatchWriter.Operation.UPDATE, sqlId, updateParams.iterator(), commonParam);
     }
 
     /**
@@ -526,7 +585,7 @@ public class QueryExecutor implements Serializable {
      * @return 쿼리 실행 후 영향을 받은 row 수
      */
     public int doBatchDelete(TransactionContext txCtx, String sqlId, List<Map<String, Object>> deleteParams) {
-        return doBatchDelete(txCtx, sqlId, deleteParams, defaultFetchSize);
+        return doBatchDelete(txCtx, sqlId, deleteParams, batchSize);
     }
 
     /**
@@ -536,41 +595,19 @@ public class QueryExecutor implements Serializable {
      * @param txCtx        TransactionContext 객체
      * @param sqlId        실행될 Delete 쿼리의 ID
      * @param deleteParams Delete 쿼리 실행 시 사용할 파라미터
-     * @param fetchSize    Batch 작업 수행 시의 fetch size
+     * @param batchSize    Batch 의 flush 단위. 0 이하인 경우 모든 row 를 한 번에 flush 한다.
      * @return 쿼리 실행 후 영향을 받은 row 수
      */
-    public int doBatchDelete(TransactionContext txCtx, String sqlId, List<Map<String, Object>> deleteParams, int fetchSize) {
-        SqlSessionTemplate session = getBatchExecutor();
-        int deleteCount = 0;
-
+    public int doBatchDelete(TransactionContext txCtx, String sqlId, List<Map<String, Object>> deleteParams, int batchSize) {
         if (deleteParams == null || deleteParams.isEmpty()) {
             return doDelete(txCtx, sqlId, null);
         }
-
-        if (fetchSize <= 0) {
-            for (Map<String, Object> param : deleteParams) {
-                session.delete(sqlId, param);
-            }
-            deleteCount = getBatchResultCount(session.flushStatements());
-        } else {
-            int count = 0;
-            for (Map<String, Object> param : deleteParams) {
-                session.delete(sqlId, param);
-                ++count;
-                if (count % fetchSize == 0) {
-                    deleteCount += getBatchResultCount(session.flushStatements());
-                    count = 0;
-                }
-            }
-            if (count > 0) {
-                deleteCount += getBatchResultCount(session.flushStatements());
-            }
-        }
-        return deleteCount;
+        return new BatchWriter(getBatchExecutor(), batchSize).write(BatchWriter.Operation.DELETE, sqlId, deleteParams.iterator(), null);
     }
 
     /**
-     * Batch 작업을 할 때의 기본 Fetch size 를 설정한다.
+     * 기본 Fetch size 를 설정한다.<br>
+     * Batch 작업의 flush 단위는 이 설정과 관계없이 {@link #setBatchSize(int)} 로 지정한다.
      *
      * @param fetchSize the fetch size
      */
@@ -597,19 +634,7 @@ public class QueryExecutor implements Serializable {
      * @return the batch result count
      */
     int getBatchResultCount(List<BatchResult> batchResults) {
-        if (batchResults.size() == 0)
-            return 0;
-        int count = 0;
-        int[] updateCounts = batchResults.get(0).getUpdateCounts();
-
-        for (int i : updateCounts) {
-            if (i == -2) {//-2 = Statement.SUCCESS_NO_INFO (쿼리가 정상 수행됐으나 결과 정보를 알 수 없는 상태)
-                ++count;
-            } else {
-                count += i;
-            }
-        }
-        return count;
+        return BatchWriter.countAffectedRows(batchResults);
     }
 
 }
@@ -16,6 +16,7 @@ public class QueryMap implements Serializable {
     private String executorName;
     private String queryId;
     private int timeoutSecond = -1;
+    private final transient boolean immutable;
 
     /**
      * Instantiates a new Query map.
@@ -26,14 +27,33 @@ public class QueryMap implements Serializable {
     public QueryMap(String executorName, String queryId) {
         this.executorName = executorName;
         this.queryId = queryId;
+        this.immutable = false;
+    }
+
+    /**
+     * 변경할 수 없는 {@code QueryMap} 을 생성한다.<br>
+     * {@link mb.dnm.storage.InterfaceInfo} 의 query sequence 로부터 미리 만들어져 여러 {@link mb.dnm.core.context.ServiceContext} 가 공유하는 용도로 사용된다.
+     *
+     * @param executorName  the executor name
+     * @param queryId       the query id
+     * @param timeoutSecond the timeout second
+     */
+    public QueryMap(String executorName, String queryId, int timeoutSecond) {
+        this.executorName = executorName;
+        this.queryId = queryId;
+        this.timeoutSecond = timeoutSecond;
+        this.immutable = true;
     }
 
     /**
      * Sets timeout second.
      *
      * @param timeoutSecond the timeout second
+     * @throws UnsupportedOperationException 변경할 수 없는 {@code QueryMap} 인 경우
      */
     public void setTimeoutSecond(int timeoutSecond) {
+        if (immutable)
+            throw new UnsupportedOperationException("This QueryMap is shared and can not be modified: " + queryId);
         this.timeoutSecond = timeoutSecond;
     }
 
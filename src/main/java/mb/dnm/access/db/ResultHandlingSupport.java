@@ -44,6 +44,10 @@ public class ResultHandlingSupport implements Serializable {
      * */
     private String fetchedInputName = "$RESULT_HANDLING_BUFFER";
     private IterationGroup resultHandlingProcessor;
+    /**
+     * {@link QueryExecutor#isCompactRows()} 가 true 인 경우 fetch 된 row 들이 공유하는 {@link RowSchema}
+     */
+    private RowSchema rowSchema;
 
     /**
      * Instantiates a new Result handling support.
@@ -127,6 +131,9 @@ public class ResultHandlingSupport implements Serializable {
             throw new IllegalStateException("Result buffer is full. Please call flushBuffer(ServiceContext) first.");
         }
         Map<String, Object> resultRow = resultContext.getResultObject();
+        if (rowSchema != null && !(resultRow instanceof CompactRow && ((CompactRow) resultRow).getSchema() == rowSchema)) {
+            resultRow = CompactRow.copyOf(rowSchema, resultRow);
+        }
         resultRow.put("$resultSet_idx", resultSetIdx);
         resultSetBuffer.add(resultRow);
         ++currentBufferSize;
@@ -202,6 +209,15 @@ public class ResultHandlingSupport implements Serializable {
 
     }
 
+    /**
+     * Sets row schema.
+     *
+     * @param rowSchema the row schema
+     */
+    void setRowSchema(RowSchema rowSchema) {
+        this.rowSchema = rowSchema;
+    }
+
     /**
      * Sets result handling processor.
      *
@@ -0,0 +1,201 @@
+package mb.dnm.access.db;
+
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.ClosableStreamWrapper;
+import org.springframework.jdbc.UncategorizedSQLException;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Select 쿼리의 결과를 한 번에 메모리에 적재하지 않고 JDBC {@link ResultSet} 으로부터 한 row 씩 가져오는 Cursor 객체이다.<br>
+ * {@link QueryExecutor#doOpenRowCursor(mb.dnm.core.context.TransactionContext, String, Map, int)} 메소드로 생성되며
+ * 조회 결과의 각 row 는 {@code Map<컬럼명, 데이터>} 형태로 반환된다.<br><br>
+ *
+ * {@link Iterable} 을 구현하므로 {@link mb.dnm.service.general.IterationGroup}, {@link mb.dnm.service.file.WriteFile},
+ * {@link mb.dnm.service.db.Insert} 등의 서비스에 input 으로 그대로 전달할 수 있다. 단, {@code iterator()} 는 한 번만 호출할 수 있다.<br>
+ * 모든 row 를 가져오면 Cursor 는 자동으로 닫히며, 그렇지 않은 경우 {@link mb.dnm.core.callback.SessionCleanupCallback} 에 의해 서비스 프로세스 종료 시 닫힌다.
+ *
+ * @see mb.dnm.service.db.Select
+ */
+@Slf4j
+public class RowCursor implements Iterable<Map<String, Object>>, ClosableStreamWrapper {
+    private final String sqlId;
+    private final Statement statement;
+    private final ResultSet resultSet;
+    private final boolean callSettersOnNulls;
+    private final boolean compactRows;
+    private String[] columnLabels;
+    private RowSchema schema;
+    private int[] schemaIndexes;
+    private Map<String, Object> nextRow;
+    private boolean fetched = false;
+    private boolean iterated = false;
+    private boolean closed = false;
+    private long fetchedCount = 0;
+
+    /**
+     * Instantiates a new Row cursor.
+     *
+     * @param sqlId              the sql id
+     * @param statement          the statement
+     * @param resultSet          the result set
+     * @param callSettersOnNulls 값이 null 인 컬럼도 row 에 포함할 지 여부
+     * @param compactRows        row 를 {@link CompactRow} 로 생성할 지 여부
+     */
+    RowCursor(String sqlId, Statement statement, ResultSet resultSet, boolean callSettersOnNulls, boolean compactRows) {
+        this.sqlId = sqlId;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.callSettersOnNulls = callSettersOnNulls;
+        this.compactRows = compactRows;
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> iterator() {
+        if (iterated)
+            throw new IllegalStateException("The row cursor of the query '" + sqlId + "' can be iterated only once");
+        iterated = true;
+        return new RowIterator();
+    }
+
+    /**
+     * 지금까지 Cursor 에서 가져온 row 의 수를 반환한다.
+     *
+     * @return the fetched count
+     */
+    public long getFetchedCount() {
+        return fetchedCount;
+    }
+
+    /**
+     * Gets sql id.
+     *
+     * @return the sql id
+     */
+    public String getSqlId() {
+        return sqlId;
+    }
+
+    /**
+     * Cursor 가 닫혔는지 확인한다.
+     *
+     * @return the boolean
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean close() {
+        if (closed)
+            return true;
+        closed = true;
+        nextRow = null;
+        boolean result = true;
+        try {
+            resultSet.close();
+        } catch (SQLException e) {
+            log.warn("Failed to close the ResultSet of the query '{}'. Cause: {}", sqlId, e.getMessage());
+            result = false;
+        }
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.warn("Failed to close the Statement of the query '{}'. Cause: {}", sqlId, e.getMessage());
+            result = false;
+        }
+        log.debug("Row cursor of the query '{}' closed. {} rows fetched", sqlId, fetchedCount);
+        return result;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return !closed;
+    }
+
+    private void fetchNext() {
+        if (fetched)
+            return;
+        fetched = true;
+        if (closed)
+            return;
+        try {
+            if (!resultSet.next()) {
+                close();
+                return;
+            }
+            if (columnLabels == null) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                columnLabels = new String[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    columnLabels[i] = metaData.getColumnLabel(i + 1);
+                }
+                if (compactRows) {
+                    //모든 row 가 하나의 RowSchema 를 공유한다. 같은 컬럼명이 중복되는 경우 HashMap 과 같이 마지막 컬럼의 값이 사용된다.
+                    schema = new RowSchema();
+                    schemaIndexes = new int[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        schemaIndexes[i] = schema.indexOrAdd(columnLabels[i]);
+                    }
+                }
+            }
+            if (compactRows) {
+                CompactRow row = new CompactRow(schema);
+                for (int i = 0; i < columnLabels.length; i++) {
+                    Object value = resultSet.getObject(i + 1);
+                    if (value != null || callSettersOnNulls) {
+                        row.setValue(schemaIndexes[i], value);
+                    }
+                }
+                nextRow = row;
+            } else {
+                Map<String, Object> row = new HashMap<>();
+                for (int i = 0; i < columnLabels.length; i++) {
+                    Object value = resultSet.getObject(i + 1);
+                    if (value != null || callSettersOnNulls) {
+                        row.put(columnLabels[i], value);
+                    }
+                }
+                nextRow = row;
+            }
+            ++fetchedCount;
+        } catch (SQLException e) {
+            close();
+            throw new UncategorizedSQLException("Fetching row cursor of the query '" + sqlId + "'", null, e);
+        }
+    }
+
+    private class RowIterator implements Iterator<Map<String, Object>> {
+
+        @Override
+        public boolean hasNext() {
+            fetchNext();
+            return nextRow != null;
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            fetchNext();
+            if (nextRow == null)
+                throw new NoSuchElementException("The row cursor of the query '" + sqlId + "' reached to the last");
+            Map<String, Object> row = nextRow;
+            nextRow = null;
+            fetched = false;
+            return row;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package mb.dnm.access.db;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * 하나의 조회 결과에 속한 {@link CompactRow} 들이 공유하는 컬럼명과 컬럼 인덱스 정보이다.<br>
+ * 컬럼명은 조회 결과 당 한 번만 저장되며, 조회 결과에 없던 key 가 {@code CompactRow} 에 추가되는 경우 컬럼이 뒤에 덧붙여진다.<br>
+ * 컬럼 정보의 조회는 Lock 없이 수행되며 컬럼 추가만 동기화된다.
+ *
+ * @see CompactRow
+ */
+public final class RowSchema implements Serializable {
+    private static final long serialVersionUID = -2675893120845627104L;
+    private volatile Columns columns;
+
+    /**
+     * Instantiates a new Row schema.
+     */
+    public RowSchema() {
+        this.columns = new Columns(new String[0], new HashMap<String, Integer>());
+    }
+
+    /**
+     * Instantiates a new Row schema.
+     *
+     * @param labels the column labels
+     */
+    public RowSchema(String[] labels) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < labels.length; i++) {
+            if (index.containsKey(labels[i]))
+                throw new IllegalArgumentException("Duplicated column label: " + labels[i]);
+            index.put(labels[i], i);
+        }
+        this.columns = new Columns(labels.clone(), index);
+    }
+
+    /**
+     * 컬럼명의 인덱스를 가져온다.
+     *
+     * @param label the column label
+     * @return the index, 컬럼이 존재하지 않는 경우 -1
+     */
+    public int indexOf(Object label) {
+        Integer idx = columns.index.get(label);
+        return idx == null ? -1 : idx;
+    }
+
+    /**
+     * 컬럼명의 인덱스를 가져온다. 컬럼이 존재하지 않는 경우 컬럼을 추가한다.
+     *
+     * @param label the column label
+     * @return the index
+     */
+    public int indexOrAdd(String label) {
+        int idx = indexOf(label);
+        if (idx != -1)
+            return idx;
+        synchronized (this) {
+            Columns cur = columns;
+            Integer existing = cur.index.get(label);
+            if (existing != null)
+                return existing;
+            int size = cur.labels.length;
+            String[] labels = new String[size + 1];
+            System.arraycopy(cur.labels, 0, labels, 0, size);
+            labels[size] = label;
+            Map<String, Integer> index = new HashMap<>(cur.index);
+            index.put(label, size);
+            columns = new Columns(labels, index);
+            return size;
+        }
+    }
+
+    /**
+     * 인덱스에 해당하는 컬럼명을 가져온다.
+     *
+     * @param idx the index
+     * @return the label
+     */
+    public String getLabel(int idx) {
+        return columns.labels[idx];
+    }
+
+    /**
+     * 컬럼의 수를 가져온다.
+     *
+     * @return the size
+     */
+    public int size() {
+        return columns.labels.length;
+    }
+
+    private static final class Columns implements Serializable {
+        private static final long serialVersionUID = 4463121093541216329L;
+        private final String[] labels;
+        private final Map<String, Integer> index;
+
+        private Columns(String[] labels, Map<String, Integer> index) {
+            this.labels = labels;
+            this.index = index;
+        }
+    }
+}
@@ -31,7 +31,10 @@ import java.util.List;
  * @see QueryExecutor
  * @see DataSourceProvider
  * @see TransactionContext
+ * @see TransactionRouter
+ * @deprecated {@link DataSourceProvider} 는 {@link TransactionRouter} 로 proxy 를 생성한다.
  */
+@Deprecated
 @Slf4j
 public class TransactionProxyInterceptor implements MethodInterceptor, Serializable {
 
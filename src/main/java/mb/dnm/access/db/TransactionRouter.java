@@ -0,0 +1,317 @@
+package mb.dnm.access.db;
+
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.core.context.TransactionContext;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.CallbackFilter;
+import org.springframework.cglib.proxy.Dispatcher;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.jdbc.datasource.ConnectionHandle;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * {@link QueryExecutor} 의 쿼리 실행 메소드에 트랜잭션을 적용하는 proxy callback 이다.<br>
+ * {@link TransactionProxyInterceptor} 와 같은 트랜잭션 규칙을 따르지만 호출마다 반복되던 작업을 proxy 생성 시점과 최초 사용 시점으로 옮겼다.
+ * <ul>
+ *     <li>메소드 분류: proxy 생성 시 {@link CallbackFilter} 가 {@code do*(TransactionContext, ..)} 메소드만 이 객체로 연결하고, 나머지 메소드는 {@link Dispatcher} 로 원본 객체에서 바로 실행한다.</li>
+ *     <li>트랜잭션 정의: {@code DefaultTransactionDefinition} 을 timeout 별로 생성하여 재사용한다.</li>
+ *     <li>트랜잭션 전환: 다른 QueryExecutor 의 트랜잭션이 Thread 에 연결되어 있는 경우 {@link TransactionContext.LastTransactionStatus#restore()} 로 저장된 트랜잭션 상태와 synchronization 을 복원한다.</li>
+ * </ul>
+ *
+ * @see QueryExecutor
+ * @see DataSourceProvider
+ * @see TransactionContext
+ */
+@Slf4j
+public class TransactionRouter implements MethodInterceptor, Serializable {
+    private static final long serialVersionUID = 3418470932571529011L;
+    private static final int ROUTED = 0;
+    private static final int DISPATCHED = 1;
+    private static final CallbackFilter METHOD_CLASSIFIER = new MethodClassifier();
+
+    private final QueryExecutor target;
+    private final String executorName;
+    private transient volatile DataSourceTransactionManager txManager;
+    private transient volatile ConcurrentMap<Integer, DefaultTransactionDefinition> txDefinitions;
+
+    /**
+     * Instantiates a new Transaction router.
+     *
+     * @param target       the target
+     * @param executorName {@link DataSourceProvider} 에 등록된 target 의 이름
+     */
+    public TransactionRouter(QueryExecutor target, String executorName) {
+        this.target = target;
+        this.executorName = executorName;
+    }
+
+    /**
+     * target 의 쿼리 실행 메소드를 {@code TransactionRouter} 로 연결한 proxy 를 생성한다.
+     *
+     * @param target       the target
+     * @param executorName the executor name
+     * @return the query executor
+     */
+    public static QueryExecutor createProxy(QueryExecutor target, String executorName) {
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(QueryExecutor.class);
+        enhancer.setCallbackFilter(METHOD_CLASSIFIER);
+        enhancer.setCallbacks(new Callback[]{new TransactionRouter(target, executorName), new TargetDispatcher(target)});
+        return (QueryExecutor) enhancer.create();
+    }
+
+    @Override
+    public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+        TransactionContext txCtx = (TransactionContext) args[0];
+        if (txCtx == null) {
+            log.debug("Executing query with id '{}'", args[1]);
+            return methodProxy.invoke(target, args);
+        }
+
+        String txName = txCtx.getName();
+        DataSourceTransactionManager manager = txName.equals(executorName) ? getTxManager() : DataSourceProvider.access().getTransactionManager(txName);
+        if (txCtx.isGroupTxEnabled()) {
+            return invokeInGroup(txCtx, txName, manager, args, methodProxy);
+        }
+        return invokeStandalone(txCtx, txName, manager, args, methodProxy);
+    }
+
+    //트랜잭션이 그룹으로 묶인 경우, 명시적인 commit 또는 rollback 명령이 있기전까지 하나의 트랜잭션을 유지
+    private Object invokeInGroup(TransactionContext txCtx, String txName, DataSourceTransactionManager manager
+            , Object[] args, MethodProxy methodProxy) throws Throwable {
+        TransactionContext.LastTransactionStatus lastTxStatus = txCtx.getLastTxStatus();
+        TransactionStatus txStatus = txCtx.getTransactionStatus();
+        try {
+            if (!txName.equals(TransactionSynchronizationManager.getCurrentTransactionName())) {
+                if (lastTxStatus.isInitialized()) {
+                    lastTxStatus.restore();
+                } else {
+                    clearTransaction();
+                }
+            }
+
+            if (txCtx.getTransactionDefinition() == null) {
+                log.info("[TX]A group transaction for executor: {} is assigned.", txName);
+                DefaultTransactionDefinition txDef = getTransactionDefinition(txName, txCtx.getTimeoutSecond());
+                txCtx.setTransactionDefinition(txDef);
+                txStatus = manager.getTransaction(txDef);
+                txCtx.setTransactionStatus(txStatus);
+            } else {
+                log.info("[TX]Continuing with group transaction for executor: {}", txName);
+            }
+
+            txCtx.setLastTransactionStatus();
+            log.debug("Executing query with id '{}'", args[1]);
+            return methodProxy.invoke(target, args);
+        } catch (Throwable t) {
+            if (txStatus != null && !txStatus.isCompleted()) {
+                if (!txName.equals(TransactionSynchronizationManager.getCurrentTransactionName()) && lastTxStatus.isInitialized()) {
+                    lastTxStatus.restore();
+                }
+                rollback(txCtx, manager, txStatus, t);
+            }
+            throw t;
+        } finally {
+            if (txName.equals(TransactionSynchronizationManager.getCurrentTransactionName())) {
+                txCtx.setLastTransactionStatus();
+            }
+            log.trace("[TX]Last transaction status of the executor[{}] :\n{}", txName, txCtx.getLastTxStatus());
+        }
+    }
+
+    //트랜잭션 그룹이 지정되지 않은 경우, 메소드 실행 시 마다 트랜잭션이 생성되고, 메소드 종료 시 commit 또는 rollback 됨
+    private Object invokeStandalone(TransactionContext txCtx, String txName, DataSourceTransactionManager manager
+            , Object[] args, MethodProxy methodProxy) throws Throwable {
+        DefaultTransactionDefinition txDef = getTransactionDefinition(txName, txCtx.getTimeoutSecond());
+        TransactionStatus txStatus = null;
+        try {
+            txStatus = manager.getTransaction(txDef);
+            txCtx.setLastTransactionStatus();
+
+            log.debug("Executing query with id '{}'", args[1]);
+            Object rtVal = methodProxy.invoke(target, args);
+
+            if (!txStatus.isCompleted()) {
+                if (txCtx.isConstant() && !prepareConstantCommit(txCtx, txName, txDef, manager)) {
+                    return rtVal;
+                }
+                log.debug("Committing non group transaction '{}'", txName);
+                manager.commit(txStatus);
+            }
+            return rtVal;
+        } catch (Throwable t) {
+            if (txStatus != null && !txStatus.isCompleted()) {
+                TransactionContext.LastTransactionStatus lastTxStatus = txCtx.getLastTxStatus();
+                if (!txName.equals(TransactionSynchronizationManager.getCurrentTransactionName()) && lastTxStatus.isInitialized()) {
+                    lastTxStatus.restore();
+                }
+                rollback(txCtx, manager, txStatus, t);
+            }
+            throw t;
+        } finally {
+            txCtx.setTransactionStatus(null);
+            clearTransaction();
+            log.debug("[TX]Cleaned up non-group TransactionStatus");
+        }
+    }
+
+    //constant 로 지정된 트랜잭션은 commit 전에 커넥션의 상태를 확인하고 Thread 의 트랜잭션 상태를 복원한다.
+    private boolean prepareConstantCommit(TransactionContext txCtx, String txName, DefaultTransactionDefinition txDef
+            , DataSourceTransactionManager manager) throws Exception {
+        Object conHolderObj = TransactionSynchronizationManager.getResource(manager.getDataSource());
+        if (conHolderObj == null) {
+            log.debug("The ConnectionHolder object of the executor [{}] is null. No transaction to commit.", txName);
+            return false;
+        }
+        ConnectionHandle conHandle = ((ConnectionHolder) conHolderObj).getConnectionHandle();
+        if (conHandle == null) {
+            log.debug("There is no JDBC connection of the executor[{}] to release", txName);
+            return false;
+        }
+        Connection connection = conHandle.getConnection();
+        if (connection.isClosed()) {
+            log.debug("The JDBC connection of the executor[{}] is already closed", txName);
+            return false;
+        }
+        String currentTxName = TransactionSynchronizationManager.getCurrentTransactionName();
+        log.debug("The current transaction name is [{}]", currentTxName);
+        if (!txName.equals(currentTxName)) {
+            TransactionContext.LastTransactionStatus lastTxStatus = txCtx.getLastTxStatus();
+            if (lastTxStatus.isInitialized()) {
+                lastTxStatus.restore();
+            } else {
+                TransactionSynchronizationManager.setCurrentTransactionName(txDef.getName());
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(txDef.isReadOnly());
+                TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(txDef.getIsolationLevel());
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.clearSynchronization();
+                }
+                TransactionSynchronizationManager.initSynchronization();
+            }
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        return true;
+    }
+
+    private void rollback(TransactionContext txCtx, DataSourceTransactionManager manager, TransactionStatus txStatus, Throwable cause) {
+        log.warn("[TX]Processing rollback this transaction. Executor name: {}, Query history: {}", txCtx.getName(), txCtx.getQueryHistory());
+        try {
+            manager.rollback(txStatus);
+            log.warn("[TX]Rollback completed. Executor name: {}", txCtx.getName());
+        } catch (Throwable t2) {
+            log.warn("[TX]Rollback failed. But the transaction will be cleared. Executor name: {}. Cause: {}"
+                    , txCtx.getName(), t2.getMessage());
+        }
+        txCtx.setError(cause);
+    }
+
+    /**
+     * 트랜잭션 정의를 가져온다. 같은 executor 와 timeout 의 트랜잭션 정의는 재사용되므로 반환된 객체를 변경해서는 안된다.
+     *
+     * @param txName        the tx name
+     * @param timeoutSecond the timeout second
+     * @return the transaction definition
+     */
+    DefaultTransactionDefinition getTransactionDefinition(String txName, int timeoutSecond) {
+        if (!txName.equals(executorName)) {
+            return newTransactionDefinition(txName, timeoutSecond);
+        }
+        ConcurrentMap<Integer, DefaultTransactionDefinition> definitions = txDefinitions;
+        if (definitions == null) {
+            definitions = new ConcurrentHashMap<>();
+            txDefinitions = definitions;
+        }
+        DefaultTransactionDefinition txDef = definitions.get(timeoutSecond);
+        if (txDef == null) {
+            txDef = newTransactionDefinition(txName, timeoutSecond);
+            DefaultTransactionDefinition existing = definitions.putIfAbsent(timeoutSecond, txDef);
+            if (existing != null) {
+                txDef = existing;
+            }
+        }
+        return txDef;
+    }
+
+    private static DefaultTransactionDefinition newTransactionDefinition(String txName, int timeoutSecond) {
+        DefaultTransactionDefinition txDef = new DefaultTransactionDefinition();
+        txDef.setName(txName);
+        txDef.setTimeout(timeoutSecond);
+        return txDef;
+    }
+
+    private DataSourceTransactionManager getTxManager() {
+        DataSourceTransactionManager manager = txManager;
+        if (manager == null) {
+            manager = DataSourceProvider.access().getTransactionManager(executorName);
+            txManager = manager;
+        }
+        return manager;
+    }
+
+    private void clearTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+        TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    /**
+     * proxy 생성 시 {@code QueryExecutor} 의 메소드를 분류한다.
+     * 메소드명이 do 로 시작하고 첫번째 파라미터가 {@link TransactionContext} 인 메소드만 트랜잭션이 적용된다.
+     */
+    private static class MethodClassifier implements CallbackFilter, Serializable {
+        private static final long serialVersionUID = -2278106052871290534L;
+
+        @Override
+        public int accept(Method method) {
+            Class<?>[] paramTypes = method.getParameterTypes();
+            if (method.getName().startsWith("do") && paramTypes.length > 1 && paramTypes[0] == TransactionContext.class) {
+                return ROUTED;
+            }
+            return DISPATCHED;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MethodClassifier;
+        }
+
+        @Override
+        public int hashCode() {
+            return MethodClassifier.class.hashCode();
+        }
+    }
+
+    /**
+     * 트랜잭션이 필요없는 메소드를 원본 {@code QueryExecutor} 에서 바로 실행한다.
+     */
+    private static class TargetDispatcher implements Dispatcher, Serializable {
+        private static final long serialVersionUID = 6209127443720846733L;
+        private final QueryExecutor target;
+
+        TargetDispatcher(QueryExecutor target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object loadObject() {
+            return target;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package mb.dnm.access.file;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+
+/*
+ * memory-mapped window 를 옮겨가며 파일의 byte 를 읽는 객체.
+ * record separator, qualifier 를 문자로 decode 하지 않고 byte 단위로 찾을 때 사용한다.
+ */
+class ByteScanner {
+    private static final long SCAN_WINDOW_SIZE = 64L * 1024 * 1024;
+    private static final Set<String> BYTE_SEARCHABLE_CHARSETS = new HashSet<>(Arrays.asList(
+            "UTF-8", "US-ASCII", "ISO-8859-1", "ISO-8859-2", "ISO-8859-15", "EUC-KR", "windows-1252"));
+
+    private final FileChannel channel;
+    private final long end;
+    private MappedByteBuffer window;
+    private long windowStart = -1;
+    private long windowEnd = -1;
+
+    ByteScanner(FileChannel channel, long end) {
+        this.channel = channel;
+        this.end = end;
+    }
+
+    //ASCII 문자가 다른 문자의 일부로 사용되지 않아 구분자를 byte 단위로 찾을 수 있는 charset 인지 확인한다.
+    static boolean isByteSearchable(Charset charset) {
+        return BYTE_SEARCHABLE_CHARSETS.contains(charset.name());
+    }
+
+    static byte[] toBytes(String str, Charset charset) {
+        return str == null || str.isEmpty() ? new byte[0] : str.getBytes(charset);
+    }
+
+    byte get(long position) throws IOException {
+        if (position < windowStart || position >= windowEnd) {
+            windowStart = position;
+            windowEnd = Math.min(end, position + SCAN_WINDOW_SIZE);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowEnd - windowStart);
+        }
+        return window.get((int) (position - windowStart));
+    }
+
+    boolean matches(byte[] pattern, long position) throws IOException {
+        if (pattern.length == 0 || position + pattern.length > end)
+            return false;
+        for (int i = 0; i < pattern.length; i++) {
+            if (get(position + i) != pattern[i])
+                return false;
+        }
+        return true;
+    }
+
+    //position 이후 첫번째 pattern 의 다음 위치를 반환한다. 없는 경우 end 를 반환한다.
+    long findEnd(byte[] pattern, long position) throws IOException {
+        for (long i = position; i < end; i++) {
+            if (matches(pattern, i))
+                return i + pattern.length;
+        }
+        return end;
+    }
+
+    //from 부터 to 이전까지 b 의 개수를 센다.
+    long count(byte b, long from, long to) throws IOException {
+        long count = 0;
+        for (long i = from; i < to; i++) {
+            if (get(i) == b)
+                ++count;
+        }
+        return count;
+    }
+
+    /*
+     * position 이 qualifier 안에 있는지(quoted) 여부부터 qualifier 의 열림/닫힘을 추적하며 qualifier 밖에 있는 첫번째 record separator 의 다음 위치를 반환한다.
+     * 없는 경우 end 를 반환한다.
+     */
+    long findRecordEnd(byte[] separator, byte[] qualifier, long position, boolean quoted) throws IOException {
+        long i = position;
+        while (i < end) {
+            if (matches(qualifier, i)) {
+                quoted = !quoted;
+                i += qualifier.length;
+                continue;
+            }
+            if (!quoted && matches(separator, i))
+                return i + separator.length;
+            ++i;
+        }
+        return end;
+    }
+
+    /*
+     * record 의 시작 위치인 position 부터 qualifier 의 열림/닫힘을 추적하며 qualifier 밖에 있는 마지막 record separator 의 다음 위치를 반환한다.
+     * 완성된 record 가 없는 경우 position 을 반환한다.
+     */
+    long findLastRecordEnd(byte[] separator, byte[] qualifier, long position) throws IOException {
+        boolean quoted = false;
+        long last = position;
+        long i = position;
+        while (i < end) {
+            if (matches(qualifier, i)) {
+                quoted = !quoted;
+                i += qualifier.length;
+                continue;
+            }
+            if (!quoted && matches(separator, i)) {
+                i += separator.length;
+                last = i;
+                continue;
+            }
+            ++i;
+        }
+        return last;
+    }
+}
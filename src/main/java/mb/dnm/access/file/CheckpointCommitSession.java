@@ -0,0 +1,87 @@
+package mb.dnm.access.file;
+
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.ClosableStreamWrapper;
+import mb.dnm.code.ProcessCode;
+import mb.dnm.core.context.ServiceContext;
+
+
+/**
+ * 서비스에서 읽은 파일의 {@link FileCheckpoint} 를 서비스 프로세스가 성공적으로 종료된 경우에만 저장하기 위한 객체이다.<br>
+ * {@code ServiceContext} 에 session 으로 등록되며, 프로세스가 종료될 때 {@link mb.dnm.core.callback.SessionCleanupCallback} 이 {@link #close()} 를 호출한다.
+ * 프로세스가 실패한 경우 checkpoint 가 저장되지 않으므로 다음 프로세스에서 같은 record 들을 다시 읽는다.
+ *
+ * @see mb.dnm.service.file.ReadFile
+ */
+@Slf4j
+public class CheckpointCommitSession implements ClosableStreamWrapper {
+    private final ServiceContext ctx;
+    private final FileCheckpointStore store;
+    private final FileCheckpoint checkpoint;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private boolean closed = false;
+
+    /**
+     * Instantiates a new Checkpoint commit session.
+     *
+     * @param ctx        the ctx
+     * @param store      the store
+     * @param checkpoint the checkpoint
+     */
+    public CheckpointCommitSession(ServiceContext ctx, FileCheckpointStore store, FileCheckpoint checkpoint) {
+        this(ctx, store, checkpoint, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Instantiates a new Checkpoint commit session.
+     *
+     * @param ctx        the ctx
+     * @param store      the store
+     * @param checkpoint the checkpoint
+     * @param ttlMillis  the ttl millis
+     * @param maxEntries the max entries
+     * @see FileCheckpointStore#put(FileCheckpoint, long, int)
+     */
+    public CheckpointCommitSession(ServiceContext ctx, FileCheckpointStore store, FileCheckpoint checkpoint, long ttlMillis, int maxEntries) {
+        this.ctx = ctx;
+        this.store = store;
+        this.checkpoint = checkpoint;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Gets checkpoint.
+     *
+     * @return the checkpoint
+     */
+    public FileCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    @Override
+    public boolean close() {
+        if (closed)
+            return true;
+        closed = true;
+        String txId = ctx.getTxId();
+        if (ctx.getProcessStatus() != ProcessCode.SUCCESS) {
+            log.warn("[{}]The checkpoint of the file \"{}\" is not saved. Process status: {}", txId, checkpoint.getPath(), ctx.getProcessStatus());
+            return true;
+        }
+        try {
+            store.put(checkpoint, ttlMillis, maxEntries);
+            log.debug("[{}]Checkpoint saved: {}", txId, checkpoint);
+            return true;
+        } catch (Throwable t) {
+            log.error("[" + txId + "]Failed to save the checkpoint of the file \"" + checkpoint.getPath() + "\" to \"" + store.getStoreFile() + "\"", t);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return !closed;
+    }
+}
@@ -0,0 +1,137 @@
+package mb.dnm.access.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 처리한 파일 내용의 hash 를 저장하는 크기가 제한된 index 이다. 같은 내용의 파일이 다른 이름으로 다시 수신되었는지 확인할 때 사용한다.<br>
+ * hash 는 등록된 순서대로 하나의 JSON 파일에 저장되며, 등록된 뒤 {@code ttlMillis} 가 지난 hash 와 {@code maxEntries} 를 넘는 오래된 hash 는 삭제된다.
+ *
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * {
+ *   "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08": {"path": "/data/recv/A_20240901.dat", "registered_time": 1725148800000}
+ * }</pre>
+ *
+ * @see DuplicateFileFilter
+ * @see JsonFileStore
+ */
+@Slf4j
+public class ContentHashIndex extends JsonFileStore<ContentHashIndex.Entry> {
+    private static final Map<Path, ContentHashIndex> indexes = new HashMap<>();
+    private static final Factory<ContentHashIndex> FACTORY = new Factory<ContentHashIndex>() {
+        @Override
+        public ContentHashIndex create(Path storeFile) {
+            return new ContentHashIndex(storeFile);
+        }
+    };
+
+    private ContentHashIndex(Path storeFile) {
+        super(storeFile, "hash", false);
+    }
+
+    /**
+     * {@code storeFile} 에 hash 를 저장하는 index 를 가져온다.
+     *
+     * @param storeFile hash 를 저장할 파일
+     * @return the content hash index
+     */
+    public static ContentHashIndex access(Path storeFile) {
+        return access(indexes, storeFile, FACTORY);
+    }
+
+    /**
+     * hash 가 등록된 파일의 경로를 가져온다.
+     *
+     * @param hash      the hash
+     * @param ttlMillis hash 의 유효 기간. 0 이하인 경우 만료되지 않는다.
+     * @return 등록된 파일의 경로. 등록되지 않았거나 만료된 경우 null
+     * @throws IOException the io exception
+     */
+    public synchronized String lookup(String hash, long ttlMillis) throws IOException {
+        Entry entry = entries().get(hash);
+        if (entry == null || isExpired(entry, ttlMillis, System.currentTimeMillis()))
+            return null;
+        return entry.path;
+    }
+
+    /**
+     * hash 들을 등록한다. 이미 등록된 hash 는 등록 시각이 갱신된다. 등록한 뒤 만료되었거나 {@code maxEntries} 를 넘는 오래된 hash 를 삭제하고 저장한다.
+     *
+     * @param hashes     hash 와 파일 경로
+     * @param ttlMillis  hash 의 유효 기간. 0 이하인 경우 만료되지 않는다.
+     * @param maxEntries 저장할 최대 hash 수
+     * @throws IOException the io exception
+     */
+    public synchronized void register(Map<String, String> hashes, long ttlMillis, int maxEntries) throws IOException {
+        Map<String, Entry> entries = entries();
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, String> hash : hashes.entrySet()) {
+            //등록 순서를 유지하기 위해 기존 hash 를 삭제한 뒤 다시 등록한다.
+            entries.remove(hash.getKey());
+            entries.put(hash.getKey(), new Entry(hash.getValue(), now));
+        }
+        evict(entries, ttlMillis, maxEntries, now);
+        save();
+    }
+
+    /**
+     * 등록된 hash 수를 가져온다. 만료된 hash 도 포함된다.
+     *
+     * @return the size
+     * @throws IOException the io exception
+     */
+    public synchronized int size() throws IOException {
+        return entries().size();
+    }
+
+    private void evict(Map<String, Entry> entries, long ttlMillis, int maxEntries, long now) {
+        int evicted = 0;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entries.size() > maxEntries || isExpired(entry, ttlMillis, now)) {
+                iterator.remove();
+                ++evicted;
+            } else {
+                //등록 순서대로 저장되어 있으므로 이후의 hash 는 만료되지 않았다.
+                break;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("{} hashes evicted from the index \"{}\"", evicted, getStoreFile());
+        }
+    }
+
+    private static boolean isExpired(Entry entry, long ttlMillis, long now) {
+        return ttlMillis > 0 && entry.registeredTime + ttlMillis < now;
+    }
+
+    @Override
+    Entry fromJson(Map<String, Object> value) {
+        return new Entry((String) value.get("path"), ((Number) value.get("registered_time")).longValue());
+    }
+
+    @Override
+    Map<String, Object> toJson(Entry entry) {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("path", entry.path);
+        value.put("registered_time", entry.registeredTime);
+        return value;
+    }
+
+    static class Entry {
+        private final String path;
+        private final long registeredTime;
+
+        Entry(String path, long registeredTime) {
+            this.path = path;
+            this.registeredTime = registeredTime;
+        }
+    }
+}
@@ -0,0 +1,650 @@
+package mb.dnm.access.file;
+
+import mb.dnm.access.crypto.Base64;
+import mb.dnm.code.BinaryEncoding;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+
+/**
+ * {@link FileParserTemplate} 형식의 구분자 파일을 한 번만 순회하며 record 단위로 읽는 객체이다.<br>
+ * 파일 전체를 {@code String} 으로 읽지 않고 {@code ReadableByteChannel} 또는 memory-mapped 파일에서 읽은 byte 를 조금씩 decode 하며,
+ * delimiter, record separator, qualifier 는 미리 char 배열로 변환하여 한 문자씩 비교하므로 파일 크기에 비례하는 시간과 일정한 메모리로 동작한다.<br><br>
+ *
+ * 값은 {@link FileParser} 와 같은 규칙으로 변환된다.
+ * <ul>
+ *     <li>{@code replacementOfNullValue}, {@code replacementOfEmptyValue} 와 일치하는 값은 빈 문자열로 변환된다.</li>
+ *     <li>{@code replacementOfCarriageReturn}, {@code replacementOfLineFeed} 는 각각 \r, \n 으로 변환된다.</li>
+ *     <li>{@code handleBinaryData} 가 true 인 경우 {@link FileParser#BINARY_DATA_WRAPPER} 로 감싸진 값은
+ *     {@code binaryEncoding}({@link BinaryEncoding}) 에 따라 {@code byte[]} 로 변환된다.</li>
+ *     <li>qualifier 가 지정된 경우 qualifier 안의 내용만 값으로 사용된다.</li>
+ *     <li>모든 record 의 컬럼 수는 첫번째 record(header 가 있는 경우 header)의 컬럼 수와 같아야 한다.</li>
+ * </ul>
+ * 마지막 record 뒤에 record separator 가 없어도 마지막 record 를 읽는다.
+ *
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * try (DelimitedRecordReader reader = DelimitedRecordReader.open(path, charset, template)) {
+ *     reader.readHeader();
+ *     for (Map&lt;String, Object&gt; record : reader.records()) {
+ *         ...
+ *     }
+ * }</pre>
+ *
+ * @see FileParser
+ * @see FileParserTemplate
+ */
+public class DelimitedRecordReader implements Closeable {
+    /**
+     * {@code ReadableByteChannel} 에서 한 번에 읽는 byte 수
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final long MAP_WINDOW_SIZE = 64L * 1024 * 1024;
+    private static final String BINARY_PREFIX = "<![BINARY[";
+    private static final String BINARY_SUFFIX = "]]>";
+
+    private enum FieldState {
+        UNQUOTED, QUOTED, CLOSED
+    }
+
+    //파싱 규칙
+    private final char[] delimiter;
+    private final char[] recordSeparator;
+    private final char[] qualifier;
+    private final String replacementOfNullValue;
+    private final String replacementOfEmptyValue;
+    private final String replacementOfCarriageReturn;
+    private final String replacementOfLineFeed;
+    private final boolean handleBinary;
+    private final BinaryEncoding binaryEncoding;
+
+    //입력
+    private final ReadableByteChannel channel;
+    private final FileChannel mappedChannel;
+    private final long mappedEnd;
+    private long windowStart;
+    private boolean closeChannel = true;
+    private ByteBuffer bytes;
+    private final CharsetDecoder decoder;
+    private CharBuffer chars;
+    private boolean inputDone;
+    private boolean decodeDone;
+
+    //파싱 상태
+    private final StringBuilder field = new StringBuilder();
+    private FieldState state = FieldState.UNQUOTED;
+    private int closedLength;
+    private List<String> headers;
+    private int expectedColumns;
+    private int recordNumber;
+
+    /**
+     * {@code ReadableByteChannel} 에서 데이터를 읽는 {@code DelimitedRecordReader} 를 생성한다.
+     *
+     * @param channel  the channel
+     * @param charset  the charset
+     * @param template the template
+     */
+    public DelimitedRecordReader(ReadableByteChannel channel, Charset charset, FileParserTemplate template) {
+        this(template, channel, null, 0, charset, null);
+    }
+
+    /**
+     * 메모리에 있는 문자열 데이터를 읽는 {@code DelimitedRecordReader} 를 생성한다.
+     *
+     * @param data     the data
+     * @param template the template
+     */
+    public DelimitedRecordReader(CharSequence data, FileParserTemplate template) {
+        this(template, null, null, 0, null, CharBuffer.wrap(data));
+    }
+
+    private DelimitedRecordReader(FileParserTemplate template, ReadableByteChannel channel, FileChannel mappedChannel
+            , long mappedEnd, Charset charset, CharBuffer data) {
+        this.delimiter = toChars(template.getDelimiter(), "delimiter");
+        this.recordSeparator = toChars(template.getRecordSeparator(), "recordSeparator");
+        String qualifierStr = template.getQualifier();
+        this.qualifier = qualifierStr == null ? new char[0] : qualifierStr.toCharArray();
+        this.replacementOfNullValue = nullToEmpty(template.getReplacementOfNullValue());
+        this.replacementOfEmptyValue = nullToEmpty(template.getReplacementOfEmptyValue());
+        this.replacementOfCarriageReturn = nullToEmpty(template.getReplacementOfCarriageReturn());
+        this.replacementOfLineFeed = nullToEmpty(template.getReplacementOfLineFeed());
+        this.handleBinary = template.isHandleBinaryData();
+        this.binaryEncoding = template.getBinaryEncoding();
+
+        this.channel = channel;
+        this.mappedChannel = mappedChannel;
+        this.mappedEnd = mappedEnd;
+        if (data != null) {
+            this.decoder = null;
+            this.chars = data;
+            this.inputDone = true;
+            this.decodeDone = true;
+        } else {
+            this.decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.chars = CharBuffer.allocate(DEFAULT_BUFFER_SIZE);
+            this.chars.flip();
+            if (mappedChannel != null) {
+                this.bytes = ByteBuffer.allocate(0);
+            } else {
+                this.bytes = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+                this.bytes.flip();
+            }
+        }
+    }
+
+    /**
+     * 파일을 memory-mapped 방식으로 읽는 {@code DelimitedRecordReader} 를 생성한다.
+     *
+     * @param path     the path
+     * @param charset  the charset
+     * @param template the template
+     * @return the delimited record reader
+     * @throws IOException the io exception
+     */
+    public static DelimitedRecordReader open(Path path, Charset charset, FileParserTemplate template) throws IOException {
+        FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+        return open(fileChannel, charset, template);
+    }
+
+    /**
+     * {@code FileChannel} 의 현재 위치부터 파일의 끝까지 memory-mapped 방식으로 읽는 {@code DelimitedRecordReader} 를 생성한다.<br>
+     * 생성된 객체를 close 하면 {@code fileChannel} 도 close 된다.
+     *
+     * @param fileChannel the file channel
+     * @param charset     the charset
+     * @param template    the template
+     * @return the delimited record reader
+     * @throws IOException the io exception
+     */
+    public static DelimitedRecordReader open(FileChannel fileChannel, Charset charset, FileParserTemplate template) throws IOException {
+        try {
+            DelimitedRecordReader reader = new DelimitedRecordReader(template, fileChannel, fileChannel, fileChannel.size(), charset, null);
+            reader.windowStart = fileChannel.position();
+            return reader;
+        } catch (RuntimeException re) {
+            fileChannel.close();
+            throw re;
+        }
+    }
+
+    /**
+     * {@code FileChannel} 의 {@code position} 부터 {@code size} byte 만큼의 영역을 memory-mapped 방식으로 읽는 {@code DelimitedRecordReader} 를 생성한다.<br>
+     * 여러 reader 가 하나의 채널을 나누어 읽을 수 있도록 생성된 객체를 close 해도 {@code fileChannel} 은 close 되지 않는다.
+     */
+    static DelimitedRecordReader openRegion(FileChannel fileChannel, long position, long size, Charset charset, FileParserTemplate template) {
+        DelimitedRecordReader reader = new DelimitedRecordReader(template, fileChannel, fileChannel, position + size, charset, null);
+        reader.windowStart = position;
+        reader.closeChannel = false;
+        return reader;
+    }
+
+    /**
+     * 다음 record 를 header 로 읽는다. header 의 값에는 replacement 규칙이 적용되지 않는다.
+     *
+     * @return the headers
+     * @throws IOException the io exception
+     */
+    public List<String> readHeader() throws IOException {
+        List<Object> columns = new ArrayList<>();
+        if (!parseRecord(columns, true))
+            throw new IllegalStateException("Invalid file content. Can not parse header columns. There is no header record.");
+        ++recordNumber;
+        List<String> headerList = new ArrayList<>(columns.size());
+        for (Object column : columns) {
+            headerList.add((String) column);
+        }
+        setHeaders(headerList);
+        return this.headers;
+    }
+
+    /**
+     * 파일에 header 가 없는 경우 record 를 {@code Map} 으로 읽을 때 사용할 컬럼명을 지정한다.
+     *
+     * @param headers the headers
+     */
+    public void setHeaders(List<String> headers) {
+        if (headers == null || headers.isEmpty())
+            throw new IllegalStateException("There are no columns to be parsed.");
+        this.headers = Collections.unmodifiableList(new ArrayList<>(headers));
+        this.expectedColumns = headers.size();
+    }
+
+    /*
+     * 다른 reader 가 읽은 첫번째 record 의 컬럼 수로 컬럼 수를 검증하도록 지정한다.
+     */
+    void expectColumns(int columns) {
+        this.expectedColumns = columns;
+    }
+
+    /**
+     * Gets headers.
+     *
+     * @return the headers. header 를 읽거나 지정하지 않은 경우 null
+     */
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * 마지막으로 읽은 record 의 번호를 가져온다. header 를 포함하여 1 부터 시작한다.
+     *
+     * @return the record number
+     */
+    public int getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * 다음 record 를 {@code List} 로 읽는다.
+     *
+     * @return the list. 더 이상 읽을 record 가 없는 경우 null
+     * @throws IOException the io exception
+     */
+    public List<Object> nextList() throws IOException {
+        List<Object> values = new ArrayList<>(expectedColumns == 0 ? 16 : expectedColumns);
+        if (!parseRecord(values, false))
+            return null;
+        ++recordNumber;
+        if (expectedColumns == 0) {
+            expectedColumns = values.size();
+        } else if (expectedColumns != values.size()) {
+            throw new IllegalStateException("Columns size mismatch. Record number " + recordNumber);
+        }
+        return values;
+    }
+
+    /**
+     * 다음 record 를 header 의 컬럼명을 key 로 하는 {@code Map} 으로 읽는다.
+     *
+     * @return the map. 더 이상 읽을 record 가 없는 경우 null
+     * @throws IOException the io exception
+     */
+    public Map<String, Object> nextRecord() throws IOException {
+        if (headers == null)
+            throw new IllegalStateException("The headers are not read. Call readHeader() or setHeaders(List) first.");
+        List<Object> values = nextList();
+        if (values == null)
+            return null;
+        int size = values.size();
+        Map<String, Object> record = new LinkedHashMap<>((int) (size / 0.75f) + 1);
+        for (int i = 0; i < size; i++) {
+            record.put(headers.get(i), values.get(i));
+        }
+        return record;
+    }
+
+    /**
+     * 남은 record 들을 {@code List} 로 순회하는 {@code Iterable} 을 가져온다. IO 에러는 {@link IllegalStateException} 으로 전달된다.
+     *
+     * @return the iterable
+     */
+    public Iterable<List<Object>> lists() {
+        return new Iterable<List<Object>>() {
+            @Override
+            public Iterator<List<Object>> iterator() {
+                return new RecordIterator<List<Object>>() {
+                    @Override
+                    List<Object> read() throws IOException {
+                        return nextList();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * 남은 record 들을 {@code Map} 으로 순회하는 {@code Iterable} 을 가져온다. IO 에러는 {@link IllegalStateException} 으로 전달된다.
+     *
+     * @return the iterable
+     */
+    public Iterable<Map<String, Object>> records() {
+        return new Iterable<Map<String, Object>>() {
+            @Override
+            public Iterator<Map<String, Object>> iterator() {
+                return new RecordIterator<Map<String, Object>>() {
+                    @Override
+                    Map<String, Object> read() throws IOException {
+                        return nextRecord();
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null && closeChannel) {
+            channel.close();
+        }
+    }
+
+    /*
+     * record 하나를 읽어 values 에 추가한다.
+     * 입력의 끝에 도달하여 읽은 내용이 없는 경우 false 를 반환한다.
+     */
+    private boolean parseRecord(List<Object> values, boolean raw) throws IOException {
+        for (;;) {
+            if (!chars.hasRemaining() && !fillChars()) {
+                return finishAtEnd(values, raw);
+            }
+            if (chars.hasArray()) {
+                char[] array = chars.array();
+                int offset = chars.arrayOffset();
+                int pos = chars.position() + offset;
+                int limit = chars.limit() + offset;
+                while (pos < limit) {
+                    if (accept(array[pos++], values, raw)) {
+                        chars.position(pos - offset);
+                        return true;
+                    }
+                }
+                chars.position(limit - offset);
+            } else {
+                while (chars.hasRemaining()) {
+                    if (accept(chars.get(), values, raw))
+                        return true;
+                }
+            }
+        }
+    }
+
+    /*
+     * 문자 하나를 처리한다. record 가 끝난 경우 true 를 반환한다.
+     * qualifier 가 없는 경우 delimiter, record separator 순서로 비교한다.
+     * qualifier 가 있는 경우 qualifier 안의 내용만 값으로 사용하며, qualifier 밖의 문자는 버린다.
+     */
+    private boolean accept(char c, List<Object> values, boolean raw) {
+        field.append(c);
+        switch (state) {
+            case QUOTED:
+                if (endsWith(qualifier, c, 0)) {
+                    field.setLength(field.length() - qualifier.length);
+                    closedLength = field.length();
+                    state = FieldState.CLOSED;
+                }
+                return false;
+            case CLOSED:
+                if (endsWith(qualifier, c, closedLength)) {
+                    //닫힌 qualifier 뒤에 qualifier 가 다시 나온 경우 새로운 값으로 시작한다.
+                    field.setLength(0);
+                    state = FieldState.QUOTED;
+                    return false;
+                }
+                if (endsWith(delimiter, c, closedLength)) {
+                    field.setLength(closedLength);
+                    endField(values, raw);
+                    return false;
+                }
+                if (endsWith(recordSeparator, c, closedLength)) {
+                    field.setLength(closedLength);
+                    endField(values, raw);
+                    return true;
+                }
+                return false;
+            default:
+                if (qualifier.length > 0 && endsWith(qualifier, c, 0)) {
+                    field.setLength(0);
+                    state = FieldState.QUOTED;
+                    return false;
+                }
+                if (endsWith(delimiter, c, 0)) {
+                    field.setLength(qualifier.length > 0 ? 0 : field.length() - delimiter.length);
+                    endField(values, raw);
+                    return false;
+                }
+                if (endsWith(recordSeparator, c, 0)) {
+                    field.setLength(qualifier.length > 0 ? 0 : field.length() - recordSeparator.length);
+                    endField(values, raw);
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    private boolean finishAtEnd(List<Object> values, boolean raw) {
+        if (state == FieldState.QUOTED)
+            throw new IllegalStateException("Invalid file content. The qualifier is not closed. Record number " + (recordNumber + 1));
+        if (state == FieldState.UNQUOTED && field.length() == 0 && values.isEmpty())
+            return false;
+        if (state == FieldState.CLOSED) {
+            field.setLength(closedLength);
+        } else if (qualifier.length > 0) {
+            field.setLength(0);
+        }
+        endField(values, raw);
+        return true;
+    }
+
+    //field 의 마지막 문자들이 pattern 과 일치하는 지 확인한다. 마지막 문자가 다른 경우 바로 false 를 반환한다.
+    private boolean endsWith(char[] pattern, char last, int from) {
+        int patternLen = pattern.length;
+        if (patternLen == 0 || pattern[patternLen - 1] != last)
+            return false;
+        int start = field.length() - patternLen;
+        if (start < from)
+            return false;
+        for (int i = 0; i < patternLen - 1; i++) {
+            if (field.charAt(start + i) != pattern[i])
+                return false;
+        }
+        return true;
+    }
+
+    private void endField(List<Object> values, boolean raw) {
+        state = FieldState.UNQUOTED;
+        closedLength = 0;
+        if (raw) {
+            values.add(field.toString());
+            field.setLength(0);
+            return;
+        }
+        if (contentEquals(field, replacementOfNullValue) || contentEquals(field, replacementOfEmptyValue)) {
+            field.setLength(0);
+        }
+        replaceAll(field, replacementOfCarriageReturn, "\r");
+        replaceAll(field, replacementOfLineFeed, "\n");
+        Object value = null;
+        if (handleBinary) {
+            value = toByteArray(field, binaryEncoding, recordNumber + 1);
+        }
+        values.add(value != null ? value : field.toString());
+        field.setLength(0);
+    }
+
+    private static boolean contentEquals(StringBuilder buffer, String value) {
+        int len = value.length();
+        if (len == 0 || buffer.length() != len)
+            return false;
+        for (int i = 0; i < len; i++) {
+            if (buffer.charAt(i) != value.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private static void replaceAll(StringBuilder buffer, String target, String replacement) {
+        if (target.isEmpty())
+            return;
+        int idx = buffer.indexOf(target);
+        while (idx != -1) {
+            buffer.replace(idx, idx + target.length(), replacement);
+            idx = buffer.indexOf(target, idx + replacement.length());
+        }
+    }
+
+    private static byte[] toByteArray(StringBuilder buffer, BinaryEncoding encoding, int recordNumber) {
+        int len = buffer.length();
+        int prefixLen = BINARY_PREFIX.length();
+        int suffixLen = BINARY_SUFFIX.length();
+        if (len < prefixLen + suffixLen
+                || buffer.lastIndexOf(BINARY_PREFIX, 0) != 0
+                || buffer.indexOf(BINARY_SUFFIX, len - suffixLen) != len - suffixLen)
+            return null;
+
+        int end = len - suffixLen;
+        if (end == prefixLen)
+            return new byte[0];
+        switch (encoding) {
+            case BASE64: {
+                byte[] result = Base64.toByte(buffer.substring(prefixLen, end));
+                if (result == null)
+                    throw new IllegalStateException("Invalid BASE64 binary data. Record number " + recordNumber);
+                return result;
+            }
+            case HEX:
+                return hexToByteArray(buffer, prefixLen, end, recordNumber);
+            default:
+                return decimalToByteArray(buffer, prefixLen, end);
+        }
+    }
+
+    private static byte[] decimalToByteArray(StringBuilder buffer, int start, int end) {
+        int count = 1;
+        for (int i = start; i < end; i++) {
+            if (buffer.charAt(i) == ' ') {
+                ++count;
+            }
+        }
+        byte[] result = new byte[count];
+        int idx = 0;
+        int tokenStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer.charAt(i) == ' ') {
+                result[idx++] = Byte.parseByte(buffer.substring(tokenStart, i));
+                tokenStart = i + 1;
+            }
+        }
+        return result;
+    }
+
+    private static byte[] hexToByteArray(StringBuilder buffer, int start, int end, int recordNumber) {
+        if ((end - start) % 2 != 0)
+            throw new IllegalStateException("Invalid HEX binary data. The length must be even. Record number " + recordNumber);
+        byte[] result = new byte[(end - start) / 2];
+        for (int i = 0; i < result.length; i++) {
+            int high = Character.digit(buffer.charAt(start + i * 2), 16);
+            int low = Character.digit(buffer.charAt(start + i * 2 + 1), 16);
+            if (high < 0 || low < 0)
+                throw new IllegalStateException("Invalid HEX binary data. Record number " + recordNumber);
+            result[i] = (byte) ((high << 4) | low);
+        }
+        return result;
+    }
+
+    /*
+     * chars 를 비우고 다음 문자들을 decode 한다. 더 이상 decode 할 문자가 없는 경우 false 를 반환한다.
+     * decode 되지 않고 남은 byte(문자의 일부)는 다음 byte 들과 함께 decode 된다.
+     */
+    private boolean fillChars() throws IOException {
+        if (decodeDone)
+            return false;
+        chars.clear();
+        boolean needInput = !bytes.hasRemaining();
+        while (chars.position() == 0 && !decodeDone) {
+            if (needInput && !inputDone) {
+                readBytes();
+            }
+            CoderResult result = decoder.decode(bytes, chars, inputDone);
+            if (result.isUnderflow()) {
+                if (inputDone) {
+                    if (decoder.flush(chars).isUnderflow()) {
+                        decodeDone = true;
+                    }
+                } else {
+                    needInput = true;
+                }
+            } else if (result.isOverflow()) {
+                needInput = false;
+            } else {
+                result.throwException();
+            }
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+
+    private void readBytes() throws IOException {
+        if (mappedChannel != null) {
+            long position = windowStart + bytes.position();
+            if (position >= mappedEnd || (bytes.limit() > 0 && windowStart + bytes.limit() >= mappedEnd)) {
+                inputDone = true;
+                return;
+            }
+            long length = Math.min(MAP_WINDOW_SIZE, mappedEnd - position);
+            bytes = mappedChannel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            windowStart = position;
+            return;
+        }
+        bytes.compact();
+        int read = channel.read(bytes);
+        bytes.flip();
+        if (read < 0) {
+            inputDone = true;
+        }
+    }
+
+    private static char[] toChars(String value, String name) {
+        if (value == null || value.isEmpty())
+            throw new IllegalArgumentException("The " + name + " of the FileParserTemplate must not be empty");
+        return value.toCharArray();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private abstract class RecordIterator<T> implements Iterator<T> {
+        private T next;
+        private boolean fetched;
+
+        abstract T read() throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                try {
+                    next = read();
+                } catch (IOException ie) {
+                    throw new IllegalStateException("Failed to read the next record. Record number " + (recordNumber + 1), ie);
+                }
+                fetched = true;
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            fetched = false;
+            T result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
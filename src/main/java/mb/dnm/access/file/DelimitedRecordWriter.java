@@ -0,0 +1,363 @@
+package mb.dnm.access.file;
+
+import mb.dnm.access.crypto.Base64;
+import mb.dnm.code.BinaryEncoding;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * {@link FileParserTemplate} 형식의 구분자 파일을 작성하는 객체이다. {@link DelimitedRecordReader} 로 다시 읽을 수 있는 형식으로 작성된다.<br>
+ * row 마다 문자열을 만들지 않고 값을 재사용하는 {@code CharBuffer} 에 바로 쓰며, 하나의 {@code CharsetEncoder} 로 encode 한 byte 는
+ * direct {@code ByteBuffer} 에 모아 두었다가 버퍼가 가득 찼을 때 한 번에 {@code WritableByteChannel} 에 쓴다.<br><br>
+ *
+ * 값은 다음과 같은 규칙으로 작성된다.
+ * <ul>
+ *     <li>null 은 {@code replacementOfNullValue}, 빈 문자열은 {@code replacementOfEmptyValue} 로 작성된다.
+ *     {@code replacementOfNullValue} 가 빈 문자열인 경우 null 도 {@code replacementOfEmptyValue} 로 작성된다.</li>
+ *     <li>값에 포함된 \r, \n 은 각각 {@code replacementOfCarriageReturn}, {@code replacementOfLineFeed} 로 작성된다.</li>
+ *     <li>{@code byte[]} 는 {@code binaryToString} 이 true 인 경우 charset 으로 변환한 문자열로,
+ *     {@code handleBinaryData} 가 true 인 경우 {@link FileParser#BINARY_DATA_WRAPPER} 안에 {@code binaryEncoding}({@link BinaryEncoding}) 형식으로 작성된다.
+ *     둘 다 false 인 경우 null 로 취급된다.</li>
+ *     <li>그 외의 값은 {@code String.valueOf(Object)} 로 작성된다.</li>
+ * </ul>
+ *
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * try (DelimitedRecordWriter writer = new DelimitedRecordWriter(channel, charset, template, false)) {
+ *     writer.writeHeader(columns);
+ *     for (Map&lt;String, Object&gt; row : rows) {
+ *         writer.writeRecord(row, columns);
+ *     }
+ * }</pre>
+ *
+ * @see DelimitedRecordReader
+ * @see mb.dnm.service.file.WriteFile
+ */
+public class DelimitedRecordWriter implements Closeable {
+    /**
+     * 채널에 한 번에 쓰는 최대 byte 수
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    private static final int CHAR_BUFFER_SIZE = 16 * 1024;
+    private static final String BINARY_PREFIX = "<![BINARY[";
+    private static final String BINARY_SUFFIX = "]]>";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String delimiter;
+    private final String recordSeparator;
+    private final String qualifier;
+    private final String replacementOfNullValue;
+    private final String replacementOfEmptyValue;
+    private final String replacementOfCarriageReturn;
+    private final String replacementOfLineFeed;
+    private final boolean handleBinary;
+    private final boolean binaryToString;
+    private final BinaryEncoding binaryEncoding;
+
+    private final WritableByteChannel channel;
+    private final Charset charset;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars;
+    private final char[] charArray;
+    private final ByteBuffer bytes;
+    private long bytesWritten = 0;
+    private long recordCount = 0;
+    private boolean closed = false;
+
+    /**
+     * Instantiates a new Delimited record writer.
+     *
+     * @param channel        the channel
+     * @param charset        the charset
+     * @param template       the template. {@code headerExist} 속성은 사용되지 않는다.
+     * @param binaryToString {@code byte[]} 를 charset 으로 변환한 문자열로 작성할 지 여부. {@code template.handleBinaryData} 보다 우선한다.
+     */
+    public DelimitedRecordWriter(WritableByteChannel channel, Charset charset, FileParserTemplate template, boolean binaryToString) {
+        this.delimiter = nullToEmpty(template.getDelimiter());
+        this.recordSeparator = nullToEmpty(template.getRecordSeparator());
+        this.qualifier = nullToEmpty(template.getQualifier());
+        this.replacementOfNullValue = nullToEmpty(template.getReplacementOfNullValue());
+        this.replacementOfEmptyValue = nullToEmpty(template.getReplacementOfEmptyValue());
+        this.replacementOfCarriageReturn = nullToEmpty(template.getReplacementOfCarriageReturn());
+        this.replacementOfLineFeed = nullToEmpty(template.getReplacementOfLineFeed());
+        this.handleBinary = template.isHandleBinaryData();
+        this.binaryToString = binaryToString;
+        this.binaryEncoding = template.getBinaryEncoding();
+
+        this.channel = channel;
+        this.charset = charset;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.charArray = new char[CHAR_BUFFER_SIZE];
+        this.chars = CharBuffer.wrap(charArray);
+        this.bytes = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 문자열을 변환하지 않고 그대로 작성한다. 메타데이터 등을 작성할 때 사용된다.
+     *
+     * @param text the text
+     * @throws IOException the io exception
+     */
+    public void write(String text) throws IOException {
+        ensureOpen();
+        append(text);
+    }
+
+    /**
+     * 컬럼명을 header 로 작성한다. 컬럼명에는 replacement 규칙이 적용되지 않는다.
+     *
+     * @param columns the columns
+     * @throws IOException the io exception
+     */
+    public void writeHeader(List<String> columns) throws IOException {
+        ensureOpen();
+        int size = columns.size();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                append(delimiter);
+            }
+            append(qualifier);
+            append(columns.get(i));
+            append(qualifier);
+        }
+        append(recordSeparator);
+    }
+
+    /**
+     * {@code columns} 의 순서대로 {@code row} 의 값을 하나의 record 로 작성한다.
+     *
+     * @param row     the row
+     * @param columns the columns
+     * @throws IOException the io exception
+     */
+    public void writeRecord(Map<String, Object> row, List<String> columns) throws IOException {
+        ensureOpen();
+        int size = columns.size();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                append(delimiter);
+            }
+            append(qualifier);
+            appendValue(row.get(columns.get(i)));
+            append(qualifier);
+        }
+        append(recordSeparator);
+        ++recordCount;
+    }
+
+    /**
+     * {@code values} 를 하나의 record 로 작성한다.
+     *
+     * @param values the values
+     * @throws IOException the io exception
+     */
+    public void writeValues(List<?> values) throws IOException {
+        ensureOpen();
+        int size = values.size();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                append(delimiter);
+            }
+            append(qualifier);
+            appendValue(values.get(i));
+            append(qualifier);
+        }
+        append(recordSeparator);
+        ++recordCount;
+    }
+
+    /**
+     * 버퍼에 남은 데이터를 모두 채널에 쓴다.
+     *
+     * @throws IOException the io exception
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        encodeChars(false);
+        drainBytes();
+    }
+
+    /**
+     * 채널에 쓴 byte 수를 가져온다. 버퍼에 남아있는 데이터는 포함되지 않는다.
+     *
+     * @return the bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * 작성한 record 의 수를 가져온다. header 는 포함되지 않는다.
+     *
+     * @return the record count
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * 버퍼에 남은 데이터를 모두 쓴 뒤 채널을 닫는다.
+     *
+     * @throws IOException the io exception
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        try {
+            encodeChars(true);
+            for (;;) {
+                CoderResult result = encoder.flush(bytes);
+                if (!result.isOverflow())
+                    break;
+                drainBytes();
+            }
+            drainBytes();
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    private void appendValue(Object value) throws IOException {
+        if (value instanceof byte[]) {
+            byte[] binary = (byte[]) value;
+            if (binaryToString) {
+                value = new String(binary, charset);
+            } else if (handleBinary) {
+                appendBinary(binary);
+                return;
+            } else {
+                value = null;
+            }
+        }
+        //null 을 바꾼 값이 빈 문자열인 경우에는 빈 문자열과 같이 replacementOfEmptyValue 로 작성한다.
+        String str = value == null ? replacementOfNullValue : value instanceof String ? (String) value : String.valueOf(value);
+        appendEscaped(str.isEmpty() ? replacementOfEmptyValue : str);
+    }
+
+    //값을 쓰며 \r, \n 을 replacement 로 바꾼다. 바꿀 문자가 없는 구간은 한 번에 복사한다.
+    private void appendEscaped(String value) throws IOException {
+        int len = value.length();
+        int runStart = 0;
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            if (c == '\r' || c == '\n') {
+                append(value, runStart, i);
+                append(c == '\r' ? replacementOfCarriageReturn : replacementOfLineFeed);
+                runStart = i + 1;
+            }
+        }
+        append(value, runStart, len);
+    }
+
+    private void appendBinary(byte[] binary) throws IOException {
+        append(BINARY_PREFIX);
+        switch (binaryEncoding) {
+            case BASE64:
+                append(Base64.toString(binary));
+                break;
+            case HEX:
+                for (byte b : binary) {
+                    append(HEX_DIGITS[(b >> 4) & 0x0F]);
+                    append(HEX_DIGITS[b & 0x0F]);
+                }
+                break;
+            default:
+                appendDecimal(binary);
+        }
+        append(BINARY_SUFFIX);
+    }
+
+    private void appendDecimal(byte[] binary) throws IOException {
+        for (int i = 0; i < binary.length; i++) {
+            if (i > 0) {
+                append(' ');
+            }
+            int b = binary[i];
+            if (b < 0) {
+                append('-');
+                b = -b;
+            }
+            if (b >= 100) {
+                append((char) ('0' + b / 100));
+                append((char) ('0' + (b / 10) % 10));
+            } else if (b >= 10) {
+                append((char) ('0' + b / 10));
+            }
+            append((char) ('0' + b % 10));
+        }
+    }
+
+    private void append(String str) throws IOException {
+        append(str, 0, str.length());
+    }
+
+    private void append(String str, int start, int end) throws IOException {
+        while (start < end) {
+            if (!chars.hasRemaining()) {
+                encodeChars(false);
+            }
+            int position = chars.position();
+            int count = Math.min(chars.remaining(), end - start);
+            str.getChars(start, start + count, charArray, position);
+            chars.position(position + count);
+            start += count;
+        }
+    }
+
+    private void append(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encodeChars(false);
+        }
+        chars.put(c);
+    }
+
+    /*
+     * chars 에 모인 문자들을 bytes 로 encode 한다. bytes 가 가득 찬 경우 채널에 쓴 뒤 계속한다.
+     * surrogate pair 의 앞부분만 남은 경우 다음 문자와 함께 encode 된다.
+     */
+    private void encodeChars(boolean endOfInput) throws IOException {
+        chars.flip();
+        for (;;) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drainBytes();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        chars.compact();
+    }
+
+    private void drainBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            bytesWritten += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    private void ensureOpen() {
+        if (closed)
+            throw new IllegalStateException("The writer is already closed");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,251 @@
+package mb.dnm.access.file;
+
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.code.FileSortOrder;
+import mb.dnm.code.FileType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+
+/**
+ * 디렉터리의 파일 목록을 NIO 로 탐색하는 객체이다.<br>
+ * {@code baseDirectory} 바로 아래의 파일 중 {@code fileNamePattern}(glob) 과 {@code type} 에 맞는 파일을 {@code DirectoryStream} 으로 가져오며,
+ * {@code recursive} 가 true 인 경우 가져온 디렉터리의 하부를 {@code Files.walkFileTree} 로 필터링 없이 탐색한다.
+ * 파일의 속성({@code BasicFileAttributes})은 탐색하면서 함께 읽으며, 속성을 다시 조회하지 않고 필터링과 정렬에 사용한다.<br><br>
+ *
+ * 가져온 경로는 {@code baseDirectory} 이후의 상대경로이며, 디렉터리는 경로의 끝에 파일 구분자가 붙는다. ({@link FileList} 의 규칙과 같다.)
+ *
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * DirectoryScanner scanner = new DirectoryScanner(Paths.get("/data/recv"), "*.dat", FileType.FILE, false, Integer.MAX_VALUE);
+ * List&lt;String&gt; oldest = scanner.list(FileSortOrder.OLDEST_FIRST, 100);</pre>
+ *
+ * @see FileListStream
+ * @see mb.dnm.service.file.ListFiles
+ */
+@Slf4j
+public class DirectoryScanner {
+    private final Path baseDirectory;
+    private final String fileNamePattern;
+    private final FileType type;
+    private final boolean recursive;
+    private final int maxDepth;
+
+    /**
+     * Instantiates a new Directory scanner.
+     *
+     * @param baseDirectory   탐색할 디렉터리
+     * @param fileNamePattern {@code baseDirectory} 바로 아래의 파일명에 적용할 glob 패턴. null 인 경우 모든 파일을 가져온다.
+     * @param type            {@code baseDirectory} 바로 아래의 파일에 적용할 파일 유형. null 인 경우 {@code ALL}
+     * @param recursive       디렉터리의 하부를 재귀적으로 탐색할 지 여부. {@code type} 이 {@code FILE} 인 경우 사용되지 않는다.
+     * @param maxDepth        {@code baseDirectory} 로부터 탐색할 최대 깊이. 1인 경우 {@code baseDirectory} 바로 아래의 파일만 가져온다.
+     */
+    public DirectoryScanner(Path baseDirectory, String fileNamePattern, FileType type, boolean recursive, int maxDepth) {
+        if (maxDepth < 1)
+            throw new IllegalArgumentException("The max depth must be greater than 0. Inputted value: " + maxDepth);
+        this.baseDirectory = baseDirectory;
+        this.fileNamePattern = fileNamePattern == null || fileNamePattern.isEmpty() ? "*" : fileNamePattern;
+        this.type = type == null ? FileType.ALL : type;
+        this.recursive = recursive && this.type != FileType.FILE && maxDepth > 1;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * 파일 목록을 가져온다.<br>
+     * {@code limit} 이 지정된 경우 정렬 순서의 앞에서부터 {@code limit} 개만 가져오며, 정렬하는 경우에도 {@code limit} 개의 경로만 메모리에 유지한다.
+     * 정렬하지 않는 경우 {@code limit} 개를 가져온 뒤 탐색을 멈춘다.
+     *
+     * @param sortOrder the sort order
+     * @param limit     가져올 최대 파일 수. 0 인 경우 모두 가져온다.
+     * @return {@code baseDirectory} 이후의 상대경로 목록
+     * @throws IOException the io exception
+     */
+    public List<String> list(FileSortOrder sortOrder, int limit) throws IOException {
+        if (limit < 0)
+            throw new IllegalArgumentException("The limit must not be negative. Inputted value: " + limit);
+        final Collector collector = new Collector(sortOrder == null ? FileSortOrder.NONE : sortOrder, limit);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(baseDirectory, fileNamePattern)) {
+            for (Path entry : stream) {
+                BasicFileAttributes attributes = readAttributes(entry);
+                if (!accept(attributes))
+                    continue;
+                if (!collector.add(relativePath(entry, attributes), attributes))
+                    break;
+                if (recursive && attributes.isDirectory() && !walk(entry, collector))
+                    break;
+            }
+        }
+        return collector.result();
+    }
+
+    //가져온 디렉터리의 하부를 maxDepth 까지 탐색한다. collector 가 가득 찬 경우 false 를 반환한다.
+    private boolean walk(final Path directory, final Collector collector) throws IOException {
+        final boolean[] completed = {true};
+        Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), maxDepth - 1, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (dir.equals(directory))
+                    return FileVisitResult.CONTINUE;
+                return add(dir, attrs);
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                //maxDepth 에 위치한 디렉터리도 visitFile 로 전달된다.
+                return add(file, attrs);
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                log.debug("Can not access the file \"{}\". Cause: {}", file, exc.toString());
+                return FileVisitResult.CONTINUE;
+            }
+
+            private FileVisitResult add(Path path, BasicFileAttributes attrs) {
+                if (collector.add(relativePath(path, attrs), attrs))
+                    return FileVisitResult.CONTINUE;
+                completed[0] = false;
+                return FileVisitResult.TERMINATE;
+            }
+        });
+        return completed[0];
+    }
+
+    /**
+     * Gets base directory.
+     *
+     * @return the base directory
+     */
+    public Path getBaseDirectory() {
+        return baseDirectory;
+    }
+
+    String getFileNamePattern() {
+        return fileNamePattern;
+    }
+
+    boolean isRecursive() {
+        return recursive;
+    }
+
+    int getMaxDepth() {
+        return maxDepth;
+    }
+
+    //baseDirectory 바로 아래의 파일에 type 필터를 적용한다.
+    boolean accept(BasicFileAttributes attributes) {
+        switch (type) {
+            case DIRECTORY: return attributes.isDirectory();
+            case FILE: return attributes.isRegularFile();
+            default: return true;
+        }
+    }
+
+    String relativePath(Path path, BasicFileAttributes attributes) {
+        String relative = baseDirectory.relativize(path).toString();
+        if (attributes.isDirectory() && !relative.endsWith(File.separator)) {
+            relative += File.separator;
+        }
+        return relative;
+    }
+
+    //심볼릭 링크는 링크 대상의 속성을 읽으며, 링크 대상이 없는 경우 링크 자체의 속성을 읽는다.
+    static BasicFileAttributes readAttributes(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+    }
+
+    private static class Entry {
+        private final String path;
+        private final long lastModified;
+
+        Entry(String path, long lastModified) {
+            this.path = path;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /*
+     * 탐색한 경로를 모으는 객체.
+     * 정렬하는 경우 limit 개의 경로만 유지하도록 정렬 순서의 역순인 heap 을 사용한다.
+     */
+    private static class Collector {
+        private final FileSortOrder sortOrder;
+        private final int limit;
+        private final List<String> paths;
+        private final PriorityQueue<Entry> heap;
+        private final Comparator<Entry> comparator;
+
+        Collector(FileSortOrder sortOrder, int limit) {
+            this.sortOrder = sortOrder;
+            this.limit = limit;
+            if (sortOrder == FileSortOrder.NONE) {
+                this.paths = new ArrayList<>();
+                this.heap = null;
+                this.comparator = null;
+            } else {
+                this.paths = null;
+                this.comparator = comparatorOf(sortOrder);
+                this.heap = limit > 0 ? new PriorityQueue<>(limit + 1, Collections.reverseOrder(comparator)) : new PriorityQueue<>(11, comparator);
+            }
+        }
+
+        //더 가져올 수 있는 경우 true 를 반환한다.
+        boolean add(String path, BasicFileAttributes attributes) {
+            if (heap == null) {
+                paths.add(path);
+                return limit == 0 || paths.size() < limit;
+            }
+            long lastModified = sortOrder == FileSortOrder.NAME ? 0 : attributes.lastModifiedTime().toMillis();
+            heap.add(new Entry(path, lastModified));
+            if (limit > 0 && heap.size() > limit) {
+                heap.poll();
+            }
+            return true;
+        }
+
+        List<String> result() {
+            if (heap == null)
+                return paths;
+            List<Entry> entries = new ArrayList<>(heap);
+            Collections.sort(entries, comparator);
+            List<String> result = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                result.add(entry.path);
+            }
+            return result;
+        }
+
+        private static Comparator<Entry> comparatorOf(final FileSortOrder sortOrder) {
+            return new Comparator<Entry>() {
+                @Override
+                public int compare(Entry e1, Entry e2) {
+                    int result = 0;
+                    if (sortOrder == FileSortOrder.OLDEST_FIRST) {
+                        result = Long.compare(e1.lastModified, e2.lastModified);
+                    } else if (sortOrder == FileSortOrder.NEWEST_FIRST) {
+                        result = Long.compare(e2.lastModified, e1.lastModified);
+                    }
+                    return result != 0 ? result : e1.path.compareTo(e2.path);
+                }
+            };
+        }
+    }
+}
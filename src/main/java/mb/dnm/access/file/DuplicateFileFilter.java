@@ -0,0 +1,233 @@
+package mb.dnm.access.file;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.ClosableStreamWrapper;
+import mb.dnm.code.ProcessCode;
+import mb.dnm.core.context.ServiceContext;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * 파일 내용의 hash 로 이미 처리한 파일과 같은 내용의 파일을 걸러내는 객체이다.<br>
+ * 파일 내용의 hash 를 계산하여 {@link ContentHashIndex} 에 등록된 hash 와 비교한다.
+ * 같은 목록 안에 같은 내용의 파일이 여러 개 있는 경우 첫번째 파일만 남긴다. 디렉터리 등 일반 파일이 아닌 경로와 크기가 0 인 파일은 걸러내지 않는다.<br><br>
+ *
+ * 걸러내지 않은 파일의 hash 는 {@code registerOnSuccess} 가 true 인 경우 서비스 프로세스가 성공적으로 종료된 뒤 등록되므로,
+ * 프로세스가 실패한 경우 다음 프로세스에서 같은 파일을 다시 처리할 수 있다.
+ * 단, 같은 내용의 파일을 처리하는 프로세스가 동시에 실행되는 경우 두 프로세스 모두 파일을 처리할 수 있다.
+ *
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * &lt;property name="duplicateFilter"&gt;
+ *     &lt;bean class="mb.dnm.access.file.DuplicateFileFilter"&gt;
+ *         &lt;property name="hashIndexFile"          value="<span style="color: black; background-color: #FAF3D4;">hash 저장 파일 경로</span>"/&gt;
+ *         &lt;property name="ttlHours"               value="<span style="color: black; background-color: #FAF3D4;">hash 유효 시간</span>"/&gt;
+ *         &lt;property name="maxEntries"             value="<span style="color: black; background-color: #FAF3D4;">저장할 최대 hash 수</span>"/&gt;
+ *     &lt;/bean&gt;
+ * &lt;/property&gt;</pre>
+ *
+ * @see ContentHashIndex
+ * @see mb.dnm.service.file.FilterDuplicateFiles
+ */
+@Slf4j
+@Setter @Getter
+public class DuplicateFileFilter implements Serializable {
+    private static final long serialVersionUID = -3182563413562316570L;
+    private static final int HASH_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * 기본값: null<br>
+     * hash 를 저장할 파일의 경로이다. 같은 경로를 사용하는 서비스들은 hash 를 공유한다.
+     * */
+    private String hashIndexFile;
+    /**
+     * 기본값: SHA-256<br>
+     * hash 알고리즘이다. {@code MessageDigest} 가 지원하는 알고리즘을 사용할 수 있다.
+     * */
+    private String algorithm = "SHA-256";
+    /**
+     * 기본값: 168 (7일)<br>
+     * hash 가 등록된 뒤 유효한 시간이다. 0 인 경우 만료되지 않는다.
+     * */
+    private int ttlHours = 168;
+    /**
+     * 기본값: 100000<br>
+     * 저장할 최대 hash 수이다. 넘는 경우 오래된 hash 부터 삭제된다.
+     * */
+    private int maxEntries = 100000;
+    /**
+     * 기본값: true<br>
+     * 걸러내지 않은 파일의 hash 를 서비스 프로세스가 성공적으로 종료된 뒤에 등록할 지에 대한 설정이다. false 인 경우 걸러낸 즉시 등록한다.
+     * */
+    private boolean registerOnSuccess = true;
+
+    /**
+     * 이미 처리한 파일과 같은 내용의 파일을 걸러낸다.
+     *
+     * @param ctx        the ctx
+     * @param files      the files
+     * @param duplicates 걸러낸 파일이 추가될 목록. null 인 경우 추가하지 않는다.
+     * @return 걸러내지 않은 파일 목록. {@code files} 의 순서를 유지한다.
+     * @throws IOException the io exception
+     */
+    public List<Path> filter(ServiceContext ctx, List<Path> files, List<Path> duplicates) throws IOException {
+        if (hashIndexFile == null || hashIndexFile.trim().isEmpty())
+            throw new IllegalStateException("The 'hashIndexFile' property of the duplicate file filter is required");
+        String txId = ctx.getTxId();
+        ContentHashIndex index = ContentHashIndex.access(Paths.get(hashIndexFile));
+        long ttlMillis = ttlHours * 3600000L;
+
+        List<Path> passed = new ArrayList<>(files.size());
+        Map<String, String> newHashes = new LinkedHashMap<>();
+        MessageDigest digest = newDigest(algorithm);
+        ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE);
+        for (Path file : files) {
+            //내용이 없는 파일은 모두 같은 hash 를 가지므로 중복으로 판단하지 않는다.
+            if (!Files.isRegularFile(file) || Files.size(file) == 0) {
+                passed.add(file);
+                continue;
+            }
+            String hash = hash(file, digest, buffer);
+            String previous = newHashes.get(hash);
+            if (previous == null) {
+                previous = index.lookup(hash, ttlMillis);
+            }
+            if (previous != null) {
+                log.info("[{}]The file \"{}\" is skipped. The same content was processed as \"{}\". {}: {}", txId, file, previous, algorithm, hash);
+                if (duplicates != null) {
+                    duplicates.add(file);
+                }
+                continue;
+            }
+            newHashes.put(hash, file.toString());
+            passed.add(file);
+        }
+
+        if (!newHashes.isEmpty()) {
+            if (registerOnSuccess) {
+                RegisterSession session = new RegisterSession(ctx, index, newHashes, ttlMillis, maxEntries);
+                ctx.addSession("$content_hash@" + System.identityHashCode(session), session);
+            } else {
+                index.register(newHashes, ttlMillis, maxEntries);
+            }
+        }
+        log.debug("[{}]Duplicate file filter result: input={}, passed={}, duplicated={}", txId, files.size(), passed.size(), files.size() - passed.size());
+        return passed;
+    }
+
+    /**
+     * 파일 내용의 hash 를 16진수 문자열로 계산한다.
+     *
+     * @param file      the file
+     * @param algorithm the algorithm
+     * @return the hash
+     * @throws IOException the io exception
+     */
+    public static String hash(Path file, String algorithm) throws IOException {
+        return hash(file, newDigest(algorithm), ByteBuffer.allocate(HASH_BUFFER_SIZE));
+    }
+
+    /*
+     * 파일을 buffer 크기 단위로 읽으며 hash 를 계산한다. 여러 파일을 확인할 때 digest 와 buffer 를 재사용한다.
+     * memory-mapped 방식으로 읽는 경우 Windows 에서 mapping 이 해제될 때까지 파일을 삭제할 수 없으므로 사용하지 않는다.
+     */
+    private static String hash(Path file, MessageDigest digest, ByteBuffer buffer) throws IOException {
+        digest.reset();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        byte[] bytes = digest.digest();
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = Character.forDigit((bytes[i] >> 4) & 0x0F, 16);
+            hex[i * 2 + 1] = Character.forDigit(bytes[i] & 0x0F, 16);
+        }
+        return new String(hex);
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported hash algorithm: " + algorithm, e);
+        }
+    }
+
+    public void setTtlHours(int ttlHours) {
+        if (ttlHours < 0)
+            throw new IllegalArgumentException("The ttl hours must not be negative. Inputted value: " + ttlHours);
+        this.ttlHours = ttlHours;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("The max entries must be greater than 0. Inputted value: " + maxEntries);
+        this.maxEntries = maxEntries;
+    }
+
+    /*
+     * 서비스 프로세스가 성공적으로 종료된 경우에만 hash 를 등록하기 위한 session.
+     * 프로세스가 종료될 때 SessionCleanupCallback 이 close() 를 호출한다.
+     */
+    private static class RegisterSession implements ClosableStreamWrapper {
+        private final ServiceContext ctx;
+        private final ContentHashIndex index;
+        private final Map<String, String> hashes;
+        private final long ttlMillis;
+        private final int maxEntries;
+        private boolean closed = false;
+
+        RegisterSession(ServiceContext ctx, ContentHashIndex index, Map<String, String> hashes, long ttlMillis, int maxEntries) {
+            this.ctx = ctx;
+            this.index = index;
+            this.hashes = hashes;
+            this.ttlMillis = ttlMillis;
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        public boolean close() {
+            if (closed)
+                return true;
+            closed = true;
+            String txId = ctx.getTxId();
+            if (ctx.getProcessStatus() != ProcessCode.SUCCESS) {
+                log.warn("[{}]The hashes of {} files are not registered. Process status: {}", txId, hashes.size(), ctx.getProcessStatus());
+                return true;
+            }
+            try {
+                index.register(hashes, ttlMillis, maxEntries);
+                log.debug("[{}]The hashes of {} files registered to \"{}\"", txId, hashes.size(), index.getStoreFile());
+                return true;
+            } catch (Throwable t) {
+                log.error("[" + txId + "]Failed to register the hashes of " + hashes.size() + " files to \"" + index.getStoreFile() + "\"", t);
+                return false;
+            }
+        }
+
+        @Override
+        public boolean isConnected() {
+            return !closed;
+        }
+    }
+}
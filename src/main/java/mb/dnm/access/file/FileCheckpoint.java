@@ -0,0 +1,125 @@
+package mb.dnm.access.file;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 계속 데이터가 추가되는 파일을 이어서 읽기 위해 마지막으로 읽은 위치를 기록하는 객체이다.<br>
+ * 파일이 교체(rotation)되었는지 확인하기 위한 파일 식별자({@code fileKey})와 파일 앞부분의 checksum, 다음에 읽기 시작할 byte 위치({@code offset}),
+ * 지금까지 읽은 record 수와 header 를 가지고 있다.
+ *
+ * @see FileCheckpointStore
+ * @see IncrementalRecordReader
+ */
+@Setter @Getter
+public class FileCheckpoint implements Serializable {
+    private static final long serialVersionUID = 2871342918360153542L;
+    /**
+     * 파일이 다시 작성되었는지 확인할 때 checksum 을 계산하는 파일 앞부분의 최대 byte 수
+     */
+    public static final int HEAD_CHECKSUM_LENGTH = 4 * 1024;
+
+    private String path;
+    private String fileKey;
+    private long size;
+    private long offset;
+    private long recordCount;
+    private List<String> headers;
+    private int columns;
+    private int headLength;
+    private long headChecksum;
+    private long updatedTime;
+
+    /**
+     * 파일의 식별자를 가져온다. 파일 시스템이 inode 등의 식별자를 제공하지 않는 경우 파일의 생성 시각을 사용한다.
+     *
+     * @param path the path
+     * @return the file key
+     * @throws IOException the io exception
+     */
+    public static String fileKeyOf(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Object fileKey = attributes.fileKey();
+        if (fileKey != null)
+            return String.valueOf(fileKey);
+        return "created:" + attributes.creationTime().toMillis();
+    }
+
+    /**
+     * 파일의 처음부터 {@code length} byte 의 CRC32 checksum 을 계산한다.
+     *
+     * @param channel the channel
+     * @param length  the length
+     * @return the checksum
+     * @throws IOException the io exception
+     */
+    public static long checksumOf(FileChannel channel, int length) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        long position = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0)
+                break;
+            position += read;
+        }
+        crc.update(buffer.array(), 0, buffer.position());
+        return crc.getValue();
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("path", path);
+        map.put("file_key", fileKey);
+        map.put("size", size);
+        map.put("offset", offset);
+        map.put("record_count", recordCount);
+        map.put("headers", headers);
+        map.put("columns", columns);
+        map.put("head_length", headLength);
+        map.put("head_checksum", headChecksum);
+        map.put("updated_time", updatedTime);
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    static FileCheckpoint fromMap(Map<String, Object> map) {
+        FileCheckpoint checkpoint = new FileCheckpoint();
+        checkpoint.path = (String) map.get("path");
+        checkpoint.fileKey = (String) map.get("file_key");
+        checkpoint.size = toLong(map.get("size"));
+        checkpoint.offset = toLong(map.get("offset"));
+        checkpoint.recordCount = toLong(map.get("record_count"));
+        Object headers = map.get("headers");
+        checkpoint.headers = headers == null ? null : new ArrayList<>((List<String>) headers);
+        checkpoint.columns = (int) toLong(map.get("columns"));
+        checkpoint.headLength = (int) toLong(map.get("head_length"));
+        checkpoint.headChecksum = toLong(map.get("head_checksum"));
+        checkpoint.updatedTime = toLong(map.get("updated_time"));
+        return checkpoint;
+    }
+
+    //JSON 의 숫자는 크기에 따라 Integer 또는 Long 으로 parsing 된다.
+    private static long toLong(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    @Override
+    public String toString() {
+        return "FileCheckpoint{path='" + path + "', fileKey='" + fileKey + "', size=" + size + ", offset=" + offset
+                + ", recordCount=" + recordCount + "}";
+    }
+}
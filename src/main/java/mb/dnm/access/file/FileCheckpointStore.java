@@ -0,0 +1,165 @@
+package mb.dnm.access.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 파일 별 {@link FileCheckpoint} 를 하나의 JSON 파일에 저장하는 객체이다.<br>
+ * checkpoint 는 변경될 때마다 저장되며, 마지막으로 변경된 순서대로 저장된다.
+ * 저장할 때 {@code ttlMillis} 동안 변경되지 않은 checkpoint 중 파일이 삭제되었거나 교체된 파일의 checkpoint 와 {@code maxEntries} 를 넘는 오래된 checkpoint 는 삭제된다.
+ *
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * {
+ *   "/data/log/app.log": {"path": "/data/log/app.log", "file_key": "(dev=803,ino=1234)", "size": 10240, "offset": 10200, "record_count": 120, ...}
+ * }</pre>
+ *
+ * @see FileCheckpoint
+ * @see mb.dnm.service.file.ReadFile
+ * @see JsonFileStore
+ */
+@Slf4j
+public class FileCheckpointStore extends JsonFileStore<FileCheckpoint> {
+    private static final Map<Path, FileCheckpointStore> stores = new HashMap<>();
+    private static final Factory<FileCheckpointStore> FACTORY = new Factory<FileCheckpointStore>() {
+        @Override
+        public FileCheckpointStore create(Path storeFile) {
+            return new FileCheckpointStore(storeFile);
+        }
+    };
+
+    private FileCheckpointStore(Path storeFile) {
+        super(storeFile, "checkpoint", true);
+    }
+
+    /**
+     * {@code storeFile} 에 checkpoint 를 저장하는 객체를 가져온다.
+     *
+     * @param storeFile checkpoint 를 저장할 파일
+     * @return the file checkpoint store
+     */
+    public static FileCheckpointStore access(Path storeFile) {
+        return access(stores, storeFile, FACTORY);
+    }
+
+    /**
+     * 파일의 checkpoint 를 가져온다.
+     *
+     * @param file the file
+     * @return the checkpoint. 없는 경우 null
+     * @throws IOException the io exception
+     */
+    public synchronized FileCheckpoint get(Path file) throws IOException {
+        return entries().get(keyOf(file));
+    }
+
+    /**
+     * 파일의 checkpoint 를 저장한다. 저장된 checkpoint 는 삭제되지 않는다.
+     *
+     * @param checkpoint the checkpoint
+     * @throws IOException the io exception
+     */
+    public void put(FileCheckpoint checkpoint) throws IOException {
+        put(checkpoint, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 파일의 checkpoint 를 저장한다. 저장하기 전에 만료된 checkpoint 와 {@code maxEntries} 를 넘는 오래된 checkpoint 를 삭제한다.
+     *
+     * @param checkpoint the checkpoint
+     * @param ttlMillis  checkpoint 가 변경되지 않은 채로 유지되는 기간. 지난 경우 파일이 삭제되었거나 교체되었으면 삭제한다. 0 이하인 경우 만료되지 않는다.
+     * @param maxEntries 저장할 최대 checkpoint 수
+     * @throws IOException the io exception
+     */
+    public synchronized void put(FileCheckpoint checkpoint, long ttlMillis, int maxEntries) throws IOException {
+        Map<String, FileCheckpoint> entries = entries();
+        //변경된 순서를 유지하기 위해 기존 checkpoint 를 삭제한 뒤 다시 등록한다.
+        entries.remove(checkpoint.getPath());
+        entries.put(checkpoint.getPath(), checkpoint);
+        evict(entries, ttlMillis, maxEntries, System.currentTimeMillis());
+        save();
+    }
+
+    /**
+     * 저장된 checkpoint 수를 가져온다.
+     *
+     * @return the size
+     * @throws IOException the io exception
+     */
+    public synchronized int size() throws IOException {
+        return entries().size();
+    }
+
+    /**
+     * 파일의 checkpoint 를 삭제한다. 다음에 파일을 읽을 때 처음부터 읽는다.
+     *
+     * @param file the file
+     * @throws IOException the io exception
+     */
+    public synchronized void remove(Path file) throws IOException {
+        if (entries().remove(keyOf(file)) != null) {
+            save();
+        }
+    }
+
+    /**
+     * checkpoint 의 key 로 사용되는 파일의 경로를 가져온다.
+     *
+     * @param file the file
+     * @return the string
+     */
+    public static String keyOf(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    private void evict(Map<String, FileCheckpoint> entries, long ttlMillis, int maxEntries, long now) {
+        int evicted = 0;
+        Iterator<FileCheckpoint> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            FileCheckpoint checkpoint = iterator.next();
+            if (entries.size() > maxEntries) {
+                iterator.remove();
+                ++evicted;
+            } else if (ttlMillis > 0 && checkpoint.getUpdatedTime() + ttlMillis < now) {
+                if (isStale(checkpoint)) {
+                    iterator.remove();
+                    ++evicted;
+                }
+            } else {
+                //변경된 순서대로 저장되어 있으므로 이후의 checkpoint 는 만료되지 않았다.
+                break;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("{} checkpoints evicted from \"{}\"", evicted, getStoreFile());
+        }
+    }
+
+    //checkpoint 의 파일이 삭제되었거나 다른 파일로 교체된 경우 더 이상 이어서 읽을 수 없는 checkpoint 이다.
+    private static boolean isStale(FileCheckpoint checkpoint) {
+        Path file = Paths.get(checkpoint.getPath());
+        if (!Files.exists(file))
+            return true;
+        try {
+            return checkpoint.getFileKey() != null && !checkpoint.getFileKey().equals(FileCheckpoint.fileKeyOf(file));
+        } catch (IOException ie) {
+            return false;
+        }
+    }
+
+    @Override
+    FileCheckpoint fromJson(Map<String, Object> value) {
+        return FileCheckpoint.fromMap(value);
+    }
+
+    @Override
+    Map<String, Object> toJson(FileCheckpoint checkpoint) {
+        return checkpoint.toMap();
+    }
+}
@@ -0,0 +1,163 @@
+package mb.dnm.access.file;
+
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.ClosableStreamWrapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * 파일의 데이터를 한 번에 메모리에 적재하지 않고 {@code chunkSize} 크기의 {@code byte[]} 로 나누어 순서대로 읽는 객체이다.<br>
+ * 파일은 {@code iterator()} 가 처음 호출될 때 열리며 마지막 chunk 를 읽으면 자동으로 닫힌다.
+ * 마지막 chunk 를 제외한 모든 chunk 의 크기는 {@code chunkSize} 와 같다.<br><br>
+ *
+ * {@link Iterable} 을 구현하므로 {@link mb.dnm.service.general.IterationGroup} 등의 서비스에 input 으로 그대로 전달할 수 있다. 단, {@code iterator()} 는 한 번만 호출할 수 있다.<br>
+ * 모든 chunk 를 읽지 않은 경우 {@link mb.dnm.core.callback.SessionCleanupCallback} 에 의해 서비스 프로세스 종료 시 닫힌다.
+ *
+ * @see mb.dnm.service.file.ReadFile
+ */
+@Slf4j
+public class FileChunks implements Iterable<byte[]>, ClosableStreamWrapper {
+    private final Path path;
+    private final int chunkSize;
+    private FileChannel channel;
+    private boolean iterated = false;
+    private boolean closed = false;
+    private long readBytes = 0;
+
+    /**
+     * Instantiates a new File chunks.
+     *
+     * @param path      읽을 파일의 경로
+     * @param chunkSize chunk 하나의 최대 byte 수
+     */
+    public FileChunks(Path path, int chunkSize) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("The chunk size must be greater than 0. Inputted value: " + chunkSize);
+        this.path = path;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Iterator<byte[]> iterator() {
+        if (iterated)
+            throw new IllegalStateException("The chunks of the file \"" + path + "\" can be iterated only once");
+        iterated = true;
+        return new ChunkIterator();
+    }
+
+    /**
+     * Gets path.
+     *
+     * @return the path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets chunk size.
+     *
+     * @return the chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 지금까지 읽은 byte 수를 반환한다.
+     *
+     * @return the read bytes
+     */
+    public long getReadBytes() {
+        return readBytes;
+    }
+
+    @Override
+    public boolean close() {
+        if (closed)
+            return true;
+        closed = true;
+        if (channel == null)
+            return true;
+        try {
+            channel.close();
+            log.debug("File chunks of \"{}\" closed. {} bytes read", path, readBytes);
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to close the file \"{}\". Cause: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return !closed;
+    }
+
+    private byte[] readChunk() throws IOException {
+        if (closed)
+            return null;
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0)
+                break;
+        }
+        if (buffer.position() == 0) {
+            close();
+            return null;
+        }
+        readBytes += buffer.position();
+        if (buffer.hasRemaining()) {
+            //파일의 끝에 도달한 경우 남은 크기만큼만 반환한다.
+            byte[] chunk = Arrays.copyOf(buffer.array(), buffer.position());
+            close();
+            return chunk;
+        }
+        return buffer.array();
+    }
+
+    private class ChunkIterator implements Iterator<byte[]> {
+        private byte[] next;
+        private boolean fetched = false;
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                try {
+                    next = readChunk();
+                } catch (IOException e) {
+                    close();
+                    throw new IllegalStateException("Failed to read the file \"" + path + "\"", e);
+                }
+                fetched = true;
+            }
+            return next != null;
+        }
+
+        @Override
+        public byte[] next() {
+            if (!hasNext())
+                throw new NoSuchElementException("The chunks of the file \"" + path + "\" reached to the last");
+            byte[] chunk = next;
+            next = null;
+            fetched = false;
+            return chunk;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+}
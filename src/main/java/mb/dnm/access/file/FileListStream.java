@@ -0,0 +1,205 @@
+package mb.dnm.access.file;
+
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.ClosableStreamWrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * 디렉터리의 파일 목록을 한 번에 메모리에 적재하지 않고 탐색하면서 하나씩 가져오는 객체이다.<br>
+ * {@link DirectoryScanner} 와 같은 규칙으로 탐색하며, 열려있는 {@code DirectoryStream} 은 탐색 중인 디렉터리의 깊이만큼만 유지된다.
+ * 가져오는 값은 {@link FileList#iterator()} 와 같이 {@code baseDirectory} 를 포함한 경로이다.<br><br>
+ *
+ * {@link Iterable} 을 구현하므로 {@link mb.dnm.service.general.IterationGroup} 등의 서비스에 input 으로 그대로 전달할 수 있다. 단, {@code iterator()} 는 한 번만 호출할 수 있다.<br>
+ * 모든 파일을 가져오지 않은 경우 {@link mb.dnm.core.callback.SessionCleanupCallback} 에 의해 서비스 프로세스 종료 시 닫힌다.
+ *
+ * @see DirectoryScanner
+ * @see mb.dnm.service.file.ListFiles
+ */
+@Slf4j
+public class FileListStream implements Iterable<String>, ClosableStreamWrapper {
+    private final DirectoryScanner scanner;
+    private final String baseDirectory;
+    private final Deque<Level> levels = new ArrayDeque<>();
+    private boolean iterated = false;
+    private boolean closed = false;
+    private long count = 0;
+
+    /**
+     * Instantiates a new File list stream.
+     *
+     * @param scanner the scanner
+     */
+    public FileListStream(DirectoryScanner scanner) {
+        this.scanner = scanner;
+        String base = scanner.getBaseDirectory().toString();
+        this.baseDirectory = base.endsWith(File.separator) ? base : base + File.separator;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        if (iterated)
+            throw new IllegalStateException("The file list of the directory \"" + baseDirectory + "\" can be iterated only once");
+        iterated = true;
+        return new PathIterator();
+    }
+
+    /**
+     * Gets base directory.
+     *
+     * @return the base directory. 파일 구분자로 끝난다.
+     */
+    public String getBaseDirectory() {
+        return baseDirectory;
+    }
+
+    /**
+     * 지금까지 가져온 파일의 수를 가져온다.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean close() {
+        if (closed)
+            return true;
+        closed = true;
+        boolean result = true;
+        while (!levels.isEmpty()) {
+            try {
+                levels.pop().stream.close();
+            } catch (IOException e) {
+                log.warn("Failed to close the directory stream of \"{}\". Cause: {}", baseDirectory, e.getMessage());
+                result = false;
+            }
+        }
+        log.debug("File list stream of the directory \"{}\" closed. {} files listed", baseDirectory, count);
+        return result;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return !closed;
+    }
+
+    private static class Level {
+        private final DirectoryStream<Path> stream;
+        private final Iterator<Path> iterator;
+        private final int depth;
+        private final Object fileKey;
+
+        Level(DirectoryStream<Path> stream, int depth, Object fileKey) {
+            this.stream = stream;
+            this.iterator = stream.iterator();
+            this.depth = depth;
+            this.fileKey = fileKey;
+        }
+    }
+
+    private class PathIterator implements Iterator<String> {
+        private String next;
+
+        PathIterator() {
+            try {
+                Path base = scanner.getBaseDirectory();
+                levels.push(new Level(Files.newDirectoryStream(base, scanner.getFileNamePattern()), 1, DirectoryScanner.readAttributes(base).fileKey()));
+            } catch (IOException e) {
+                close();
+                throw new IllegalStateException("Can not open the directory \"" + baseDirectory + "\"", e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !closed) {
+                next = fetch();
+                if (next == null) {
+                    close();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            String result = next;
+            next = null;
+            ++count;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        //깊이 우선으로 다음 경로를 찾는다. 디렉터리는 하부의 파일보다 먼저 반환된다.
+        private String fetch() {
+            while (!levels.isEmpty()) {
+                Level level = levels.peek();
+                if (!level.iterator.hasNext()) {
+                    closeLevel(levels.pop());
+                    continue;
+                }
+                Path entry = level.iterator.next();
+                BasicFileAttributes attributes;
+                try {
+                    attributes = DirectoryScanner.readAttributes(entry);
+                } catch (IOException e) {
+                    log.debug("Can not access the file \"{}\". Cause: {}", entry, e.toString());
+                    continue;
+                }
+                //baseDirectory 바로 아래의 파일에만 type 필터가 적용된다.
+                if (level.depth == 1 && !scanner.accept(attributes))
+                    continue;
+                if (scanner.isRecursive() && attributes.isDirectory() && level.depth < scanner.getMaxDepth()) {
+                    //Files.walkFileTree 와 같이 상위 디렉터리를 가리키는 심볼릭 링크는 목록에서 제외한다.
+                    if (isAncestor(attributes.fileKey()))
+                        continue;
+                    try {
+                        levels.push(new Level(Files.newDirectoryStream(entry), level.depth + 1, attributes.fileKey()));
+                    } catch (IOException e) {
+                        log.debug("Can not open the directory \"{}\". Cause: {}", entry, e.toString());
+                    }
+                }
+                return baseDirectory + scanner.relativePath(entry, attributes);
+            }
+            return null;
+        }
+
+        private boolean isAncestor(Object fileKey) {
+            if (fileKey == null)
+                return false;
+            for (Level level : levels) {
+                if (fileKey.equals(level.fileKey)) {
+                    log.debug("A file system loop is detected at the directory with key {}", fileKey);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void closeLevel(Level level) {
+            try {
+                level.stream.close();
+            } catch (IOException e) {
+                log.warn("Failed to close the directory stream. Cause: {}", e.getMessage());
+            }
+        }
+    }
+}
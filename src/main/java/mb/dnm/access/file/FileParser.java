@@ -1,11 +1,15 @@
 package mb.dnm.access.file;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
 
 
 /**
- * The type File parser.
+ * 구분자 파일 형식의 문자열 데이터를 파싱하는 객체이다.<br>
+ * 실제 파싱은 {@link DelimitedRecordReader} 가 수행한다. 큰 파일은 문자열로 읽지 않고 {@link DelimitedRecordReader} 로 직접 읽는 것이 좋다.
+ *
+ * @see DelimitedRecordReader
  */
 public class FileParser implements Serializable {
 
@@ -23,94 +27,11 @@ public class FileParser implements Serializable {
      * @return the list
      */
     public static List<String> readHeader(String data, FileParserTemplate template) {
-        String recordSeparator = template.getRecordSeparator();
-        String qualifier = template.getQualifier();
-        String delimiter = template.getDelimiter();
-
-        int recordSeparatorIdx = data.indexOf(recordSeparator);
-        if (recordSeparatorIdx == -1)
-            throw new IllegalStateException("Invalid file content. Can not parse header columns. There is no record separator '" + recordSeparator +"'.");
-        String recordLine = data.substring(0, recordSeparatorIdx + 1);
-
-        List<String> result = new ArrayList<>();
-
-        StringBuilder buffer = new StringBuilder();
-        int recordLineLen = recordLine.length();
-        boolean open = false;
-        boolean emptyQualifier = false;
-        if (qualifier.isEmpty()) {
-            emptyQualifier = true;
-        }
-        int redundantSize = 0;
-        int qualifierLen = qualifier.length();
-
-        for (int i = 0; i < recordLineLen; i++) {
-            char c = recordLine.charAt(i);
-            if (emptyQualifier) {
-
-                buffer.append(c);
-
-                if (buffer.indexOf(delimiter) != -1) {
-                    buffer.setLength(buffer.length() - delimiter.length());
-                    result.add(buffer.toString());
-                    buffer.setLength(0);
-                }
-
-                if (buffer.indexOf(recordSeparator) != -1) {
-                    buffer.setLength(buffer.length() - recordSeparator.length());
-                    result.add(buffer.toString());
-                    buffer.setLength(0);
-                    break;
-                }
-
-            } else {
-
-                buffer.append(c);
-
-                //qualifier 가 처음 나왔을 때
-                if (!open && buffer.indexOf(qualifier) != -1) {
-                    open = true;
-                    buffer.setLength(0);
-                    //buffer를 초기상태로 만든다.
-                    redundantSize = 0;
-                    continue;
-                }
-
-                //qualifier 가 한 번 나온적이 있고 다시 나왔을 때
-                if (open && buffer.indexOf(qualifier) != -1) {
-                    buffer.setLength(buffer.length() - qualifierLen);
-                    //buffer에서 qualifier를 지운다.
-                    open = false;
-                    redundantSize = 0;
-                    continue;
-                }
-
-                if (open)
-                    continue;
-
-                ++redundantSize;
-
-                //qualifier 가 모두 닫히고 delimiter 가 나왔을 때
-                if (!open && buffer.indexOf(delimiter) != -1) {
-                    buffer.setLength(buffer.length() - redundantSize);
-                    result.add(buffer.toString());
-                    buffer.setLength(0);
-                    redundantSize = 0;
-                    continue;
-                }
-
-                if (!open && buffer.indexOf(recordSeparator) != -1) {
-                    buffer.setLength(buffer.length() - redundantSize);
-                    result.add(buffer.toString());
-                    buffer.setLength(0);
-                    redundantSize = 0;
-                    break;
-                }
-
-            }
+        try (DelimitedRecordReader reader = new DelimitedRecordReader(data, template)) {
+            return new ArrayList<>(reader.readHeader());
+        } catch (IOException ie) {
+            throw new IllegalStateException(ie);
         }
-        
-        return result;
     }
 
     /**
@@ -121,196 +42,38 @@ public class FileParser implements Serializable {
      * @return the list
      */
     public static List<List<Object>> readDataToList(String data, FileParserTemplate template) {
-        String recordSeparator = template.getRecordSeparator();
-        String qualifier = template.getQualifier();
-        String delimiter = template.getDelimiter();
-        String replacementOfEmptyValue = template.getReplacementOfEmptyValue();
-        String replacementOfNullValue = template.getReplacementOfNullValue();
-        String replacementOfCarriageReturn = template.getReplacementOfCarriageReturn();
-        String replacementOfLineFeed = template.getReplacementOfLineFeed();
-        boolean handleBinary = template.isHandleBinaryData();
-
         List<List<Object>> resultList = new ArrayList<>();
-        List<Object> result = new ArrayList<>();
-
-        StringBuilder buffer = new StringBuilder();
-
-        boolean open = false;
-        boolean emptyQualifier = false;
-        if (qualifier.isEmpty()) {
-            emptyQualifier = true;
-        }
-        int redundantSize = 0;
-        int qualifierLen = qualifier.length();
-
-        int dataLen = data.length();
-        int initialColumnsSize = 0;
-        int recordCount = 0;
-        for (int i = 0; i < dataLen; i++) {
-            char c = data.charAt(i);
-            if (emptyQualifier) {
-                buffer.append(c);
-                if (buffer.indexOf(delimiter) != -1) {
-                    buffer.setLength(buffer.length() - delimiter.length());
-
-                    replaceNullReplacement(buffer, replacementOfNullValue);
-                    replaceEmptyReplacement(buffer, replacementOfEmptyValue);
-                    replaceCarriageReturnReplacement(buffer, replacementOfCarriageReturn);
-                    replaceLineFeedReplacement(buffer, replacementOfLineFeed);
-                    if (handleBinary) {
-                        byte[] bytes = replaceByteArray(buffer);
-                        if (bytes != null) {
-                            result.add(bytes);
-                        } else {
-                            result.add(buffer.toString());
-                        }
-                    } else {
-                        result.add(buffer.toString());
-                    }
-
-                    buffer.setLength(0);
-                }
-
-                if (buffer.indexOf(recordSeparator) != -1) {
-                    buffer.setLength(buffer.length() - recordSeparator.length());
-
-                    replaceNullReplacement(buffer, replacementOfNullValue);
-                    replaceEmptyReplacement(buffer, replacementOfEmptyValue);
-                    replaceCarriageReturnReplacement(buffer, replacementOfCarriageReturn);
-                    replaceLineFeedReplacement(buffer, replacementOfLineFeed);
-                    if (handleBinary) {
-                        byte[] bytes = replaceByteArray(buffer);
-                        if (bytes != null) {
-                            result.add(bytes);
-                        } else {
-                            result.add(buffer.toString());
-                        }
-                    } else {
-                        result.add(buffer.toString());
-                    }
-
-                    buffer.setLength(0);
-
-                    ++recordCount;
-                    if (initialColumnsSize == 0) {
-                        initialColumnsSize = result.size();
-                        if (initialColumnsSize == 0) {
-                            throw new IllegalStateException("There are no columns to be parsed.");
-                        }
-                    } else {
-                        if (initialColumnsSize != result.size()) {
-                            throw new IllegalStateException("Columns size mismatch. Record number " + recordCount);
-                        }
-                    }
-                    resultList.add(result);
-                    result = new ArrayList<>();
-                }
-
-            } else {
-                buffer.append(c);
-
-                //qualifier 가 처음 나왔을 때
-                if (!open && buffer.indexOf(qualifier) != -1) {
-                    open = true;
-                    buffer.setLength(0);
-                    //buffer를 초기상태로 만든다.
-                    redundantSize = 0;
-                    continue;
-                }
-
-                //qualifier 가 한 번 나온적이 있고 다시 나왔을 때
-                if (open && buffer.indexOf(qualifier) != -1) {
-                    buffer.setLength(buffer.length() - qualifierLen);
-                    //buffer에서 qualifier를 지운다.
-                    open = false;
-                    redundantSize = 0;
-                    continue;
-                }
-
-                if (open)
-                    continue;
-
-                ++redundantSize;
-
-                //qualifier 가 모두 닫히고 delimiter 가 나왔을 때
-                if (!open && buffer.indexOf(delimiter) != -1) {
-                    buffer.setLength(buffer.length() - redundantSize);
-
-                    replaceNullReplacement(buffer, replacementOfNullValue);
-                    replaceEmptyReplacement(buffer, replacementOfEmptyValue);
-                    replaceCarriageReturnReplacement(buffer, replacementOfCarriageReturn);
-                    replaceLineFeedReplacement(buffer, replacementOfLineFeed);
-                    if (handleBinary) {
-                        byte[] bytes = replaceByteArray(buffer);
-                        if (bytes != null) {
-                            result.add(bytes);
-                        } else {
-                            result.add(buffer.toString());
-                        }
-                    } else {
-                        result.add(buffer.toString());
-                    }
-
-                    buffer.setLength(0);
-                    redundantSize = 0;
-                    continue;
-                }
-
-                if (!open && buffer.indexOf(recordSeparator) != -1) {
-                    buffer.setLength(buffer.length() - redundantSize);
-
-                    replaceNullReplacement(buffer, replacementOfNullValue);
-                    replaceEmptyReplacement(buffer, replacementOfEmptyValue);
-                    replaceCarriageReturnReplacement(buffer, replacementOfCarriageReturn);
-                    replaceLineFeedReplacement(buffer, replacementOfLineFeed);
-                    if (handleBinary) {
-                        byte[] bytes = replaceByteArray(buffer);
-                        if (bytes != null) {
-                            result.add(bytes);
-                        } else {
-                            result.add(buffer.toString());
-                        }
-                    } else {
-                        result.add(buffer.toString());
-                    }
-
-                    buffer.setLength(0);
-                    redundantSize = 0;
-
-                    ++recordCount;
-                    if (initialColumnsSize == 0) {
-                        initialColumnsSize = result.size();
-                        if (initialColumnsSize == 0) {
-                            throw new IllegalStateException("There are no columns to be parsed.");
-                        }
-                    } else {
-                        if (initialColumnsSize != result.size()) {
-                            throw new IllegalStateException("Columns size mismatch. Record number " + recordCount);
-                        }
-                    }
-                    resultList.add(result);
-                    result = new ArrayList<>();
-                }
+        try (DelimitedRecordReader reader = new DelimitedRecordReader(data, template)) {
+            List<Object> result;
+            while ((result = reader.nextList()) != null) {
+                resultList.add(result);
             }
-
+        } catch (IOException ie) {
+            throw new IllegalStateException(ie);
         }
-
         return resultList;
     }
 
     /**
-     * Read data to record list.
+     * 첫번째 record 를 header 로 읽고, 나머지 record 들을 header 의 컬럼명을 key 로 하는 {@code Map} 으로 읽는다.
      *
      * @param data     the data
      * @param template the template
      * @return the list
      */
     public static List<Map<String, Object>> readDataToRecord(String data, FileParserTemplate template) {
-        return readDataToRecord(data, readHeader(data, template), template);
+        List<Map<String, Object>> resultList = new ArrayList<>();
+        try (DelimitedRecordReader reader = new DelimitedRecordReader(data, template)) {
+            reader.readHeader();
+            readRecords(reader, resultList);
+        } catch (IOException ie) {
+            throw new IllegalStateException(ie);
+        }
+        return resultList;
     }
 
     /**
-     * Read data to record list.
+     * header 가 없는 데이터의 모든 record 를 {@code headers} 를 key 로 하는 {@code Map} 으로 읽는다.
      *
      * @param data     the data
      * @param headers  the headers
@@ -318,231 +81,20 @@ public class FileParser implements Serializable {
      * @return the list
      */
     public static List<Map<String, Object>> readDataToRecord(String data, List<String> headers, FileParserTemplate template) {
-        String recordSeparator = template.getRecordSeparator();
-        String qualifier = template.getQualifier();
-        String delimiter = template.getDelimiter();
-        String replacementOfEmptyValue = template.getReplacementOfEmptyValue();
-        String replacementOfNullValue = template.getReplacementOfNullValue();
-        String replacementOfCarriageReturn = template.getReplacementOfCarriageReturn();
-        String replacementOfLineFeed = template.getReplacementOfLineFeed();
-        boolean handleBinary = template.isHandleBinaryData();
-
         List<Map<String, Object>> resultList = new ArrayList<>();
-        Map<String, Object> result = new LinkedHashMap<>();
-
-        StringBuilder buffer = new StringBuilder();
-
-        boolean open = false;
-        boolean emptyQualifier = false;
-        if (qualifier.isEmpty()) {
-            emptyQualifier = true;
+        try (DelimitedRecordReader reader = new DelimitedRecordReader(data, template)) {
+            reader.setHeaders(headers);
+            readRecords(reader, resultList);
+        } catch (IOException ie) {
+            throw new IllegalStateException(ie);
         }
-        int redundantSize = 0;
-        int qualifierLen = qualifier.length();
-
-        int dataLen = data.length();
-        int initialColumnsSize = 0;
-        int recordCount = 0;
-        int columnIdx = 0;
-        for (int i = 0; i < dataLen; i++) {
-            char c = data.charAt(i);
-            if (emptyQualifier) {
-                buffer.append(c);
-                if (buffer.indexOf(delimiter) != -1) {
-                    buffer.setLength(buffer.length() - delimiter.length());
-
-                    replaceNullReplacement(buffer, replacementOfNullValue);
-                    replaceEmptyReplacement(buffer, replacementOfEmptyValue);
-                    replaceCarriageReturnReplacement(buffer, replacementOfCarriageReturn);
-                    replaceLineFeedReplacement(buffer, replacementOfLineFeed);
-                    if (handleBinary) {
-                        byte[] bytes = replaceByteArray(buffer);
-                        if (bytes != null) {
-                            result.put(headers.get(columnIdx), bytes);
-                        } else {
-                            result.put(headers.get(columnIdx), buffer.toString());    
-                        }
-                    } else {
-                        result.put(headers.get(columnIdx), buffer.toString());
-                    }
-
-                    buffer.setLength(0);
-                    ++columnIdx;
-                }
-
-                if (buffer.indexOf(recordSeparator) != -1) {
-                    buffer.setLength(buffer.length() - recordSeparator.length());
-
-                    replaceNullReplacement(buffer, replacementOfNullValue);
-                    replaceEmptyReplacement(buffer, replacementOfEmptyValue);
-                    replaceCarriageReturnReplacement(buffer, replacementOfCarriageReturn);
-                    replaceLineFeedReplacement(buffer, replacementOfLineFeed);
-                    if (handleBinary) {
-                        byte[] bytes = replaceByteArray(buffer);
-                        if (bytes != null) {
-                            result.put(headers.get(columnIdx), bytes);
-                        } else {
-                            result.put(headers.get(columnIdx), buffer.toString());    
-                        }
-                    } else {
-                        result.put(headers.get(columnIdx), buffer.toString());
-                    }
-
-                    buffer.setLength(0);
-
-                    ++recordCount;
-                    if (initialColumnsSize == 0) {
-                        initialColumnsSize = result.size();
-                        if (initialColumnsSize == 0) {
-                            throw new IllegalStateException("There are no columns to be parsed.");
-                        }
-                    } else {
-                        if (initialColumnsSize != result.size()) {
-                            throw new IllegalStateException("Columns size mismatch. Record number " + recordCount);
-                        }
-                    }
-                    resultList.add(result);
-                    result = new LinkedHashMap<>();
-                    columnIdx = 0;
-                }
-
-            } else {
-                buffer.append(c);
-
-                //qualifier 가 처음 나왔을 때
-                if (!open && buffer.indexOf(qualifier) != -1) {
-                    open = true;
-                    buffer.setLength(0);
-                    //buffer를 초기상태로 만든다.
-                    redundantSize = 0;
-                    continue;
-                }
-
-                //qualifier 가 한 번 나온적이 있고 다시 나왔을 때
-                if (open && buffer.indexOf(qualifier) != -1) {
-                    buffer.setLength(buffer.length() - qualifierLen);
-                    //buffer에서 qualifier를 지운다.
-                    open = false;
-                    redundantSize = 0;
-                    continue;
-                }
-
-                if (open)
-                    continue;
-
-                ++redundantSize;
-
-                //qualifier 가 모두 닫히고 delimiter 가 나왔을 때
-                if (!open && buffer.indexOf(delimiter) != -1) {
-                    buffer.setLength(buffer.length() - redundantSize);
-
-                    replaceNullReplacement(buffer, replacementOfNullValue);
-                    replaceEmptyReplacement(buffer, replacementOfEmptyValue);
-                    replaceCarriageReturnReplacement(buffer, replacementOfCarriageReturn);
-                    replaceLineFeedReplacement(buffer, replacementOfLineFeed);
-                    if (handleBinary) {
-                        byte[] bytes = replaceByteArray(buffer);
-                        if (bytes != null) {
-                            result.put(headers.get(columnIdx), bytes);
-                        } else {
-                            result.put(headers.get(columnIdx), buffer.toString());    
-                        }
-                    } else {
-                        result.put(headers.get(columnIdx), buffer.toString());
-                    }
-
-                    buffer.setLength(0);
-                    redundantSize = 0;
-                    ++columnIdx;
-                    continue;
-                }
-
-                if (!open && buffer.indexOf(recordSeparator) != -1) {
-                    buffer.setLength(buffer.length() - redundantSize);
-
-                    replaceNullReplacement(buffer, replacementOfNullValue);
-                    replaceEmptyReplacement(buffer, replacementOfEmptyValue);
-                    replaceCarriageReturnReplacement(buffer, replacementOfCarriageReturn);
-                    replaceLineFeedReplacement(buffer, replacementOfLineFeed);
-                    if (handleBinary) {
-                        byte[] bytes = replaceByteArray(buffer);
-                        if (bytes != null) {
-                            result.put(headers.get(columnIdx), bytes);
-                        } else {
-                            result.put(headers.get(columnIdx), buffer.toString());    
-                        }
-                    } else {
-                        result.put(headers.get(columnIdx), buffer.toString());
-                    }
-
-                    buffer.setLength(0);
-                    redundantSize = 0;
-
-                    ++recordCount;
-                    if (initialColumnsSize == 0) {
-                        initialColumnsSize = result.size();
-                        if (initialColumnsSize == 0) {
-                            throw new IllegalStateException("There are no columns to be parsed.");
-                        }
-                    } else {
-                        if (initialColumnsSize != result.size()) {
-                            throw new IllegalStateException("Columns size mismatch. Record number " + recordCount);
-                        }
-                    }
-                    resultList.add(result);
-                    result = new LinkedHashMap<>();
-                    columnIdx = 0;
-                }
-            }
-
-        }
-
         return resultList;
     }
 
-    private static StringBuilder replaceNullReplacement(StringBuilder buffer, String replacement) {
-        if (buffer.indexOf(replacement) == 0 && buffer.length() == replacement.length()) {
-            buffer.setLength(0);
+    private static void readRecords(DelimitedRecordReader reader, List<Map<String, Object>> resultList) throws IOException {
+        Map<String, Object> result;
+        while ((result = reader.nextRecord()) != null) {
+            resultList.add(result);
         }
-        return buffer;
-    }
-
-    private static StringBuilder replaceEmptyReplacement(StringBuilder buffer, String replacement) {
-        if (buffer.indexOf(replacement) == 0 && buffer.length() == replacement.length()) {
-            buffer.setLength(0);
-        }
-        return buffer;
-    }
-
-    private static StringBuilder replaceCarriageReturnReplacement(StringBuilder buffer, String replacement) {
-        int idx = -1;
-        while ((idx = buffer.indexOf(replacement)) != -1) {
-            buffer.delete(idx, idx + replacement.length());
-            buffer.insert(idx, "\r");
-        }
-        return buffer;
-    }
-
-    private static StringBuilder replaceLineFeedReplacement(StringBuilder buffer, String replacement) {
-        int idx = -1;
-        while ((idx = buffer.indexOf(replacement)) != -1) {
-            buffer.delete(idx, idx + replacement.length());
-            buffer.insert(idx, "\n");
-        }
-        return buffer;
-    }
-
-    private static byte[] replaceByteArray(StringBuilder buffer) {
-        byte[] result = null;
-        if (buffer.indexOf("<![BINARY[") == 0 && ((buffer.lastIndexOf("]]>")) == (buffer.length() - "]]>".length())) ) {
-            String[] byteStr = (buffer.substring("<![BINARY[".length(), buffer.length() - "]]>".length())).split(" ");
-            int len = byteStr.length;
-            result = new byte[len];
-            for (int i = 0; i < len; i++) {
-                result[i] = Byte.parseByte(byteStr[i]);
-            }
-        }
-
-        return result;
     }
 }
@@ -1,6 +1,7 @@
 package mb.dnm.access.file;
 
 import lombok.Getter;
+import mb.dnm.code.BinaryEncoding;
 
 import java.io.Serializable;
 
@@ -19,9 +20,10 @@ public class FileParserTemplate implements Serializable {
     private final String replacementOfCarriageReturn;
     private final boolean headerExist;
     private final boolean handleBinaryData;
+    private final BinaryEncoding binaryEncoding;
 
     /**
-     * Instantiates a new File parser template.
+     * Instantiates a new File parser template. {@code byte[]} 컬럼은 {@link BinaryEncoding#DECIMAL} 형식으로 처리된다.
      *
      * @param recordSeparator             the record separator
      * @param delimiter                   the delimiter
@@ -37,6 +39,28 @@ public class FileParserTemplate implements Serializable {
                               String replacementOfNullValue, String replacementOfEmptyValue,
                               String replacementOfLineFeed, String replacementOfCarriageReturn,
                               boolean headerExist, boolean handleBinaryData) {
+        this(recordSeparator, delimiter, qualifier, replacementOfNullValue, replacementOfEmptyValue,
+                replacementOfLineFeed, replacementOfCarriageReturn, headerExist, handleBinaryData, BinaryEncoding.DECIMAL);
+    }
+
+    /**
+     * Instantiates a new File parser template.
+     *
+     * @param recordSeparator             the record separator
+     * @param delimiter                   the delimiter
+     * @param qualifier                   the qualifier
+     * @param replacementOfNullValue      the replacement of null value
+     * @param replacementOfEmptyValue     the replacement of empty value
+     * @param replacementOfLineFeed       the replacement of line feed
+     * @param replacementOfCarriageReturn the replacement of carriage return
+     * @param headerExist                 the header exist
+     * @param handleBinaryData            the handle binary data
+     * @param binaryEncoding              {@code byte[]} 컬럼의 작성 방식. null 인 경우 {@link BinaryEncoding#DECIMAL}
+     */
+    public FileParserTemplate(String recordSeparator, String delimiter, String qualifier,
+                              String replacementOfNullValue, String replacementOfEmptyValue,
+                              String replacementOfLineFeed, String replacementOfCarriageReturn,
+                              boolean headerExist, boolean handleBinaryData, BinaryEncoding binaryEncoding) {
 
         this.recordSeparator = recordSeparator;
         this.delimiter = delimiter;
@@ -47,6 +71,7 @@ public class FileParserTemplate implements Serializable {
         this.replacementOfCarriageReturn = replacementOfCarriageReturn;
         this.headerExist = headerExist;
         this.handleBinaryData = handleBinaryData;
+        this.binaryEncoding = binaryEncoding == null ? BinaryEncoding.DECIMAL : binaryEncoding;
     }
 
 
@@ -0,0 +1,71 @@
+package mb.dnm.access.file;
+
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.ClosableStreamWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+
+/**
+ * 서비스에서 열고 다음 서비스로 전달한 파일의 {@code InputStream} 을 {@link mb.dnm.core.callback.SessionCleanupCallback} 이 닫을 수 있도록 감싸는 객체이다.<br>
+ * {@code InputStream} 을 사용하는 서비스가 stream 을 먼저 닫은 경우에도 다시 닫는 것은 문제가 되지 않는다.
+ *
+ * @see mb.dnm.service.file.ReadFile
+ */
+@Slf4j
+public class FileStreamSession implements ClosableStreamWrapper {
+    private final Path path;
+    private final InputStream inputStream;
+    private boolean closed = false;
+
+    /**
+     * Instantiates a new File stream session.
+     *
+     * @param path        the path
+     * @param inputStream the input stream
+     */
+    public FileStreamSession(Path path, InputStream inputStream) {
+        this.path = path;
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Gets path.
+     *
+     * @return the path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets input stream.
+     *
+     * @return the input stream
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public boolean close() {
+        if (closed)
+            return true;
+        closed = true;
+        try {
+            inputStream.close();
+            log.debug("Input stream of the file \"{}\" closed", path);
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to close the input stream of the file \"{}\". Cause: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return !closed;
+    }
+}
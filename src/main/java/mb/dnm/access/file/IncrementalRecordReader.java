@@ -0,0 +1,161 @@
+package mb.dnm.access.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * 계속 데이터가 추가되는 구분자 파일에서 이전에 읽은 위치({@link FileCheckpoint}) 이후에 추가된 record 만 읽는 객체이다.<br>
+ * 읽는 양이 파일 전체의 크기가 아닌 추가된 데이터의 크기에 비례한다.<br><br>
+ *
+ * 읽는 과정은 다음과 같다.
+ * <ul>
+ *     <li>checkpoint 가 없거나, 파일이 교체(식별자 변경), 잘림(크기 &lt; offset) 또는 다시 작성(앞부분의 checksum 변경)된 경우 처음부터 읽는다.</li>
+ *     <li>그 외에는 checkpoint 의 {@code offset} 부터 읽으며, header 는 checkpoint 에 저장된 컬럼명을 사용한다.</li>
+ *     <li>파일의 끝에 record separator 로 끝나지 않은 record 가 있는 경우 작성 중인 record 로 보고 읽지 않는다.
+ *     다음 checkpoint 의 {@code offset} 은 마지막으로 완성된 record 의 끝이다.</li>
+ * </ul>
+ * 완성된 record 의 끝을 byte 단위로 찾으므로 UTF-8, US-ASCII, ISO-8859-1, EUC-KR 등의 charset 만 사용할 수 있다.
+ *
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * IncrementalRecordReader reader = new IncrementalRecordReader(template, charset);
+ * List&lt;Object&gt; records = reader.read(path, channel, dataStart, store.get(path));
+ * store.put(reader.getCheckpoint());</pre>
+ *
+ * @see FileCheckpointStore
+ * @see mb.dnm.service.file.ReadFile
+ */
+@Slf4j
+public class IncrementalRecordReader {
+    private final FileParserTemplate template;
+    private final Charset charset;
+    private FileCheckpoint checkpoint;
+
+    /**
+     * Instantiates a new Incremental record reader.
+     *
+     * @param template the template
+     * @param charset  the charset
+     */
+    public IncrementalRecordReader(FileParserTemplate template, Charset charset) {
+        if (!isSupported(charset))
+            throw new IllegalArgumentException("The charset '" + charset + "' is not supported for incremental reading.");
+        this.template = template;
+        this.charset = charset;
+    }
+
+    /**
+     * 이어서 읽기에 사용할 수 있는 charset 인지 확인한다.
+     *
+     * @param charset the charset
+     * @return the boolean
+     */
+    public static boolean isSupported(Charset charset) {
+        return ByteScanner.isByteSearchable(charset);
+    }
+
+    /**
+     * {@code previous} 이후에 추가된 record 들을 읽는다. {@code template.headerExist} 가 true 인 경우 {@code Map} 으로, false 인 경우 {@code List} 로 읽는다.
+     *
+     * @param path      the path
+     * @param channel   the channel
+     * @param dataStart 메타데이터를 제외한 데이터의 시작 위치
+     * @param previous  이전 checkpoint. 없는 경우 null
+     * @return 추가된 record 들
+     * @throws IOException the io exception
+     */
+    public List<Object> read(Path path, FileChannel channel, long dataStart, FileCheckpoint previous) throws IOException {
+        String fileKey = FileCheckpoint.fileKeyOf(path);
+        long size = channel.size();
+
+        long start = dataStart;
+        long recordCount = 0;
+        List<String> headers = null;
+        int columns = 0;
+        if (previous != null) {
+            String restartReason = null;
+            if (previous.getFileKey() != null && !previous.getFileKey().equals(fileKey)) {
+                restartReason = "rotated";
+            } else if (size < previous.getOffset()) {
+                restartReason = "truncated";
+            } else if (previous.getOffset() < dataStart
+                    || FileCheckpoint.checksumOf(channel, previous.getHeadLength()) != previous.getHeadChecksum()) {
+                restartReason = "rewritten";
+            }
+            if (restartReason == null) {
+                start = previous.getOffset();
+                recordCount = previous.getRecordCount();
+                headers = previous.getHeaders();
+                columns = previous.getColumns();
+            } else {
+                log.info("The file \"{}\" has been {} since the last checkpoint. Read from the beginning. Last checkpoint: {}", path, restartReason, previous);
+            }
+        }
+
+        ByteScanner scanner = new ByteScanner(channel, size);
+        long end = scanner.findLastRecordEnd(template.getRecordSeparator().getBytes(charset), ByteScanner.toBytes(template.getQualifier(), charset), start);
+
+        List<Object> records = new ArrayList<>();
+        if (end > start) {
+            try (DelimitedRecordReader reader = DelimitedRecordReader.openRegion(channel, start, end - start, charset, template)) {
+                if (template.isHeaderExist()) {
+                    if (headers == null) {
+                        headers = reader.readHeader();
+                    } else {
+                        reader.setHeaders(headers);
+                    }
+                    columns = headers.size();
+                    Map<String, Object> record;
+                    while ((record = reader.nextRecord()) != null) {
+                        records.add(record);
+                    }
+                } else {
+                    if (columns > 0) {
+                        reader.expectColumns(columns);
+                    }
+                    List<Object> record;
+                    while ((record = reader.nextList()) != null) {
+                        records.add(record);
+                    }
+                    if (columns == 0 && !records.isEmpty()) {
+                        columns = ((List<?>) records.get(0)).size();
+                    }
+                }
+            } catch (IllegalStateException ie) {
+                //구간 안에서의 record 번호이므로 읽기 시작한 위치를 함께 전달한다.
+                throw new IllegalStateException(ie.getMessage() + " (reading from byte offset " + start + ")", ie);
+            }
+        }
+
+        FileCheckpoint next = new FileCheckpoint();
+        next.setPath(FileCheckpointStore.keyOf(path));
+        next.setFileKey(fileKey);
+        next.setSize(size);
+        next.setOffset(end);
+        next.setRecordCount(recordCount + records.size());
+        next.setHeaders(headers);
+        next.setColumns(columns);
+        int headLength = (int) Math.min(end, FileCheckpoint.HEAD_CHECKSUM_LENGTH);
+        next.setHeadLength(headLength);
+        next.setHeadChecksum(FileCheckpoint.checksumOf(channel, headLength));
+        next.setUpdatedTime(System.currentTimeMillis());
+        this.checkpoint = next;
+        return records;
+    }
+
+    /**
+     * 마지막으로 {@link #read(Path, FileChannel, long, FileCheckpoint)} 한 뒤의 checkpoint 를 가져온다.
+     *
+     * @return the checkpoint
+     */
+    public FileCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+}
@@ -0,0 +1,156 @@
+package mb.dnm.access.file;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.util.MessageUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * key 별 항목을 하나의 JSON 파일에 저장하는 객체의 공통 구현이다.<br>
+ * 저장 파일은 처음 사용될 때 한 번 읽어 등록 순서를 유지하는 {@code Map} 으로 보관하며,
+ * 저장할 때마다 임시 파일에 전체 내용을 작성한 뒤 저장 파일로 이동하므로 저장 도중 프로세스가 종료되어도 이전 내용이 유지된다.<br>
+ * 같은 저장 파일을 사용하는 서비스들이 같은 객체를 공유하도록 하위 클래스는 {@link #access(Map, Path, Factory)} 로 객체를 가져오며,
+ * {@link #entries()} 와 {@link #save()} 는 객체의 lock 을 잡은 {@code synchronized} 메소드 안에서만 호출한다.
+ *
+ * @param <V> 저장할 항목의 타입
+ * @see FileCheckpointStore
+ * @see ContentHashIndex
+ */
+@Slf4j
+abstract class JsonFileStore<V> {
+    private final Path storeFile;
+    private final String entryName;
+    private final boolean prettyPrint;
+    private Map<String, V> entries;
+
+    /**
+     * Instantiates a new Json file store.
+     *
+     * @param storeFile   항목을 저장할 파일
+     * @param entryName   로그와 오류 메시지에 사용할 항목의 이름
+     * @param prettyPrint JSON 을 들여쓰기 하여 저장할 지 여부
+     */
+    JsonFileStore(Path storeFile, String entryName, boolean prettyPrint) {
+        this.storeFile = storeFile;
+        this.entryName = entryName;
+        this.prettyPrint = prettyPrint;
+    }
+
+    /**
+     * {@code stores} 에서 {@code storeFile} 을 사용하는 객체를 가져온다. 없는 경우 {@code factory} 로 생성하여 등록한다.
+     *
+     * @param <S>       the store type
+     * @param stores    저장 파일의 절대 경로 별 객체
+     * @param storeFile the store file
+     * @param factory   the factory
+     * @return the store
+     */
+    static <S extends JsonFileStore<?>> S access(Map<Path, S> stores, Path storeFile, Factory<S> factory) {
+        Path key = storeFile.toAbsolutePath().normalize();
+        synchronized (stores) {
+            S store = stores.get(key);
+            if (store == null) {
+                store = factory.create(key);
+                stores.put(key, store);
+            }
+            return store;
+        }
+    }
+
+    /**
+     * Gets store file.
+     *
+     * @return the store file
+     */
+    public Path getStoreFile() {
+        return storeFile;
+    }
+
+    /**
+     * 저장된 항목들을 가져온다. 처음 호출될 때 저장 파일을 읽는다.
+     *
+     * @return 등록 순서를 유지하는 항목들. 변경한 경우 {@link #save()} 를 호출해야 저장 파일에 반영된다.
+     * @throws IOException the io exception
+     */
+    Map<String, V> entries() throws IOException {
+        if (entries == null) {
+            entries = load();
+        }
+        return entries;
+    }
+
+    /**
+     * 항목들을 저장 파일에 저장한다.
+     *
+     * @throws IOException the io exception
+     */
+    void save() throws IOException {
+        Map<String, Object> content = new LinkedHashMap<>();
+        for (Map.Entry<String, V> entry : entries().entrySet()) {
+            content.put(entry.getKey(), toJson(entry.getValue()));
+        }
+        Path parent = storeFile.getParent();
+        if (parent != null && !Files.exists(parent)) {
+            Files.createDirectories(parent);
+        }
+        Path tempFile = storeFile.resolveSibling(storeFile.getFileName() + ".tmp");
+        Files.write(tempFile, MessageUtil.mapToJson(content, prettyPrint).getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * JSON 으로 읽은 항목을 변환한다.
+     *
+     * @param value the value
+     * @return the entry
+     */
+    abstract V fromJson(Map<String, Object> value);
+
+    /**
+     * 항목을 JSON 으로 저장할 {@code Map} 으로 변환한다.
+     *
+     * @param entry the entry
+     * @return the map
+     */
+    abstract Map<String, Object> toJson(V entry);
+
+    @SuppressWarnings("unchecked")
+    private Map<String, V> load() throws IOException {
+        Map<String, V> loaded = new LinkedHashMap<>();
+        if (Files.exists(storeFile)) {
+            String json = new String(Files.readAllBytes(storeFile), StandardCharsets.UTF_8);
+            if (!json.trim().isEmpty()) {
+                try {
+                    for (Map.Entry<String, Object> entry : MessageUtil.jsonToMap(json).entrySet()) {
+                        loaded.put(entry.getKey(), fromJson((Map<String, Object>) entry.getValue()));
+                    }
+                } catch (JsonProcessingException je) {
+                    throw new IllegalStateException("Can not parse the " + entryName + " file \"" + storeFile + "\". The content is not JSON format.", je);
+                }
+            }
+            log.debug("{} {}s loaded from \"{}\"", loaded.size(), entryName, storeFile);
+        }
+        return loaded;
+    }
+
+    /**
+     * 저장 파일의 경로로 객체를 생성한다.
+     *
+     * @param <S> the store type
+     */
+    interface Factory<S> {
+        S create(Path storeFile);
+    }
+}
@@ -0,0 +1,228 @@
+package mb.dnm.access.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * 로컬 파일 시스템의 파일을 복사 또는 이동하고 파일 별 처리량을 기록하는 객체이다.<br>
+ * <ul>
+ *     <li>복사는 {@code FileChannel.transferTo} 를 사용하여 운영체제가 지원하는 경우 사용자 영역의 버퍼를 거치지 않고(zero-copy) 복사한다.</li>
+ *     <li>이동은 {@code Files.move(ATOMIC_MOVE)} 로 이름만 변경하며, 원본과 대상이 다른 파일 시스템에 있어 이름을 변경할 수 없는 경우 복사한 뒤 원본을 삭제한다.</li>
+ * </ul>
+ * {@link #transferAll(List, List, int, boolean)} 은 여러 파일을 {@code workers} 개의 thread 에서 동시에 처리한다.
+ * 처리 결과는 {@link #getStatistics()} 로 가져올 수 있다.
+ *
+ * @see mb.dnm.service.file.CopyFiles
+ * @see mb.dnm.service.file.MoveFiles
+ */
+@Slf4j
+public class LocalFileTransfer {
+    private static final AtomicInteger poolSequence = new AtomicInteger();
+
+    private final boolean move;
+    private final long startTime;
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicInteger fileCount = new AtomicInteger();
+    private final AtomicInteger renamedCount = new AtomicInteger();
+    private final List<Map<String, Object>> fileStatistics = Collections.synchronizedList(new ArrayList<Map<String, Object>>());
+    private int workers = 1;
+
+    /**
+     * Instantiates a new Local file transfer.
+     *
+     * @param move true 인 경우 이동, false 인 경우 복사한다.
+     */
+    public LocalFileTransfer(boolean move) {
+        this.move = move;
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * 파일 하나를 복사 또는 이동한다. {@code target} 이 이미 있는 경우 덮어쓴다.
+     *
+     * @param source the source
+     * @param target the target
+     * @return the target
+     * @throws IOException the io exception
+     */
+    public Path transfer(Path source, Path target) throws IOException {
+        long start = System.nanoTime();
+        long bytes;
+        boolean renamed = false;
+        if (move) {
+            bytes = Files.size(source);
+            try {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                renamed = true;
+            } catch (AtomicMoveNotSupportedException e) {
+                //다른 파일 시스템으로 이동하는 경우
+                copy(source, target);
+                Files.delete(source);
+            }
+        } else {
+            bytes = copy(source, target);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        totalBytes.addAndGet(bytes);
+        fileCount.incrementAndGet();
+        if (renamed) {
+            renamedCount.incrementAndGet();
+        }
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("source", source.toString());
+        statistics.put("target", target.toString());
+        statistics.put("bytes", bytes);
+        statistics.put("method", renamed ? "rename" : "transfer");
+        statistics.put("elapsed_millis", elapsed / 1000000.0);
+        statistics.put("bytes_per_second", bytesPerSecond(bytes, elapsed));
+        fileStatistics.add(statistics);
+        return target;
+    }
+
+    /**
+     * {@code sources} 의 파일들을 같은 순서의 {@code targets} 로 {@code workers} 개의 thread 에서 동시에 복사 또는 이동한다.<br>
+     * 반환되는 목록의 원소는 {@code sources} 와 같은 순서이며, 성공한 경우 대상 경로({@code Path}), 실패한 경우 발생한 예외({@code Throwable}) 이다.
+     * {@code stopOnError} 가 true 인 경우 예외가 발생하면 아직 시작하지 않은 파일은 처리하지 않고 예외를 던진다.
+     *
+     * @param sources     the sources
+     * @param targets     the targets
+     * @param workers     동시에 처리할 thread 수
+     * @param stopOnError 예외가 발생한 경우 처리를 중단할 지 여부
+     * @return the list
+     * @throws Throwable {@code stopOnError} 가 true 인 경우 처음 발생한 예외
+     */
+    public List<Object> transferAll(List<Path> sources, final List<Path> targets, int workers, boolean stopOnError) throws Throwable {
+        if (workers < 1)
+            throw new IllegalArgumentException("The workers must be greater than 0. Inputted value: " + workers);
+        int size = sources.size();
+        List<Object> results = new ArrayList<>(size);
+        if (size == 0)
+            return results;
+        this.workers = Math.min(workers, size);
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.workers, new TransferThreadFactory(move));
+        try {
+            List<Future<Path>> futures = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                final Path source = sources.get(i);
+                final Path target = targets.get(i);
+                futures.add(executor.submit(new Callable<Path>() {
+                    @Override
+                    public Path call() throws Exception {
+                        return transfer(source, target);
+                    }
+                }));
+            }
+            for (Future<Path> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException ee) {
+                    if (stopOnError) {
+                        executor.shutdownNow();
+                        throw ee.getCause();
+                    }
+                    results.add(ee.getCause());
+                }
+            }
+        } catch (InterruptedException ie) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw ie;
+        } finally {
+            executor.shutdown();
+        }
+        return results;
+    }
+
+    /**
+     * 처리한 파일 수, 전체 byte 수, 처리 시간, 처리량과 파일 별 처리량을 가져온다.
+     *
+     * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+     * {
+     *   "file_count": 2, "renamed_count": 0, "total_bytes": 2048, "elapsed_millis": 1.5, "bytes_per_second": 1365333, "workers": 2,
+     *   "files": [{"source": "...", "target": "...", "bytes": 1024, "method": "transfer", "elapsed_millis": 0.7, "bytes_per_second": 1462857}, ...]
+     * }</pre>
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> getStatistics() {
+        long elapsed = System.nanoTime() - startTime;
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("file_count", fileCount.get());
+        statistics.put("renamed_count", renamedCount.get());
+        statistics.put("total_bytes", totalBytes.get());
+        statistics.put("elapsed_millis", elapsed / 1000000.0);
+        statistics.put("bytes_per_second", bytesPerSecond(totalBytes.get(), elapsed));
+        statistics.put("workers", workers);
+        synchronized (fileStatistics) {
+            statistics.put("files", new ArrayList<>(fileStatistics));
+        }
+        return statistics;
+    }
+
+    /**
+     * {@code FileChannel.transferTo} 로 파일을 복사한다. {@code target} 이 이미 있는 경우 덮어쓴다.
+     *
+     * @param source the source
+     * @param target the target
+     * @return 복사한 byte 수
+     * @throws IOException the io exception
+     */
+    public static long copy(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            //transferTo 는 요청한 크기보다 적게 전송할 수 있다. 복사 중 파일이 작아진 경우 남은 만큼만 복사한다.
+            while (position < size) {
+                long transferred = in.transferTo(position, size - position, out);
+                if (transferred <= 0)
+                    break;
+                position += transferred;
+            }
+            return position;
+        }
+    }
+
+    private static long bytesPerSecond(long bytes, long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0 : (long) (bytes * 1000000000.0 / elapsedNanos);
+    }
+
+    private static class TransferThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger threadSequence = new AtomicInteger();
+
+        TransferThreadFactory(boolean move) {
+            this.prefix = (move ? "file-move-" : "file-copy-") + poolSequence.incrementAndGet() + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + threadSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package mb.dnm.access.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * 큰 구분자 파일을 record 경계에서 여러 구간으로 나누어 {@link ForkJoinPool} 에서 동시에 parsing 한 뒤 파일의 순서대로 합치는 객체이다.<br>
+ * 각 구간은 {@link DelimitedRecordReader} 가 memory-mapped 방식으로 읽으므로 결과와 검증 규칙은 {@link DelimitedRecordReader} 로 순서대로 읽은 것과 같다.<br><br>
+ *
+ * 구간의 경계는 다음과 같이 결정된다.
+ * <ul>
+ *     <li>qualifier 가 없는 경우 파일을 {@code parallelism} 개로 나눈 위치 다음의 첫번째 record separator 를 경계로 사용한다.</li>
+ *     <li>qualifier 가 있는 경우 나눈 위치 사이의 qualifier 수를 구간 별로 동시에 세어 각 위치가 qualifier 안에 있는지 확인한 뒤,
+ *     그 위치 다음의 qualifier 밖에 있는 첫번째 record separator 를 경계로 사용한다.
+ *     qualifier 가 여러 byte 이거나 record separator 에 포함된 문자인 경우에는 파일을 한 번 순회하며 qualifier 의 열림/닫힘을 확인한다.</li>
+ * </ul>
+ * 경계를 byte 단위로 찾으므로 ASCII 문자가 다른 문자의 일부로 사용되지 않는 charset(UTF-8, US-ASCII, ISO-8859-1, EUC-KR 등) 에서만 나누어 읽는다.
+ * 그 외의 charset 이거나 파일이 작은 경우에는 하나의 {@link DelimitedRecordReader} 로 순서대로 읽는다.
+ *
+ * @see DelimitedRecordReader
+ * @see mb.dnm.service.file.ReadFile
+ */
+@Slf4j
+public class ParallelRecordParser {
+    /**
+     * 하나의 구간의 최소 byte 수. 파일이 이보다 작은 경우 나누지 않는다.
+     */
+    public static final long MIN_CHUNK_SIZE = 1024 * 1024;
+    private static volatile ForkJoinPool pool;
+
+    private final FileParserTemplate template;
+    private final Charset charset;
+    private final int parallelism;
+
+    /**
+     * Instantiates a new Parallel record parser.
+     *
+     * @param template    the template
+     * @param charset     the charset
+     * @param parallelism 파일을 나눌 최대 구간 수
+     */
+    public ParallelRecordParser(FileParserTemplate template, Charset charset, int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be greater than 0. Inputted value: " + parallelism);
+        this.template = template;
+        this.charset = charset;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * {@code position} 부터 파일의 끝까지 모든 record 를 {@code List} 로 읽는다.
+     *
+     * @param channel  the channel
+     * @param position 데이터의 시작 위치
+     * @return the list
+     * @throws IOException the io exception
+     */
+    @SuppressWarnings("unchecked")
+    public List<List<Object>> readDataToList(FileChannel channel, long position) throws IOException {
+        return (List<List<Object>>) (List<?>) parse(channel, position, false);
+    }
+
+    /**
+     * {@code position} 부터 첫번째 record 를 header 로 읽고, 나머지 record 들을 header 의 컬럼명을 key 로 하는 {@code Map} 으로 읽는다.
+     *
+     * @param channel  the channel
+     * @param position 데이터의 시작 위치
+     * @return the list
+     * @throws IOException the io exception
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> readDataToRecord(FileChannel channel, long position) throws IOException {
+        return (List<Map<String, Object>>) (List<?>) parse(channel, position, true);
+    }
+
+    private List<Object> parse(final FileChannel channel, long position, final boolean header) throws IOException {
+        long end = channel.size();
+        List<Object> result = new ArrayList<>();
+        if (position >= end)
+            return result;
+
+        int chunkCount = (int) Math.min(parallelism, (end - position) / MIN_CHUNK_SIZE);
+        if (chunkCount < 2 || !ByteScanner.isByteSearchable(charset)) {
+            return parseChunk(channel, position, end, header, null, 0);
+        }
+
+        //첫번째 record(header 또는 첫번째 데이터)를 먼저 읽어 나머지 구간의 컬럼 수 검증 기준으로 사용한다.
+        long[] boundaries = findBoundaries(channel, position, end, chunkCount);
+        final List<String> headers;
+        final int columns;
+        try (DelimitedRecordReader reader = DelimitedRecordReader.openRegion(channel, position, boundaries[0] - position, charset, template)) {
+            if (header) {
+                headers = reader.readHeader();
+                columns = headers.size();
+            } else {
+                headers = null;
+                List<Object> first = reader.nextList();
+                if (first == null)
+                    return result;
+                result.add(first);
+                columns = first.size();
+            }
+        }
+
+        chunkCount = boundaries.length - 1;
+        log.debug("Parsing {} bytes in {} chunks", end - position, chunkCount);
+        List<Callable<List<Object>>> tasks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            final long chunkStart = boundaries[i];
+            final long chunkEnd = boundaries[i + 1];
+            if (chunkStart >= chunkEnd)
+                continue;
+            tasks.add(new Callable<List<Object>>() {
+                @Override
+                public List<Object> call() throws Exception {
+                    return parseChunk(channel, chunkStart, chunkEnd, false, headers, columns);
+                }
+            });
+        }
+
+        List<Future<List<Object>>> futures = getPool().invokeAll(tasks);
+        List<List<Object>> chunks = new ArrayList<>(futures.size());
+        int total = result.size();
+        for (Future<List<Object>> future : futures) {
+            List<Object> chunk = getChunk(future);
+            chunks.add(chunk);
+            total += chunk.size();
+        }
+        ((ArrayList<Object>) result).ensureCapacity(total);
+        for (List<Object> chunk : chunks) {
+            result.addAll(chunk);
+        }
+        return result;
+    }
+
+    /*
+     * start 부터 end 까지의 record 들을 읽는다.
+     * readHeader 가 true 인 경우 첫번째 record 를 header 로 읽고, headers 가 지정된 경우 headers 를 컬럼명으로 사용한다.
+     */
+    private List<Object> parseChunk(FileChannel channel, long start, long end, boolean readHeader, List<String> headers, int columns) throws IOException {
+        List<Object> records = new ArrayList<>();
+        try (DelimitedRecordReader reader = DelimitedRecordReader.openRegion(channel, start, end - start, charset, template)) {
+            if (readHeader) {
+                headers = reader.readHeader();
+            }
+            if (headers != null) {
+                reader.setHeaders(headers);
+                Map<String, Object> record;
+                while ((record = reader.nextRecord()) != null) {
+                    records.add(record);
+                }
+            } else {
+                if (columns > 0) {
+                    reader.expectColumns(columns);
+                }
+                List<Object> record;
+                while ((record = reader.nextList()) != null) {
+                    records.add(record);
+                }
+            }
+        } catch (IllegalStateException ie) {
+            //구간 안에서의 record 번호이므로 구간의 시작 위치를 함께 전달한다.
+            throw new IllegalStateException(ie.getMessage() + " (in the chunk starting at byte offset " + start + ")", ie);
+        }
+        return records;
+    }
+
+    private static <T> T getChunk(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing the file", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /*
+     * 첫번째 record 의 끝과 각 구간의 끝 위치를 반환한다.
+     * 반환값의 첫번째 원소는 첫번째 record 의 끝이며, 마지막 원소는 항상 end 이다.
+     */
+    private long[] findBoundaries(FileChannel channel, long position, long end, int chunkCount) throws IOException {
+        ByteScanner scanner = new ByteScanner(channel, end);
+        byte[] separator = template.getRecordSeparator().getBytes(charset);
+        byte[] qualifier = ByteScanner.toBytes(template.getQualifier(), charset);
+
+        List<Long> boundaries = new ArrayList<>(chunkCount + 1);
+        if (qualifier.length == 0) {
+            long first = scanner.findEnd(separator, position);
+            boundaries.add(first);
+            for (int i = 1; i < chunkCount; i++) {
+                long target = first + (end - first) * i / chunkCount;
+                long boundary = scanner.findEnd(separator, Math.max(target, boundaries.get(boundaries.size() - 1)));
+                if (boundary >= end)
+                    break;
+                if (boundary > boundaries.get(boundaries.size() - 1)) {
+                    boundaries.add(boundary);
+                }
+            }
+        } else if (qualifier.length == 1 && !contains(separator, qualifier[0])) {
+            findQuotedBoundaries(channel, scanner, separator, qualifier, position, end, chunkCount, boundaries);
+        } else {
+            scanQuoted(scanner, separator, qualifier, position, end, chunkCount, boundaries);
+        }
+        if (boundaries.get(boundaries.size() - 1) != end) {
+            boundaries.add(end);
+        }
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    /*
+     * 한 byte 의 qualifier 는 위치에 관계없이 셀 수 있으므로 목표 위치 사이의 qualifier 수를 구간 별로 동시에 센다.
+     * 첫번째 record 의 끝부터 목표 위치까지의 qualifier 수가 홀수이면 목표 위치는 qualifier 안에 있으며,
+     * 이 상태로 목표 위치부터 qualifier 밖에 있는 첫번째 record separator 를 찾는다.
+     */
+    private static void findQuotedBoundaries(final FileChannel channel, ByteScanner scanner, byte[] separator, byte[] qualifier
+            , long position, final long end, int chunkCount, List<Long> boundaries) throws IOException {
+        long first = scanner.findRecordEnd(separator, qualifier, position, false);
+        boundaries.add(first);
+        if (first >= end)
+            return;
+        final long[] targets = new long[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            targets[i] = first + (end - first) * i / chunkCount;
+        }
+        final byte q = qualifier[0];
+        List<Callable<Long>> tasks = new ArrayList<>(chunkCount - 1);
+        for (int i = 1; i < chunkCount; i++) {
+            final long from = targets[i - 1];
+            final long to = targets[i];
+            tasks.add(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    return new ByteScanner(channel, end).count(q, from, to);
+                }
+            });
+        }
+        List<Future<Long>> counts = getPool().invokeAll(tasks);
+
+        boolean quoted = false;
+        for (int i = 1; i < chunkCount; i++) {
+            quoted ^= getChunk(counts.get(i - 1)) % 2 == 1;
+            long last = boundaries.get(boundaries.size() - 1);
+            //이전 경계가 목표 위치를 지난 경우 이전 경계는 qualifier 밖이므로 그 위치부터 찾는다.
+            long boundary = last >= targets[i]
+                    ? scanner.findRecordEnd(separator, qualifier, last, false)
+                    : scanner.findRecordEnd(separator, qualifier, targets[i], quoted);
+            if (boundary >= end)
+                break;
+            boundaries.add(boundary);
+        }
+    }
+
+    private static boolean contains(byte[] bytes, byte b) {
+        for (byte each : bytes) {
+            if (each == b)
+                return true;
+        }
+        return false;
+    }
+
+    //qualifier 의 열림/닫힘을 추적하며 qualifier 밖에 있는 record separator 중 각 목표 위치 다음의 첫번째 separator 를 경계로 사용한다.
+    private static void scanQuoted(ByteScanner scanner, byte[] separator, byte[] qualifier, long position, long end
+            , int chunkCount, List<Long> boundaries) throws IOException {
+        boolean quoted = false;
+        long first = -1;
+        long nextTarget = Long.MAX_VALUE;
+        int chunkIdx = 1;
+        long i = position;
+        while (i < end) {
+            if (scanner.matches(qualifier, i)) {
+                quoted = !quoted;
+                i += qualifier.length;
+                continue;
+            }
+            if (!quoted && scanner.matches(separator, i)) {
+                long boundary = i + separator.length;
+                if (first < 0) {
+                    first = boundary;
+                    boundaries.add(first);
+                    nextTarget = first + (end - first) / chunkCount;
+                } else if (boundary >= nextTarget && boundary < end) {
+                    boundaries.add(boundary);
+                    if (++chunkIdx >= chunkCount)
+                        return;
+                    nextTarget = first + (end - first) * chunkIdx / chunkCount;
+                }
+                i = boundary;
+                continue;
+            }
+            ++i;
+        }
+        if (first < 0) {
+            boundaries.add(end);
+        }
+    }
+
+    private static ForkJoinPool getPool() {
+        if (pool == null) {
+            synchronized (ParallelRecordParser.class) {
+                if (pool == null) {
+                    //pool 은 종료하지 않으므로 JVM 종료를 막지 않도록 daemon thread 를 사용한다. 유휴 thread 는 ForkJoinPool 이 정리한다.
+                    final AtomicInteger threadSequence = new AtomicInteger();
+                    pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+                        @Override
+                        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                            thread.setName("record-parser-" + threadSequence.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    }, null, false);
+                }
+            }
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,285 @@
+package mb.dnm.access.ftp;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool.BaseKeyedPoolableObjectFactory;
+import org.apache.commons.pool.impl.GenericKeyedObjectPool;
+import org.apache.commons.net.ftp.FTPClient;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * {@link FTPClientTemplate} 의 이름 별로 로그인된 {@code FTPClient} 를 재사용하는 connection pool 이다.<br>
+ * {@link FTPSourceProvider} 의 {@code connectionPool} 속성으로 등록하면 {@link FTPSourceProvider#getNewSession(String)} 이
+ * 매번 접속과 로그인을 하지 않고 pool 에서 connection 을 가져오며, {@link FTPSession#close()} 는 로그아웃 대신 connection 을 pool 에 반환한다.<br><br>
+ *
+ * connection 은 다음과 같이 관리된다.
+ * <ul>
+ *     <li>pool 에서 가져올 때 {@code validateOnBorrow} 가 true 인 경우 NOOP 명령으로 연결을 확인하며, 응답이 없는 connection 은 폐기하고 다시 가져온다.</li>
+ *     <li>반환할 때 작업 디렉터리를 로그인 직후의 디렉터리로, file type 과 passive mode 를 {@code FTPClientTemplate} 의 설정으로 되돌린다.
+ *     되돌릴 수 없는 connection 은 폐기된다.</li>
+ *     <li>{@code idleTimeoutMillis} 동안 사용되지 않은 connection 과 생성된 지 {@code maxLifetimeMillis} 가 지난 connection 은 폐기된다.</li>
+ * </ul>
+ *
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * &lt;bean class="mb.dnm.access.ftp.FTPSourceProvider"&gt;
+ *     &lt;property name="ftpClients"&gt;
+ *         . . .
+ *     &lt;/property&gt;
+ *     &lt;property name="connectionPool"&gt;
+ *         &lt;bean class="mb.dnm.access.ftp.FTPConnectionPool"&gt;
+ *             &lt;property name="maxActive"              value="<span style="color: black; background-color: #FAF3D4;">FTP 서버 별 최대 connection 수</span>"/&gt;
+ *             &lt;property name="maxIdle"                value="<span style="color: black; background-color: #FAF3D4;">FTP 서버 별 최대 유휴 connection 수</span>"/&gt;
+ *         &lt;/bean&gt;
+ *     &lt;/property&gt;
+ * &lt;/bean&gt;</pre>
+ *
+ * @see FTPSourceProvider
+ * @see FTPSession
+ */
+@Slf4j
+@Setter @Getter
+public class FTPConnectionPool implements Serializable {
+    private static final long serialVersionUID = 2771390253918650457L;
+
+    /**
+     * 기본값: 8<br>
+     * FTP 서버(FTPClientTemplate) 별로 동시에 사용할 수 있는 최대 connection 수이다. 상대 서버의 동시 접속 제한보다 작게 설정한다.
+     * */
+    private int maxActive = 8;
+    /**
+     * 기본값: 4<br>
+     * FTP 서버 별로 pool 에 유지할 최대 유휴 connection 수이다.
+     * */
+    private int maxIdle = 4;
+    /**
+     * 기본값: 0<br>
+     * FTP 서버 별로 pool 에 유지할 최소 유휴 connection 수이다. 유휴 connection 검사 시 부족한 수 만큼 미리 접속한다.
+     * */
+    private int minIdle = 0;
+    /**
+     * 기본값: 30000<br>
+     * 모든 connection 이 사용 중인 경우 반환을 기다릴 최대 시간(ms)이다.
+     * */
+    private long maxWaitMillis = 30000;
+    /**
+     * 기본값: true<br>
+     * pool 에서 connection 을 가져올 때 NOOP 명령으로 연결을 확인할 지에 대한 설정이다.
+     * */
+    private boolean validateOnBorrow = true;
+    /**
+     * 기본값: 60000<br>
+     * 유휴 connection 이 폐기되기까지의 시간(ms)이다. FTP 서버의 idle timeout 보다 작게 설정한다.
+     * */
+    private long idleTimeoutMillis = 60000;
+    /**
+     * 기본값: 30000<br>
+     * 유휴 connection 을 검사하는 주기(ms)이다. 0 이하인 경우 검사하지 않는다.
+     * */
+    private long evictionIntervalMillis = 30000;
+    /**
+     * 기본값: 1800000 (30분)<br>
+     * connection 이 생성된 뒤 사용될 수 있는 최대 시간(ms)이다. 0 인 경우 제한하지 않는다.
+     * */
+    private long maxLifetimeMillis = 1800000;
+
+    private transient volatile GenericKeyedObjectPool<String, PooledConnection> pool;
+
+    /**
+     * {@code name} 에 해당하는 FTP 서버의 connection 을 pool 에서 가져온다. 유휴 connection 이 없는 경우 새로 접속한다.
+     *
+     * @param template the template
+     * @return the ftp session
+     * @throws IOException the io exception
+     */
+    FTPSession borrowSession(FTPClientTemplate template) throws IOException {
+        String name = template.getTemplateName();
+        try {
+            return new FTPSession(this, name, getPool().borrowObject(name));
+        } catch (IOException ie) {
+            throw ie;
+        } catch (Exception e) {
+            throw new IOException("Failed to borrow the FTP connection of '" + name + "' from the pool. " + e.getMessage(), e);
+        }
+    }
+
+    /*
+     * FTPSession 이 닫힐 때 connection 을 pool 에 반환한다.
+     * 연결이 끊어졌거나 최대 사용 시간이 지난 connection 은 폐기한다.
+     */
+    boolean release(String name, PooledConnection pooled, boolean invalidate) {
+        GenericKeyedObjectPool<String, PooledConnection> pool = this.pool;
+        if (pool == null) {
+            return pooled.disconnect();
+        }
+        try {
+            if (invalidate || !pooled.ftp.isConnected() || pooled.isExpired(maxLifetimeMillis)) {
+                pool.invalidateObject(name, pooled);
+            } else {
+                pool.returnObject(name, pooled);
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to return the FTP connection of '{}' to the pool. Cause: {}", name, e.toString());
+            return pooled.disconnect();
+        }
+    }
+
+    /**
+     * {@code name} 에 해당하는 FTP 서버의 connection 을 반환을 기다리지 않고 가져올 수 있는 수를 가져온다.
+     *
+     * @param name FTPClientTemplate 의 이름
+     * @return {@code maxActive} 에서 사용 중인 connection 수를 뺀 값
+     */
+    int getAvailableCount(String name) {
+        GenericKeyedObjectPool<String, PooledConnection> pool = this.pool;
+        return Math.max(0, maxActive - (pool == null ? 0 : pool.getNumActive(name)));
+    }
+
+    /**
+     * pool 의 connection 수를 가져온다.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        GenericKeyedObjectPool<String, PooledConnection> pool = this.pool;
+        statistics.put("active_count", pool == null ? 0 : pool.getNumActive());
+        statistics.put("idle_count", pool == null ? 0 : pool.getNumIdle());
+        return statistics;
+    }
+
+    /**
+     * pool 의 모든 유휴 connection 을 로그아웃하고 pool 을 닫는다. 사용 중인 connection 은 반환될 때 로그아웃된다.
+     */
+    public synchronized void close() {
+        if (pool == null)
+            return;
+        try {
+            pool.close();
+        } catch (Exception e) {
+            log.warn("Failed to close the FTP connection pool. Cause: {}", e.toString());
+        }
+        pool = null;
+    }
+
+    private GenericKeyedObjectPool<String, PooledConnection> getPool() {
+        if (pool == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    GenericKeyedObjectPool<String, PooledConnection> newPool = new GenericKeyedObjectPool<>(new ConnectionFactory());
+                    newPool.setMaxActive(maxActive);
+                    newPool.setMaxIdle(maxIdle);
+                    newPool.setMinIdle(minIdle);
+                    newPool.setMaxWait(maxWaitMillis);
+                    newPool.setWhenExhaustedAction(GenericKeyedObjectPool.WHEN_EXHAUSTED_BLOCK);
+                    newPool.setTestOnBorrow(validateOnBorrow);
+                    newPool.setTestWhileIdle(true);
+                    newPool.setMinEvictableIdleTimeMillis(idleTimeoutMillis);
+                    newPool.setTimeBetweenEvictionRunsMillis(evictionIntervalMillis);
+                    newPool.setNumTestsPerEvictionRun(Math.max(maxIdle, 1));
+                    newPool.setLifo(true);
+                    pool = newPool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    public void setMaxActive(int maxActive) {
+        if (maxActive < 1)
+            throw new IllegalArgumentException("The max active must be greater than 0. Inputted value: " + maxActive);
+        this.maxActive = maxActive;
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        if (maxIdle < 0)
+            throw new IllegalArgumentException("The max idle must not be negative. Inputted value: " + maxIdle);
+        this.maxIdle = maxIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        if (minIdle < 0)
+            throw new IllegalArgumentException("The min idle must not be negative. Inputted value: " + minIdle);
+        this.minIdle = minIdle;
+    }
+
+    public void setMaxLifetimeMillis(long maxLifetimeMillis) {
+        if (maxLifetimeMillis < 0)
+            throw new IllegalArgumentException("The max lifetime must not be negative. Inputted value: " + maxLifetimeMillis);
+        this.maxLifetimeMillis = maxLifetimeMillis;
+    }
+
+    /*
+     * pool 에 저장되는 connection. 로그인 직후의 작업 디렉터리와 생성 시간을 함께 저장한다.
+     */
+    static class PooledConnection {
+        private final FTPClient ftp;
+        private final FTPClientTemplate template;
+        private final String homeDirectory;
+        private final long createdTime;
+
+        PooledConnection(FTPClient ftp, FTPClientTemplate template, String homeDirectory) {
+            this.ftp = ftp;
+            this.template = template;
+            this.homeDirectory = homeDirectory;
+            this.createdTime = System.currentTimeMillis();
+        }
+
+        FTPClient getFTPClient() {
+            return ftp;
+        }
+
+        boolean isExpired(long maxLifetimeMillis) {
+            return maxLifetimeMillis > 0 && System.currentTimeMillis() - createdTime >= maxLifetimeMillis;
+        }
+
+        boolean disconnect() {
+            return new FTPSession(ftp).logout();
+        }
+    }
+
+    private class ConnectionFactory extends BaseKeyedPoolableObjectFactory<String, PooledConnection> {
+        @Override
+        public PooledConnection makeObject(String name) throws Exception {
+            FTPClientTemplate template = FTPSourceProvider.access().getFtpClientTemplate(name);
+            if (template == null)
+                throw new IllegalArgumentException("There is no FTPClientTemplate with name " + name);
+            FTPClient ftp = template.login();
+            String homeDirectory = ftp.printWorkingDirectory();
+            log.debug("New pooled FTP connection created for '{}({}:{})'", name, template.getHost(), template.getPort());
+            return new PooledConnection(ftp, template, homeDirectory);
+        }
+
+        @Override
+        public void destroyObject(String name, PooledConnection connection) {
+            connection.disconnect();
+            log.debug("Pooled FTP connection for '{}' is closed", name);
+        }
+
+        @Override
+        public boolean validateObject(String name, PooledConnection connection) {
+            if (!connection.ftp.isConnected() || connection.isExpired(maxLifetimeMillis))
+                return false;
+            try {
+                return connection.ftp.sendNoOp();
+            } catch (IOException ie) {
+                return false;
+            }
+        }
+
+        @Override
+        public void passivateObject(String name, PooledConnection connection) throws Exception {
+            FTPClient ftp = connection.ftp;
+            if (connection.homeDirectory != null && !ftp.changeWorkingDirectory(connection.homeDirectory))
+                throw new IOException("Failed to reset the working directory to \"" + connection.homeDirectory + "\". Reply: " + ftp.getReplyString());
+            ftp.setFileType(connection.template.getFileType());
+            ftp.enterLocalPassiveMode();
+        }
+    }
+}
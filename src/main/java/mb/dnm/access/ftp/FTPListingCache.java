@@ -0,0 +1,159 @@
+package mb.dnm.access.ftp;
+
+import lombok.Getter;
+import org.apache.commons.net.ftp.FTPFile;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * FTP 서버의 디렉터리 목록을 짧은 시간동안 재사용하는 cache 이다.<br>
+ * {@link FTPSourceProvider} 의 {@code listingCache} 속성으로 등록하면 {@code useListingCache} 속성이 true 인 {@link mb.dnm.service.ftp.ListFiles} 서비스가
+ * {@code ttlMillis} 안에 같은 FTP 서버의 같은 디렉터리를 다시 탐색할 때 LIST, MLSD 명령을 실행하지 않고 cache 된 목록을 사용한다.<br><br>
+ *
+ * 목록은 {@code 사용자@host:port} 와 디렉터리의 절대경로 별로 저장된다.
+ * FTP 서버의 파일을 변경하는 {@code mb.dnm.service.ftp} 패키지의 서비스(UploadFiles, DeleteFiles, MoveFiles, WriteRecords)가 실행되면
+ * 해당 FTP 서버의 목록은 모두 cache 에서 제거되지만, 다른 프로세스나 시스템이 변경한 내용은 {@code ttlMillis} 가 지나야 반영된다.
+ *
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * &lt;bean class="mb.dnm.access.ftp.FTPSourceProvider"&gt;
+ *     &lt;property name="ftpClients"&gt;
+ *         . . .
+ *     &lt;/property&gt;
+ *     &lt;property name="listingCache"&gt;
+ *         &lt;bean class="mb.dnm.access.ftp.FTPListingCache"&gt;
+ *             &lt;property name="ttlMillis"              value="<span style="color: black; background-color: #FAF3D4;">목록을 재사용할 시간(ms)</span>"/&gt;
+ *         &lt;/bean&gt;
+ *     &lt;/property&gt;
+ * &lt;/bean&gt;</pre>
+ *
+ * @see FTPSourceProvider
+ * @see mb.dnm.service.ftp.ListFiles
+ */
+@Getter
+public class FTPListingCache implements Serializable {
+    private static final long serialVersionUID = -4187092265503314772L;
+
+    /**
+     * 기본값: 5000<br>
+     * cache 된 목록을 사용할 수 있는 시간(ms)이다. polling 주기보다 짧게 설정하는 경우 cache 가 사용되지 않는다.
+     * */
+    private long ttlMillis = 5000;
+    /**
+     * 기본값: 1000<br>
+     * cache 에 저장할 최대 디렉터리 수이다. 초과하는 경우 가장 오래 사용되지 않은 목록부터 제거된다.
+     * */
+    private int maxEntries = 1000;
+
+    private transient Map<String, CachedListing> entries;
+
+    /**
+     * cache 된 디렉터리 목록을 가져온다.
+     *
+     * @param template 목록을 가져온 FTP 서버의 template
+     * @param path     디렉터리의 절대경로
+     * @return cache 된 목록. 없거나 {@code ttlMillis} 가 지난 경우 null
+     */
+    public synchronized FTPFile[] get(FTPClientTemplate template, String path) {
+        Map<String, CachedListing> entries = getEntries();
+        String key = key(template, path);
+        CachedListing entry = entries.get(key);
+        if (entry == null)
+            return null;
+        if (System.currentTimeMillis() - entry.cachedAt >= ttlMillis) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.files.clone();
+    }
+
+    /**
+     * 디렉터리 목록을 cache 에 저장한다.
+     *
+     * @param template 목록을 가져온 FTP 서버의 template
+     * @param path     디렉터리의 절대경로
+     * @param files    디렉터리 목록
+     */
+    public synchronized void put(FTPClientTemplate template, String path, FTPFile[] files) {
+        if (ttlMillis <= 0 || files == null)
+            return;
+        getEntries().put(key(template, path), new CachedListing(files.clone(), System.currentTimeMillis()));
+    }
+
+    /**
+     * FTP 서버의 cache 된 목록을 모두 제거한다.
+     *
+     * @param template the template
+     */
+    public synchronized void invalidate(FTPClientTemplate template) {
+        if (entries == null)
+            return;
+        String prefix = key(template, "");
+        Iterator<String> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().startsWith(prefix))
+                keys.remove();
+        }
+    }
+
+    /**
+     * cache 된 목록을 모두 제거한다.
+     */
+    public synchronized void clear() {
+        if (entries != null)
+            entries.clear();
+    }
+
+    /**
+     * Sets ttl millis.
+     *
+     * @param ttlMillis 목록을 재사용할 시간(ms). 0 인 경우 cache 하지 않는다.
+     */
+    public void setTtlMillis(long ttlMillis) {
+        if (ttlMillis < 0)
+            throw new IllegalArgumentException("ttlMillis must be greater than or equal to 0: " + ttlMillis);
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Sets max entries.
+     *
+     * @param maxEntries the max entries
+     */
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("maxEntries must be greater than 0: " + maxEntries);
+        this.maxEntries = maxEntries;
+    }
+
+    private Map<String, CachedListing> getEntries() {
+        if (entries == null) {
+            entries = new LinkedHashMap<String, CachedListing>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedListing> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+        return entries;
+    }
+
+    private static String key(FTPClientTemplate template, String path) {
+        return template.getUser() + '@' + template.getHost() + ':' + template.getPort() + '|' + path;
+    }
+
+    private static class CachedListing {
+        private final FTPFile[] files;
+        private final long cachedAt;
+
+        private CachedListing(FTPFile[] files, long cachedAt) {
+            this.files = files;
+            this.cachedAt = cachedAt;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package mb.dnm.access.ftp;
+
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.ClosableStreamWrapper;
+import mb.dnm.access.file.DelimitedRecordReader;
+import org.apache.commons.net.ftp.FTPClient;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+
+/**
+ * FTP 서버의 구분자 파일을 로컬에 저장하지 않고 data connection 에서 받는 대로 record 단위로 읽는 객체이다.<br>
+ * {@code FTPClient.retrieveFileStream(String)} 으로 연 stream 을 {@link DelimitedRecordReader} 로 읽으므로
+ * 파일의 크기와 관계없이 일정한 메모리로 동작하며, 각 record 는 {@code Map<컬럼명, 데이터>} 형태로 반환된다.<br><br>
+ *
+ * {@link Iterable} 을 구현하므로 {@link mb.dnm.service.db.Insert}, {@link mb.dnm.service.general.IterationGroup} 등의 서비스에 input 으로 그대로 전달할 수 있다.
+ * 단, {@code iterator()} 는 한 번만 호출할 수 있다.<br>
+ * 모든 record 를 읽으면 전송 결과를 확인한 뒤 자동으로 닫히며, 그렇지 않은 경우 {@link mb.dnm.core.callback.SessionCleanupCallback} 에 의해 서비스 프로세스 종료 시 닫힌다.
+ * 닫히기 전까지는 같은 {@code FTPClient} 로 다른 명령을 실행할 수 없으며, stream 을 연 {@link FTPSession} 이 먼저 닫히는 경우 stream 을 닫은 뒤 session 을 닫는다.
+ *
+ * @see mb.dnm.service.ftp.ReadRecords
+ */
+@Slf4j
+public class FTPRecordStream implements Iterable<Map<String, Object>>, ClosableStreamWrapper {
+    private final FTPSession session;
+    private final FTPClient ftp;
+    private final String ftpPath;
+    private final DelimitedRecordReader reader;
+    private Map<String, Object> nextRecord;
+    private boolean fetched = false;
+    private boolean iterated = false;
+    private boolean completed = false;
+    private boolean closed = false;
+    private long recordCount = 0;
+
+    /**
+     * Instantiates a new FTP record stream.
+     *
+     * @param session 파일을 전송 중인 FTPSession
+     * @param ftpPath 파일의 FTP 경로
+     * @param reader  {@code retrieveFileStream} 으로 연 stream 을 읽는 reader. header 를 읽었거나 컬럼명이 지정된 상태여야 한다.
+     */
+    public FTPRecordStream(FTPSession session, String ftpPath, DelimitedRecordReader reader) {
+        this.session = session;
+        this.ftp = session.getFTPClient();
+        this.ftpPath = ftpPath;
+        this.reader = reader;
+        session.setRecordStream(this);
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> iterator() {
+        if (iterated)
+            throw new IllegalStateException("The record stream of the FTP file '" + ftpPath + "' can be iterated only once");
+        iterated = true;
+        return new RecordIterator();
+    }
+
+    /**
+     * 지금까지 읽은 record 의 수를 반환한다.
+     *
+     * @return the record count
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Gets ftp path.
+     *
+     * @return the ftp path
+     */
+    public String getFtpPath() {
+        return ftpPath;
+    }
+
+    /**
+     * stream 이 닫혔는지 확인한다.
+     *
+     * @return the boolean
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * stream 을 닫고 FTP 서버의 전송 결과 응답을 읽는다. 모든 record 를 읽기 전에 닫는 경우 ABOR 명령으로 전송을 중단한다.
+     *
+     * @return 응답을 정상적으로 읽은 경우 true
+     */
+    @Override
+    public boolean close() {
+        if (closed)
+            return true;
+        closed = true;
+        nextRecord = null;
+        session.removeRecordStream(this);
+        if (!completed) {
+            //모든 record 를 읽기 전에 닫는 경우 서버가 남은 데이터를 계속 전송하지 않도록 ABOR 명령으로 전송을 중단한다.
+            try {
+                ftp.abort();
+            } catch (IOException e) {
+                log.warn("Failed to abort the transfer of the FTP file '{}'. Cause: {}", ftpPath, e.getMessage());
+            }
+        }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the data connection of the FTP file '{}'. Cause: {}", ftpPath, e.getMessage());
+        }
+        try {
+            //data connection 이 닫힌 뒤 전송 결과 응답을 읽어야 다음 명령을 실행할 수 있다.
+            boolean success = ftp.completePendingCommand();
+            if (!success && !completed) {
+                log.debug("The transfer of the FTP file '{}' is aborted. Reply: {}", ftpPath, ftp.getReplyString().trim());
+            }
+            completed = completed && success;
+        } catch (IOException e) {
+            log.warn("Failed to complete the transfer of the FTP file '{}'. Cause: {}", ftpPath, e.getMessage());
+            completed = false;
+            return false;
+        }
+        log.debug("Record stream of the FTP file '{}' closed. {} records read", ftpPath, recordCount);
+        return true;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return !closed;
+    }
+
+    private void fetchNext() {
+        if (fetched)
+            return;
+        fetched = true;
+        if (closed)
+            return;
+        try {
+            nextRecord = reader.nextRecord();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw new IllegalStateException("Failed to read the record " + (recordCount + 1) + " of the FTP file '" + ftpPath + "'", e);
+        }
+        if (nextRecord == null) {
+            completed = true;
+            close();
+            if (!completed)
+                throw new IllegalStateException("The transfer of the FTP file '" + ftpPath + "' is not completed. FTP reply: " + ftp.getReplyString().trim());
+            return;
+        }
+        ++recordCount;
+    }
+
+    private class RecordIterator implements Iterator<Map<String, Object>> {
+
+        @Override
+        public boolean hasNext() {
+            fetchNext();
+            return nextRecord != null;
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            fetchNext();
+            if (nextRecord == null)
+                throw new NoSuchElementException("The record stream of the FTP file '" + ftpPath + "' reached to the last");
+            Map<String, Object> record = nextRecord;
+            nextRecord = null;
+            fetched = false;
+            return record;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+}
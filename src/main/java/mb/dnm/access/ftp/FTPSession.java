@@ -7,11 +7,17 @@ import java.io.IOException;
 import java.io.Serializable;
 
 /**
- * The type Ftp session.
+ * The type Ftp session.<br>
+ * {@link FTPConnectionPool} 에서 가져온 session 은 {@link #close()} 가 호출될 때 로그아웃하지 않고 connection 을 pool 에 반환한다.
  */
 public class FTPSession implements ClosableStreamWrapper, Serializable {
     private static final long serialVersionUID = -6338893611571699317L;
     private FTPClient ftp;
+    private transient FTPConnectionPool pool;
+    private transient FTPConnectionPool.PooledConnection connection;
+    private String poolKey;
+    private boolean released = false;
+    private transient FTPRecordStream recordStream;
 
     /**
      * Instantiates a new Ftp session.
@@ -22,12 +28,27 @@ public class FTPSession implements ClosableStreamWrapper, Serializable {
         this.ftp = ftp;
     }
 
+    FTPSession(FTPConnectionPool pool, String poolKey, FTPConnectionPool.PooledConnection connection) {
+        this.ftp = connection.getFTPClient();
+        this.pool = pool;
+        this.poolKey = poolKey;
+        this.connection = connection;
+    }
+
     /**
      * Logout boolean.
      *
      * @return the boolean
      */
     public boolean logout() {
+        closeRecordStream();
+        if (pool != null) {
+            //pool 에서 가져온 connection 은 pool 에서 폐기되면서 로그아웃된다.
+            if (released)
+                return true;
+            released = true;
+            return pool.release(poolKey, connection, true);
+        }
         if (ftp == null || !ftp.isConnected()) {
             return true;
         }
@@ -49,12 +70,19 @@ public class FTPSession implements ClosableStreamWrapper, Serializable {
 
     @Override
     public boolean close() {
+        closeRecordStream();
+        if (pool != null) {
+            if (released)
+                return true;
+            released = true;
+            return pool.release(poolKey, connection, false);
+        }
         return logout();
     }
 
     @Override
     public boolean isConnected() {
-        if (ftp == null || !ftp.isConnected()) {
+        if (released || ftp == null || !ftp.isConnected()) {
             return false;
         }
         return true;
@@ -69,4 +97,34 @@ public class FTPSession implements ClosableStreamWrapper, Serializable {
         return ftp;
     }
 
+    /*
+     * FTPRecordStream 이 열려있는 동안 session 에 등록된다.
+     * 전송 결과 응답을 읽기 전에 connection 이 pool 에 반환되거나 로그아웃되지 않도록 session 을 닫을 때 stream 을 먼저 닫는다.
+     */
+    void setRecordStream(FTPRecordStream recordStream) {
+        this.recordStream = recordStream;
+    }
+
+    void removeRecordStream(FTPRecordStream recordStream) {
+        if (this.recordStream == recordStream)
+            this.recordStream = null;
+    }
+
+    private void closeRecordStream() {
+        FTPRecordStream stream = recordStream;
+        if (stream != null) {
+            recordStream = null;
+            stream.close();
+        }
+    }
+
+    /**
+     * {@link FTPConnectionPool} 에서 가져온 session 인지 여부
+     *
+     * @return the boolean
+     */
+    public boolean isPooled() {
+        return pool != null;
+    }
+
 }
@@ -14,6 +14,16 @@ public class FTPSourceProvider implements Serializable {
     private static FTPSourceProvider instance;
     private Map<String, FTPClientTemplate> templateMap;
     private boolean initialized = false;
+    /**
+     * 기본값: null<br>
+     * 지정된 경우 {@link #getNewSession(String)} 은 {@code FTPClientTemplate} 의 이름 별로 로그인된 connection 을 재사용한다.
+     * */
+    private FTPConnectionPool connectionPool;
+    /**
+     * 기본값: null<br>
+     * 지정된 경우 {@link mb.dnm.service.ftp.ListFiles} 가 탐색한 디렉터리 목록을 FTP 서버와 경로 별로 짧은 시간동안 재사용한다.
+     * */
+    private FTPListingCache listingCache;
 
     /**
      * Instantiates a new Ftp source provider.
@@ -53,9 +63,63 @@ public class FTPSourceProvider implements Serializable {
         if (template == null) {
             throw new NullPointerException("There is no FTPClientTemplate with name " + name);
         }
+        if (connectionPool != null) {
+            return connectionPool.borrowSession(template);
+        }
         return new FTPSession(template.login());
     }
 
+    /**
+     * FTP connection pool 을 지정한다. 이전에 지정된 pool 은 닫힌다.
+     *
+     * @param connectionPool the connection pool
+     */
+    public void setConnectionPool(FTPConnectionPool connectionPool) {
+        if (this.connectionPool != null && this.connectionPool != connectionPool) {
+            this.connectionPool.close();
+        }
+        this.connectionPool = connectionPool;
+    }
+
+    /**
+     * Gets connection pool.
+     *
+     * @return the connection pool. pool 을 사용하지 않는 경우 null
+     */
+    public FTPConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * 디렉터리 목록 cache 를 지정한다.
+     *
+     * @param listingCache the listing cache
+     */
+    public void setListingCache(FTPListingCache listingCache) {
+        this.listingCache = listingCache;
+    }
+
+    /**
+     * Gets listing cache.
+     *
+     * @return the listing cache. cache 를 사용하지 않는 경우 null
+     */
+    public FTPListingCache getListingCache() {
+        return listingCache;
+    }
+
+    /**
+     * {@code name} 에 해당하는 FTP 서버의 cache 된 디렉터리 목록을 모두 제거한다. cache 를 사용하지 않는 경우 아무것도 하지 않는다.
+     *
+     * @param name the name
+     */
+    public void invalidateListing(String name) {
+        FTPClientTemplate template = templateMap.get(name);
+        if (listingCache != null && template != null) {
+            listingCache.invalidate(template);
+        }
+    }
+
     /**
      * Sets ftp clients.
      *
@@ -0,0 +1,202 @@
+package mb.dnm.access.ftp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.net.ftp.FTPClient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * 여러 개의 FTP session 으로 파일들을 동시에 전송하는 객체이다.<br>
+ * 첫번째 worker 는 전달된 session 을 사용하고 나머지 worker 는 같은 {@link FTPClientTemplate} 으로 새로운 session 을 열어 사용한다.
+ * 각 worker 는 공유된 작업 목록에서 다음 파일을 가져와 전송하므로 파일의 크기가 다르더라도 session 들이 고르게 사용된다.
+ * 새로 연 session 은 전달된 session 의 작업 디렉터리로 이동한 뒤 사용되므로 상대경로로 지정된 파일도 같은 위치에서 전송된다.
+ * 새로 연 session 은 전송이 끝난 뒤 닫히며, {@link FTPConnectionPool} 이 지정된 경우 pool 에 반환된다.
+ * pool 을 사용하는 경우 worker 는 pool 에서 기다리지 않고 가져올 수 있는 connection 수 만큼만 추가된다.<br>
+ * 새로운 session 을 열 수 없는 worker 는 작업을 하지 않으며 나머지 worker 들이 모든 파일을 전송한다.
+ *
+ * @see mb.dnm.service.ftp.DownloadFiles
+ * @see mb.dnm.service.ftp.UploadFiles
+ */
+@Slf4j
+public class ParallelFTPTransfer {
+    private static final AtomicInteger poolSequence = new AtomicInteger();
+
+    private final String sourceName;
+    private final int parallelism;
+
+    /**
+     * 파일 하나를 전송하는 작업
+     */
+    public interface Task {
+        /**
+         * {@code index} 번째 파일을 전송한다.
+         *
+         * @param ftp   전송에 사용할 FTPClient
+         * @param index 파일의 순서
+         * @return 전송 결과
+         * @throws Exception the exception
+         */
+        Object transfer(FTPClient ftp, int index) throws Exception;
+    }
+
+    /**
+     * Instantiates a new Parallel ftp transfer.
+     *
+     * @param sourceName  FTPClientTemplate 의 이름
+     * @param parallelism 동시에 사용할 최대 session 수
+     */
+    public ParallelFTPTransfer(String sourceName, int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be greater than 0. Inputted value: " + parallelism);
+        this.sourceName = sourceName;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * {@code count} 개의 파일을 동시에 전송한다.
+     *
+     * @param session     첫번째 worker 가 사용할 session
+     * @param count       전송할 파일 수
+     * @param task        파일 하나를 전송하는 작업
+     * @param stopOnError true 인 경우 전송에 실패한 파일이 있으면 다음 파일들을 전송하지 않는다.
+     * @return 파일 순서대로의 전송 결과. {@code task} 의 반환값, 실패한 경우 {@code Throwable}, 전송하지 않은 경우 null 이다.
+     * @throws InterruptedException the interrupted exception
+     */
+    public List<Object> run(final FTPSession session, final int count, final Task task, final boolean stopOnError) throws InterruptedException {
+        final Object[] results = new Object[count];
+        if (count == 0)
+            return new ArrayList<>(Arrays.asList(results));
+        int workers = Math.min(parallelism, count);
+        if (workers > 1) {
+            int available = availableSessions();
+            if (available < workers - 1) {
+                log.debug("Only {} additional FTP sessions of '{}' are available in the connection pool. Parallelism: {}", available, sourceName, parallelism);
+                workers = available + 1;
+            }
+        }
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final String workingDirectory = workers > 1 ? workingDirectory(session) : null;
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new TransferThreadFactory(sourceName));
+        try {
+            List<Future<Integer>> futures = new ArrayList<>(workers);
+            for (int w = 0; w < workers; w++) {
+                final boolean useGivenSession = w == 0;
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        FTPSession workerSession = useGivenSession ? session : openSession(workingDirectory);
+                        if (workerSession == null)
+                            return 0;
+                        int transferred = 0;
+                        try {
+                            FTPClient ftp = workerSession.getFTPClient();
+                            while (!(stopOnError && failed.get())) {
+                                int index = next.getAndIncrement();
+                                if (index >= count)
+                                    break;
+                                try {
+                                    results[index] = task.transfer(ftp, index);
+                                    ++transferred;
+                                } catch (Throwable t) {
+                                    results[index] = t;
+                                    if (stopOnError) {
+                                        failed.set(true);
+                                    }
+                                    //연결이 끊어진 session 은 더 이상 사용하지 않는다. 남은 파일은 다른 worker 가 전송한다.
+                                    if (!ftp.isConnected())
+                                        break;
+                                }
+                            }
+                        } finally {
+                            if (!useGivenSession) {
+                                workerSession.close();
+                            }
+                        }
+                        return transferred;
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ee) {
+                    log.warn("FTP transfer worker of '{}' terminated. Cause: {}", sourceName, ee.getCause().toString());
+                }
+            }
+        } catch (InterruptedException ie) {
+            executor.shutdownNow();
+            throw ie;
+        } finally {
+            executor.shutdown();
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    //파일 경로가 상대경로인 경우를 위해 새로 연 session 을 전달된 session 과 같은 작업 디렉터리로 이동한다.
+    private FTPSession openSession(String workingDirectory) {
+        if (workingDirectory == null)
+            return null;
+        FTPSession session = null;
+        try {
+            session = FTPSourceProvider.access().getNewSession(sourceName);
+            if (!session.getFTPClient().changeWorkingDirectory(workingDirectory)) {
+                log.warn("Failed to change the working directory of an additional FTP session of '{}' to '{}'. The files will be transferred by the other sessions. Reply: {}"
+                        , sourceName, workingDirectory, session.getFTPClient().getReplyString().trim());
+                session.close();
+                return null;
+            }
+            return session;
+        } catch (Throwable t) {
+            log.warn("Failed to open an additional FTP session of '{}'. The files will be transferred by the other sessions. Cause: {}", sourceName, t.toString());
+            if (session != null) {
+                session.close();
+            }
+            return null;
+        }
+    }
+
+    //pool 의 connection 이 모두 사용 중인 경우 추가 worker 가 maxWaitMillis 동안 대기하지 않도록 기다리지 않고 가져올 수 있는 수를 확인한다.
+    private int availableSessions() {
+        FTPConnectionPool pool = FTPSourceProvider.access().getConnectionPool();
+        return pool == null ? Integer.MAX_VALUE : pool.getAvailableCount(sourceName);
+    }
+
+    private String workingDirectory(FTPSession session) {
+        try {
+            return session.getFTPClient().printWorkingDirectory();
+        } catch (IOException ie) {
+            log.warn("Failed to get the working directory of the FTP session of '{}'. The files will be transferred by the given session only. Cause: {}", sourceName, ie.toString());
+            return null;
+        }
+    }
+
+    private static class TransferThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger threadSequence = new AtomicInteger();
+
+        TransferThreadFactory(String sourceName) {
+            this.prefix = "ftp-transfer-" + sourceName + "-" + poolSequence.incrementAndGet() + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + threadSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
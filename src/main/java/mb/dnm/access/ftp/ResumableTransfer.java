@@ -0,0 +1,236 @@
+package mb.dnm.access.ftp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPReply;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+
+/**
+ * 중단된 지점부터 이어서 전송할 수 있는 방식으로 FTP 파일을 전송하는 객체이다.<br>
+ * 파일은 먼저 {@code .part} 파일로 전송되며, 전송이 끝나고 크기를 검증한 뒤 원래의 이름으로 변경된다.
+ * {@code .part} 파일 옆에는 원본 파일의 크기와 수정시간을 기록한 {@code .part.meta} 파일이 함께 만들어지고,
+ * 다음 전송 시 원본 파일이 변경되지 않은 경우에만 {@code .part} 파일의 크기부터 이어서 전송한다.
+ * <ul>
+ *     <li>다운로드: 로컬에 {@code .part} 파일을 만들고 REST 명령으로 이어받는다. 원본의 크기와 수정시간은 SIZE, MDTM 명령으로 확인한다.</li>
+ *     <li>업로드: FTP 서버에 {@code .part} 파일을 만들고 APPE 명령으로 이어 올린다.</li>
+ * </ul>
+ * 전송 위치와 크기는 byte 단위로 비교하므로 BINARY 전송 방식에서만 사용해야 한다.
+ * 서버가 SIZE 명령을 지원하지 않는 경우 이어서 전송하거나 크기를 검증하지 않으며,
+ * REST 또는 APPE 명령을 지원하지 않는 경우 처음부터 다시 전송한다.<br>
+ * 일시적인 오류(4xx 응답)로 전송이 중단된 경우 {@code .part} 파일을 남겨두고 {@code IOException} 을 throw 한다.
+ *
+ * @see mb.dnm.service.ftp.DownloadFiles
+ * @see mb.dnm.service.ftp.UploadFiles
+ */
+@Slf4j
+public class ResumableTransfer {
+    /**
+     * 전송 중인 파일의 이름에 붙는 확장자
+     */
+    public static final String PART_SUFFIX = ".part";
+    /**
+     * 전송 중인 파일의 원본 정보를 기록한 파일의 이름에 붙는 확장자. {@code .part} 파일의 이름 뒤에 붙는다.
+     */
+    public static final String META_SUFFIX = ".meta";
+
+    private ResumableTransfer() {}
+
+    /**
+     * FTP 서버의 {@code ftpPath} 파일을 {@code localPath} 로 다운로드 한다.
+     *
+     * @param ftp       the ftp
+     * @param ftpPath   다운로드 할 FTP 파일의 경로
+     * @param localPath 저장할 로컬 파일의 경로
+     * @return FTP 서버가 파일 전송을 거부한 경우(5xx 응답) false
+     * @throws IOException 전송이 중단되었거나 전송한 파일의 크기가 원본과 다른 경우
+     */
+    public static boolean download(FTPClient ftp, String ftpPath, Path localPath) throws IOException {
+        Path part = localPath.resolveSibling(localPath.getFileName() + PART_SUFFIX);
+        Path meta = localPath.resolveSibling(part.getFileName() + META_SUFFIX);
+        long remoteSize = size(ftp, ftpPath);
+        Properties source = metadata(remoteSize, ftp.getModificationTime(ftpPath));
+
+        long offset = 0;
+        if (remoteSize > 0 && Files.exists(part) && source.equals(readMetadata(meta))) {
+            offset = Files.size(part);
+            if (offset > remoteSize) {
+                offset = 0;
+            }
+        }
+
+        boolean done = offset > 0 && offset == remoteSize;
+        if (!done) {
+            if (offset > 0) {
+                log.info("Resuming the download of '{}' from {} / {} bytes", ftpPath, offset, remoteSize);
+                done = retrieve(ftp, ftpPath, part, offset);
+            }
+            //REST 명령을 지원하지 않는 경우 처음부터 다시 다운로드 한다.
+            if (!done && (offset == 0 || FTPReply.isNegativePermanent(ftp.getReplyCode()))) {
+                writeMetadata(meta, source);
+                done = retrieve(ftp, ftpPath, part, 0);
+            }
+        }
+        if (!done) {
+            if (FTPReply.isNegativePermanent(ftp.getReplyCode())) {
+                Files.deleteIfExists(part);
+                Files.deleteIfExists(meta);
+                return false;
+            }
+            throw new IOException("The download of '" + ftpPath + "' is interrupted. It will be resumed from " + Files.size(part) + " bytes. FTP reply: " + ftp.getReplyString().trim());
+        }
+
+        long downloaded = Files.size(part);
+        if (remoteSize >= 0 && downloaded != remoteSize) {
+            Files.deleteIfExists(part);
+            Files.deleteIfExists(meta);
+            throw new IOException("The size of the downloaded file '" + ftpPath + "' is " + downloaded + " bytes, but expected " + remoteSize + " bytes");
+        }
+        move(part, localPath);
+        Files.deleteIfExists(meta);
+        return true;
+    }
+
+    /**
+     * 로컬 파일 {@code localPath} 를 FTP 서버의 {@code remotePath} 로 업로드 한다. {@code remotePath} 에 이미 파일이 있는 경우 덮어쓴다.
+     *
+     * @param ftp        the ftp
+     * @param localPath  업로드 할 로컬 파일의 경로
+     * @param remotePath 저장할 FTP 파일의 경로
+     * @return FTP 서버가 파일 전송을 거부한 경우(5xx 응답) false
+     * @throws IOException 전송이 중단되었거나 전송한 파일의 크기가 원본과 다른 경우
+     */
+    public static boolean upload(FTPClient ftp, Path localPath, String remotePath) throws IOException {
+        String part = remotePath + PART_SUFFIX;
+        String meta = part + META_SUFFIX;
+        long localSize = Files.size(localPath);
+        Properties source = metadata(localSize, String.valueOf(Files.getLastModifiedTime(localPath).toMillis()));
+
+        long offset = 0;
+        long partSize = size(ftp, part);
+        if (partSize > 0 && partSize <= localSize && source.equals(readRemoteMetadata(ftp, meta))) {
+            offset = partSize;
+        }
+
+        boolean done = offset > 0 && offset == localSize;
+        if (!done) {
+            if (offset > 0) {
+                log.info("Resuming the upload of '{}' from {} / {} bytes", localPath, offset, localSize);
+                done = store(ftp, localPath, part, offset);
+            }
+            //APPE 명령을 지원하지 않는 경우 처음부터 다시 업로드 한다.
+            if (!done && (offset == 0 || FTPReply.isNegativePermanent(ftp.getReplyCode()))) {
+                if (!writeRemoteMetadata(ftp, meta, source))
+                    return false;
+                done = store(ftp, localPath, part, 0);
+            }
+        }
+        if (!done) {
+            if (FTPReply.isNegativePermanent(ftp.getReplyCode()))
+                return false;
+            throw new IOException("The upload of '" + localPath + "' is interrupted. It will be resumed at the next upload. FTP reply: " + ftp.getReplyString().trim());
+        }
+
+        long uploaded = size(ftp, part);
+        if (uploaded >= 0 && uploaded != localSize) {
+            ftp.deleteFile(part);
+            ftp.deleteFile(meta);
+            throw new IOException("The size of the uploaded file '" + part + "' is " + uploaded + " bytes, but expected " + localSize + " bytes");
+        }
+        ftp.deleteFile(remotePath);
+        if (!ftp.rename(part, remotePath))
+            return false;
+        ftp.deleteFile(meta);
+        return true;
+    }
+
+    private static boolean retrieve(FTPClient ftp, String ftpPath, Path part, long offset) throws IOException {
+        try (OutputStream os = offset > 0
+                ? Files.newOutputStream(part, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                : Files.newOutputStream(part)) {
+            ftp.setRestartOffset(offset);
+            return ftp.retrieveFile(ftpPath, os);
+        } finally {
+            ftp.setRestartOffset(0);
+        }
+    }
+
+    private static boolean store(FTPClient ftp, Path localPath, String part, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(localPath, StandardOpenOption.READ)) {
+            channel.position(offset);
+            InputStream is = Channels.newInputStream(channel);
+            return offset > 0 ? ftp.appendFile(part, is) : ftp.storeFile(part, is);
+        }
+    }
+
+    //SIZE 명령으로 파일의 크기를 가져온다. 파일이 없거나 서버가 지원하지 않는 경우 -1 을 반환한다.
+    private static long size(FTPClient ftp, String path) throws IOException {
+        if (ftp.sendCommand("SIZE", path) != FTPReply.FILE_STATUS)
+            return -1;
+        String reply = ftp.getReplyString().trim();
+        try {
+            return Long.parseLong(reply.substring(reply.lastIndexOf(' ') + 1));
+        } catch (NumberFormatException ne) {
+            return -1;
+        }
+    }
+
+    private static Properties metadata(long size, String modificationTime) {
+        Properties metadata = new Properties();
+        metadata.setProperty("size", String.valueOf(size));
+        metadata.setProperty("modification_time", modificationTime == null ? "" : modificationTime.trim());
+        return metadata;
+    }
+
+    private static Properties readMetadata(Path meta) throws IOException {
+        if (!Files.exists(meta))
+            return null;
+        Properties metadata = new Properties();
+        try (InputStream is = Files.newInputStream(meta)) {
+            metadata.load(is);
+        }
+        return metadata;
+    }
+
+    private static void writeMetadata(Path meta, Properties metadata) throws IOException {
+        try (OutputStream os = Files.newOutputStream(meta)) {
+            metadata.store(os, null);
+        }
+    }
+
+    private static Properties readRemoteMetadata(FTPClient ftp, String meta) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        if (!ftp.retrieveFile(meta, os))
+            return null;
+        Properties metadata = new Properties();
+        metadata.load(new ByteArrayInputStream(os.toByteArray()));
+        return metadata;
+    }
+
+    private static boolean writeRemoteMetadata(FTPClient ftp, String meta, Properties metadata) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        metadata.store(os, null);
+        return ftp.storeFile(meta, new ByteArrayInputStream(os.toByteArray()));
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ae) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package mb.dnm.code;
+
+/**
+ * 구분자 파일 형식에서 {@code byte[]} 컬럼을 {@code <![BINARY[...]]>} 안에 작성하는 방식이다.<br>
+ * {@link mb.dnm.service.file.WriteFile} 은 메타데이터의 {@code binary_encoding} 속성에 이 값을 기록하며,
+ * {@link mb.dnm.service.file.ReadFile} 은 메타데이터에 기록된 방식으로 데이터를 읽는다. 메타데이터에 기록되지 않은 경우 {@link #DECIMAL} 로 간주한다.
+ */
+public enum BinaryEncoding {
+    /**
+     * 각 byte 를 10진수로 작성하고 공백으로 구분한다. 이전 버전의 형식이다.
+     * <pre>&lt;![BINARY[65 66 -1]]&gt;</pre>
+     */
+    DECIMAL,
+    /**
+     * Base64 로 작성한다.
+     * <pre>&lt;![BINARY[QUL/]]&gt;</pre>
+     */
+    BASE64,
+    /**
+     * 각 byte 를 2자리 16진수(소문자)로 작성한다.
+     * <pre>&lt;![BINARY[4142ff]]&gt;</pre>
+     */
+    HEX;
+}
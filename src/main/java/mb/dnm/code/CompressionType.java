@@ -0,0 +1,32 @@
+package mb.dnm.code;
+
+/**
+ * 파일을 쓰거나 전송할 때 사용하는 압축 방식이다. 압축과 해제는 {@link mb.dnm.util.CompressionUtil} 을 통해 stream 단위로 수행된다.<br>
+ * {@code GZIP} 과 {@code BZIP2} 는 여러 개의 압축 member 를 이어 붙인 파일도 하나의 파일로 읽으므로 압축된 파일에 내용을 덧붙일 수 있다.
+ *
+ * @see mb.dnm.util.CompressionUtil
+ */
+public enum CompressionType {
+    /**
+     * 압축하지 않는다.
+     */
+    NONE(""),
+    /**
+     * gzip 형식. 압축 레벨 1 은 압축률보다 속도를 우선하며 9 는 압축률을 우선한다.
+     */
+    GZIP(".gz"),
+    /**
+     * bzip2 형식. gzip 보다 느리지만 텍스트 파일의 압축률이 높다. 압축 레벨은 900KB 단위의 block 크기로 사용된다.
+     */
+    BZIP2(".bz2");
+
+    private final String extension;
+
+    CompressionType(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -8,5 +8,8 @@ public enum DataType {
     FILES,
     JSON,
     XML,
-    MAP;
+    MAP,
+    MAPPED_BUFFER,
+    BYTE_CHUNKS,
+    INPUT_STREAM;
 }
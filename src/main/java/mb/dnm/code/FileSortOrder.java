@@ -0,0 +1,25 @@
+package mb.dnm.code;
+
+/**
+ * 파일 목록을 가져올 때의 정렬 순서이다.
+ *
+ * @see mb.dnm.service.file.ListFiles
+ */
+public enum FileSortOrder {
+    /**
+     * 정렬하지 않는다. 파일 시스템이 반환하는 순서를 따른다.
+     */
+    NONE,
+    /**
+     * 경로명의 오름차순으로 정렬한다.
+     */
+    NAME,
+    /**
+     * 마지막 수정 시각이 오래된 파일부터 정렬한다. 먼저 생성된 파일부터 처리(FIFO)할 때 사용한다.
+     */
+    OLDEST_FIRST,
+    /**
+     * 마지막 수정 시각이 최근인 파일부터 정렬한다.
+     */
+    NEWEST_FIRST;
+}
@@ -0,0 +1,22 @@
+package mb.dnm.code;
+
+/**
+ * {@link mb.dnm.dispatcher.NewTaskDispatcher} 에서 인터페이스의 이전 Service-process 가 끝나기 전에 같은 인터페이스의 이벤트가 다시 수신된 경우의 처리 정책이다.<br>
+ * 동시 실행 수는 {@link mb.dnm.storage.InterfaceInfo} 의 {@code maxConcurrentRuns} 속성으로 지정하며, 지정하지 않은 경우 1로 간주한다.
+ */
+public enum OverlapPolicy {
+    /**
+     * 수신된 이벤트를 실행하지 않고 건너뛴다.
+     */
+    SKIP,
+    /**
+     * 수신된 이벤트를 1개까지 대기시켰다가 실행 중인 Service-process 가 끝나면 실행한다.
+     * 이미 대기 중인 이벤트가 있는 경우 수신된 이벤트는 건너뛴다.
+     */
+    QUEUE_ONE,
+    /**
+     * 수신된 이벤트를 1개까지 대기시켰다가 실행 중인 Service-process 가 끝나면 실행한다.
+     * 이미 대기 중인 이벤트가 있는 경우 수신된 이벤트의 context parameter 를 대기 중인 이벤트에 병합한다.
+     */
+    COALESCE;
+}
@@ -0,0 +1,20 @@
+package mb.dnm.code;
+
+/**
+ * {@link mb.dnm.dispatcher.NewTaskDispatcher} 의 작업 큐가 가득 찼거나 인터페이스의 동시 실행 수 제한에 도달했을 때의 처리 정책이다.
+ */
+public enum OverloadPolicy {
+    /**
+     * 작업 큐에 빈 공간이 생길 때까지 이벤트를 전달한 Thread 를 대기시킨다.
+     */
+    BLOCK,
+    /**
+     * 작업을 실행하지 않고 거부한다.
+     */
+    REJECT,
+    /**
+     * 이벤트를 전달한 Thread 에서 직접 작업을 실행한다.<br>
+     * 인터페이스의 동시 실행 수 제한에 도달한 경우에는 {@link #REJECT} 와 동일하게 동작한다.
+     */
+    CALLER_RUNS;
+}
@@ -0,0 +1,104 @@
+package mb.dnm.core;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * {@link mb.dnm.storage.StorageManager} 에 등록된 Service-Strategy 를 {@link ServiceProcessor} 가 실행하기 위한 형태로 미리 변환해 둔 불변 객체이다.<br>
+ * Service 배열, Service 클래스 배열, 에러 발생 시 기록되는 메시지를 Service-Strategy 등록 시점에 한 번만 생성하여
+ * Service-Chaining 의 각 단계에서 목록 조회, {@code getClass()} 호출, 문자열 생성이 일어나지 않도록 한다.
+ *
+ * @see mb.dnm.storage.StorageManager#getServicePlan(String)
+ * @see ServiceProcessor
+ */
+public final class ServicePlan implements Serializable {
+    private static final long serialVersionUID = 6143026850137734916L;
+    private final String serviceId;
+    private final Service[] services;
+    private final Class<? extends Service>[] serviceClasses;
+    private final String[] errorMessages;
+
+    @SuppressWarnings("unchecked")
+    private ServicePlan(String serviceId, List<Service> serviceList) {
+        this.serviceId = serviceId;
+        int size = serviceList.size();
+        services = serviceList.toArray(new Service[size]);
+        serviceClasses = new Class[size];
+        errorMessages = new String[size];
+        for (int i = 0; i < size; i++) {
+            Service service = services[i];
+            if (service == null)
+                throw new IllegalArgumentException("The service at index " + i + " of service id '" + serviceId + "' is null");
+            Class<? extends Service> serviceClass = service.getClass();
+            serviceClasses[i] = serviceClass;
+
+            StringBuilder msg = new StringBuilder("An error occurred at the service '" + serviceClass + "'");
+            String description = service.getDescription();
+            if (description != null) {
+                msg.append(" (").append(description).append(")");
+            }
+            errorMessages[i] = msg.toString();
+        }
+    }
+
+    /**
+     * Service-Strategy 를 {@code ServicePlan} 으로 변환한다.
+     *
+     * @param serviceId the service id
+     * @param services  the services
+     * @return the service plan
+     */
+    public static ServicePlan compile(String serviceId, List<Service> services) {
+        if (services == null || services.isEmpty())
+            throw new IllegalArgumentException("Service list for service id '" + serviceId + "' is empty");
+        return new ServicePlan(serviceId, services);
+    }
+
+    /**
+     * Gets service id.
+     *
+     * @return the service id
+     */
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    /**
+     * Service-Strategy 에 등록된 Service 의 수를 가져온다.
+     *
+     * @return the size
+     */
+    public int size() {
+        return services.length;
+    }
+
+    /**
+     * Gets service.
+     *
+     * @param idx the index
+     * @return the service
+     */
+    public Service getService(int idx) {
+        return services[idx];
+    }
+
+    /**
+     * Gets service class.
+     *
+     * @param idx the index
+     * @return the service class
+     */
+    public Class<? extends Service> getServiceClass(int idx) {
+        return serviceClasses[idx];
+    }
+
+    /**
+     * Service 에서 에러가 발생했을 때 {@link mb.dnm.core.context.ServiceContext#setMsg(String)} 로 기록되는 메시지를 가져온다.
+     *
+     * @param idx the index
+     * @return the error message
+     */
+    public String getErrorMessage(int idx) {
+        return errorMessages[idx];
+    }
+}
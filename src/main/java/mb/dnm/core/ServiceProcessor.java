@@ -17,9 +17,11 @@ import java.util.List;
 
 /**
  * Service-Chaining, Error-Handling, Callback 을 수행하는 객체이다. 이 일련의 과정을 service processing 이라고 한다.<br>
+ * Service-Strategy 는 {@link StorageManager} 에 등록될 때 미리 변환된 {@link ServicePlan} 으로 실행된다.<br>
  *
  * @see Service
  * @see StorageManager
+ * @see ServicePlan
  * @see InterfaceInfo
  * @see ErrorHandler
  * @see AfterProcessCallback
@@ -52,26 +54,30 @@ public class ServiceProcessor {
         String errorHandlerId = info.getErrorHandlerId();
         String txId = ctx.getTxId();
 
-        List<Service> services = StorageManager.access().getServices(serviceId);
-        if (services == null || services.isEmpty()) {
+        ServicePlan plan = StorageManager.access().getServicePlan(serviceId);
+        if (plan == null) {
             log.warn("[{}]No services '{}' found for interface id '{}'", txId, serviceId, interfaceId);
             return ctx;
         }
 
-        int serviceCount = services.size();
+        int serviceCount = plan.size();
+        ctx.ensureServiceTraceCapacity(serviceCount);
         int cnt1 = 0;
         try {
 
             //Processing service chaining
             ctx.setProcessStatus(ProcessCode.IN_PROCESS);
             log.info("[{}]Unfold the service strategy '{}'", txId, serviceId);
-            for (Service service : services) {
-                Class serviceClass = service.getClass();
+            for (int i = 0; i < serviceCount; i++) {
+                Service service = plan.getService(i);
+                Class<? extends Service> serviceClass = plan.getServiceClass(i);
                 try {
                     if (ctx.isProcessOn()) {
                         ctx.addServiceTrace(serviceClass);
                         ++cnt1;
-                        log.debug("[{}]Start the service '{}'({}/{})", txId, serviceClass, cnt1, serviceCount);
+                        if (log.isDebugEnabled()) {
+                            log.debug("[{}]Start the service '{}'({}/{})", txId, serviceClass, cnt1, serviceCount);
+                        }
                         service.process(ctx);
                         if (!ctx.isProcessOn()) {
                             log.warn("[{}]Service chain is broken. An error may be exist.({}/{})\nService trace: {}", txId, cnt1, serviceCount, ctx.getServiceTraceMessage());
@@ -87,12 +93,7 @@ public class ServiceProcessor {
                 } catch (Throwable t0) {
 
                     ctx.addErrorTrace(serviceClass, t0);
-                    String description = service.getDescription();
-                    StringBuilder msg = new StringBuilder("An error occurred at the service '" + serviceClass + "'");
-                    if (description != null) {
-                        msg.append(" (").append(description).append(")");
-                    }
-                    ctx.setMsg(msg);
+                    ctx.setMsg(plan.getErrorMessage(i));
 
                     if (service.isIgnoreError()) {
                         log.warn("[{}]An error occurred at the service '{}' but ignored.({}/{}). Error:{}", txId, serviceClass, cnt1, serviceCount, MessageUtil.toString(t0));
@@ -108,13 +109,13 @@ public class ServiceProcessor {
             }
         } catch (Throwable t1) {
             //Processing error handling
-            List<ErrorHandler> errorHandlers = StorageManager.access().getErrorHandlersById(errorHandlerId);
-            if (errorHandlers == null || errorHandlers.isEmpty()) {
+            ErrorHandler[] errorHandlers = StorageManager.access().getErrorHandlerPlan(errorHandlerId);
+            if (errorHandlers == null || errorHandlers.length == 0) {
                 log.warn("[{}]No error handlers '{}' found for interface id '{}'", txId, errorHandlerId, interfaceId);
                 return ctx;
             }
 
-            int handlerCount = errorHandlers.size();
+            int handlerCount = errorHandlers.length;
             int cnt2 = 0;
             for (ErrorHandler errorHandler : errorHandlers) {
                 ++cnt2;
@@ -7,6 +7,7 @@ import mb.dnm.code.ProcessCode;
 import mb.dnm.core.Service;
 import mb.dnm.exeption.ErrorTrace;
 import mb.dnm.storage.InterfaceInfo;
+import mb.dnm.storage.QueryMapTable;
 import mb.dnm.util.MessageUtil;
 import mb.dnm.util.TimeUtil;
 import mb.dnm.util.TxIdGenerator;
@@ -82,6 +83,17 @@ public class ServiceContext implements Serializable {
         serviceTrace.add(service);
     }
 
+    /**
+     * Service trace 를 기록할 공간을 미리 확보한다.
+     *
+     * @param serviceCount 실행될 Service 의 수
+     */
+    public void ensureServiceTraceCapacity(int serviceCount) {
+        if (serviceTrace instanceof ArrayList) {
+            ((ArrayList<Class<? extends Service>>) serviceTrace).ensureCapacity(serviceTrace.size() + serviceCount);
+        }
+    }
+
     /**
      * 실행된 {@link Service} 클래스 List를 실행 Trace 에 추가한다.
      *
@@ -401,8 +413,8 @@ public class ServiceContext implements Serializable {
      * @return the query map
      */
     public QueryMap getQueryMap(String id) {
-        String[] querySequence = info.getQuerySequence();
-        if (querySequence == null) {
+        QueryMapTable table = info.getQueryMapTable();
+        if (table == null) {
             throw new NoSuchElementException("Query sequence is null");
         }
 
@@ -410,24 +422,10 @@ public class ServiceContext implements Serializable {
             throw new NullPointerException("The parameter 'queryId' must not be null.");
         }
 
-        String query = null;
-        String checkId = "." + id.replace(" ", "");
-        for (String q : querySequence) {
-            if (q.endsWith(checkId)) {
-                query = q;
-                break;
-            }
-        }
-        if (query == null) {
+        QueryMap qmap = table.find(id);
+        if (qmap == null) {
             throw new NoSuchElementException("There is no query with id " + id);
         }
-
-        int executorNameIdx = query.indexOf('$');
-        String executorName = query.substring(0, executorNameIdx);
-        String queryId = query.substring(executorNameIdx + 1);
-
-        QueryMap qmap = new QueryMap(executorName, queryId);
-        qmap.setTimeoutSecond(info.getTxTimeoutSecond());
         addTransactionContext(qmap);
 
         return qmap;
@@ -440,27 +438,18 @@ public class ServiceContext implements Serializable {
      * @return the query map
      */
     public QueryMap nextQueryMap() {
-        String[] querySequence = info.getQuerySequence();
-        if (querySequence == null) {
+        QueryMapTable table = info.getQueryMapTable();
+        if (table == null) {
             throw new NoSuchElementException("Query sequence is null");
         }
 
-        int seqSize = querySequence.length;
-        if (currentQueryOrder >= seqSize)
+        if (currentQueryOrder >= table.size())
             throw new NoSuchElementException("Query sequence reached to the last");
-        String query = querySequence[currentQueryOrder];
+        QueryMap qmap = table.get(currentQueryOrder);
         ++currentQueryOrder;
-
-        int executorNameIdx = query.indexOf('$');
-        String executorName = query.substring(0, executorNameIdx);
-        String queryId = query.substring(executorNameIdx + 1);
-
-        QueryMap qmap = new QueryMap(executorName, queryId);
-        qmap.setTimeoutSecond(info.getTxTimeoutSecond());
         addTransactionContext(qmap);
 
         return qmap;
-        //return new QueryMap(executorName, queryId);
     }
 
     /**
@@ -482,27 +471,18 @@ public class ServiceContext implements Serializable {
      * @return the query map
      */
     public QueryMap nextErrorQueryMap() {
-        String[] querySequence = info.getErrorQuerySequence();
-        if (querySequence == null) {
+        QueryMapTable table = info.getErrorQueryMapTable();
+        if (table == null) {
             throw new NoSuchElementException("Error query sequence is null");
         }
 
-        int seqSize = querySequence.length;
-        if (currentErrorQueryOrder >= seqSize)
+        if (currentErrorQueryOrder >= table.size())
             throw new NoSuchElementException("Error query sequence reached to the last");
-        String query = querySequence[currentErrorQueryOrder];
+        QueryMap qmap = table.get(currentErrorQueryOrder);
         ++currentErrorQueryOrder;
-
-        int executorNameIdx = query.indexOf('$');
-        String executorName = query.substring(0, executorNameIdx);
-        String queryId = query.substring(executorNameIdx + 1);
-
-        QueryMap qmap = new QueryMap(executorName, queryId);
-        qmap.setTimeoutSecond(info.getTxTimeoutSecond());
         addTransactionContext(qmap);
 
         return qmap;
-        //return new QueryMap(executorName, queryId);
     }
 
     /**
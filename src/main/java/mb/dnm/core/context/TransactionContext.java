@@ -172,6 +172,18 @@ public class TransactionContext implements Serializable {
         return timeoutSecond;
     }
 
+    /**
+     * 같은 QueryExecutor 를 사용하지만 이 {@code TransactionContext} 와 독립적인 트랜잭션을 관리하는 {@code TransactionContext} 를 생성한다.<br>
+     * 다른 Thread 에서 별도의 커넥션으로 쿼리를 실행할 때 사용하며, 트랜잭션 Timeout 설정만 복사된다.
+     *
+     * @return the transaction context
+     */
+    public TransactionContext newIndependentContext() {
+        TransactionContext independent = new TransactionContext(name);
+        independent.setTimeoutSecond(timeoutSecond);
+        return independent;
+    }
+
 
     /**
      * Sets error.
@@ -219,10 +231,30 @@ public class TransactionContext implements Serializable {
             currentTransactionIsolationLevel = TransactionSynchronizationManager.getCurrentTransactionIsolationLevel();
             currentTransactionReadOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
             currentTransactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+            //getSynchronizations() 는 정렬된 복사본을 반환하므로 같은 Thread 에서 실행되는 다른 트랜잭션의 synchronization 이 섞이지 않는다.
+            synchronizations = TransactionSynchronizationManager.isSynchronizationActive()
+                    ? TransactionSynchronizationManager.getSynchronizations() : null;
+            initialized = true;
+        }
+
+        /**
+         * 저장된 트랜잭션 상태를 현재 Thread 의 {@link TransactionSynchronizationManager} 에 복원한다.<br>
+         * Thread 의 synchronization 을 지우고 저장된 synchronization 들을 다시 등록한다.
+         */
+        public void restore() {
+            TransactionSynchronizationManager.setCurrentTransactionName(currentTransactionName);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(currentTransactionReadOnly);
+            TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(currentTransactionIsolationLevel);
+            TransactionSynchronizationManager.setActualTransactionActive(actualTransactionActive);
             if (TransactionSynchronizationManager.isSynchronizationActive()) {
-                synchronizations = TransactionSynchronizationManager.getSynchronizations();
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            TransactionSynchronizationManager.initSynchronization();
+            if (synchronizations != null) {
+                for (TransactionSynchronization txSync : synchronizations) {
+                    TransactionSynchronizationManager.registerSynchronization(txSync);
+                }
             }
-            initialized = true;
         }
 
         @Override
@@ -0,0 +1,281 @@
+package mb.dnm.dispatcher;
+
+import mb.dnm.code.OverloadPolicy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link DispatchPoolTemplate} 으로부터 생성되는 크기가 제한된 Worker pool 이다.<br>
+ * 작업 큐가 가득 찬 경우 {@link OverloadPolicy} 에 따라 작업을 처리하며, 큐 적재량, 실행 중인 Worker 수, 거부 횟수 등의 통계를 제공한다.
+ *
+ * @see NewTaskDispatcher
+ */
+public class DispatchPool {
+    private final String name;
+    private final OverloadPolicy overloadPolicy;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong blockedCount = new AtomicLong();
+    private final AtomicLong callerRunsCount = new AtomicLong();
+    private final ThreadLocal<Boolean> nonBlocking = new ThreadLocal<>();
+
+    /**
+     * Instantiates a new Dispatch pool.
+     *
+     * @param template the template
+     */
+    public DispatchPool(DispatchPoolTemplate template) {
+        if (template == null)
+            throw new IllegalArgumentException("DispatchPoolTemplate is null");
+
+        name = template.getTemplateName();
+        if (name == null || name.trim().isEmpty())
+            throw new IllegalArgumentException("DispatchPoolTemplate name is null or empty");
+
+        int corePoolSize = template.getCorePoolSize();
+        int maxPoolSize = template.getMaxPoolSize();
+        int queueCapacity = template.getQueueCapacity();
+        if (corePoolSize < 1)
+            throw new IllegalArgumentException("The corePoolSize of DispatchPoolTemplate '" + name + "' must be greater than 0: " + corePoolSize);
+        if (maxPoolSize < corePoolSize)
+            throw new IllegalArgumentException("The maxPoolSize of DispatchPoolTemplate '" + name + "' must not be less than corePoolSize: " + maxPoolSize);
+        if (queueCapacity < 1)
+            throw new IllegalArgumentException("The queueCapacity of DispatchPoolTemplate '" + name + "' must be greater than 0: " + queueCapacity);
+
+        overloadPolicy = template.getOverloadPolicy() == null ? OverloadPolicy.BLOCK : template.getOverloadPolicy();
+        executor = new ThreadPoolExecutor(corePoolSize, maxPoolSize
+                , Math.max(template.getKeepAliveSecond(), 0), TimeUnit.SECONDS
+                , new ArrayBlockingQueue<Runnable>(queueCapacity)
+                , new DispatchThreadFactory(name)
+                , new OverloadHandler());
+    }
+
+    /**
+     * Pool 에 작업을 전달한다.
+     *
+     * @param task the task
+     * @throws RejectedExecutionException {@link OverloadPolicy#REJECT} 정책에 의해 거부되었거나 Pool 이 종료된 경우
+     */
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * 작업을 실행한다. 실행할 Thread 와 queue 의 여유가 없는 경우 {@link OverloadPolicy} 와 관계없이 대기하지 않고 false 를 반환한다.
+     *
+     * @param task the task
+     * @return 작업이 pool 에 전달된 경우 true
+     */
+    boolean tryExecute(Runnable task) {
+        nonBlocking.set(Boolean.TRUE);
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException re) {
+            return false;
+        } finally {
+            nonBlocking.remove();
+        }
+    }
+
+    /**
+     * Pool 을 종료한다. 이미 전달된 작업은 모두 실행된다.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Pool 을 종료하고 실행 중인 작업이 끝날 때까지 대기한다.
+     *
+     * @param timeoutSecond 대기 시간(second)
+     * @return 대기 시간 내에 모든 작업이 종료된 경우 true
+     * @throws InterruptedException the interrupted exception
+     */
+    public boolean shutdownAndAwait(long timeoutSecond) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeoutSecond, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets overload policy.
+     *
+     * @return the overload policy
+     */
+    public OverloadPolicy getOverloadPolicy() {
+        return overloadPolicy;
+    }
+
+    /**
+     * 작업 큐에 대기 중인 작업의 수를 가져온다.
+     *
+     * @return the queue size
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * 작업 큐의 남은 공간을 가져온다.
+     *
+     * @return the remaining queue capacity
+     */
+    public int getRemainingQueueCapacity() {
+        return executor.getQueue().remainingCapacity();
+    }
+
+    /**
+     * 작업을 실행 중인 Worker Thread 의 수를 가져온다.
+     *
+     * @return the active count
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * 현재 생성되어 있는 Worker Thread 의 수를 가져온다.
+     *
+     * @return the pool size
+     */
+    public int getPoolSize() {
+        return executor.getPoolSize();
+    }
+
+    /**
+     * 실행이 완료된 작업의 수를 가져온다.
+     *
+     * @return the completed task count
+     */
+    public long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * 거부된 작업의 수를 가져온다.
+     *
+     * @return the rejected count
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * 작업 큐가 가득 차 이벤트를 전달한 Thread 가 대기한 횟수를 가져온다.
+     *
+     * @return the blocked count
+     */
+    public long getBlockedCount() {
+        return blockedCount.get();
+    }
+
+    /**
+     * 작업 큐가 가득 차 이벤트를 전달한 Thread 에서 직접 실행된 작업의 수를 가져온다.
+     *
+     * @return the caller runs count
+     */
+    public long getCallerRunsCount() {
+        return callerRunsCount.get();
+    }
+
+    /**
+     * 거부된 작업의 수를 증가시킨다.
+     */
+    void countRejection() {
+        rejectedCount.incrementAndGet();
+    }
+
+    /**
+     * Pool 의 상태 및 통계를 Map 으로 변환한다.
+     *
+     * @return the map
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", name);
+        map.put("overloadPolicy", overloadPolicy.name());
+        map.put("corePoolSize", executor.getCorePoolSize());
+        map.put("maxPoolSize", executor.getMaximumPoolSize());
+        map.put("poolSize", getPoolSize());
+        map.put("activeCount", getActiveCount());
+        map.put("queueSize", getQueueSize());
+        map.put("remainingQueueCapacity", getRemainingQueueCapacity());
+        map.put("completedTaskCount", getCompletedTaskCount());
+        map.put("rejectedCount", getRejectedCount());
+        map.put("blockedCount", getBlockedCount());
+        map.put("callerRunsCount", getCallerRunsCount());
+        return map;
+    }
+
+    private class OverloadHandler implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                rejectedCount.incrementAndGet();
+                throw new RejectedExecutionException("The dispatch pool '" + name + "' is shut down");
+            }
+            if (nonBlocking.get() != null) {
+                throw new RejectedExecutionException("The dispatch pool '" + name + "' is full");
+            }
+
+            switch (overloadPolicy) {
+                case BLOCK:
+                    blockedCount.incrementAndGet();
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        rejectedCount.incrementAndGet();
+                        throw new RejectedExecutionException("Interrupted while waiting for the dispatch pool '" + name + "'", ie);
+                    }
+                    break;
+                case CALLER_RUNS:
+                    callerRunsCount.incrementAndGet();
+                    task.run();
+                    break;
+                default:
+                    rejectedCount.incrementAndGet();
+                    throw new RejectedExecutionException("The dispatch pool '" + name + "' is full. queue size: " + executor.getQueue().size()
+                            + ", active workers: " + executor.getActiveCount());
+            }
+        }
+    }
+
+    private static class DispatchThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        DispatchThreadFactory(String poolName) {
+            this.prefix = "dispatch-" + poolName + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + threadNumber.getAndIncrement());
+            if (t.isDaemon())
+                t.setDaemon(false);
+            if (t.getPriority() != Thread.NORM_PRIORITY)
+                t.setPriority(Thread.NORM_PRIORITY);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package mb.dnm.dispatcher;
+
+import lombok.Getter;
+import lombok.Setter;
+import mb.dnm.code.OverloadPolicy;
+
+import java.io.Serializable;
+
+/**
+ * {@link NewTaskDispatcher} 가 인터페이스 그룹별로 사용하는 Worker pool({@link DispatchPool})을 생성하기 위한 템플릿 객체이다.<br>
+ * {@link mb.dnm.storage.InterfaceInfo} 의 {@code dispatchPoolName} 속성에 {@code templateName} 을 지정하여 사용할 pool 을 선택한다.<br><br>
+ *
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ *&lt;bean class="mb.dnm.dispatcher.DispatchPoolTemplate"&gt;
+ *    &lt;property name="templateName"       value="<span style="color: black; background-color: #FAF3D4;">Pool 명</span>"/&gt;
+ *    &lt;property name="corePoolSize"       value="10"/&gt;
+ *    &lt;property name="maxPoolSize"        value="20"/&gt;
+ *    &lt;property name="queueCapacity"      value="1000"/&gt;
+ *    &lt;property name="keepAliveSecond"    value="60"/&gt;
+ *    &lt;property name="overloadPolicy"     value="BLOCK"/&gt;
+ *&lt;/bean&gt;</pre>
+ *
+ * @see NewTaskDispatcher
+ * @see OverloadPolicy
+ */
+@Setter
+@Getter
+public class DispatchPoolTemplate implements Serializable {
+    private static final long serialVersionUID = 2650393315296170214L;
+
+    /**
+     * {@link NewTaskDispatcher} 에 등록될 Pool 의 이름
+     */
+    private String templateName;
+    /**
+     * 유지되는 최소 Worker Thread 수<br>
+     * default: 10
+     */
+    private int corePoolSize = 10;
+    /**
+     * 작업 큐가 가득 찼을 때 늘어날 수 있는 최대 Worker Thread 수<br>
+     * default: 20
+     */
+    private int maxPoolSize = 20;
+    /**
+     * 대기 중인 작업을 저장하는 큐의 크기<br>
+     * default: 1000
+     */
+    private int queueCapacity = 1000;
+    /**
+     * {@code corePoolSize} 를 초과하는 유휴 Worker Thread 가 유지되는 시간(second)<br>
+     * default: 60
+     */
+    private int keepAliveSecond = 60;
+    /**
+     * 작업 큐가 가득 찼을 때의 처리 정책<br>
+     * default: {@link OverloadPolicy#BLOCK}
+     */
+    private OverloadPolicy overloadPolicy = OverloadPolicy.BLOCK;
+
+}
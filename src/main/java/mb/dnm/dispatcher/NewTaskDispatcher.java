@@ -1,22 +1,131 @@
 package mb.dnm.dispatcher;
 
 import lombok.extern.slf4j.Slf4j;
+import mb.dnm.code.OverlapPolicy;
+import mb.dnm.code.OverloadPolicy;
 import mb.dnm.core.ServiceProcessor;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.storage.InterfaceInfo;
 import mb.dnm.storage.StorageManager;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * 인터페이스 이벤트를 수신한 Thread 와 다른 Thread 에서 Service-process 를 실행한다.
+ * 인터페이스 이벤트를 수신한 Thread 와 다른 Thread 에서 Service-process 를 실행한다.<br>
+ * Service-process 는 {@link InterfaceInfo} 의 {@code dispatchPoolName} 속성에 지정된 {@link DispatchPool} 에서 실행되며,
+ * {@code dispatchPoolName} 이 지정되지 않았거나 등록되지 않은 이름인 경우 {@code DEFAULT} Pool 에서 실행된다.<br>
+ * {@code DEFAULT} Pool 은 {@code templateName} 이 {@code DEFAULT} 인 {@link DispatchPoolTemplate} 을 등록하여 변경할 수 있다.<br>
+ * {@link InterfaceInfo} 의 {@code maxConcurrentRuns} 속성이 0 보다 큰 경우 해당 인터페이스의 동시 실행 수가 제한되며,
+ * 제한에 도달한 경우 Pool 의 {@link OverloadPolicy} 에 따라 대기하거나 거부된다.<br>
+ * {@link InterfaceInfo} 의 {@code overlapPolicy} 속성이 지정된 경우에는 {@link OverloadPolicy} 대신 {@link OverlapPolicy} 에 따라
+ * 건너뛰거나(SKIP), 1개까지 대기시키거나(QUEUE_ONE), 대기 중인 이벤트에 context parameter 를 병합(COALESCE)한다.
+ * <br><br>
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ *&lt;bean class="mb.dnm.dispatcher.NewTaskDispatcher"&gt;
+ *    &lt;property name="dispatchPools"&gt;
+ *        &lt;list&gt;
+ *            &lt;bean class="mb.dnm.dispatcher.DispatchPoolTemplate"&gt;
+ *                &lt;property name="templateName"       value="DEFAULT"/&gt;
+ *                &lt;property name="corePoolSize"       value="10"/&gt;
+ *                &lt;property name="maxPoolSize"        value="20"/&gt;
+ *                &lt;property name="queueCapacity"      value="1000"/&gt;
+ *                &lt;property name="overloadPolicy"     value="BLOCK"/&gt;
+ *            &lt;/bean&gt;
+ *            &lt;bean class="mb.dnm.dispatcher.DispatchPoolTemplate"&gt;
+ *                &lt;property name="templateName"       value="<span style="color: black; background-color: #FAF3D4;">FTP_GROUP</span>"/&gt;
+ *                &lt;property name="corePoolSize"       value="5"/&gt;
+ *                &lt;property name="maxPoolSize"        value="5"/&gt;
+ *                &lt;property name="queueCapacity"      value="100"/&gt;
+ *                &lt;property name="overloadPolicy"     value="REJECT"/&gt;
+ *            &lt;/bean&gt;
+ *        &lt;/list&gt;
+ *    &lt;/property&gt;
+ *&lt;/bean&gt;
+ *
+ *&lt;bean class="mb.dnm.storage.InterfaceInfo"&gt;
+ *    &lt;property name="interfaceId"                value="IF_FTP_TO_DB"/&gt;
+ *                 .
+ *                 .
+ *                 .
+ *    &lt;property name="dispatchPoolName"           value="<span style="color: black; background-color: #FAF3D4;">FTP_GROUP</span>"/&gt;
+ *    &lt;property name="maxConcurrentRuns"          value="1"/&gt;
+ *    &lt;property name="overlapPolicy"              value="COALESCE"/&gt;
+ *&lt;/bean&gt;</pre>
+ *
+ * @see DispatchPoolTemplate
+ * @see DispatchPool
+ * @see OverlapPolicy
  */
 @Slf4j
 public class NewTaskDispatcher {
-    private static ExecutorService executorService = null;
+    /**
+     * The constant DEFAULT_POOL_NAME.
+     */
+    public static final String DEFAULT_POOL_NAME = "DEFAULT";
+    private static NewTaskDispatcher instance;
+    private final Map<String, DispatchPool> poolMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RunPermit> runPermits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> rejectedCounts = new ConcurrentHashMap<>();
+    private volatile DispatchPool defaultPool;
+    private boolean initialized = false;
+
+    /**
+     * Instantiates a new New task dispatcher.
+     */
+    /*
+     * Spring version 만 맞다면 private 으로 변경해도 bean으로 등록 가능함
+     * */
+    public NewTaskDispatcher() {
+        if (instance == null) {
+            instance = this;
+        }
+    }
+
+    /**
+     * {@code NewTaskDispatcher} 인스턴스에 접근한다.
+     *
+     * @return the new task dispatcher
+     */
+    public static synchronized NewTaskDispatcher access() {
+        if (instance == null) {
+            new NewTaskDispatcher();
+        }
+        return instance;
+    }
+
+    /**
+     * {@link DispatchPoolTemplate} 을 통해 {@link DispatchPool} 을 생성하여 {@code NewTaskDispatcher} 인스턴스에 등록한다.
+     *
+     * @param templates the templates
+     */
+    public synchronized void setDispatchPools(List<DispatchPoolTemplate> templates) {
+        if (initialized)
+            throw new IllegalStateException("NewTaskDispatcher is already initialized");
+
+        for (DispatchPoolTemplate template : templates) {
+            String name = template.getTemplateName();
+            if (name == null || name.trim().isEmpty()) {
+                throw new IllegalArgumentException("DispatchPoolTemplate name is null or empty");
+            }
+            if (instance.poolMap.containsKey(name)) {
+                throw new IllegalArgumentException("duplicate DispatchPoolTemplate name: " + name);
+            }
+            DispatchPool pool = new DispatchPool(template);
+            instance.poolMap.put(name, pool);
+            if (DEFAULT_POOL_NAME.equals(name)) {
+                instance.defaultPool = pool;
+            }
+            log.debug("The dispatch pool '{}' has been registered: {}", name, pool.toMap());
+        }
+        initialized = true;
+    }
 
     /**
      * Dispatch.
@@ -34,43 +143,300 @@ public class NewTaskDispatcher {
      * @param contextParams the context params
      */
     public static void dispatchWithParam(final String interfaceId, final Map<String, Object> contextParams) {
+        access().submit(interfaceId, contextParams);
+    }
 
-        if (executorService == null) {
-            executorService = Executors.newCachedThreadPool();
+    private void submit(final String interfaceId, final Map<String, Object> contextParams) {
+        final InterfaceInfo info = StorageManager.access().getInterfaceInfo(interfaceId);
+        if (info == null) {
+            log.warn("There is no information about this interface id '{}'. Please check your configurations.", interfaceId);
+            return;
         }
 
-        executorService.submit(new Runnable() {
+        if (!info.isActivated()) {
+            log.debug("This interface '{}' is not activated.", interfaceId);
+            return;
+        }
+
+        DispatchPool pool = getPool(info.getDispatchPoolName());
+        RunPermit permit = getRunPermit(info);
+        if (permit != null && !acquireRunPermit(info, pool, permit, contextParams)) {
+            return;
+        }
+        execute(info, pool, permit, contextParams);
+    }
+
+    private void execute(final InterfaceInfo info, final DispatchPool pool, final RunPermit permit, final Map<String, Object> contextParams) {
+        String interfaceId = info.getInterfaceId();
+        try {
+            pool.execute(newTask(info, pool, permit, contextParams));
+        } catch (RejectedExecutionException re) {
+            if (permit != null) {
+                permit.release();
+            }
+            countRejection(interfaceId);
+            log.warn("The interface event of '{}' was rejected by the dispatch pool '{}'. Cause: {}", interfaceId, pool.getName(), re.getMessage());
+        }
+    }
+
+    private Runnable newTask(final InterfaceInfo info, final DispatchPool pool, final RunPermit permit, final Map<String, Object> contextParams) {
+        return new Runnable() {
             @Override
             public void run() {
-                InterfaceInfo info = StorageManager.access().getInterfaceInfo(interfaceId);
-                if (info == null) {
-                    log.warn("There is no information about this interface id '{}'. Please check your configurations.", interfaceId);
-                    return;
+                try {
+                    process(info, contextParams);
+                } finally {
+                    if (permit != null) {
+                        permit.release();
+                        drainPending(info, pool, permit);
+                    }
                 }
+            }
+        };
+    }
 
-                if (!info.isActivated()) {
-                    log.debug("This interface '{}' is not activated.", interfaceId);
-                    return;
-                }
+    /**
+     * 대기 중인 이벤트가 있고 실행 권한을 획득할 수 있는 경우 대기 중인 이벤트를 실행한다.
+     * 실행 권한을 반환한 Thread 와 이벤트를 대기시킨 Thread 양쪽에서 호출되므로 대기 중인 이벤트가 누락되지 않는다.<br>
+     * Pool 의 Worker Thread 에서도 호출되므로 {@link OverloadPolicy} 에 따라 대기하지 않으며,
+     * pool 이 가득 찬 경우 이벤트는 다시 대기되어 해당 인터페이스의 다음 이벤트가 처리될 때 실행된다.
+     */
+    private void drainPending(InterfaceInfo info, DispatchPool pool, RunPermit permit) {
+        while (permit.hasPending() && permit.tryAcquire()) {
+            Map<String, Object> pendingParams = permit.takePending();
+            if (pendingParams == null) {
+                permit.release();
+                continue;
+            }
+            log.debug("Dispatching the pending interface event of '{}'", info.getInterfaceId());
+            if (!pool.tryExecute(newTask(info, pool, permit, pendingParams))) {
+                permit.restorePending(pendingParams);
+                permit.release();
+                log.warn("The pending interface event of '{}' could not be dispatched because the dispatch pool '{}' is full or shut down. It remains pending until the next event of the interface.",
+                        info.getInterfaceId(), pool.getName());
+            }
+            return;
+        }
+    }
+
+    private void process(InterfaceInfo info, Map<String, Object> contextParams) {
+        ServiceContext ctx = new ServiceContext(info);
+        String txId = ctx.getTxId();
+        log.info("[{}]A new interface transaction was created", txId);
+
+        if (contextParams != null) {
+            for (Map.Entry<String, Object> entry : contextParams.entrySet()) {
+                String key = entry.getKey();
+                ctx.addContextParam(key, entry.getValue());
+                log.info("[{}]Added context parameter named '{}'", txId, key);
+            }
+        }
+
+        ServiceProcessor.unfoldServices(ctx);
+        log.info("[{}]The interface transaction was ended", txId);
+    }
 
-                ServiceContext ctx = new ServiceContext(info);
-                String txId = ctx.getTxId();
-                log.info("[{}]A new interface transaction was created", txId);
+    /**
+     * 인터페이스의 동시 실행 수 제한이 설정된 경우 실행 권한 객체를 가져온다.
+     *
+     * @return 실행 권한 객체, 제한이 설정되지 않은 경우 null
+     */
+    private RunPermit getRunPermit(InterfaceInfo info) {
+        int maxConcurrentRuns = info.getMaxConcurrentRuns();
+        if (maxConcurrentRuns <= 0) {
+            if (info.getOverlapPolicy() == null) {
+                return null;
+            }
+            maxConcurrentRuns = 1;
+        }
+
+        String interfaceId = info.getInterfaceId();
+        RunPermit permit = runPermits.get(interfaceId);
+        if (permit == null) {
+            RunPermit newPermit = new RunPermit(maxConcurrentRuns);
+            permit = runPermits.putIfAbsent(interfaceId, newPermit);
+            if (permit == null) {
+                permit = newPermit;
+            }
+        }
+        return permit;
+    }
+
+    /**
+     * 실행 권한을 획득한다. 획득하지 못한 경우 {@link OverlapPolicy} 또는 {@link OverloadPolicy} 에 따라 이벤트를 처리한다.
+     *
+     * @return 실행 권한을 획득한 경우 true
+     */
+    private boolean acquireRunPermit(InterfaceInfo info, DispatchPool pool, RunPermit permit, Map<String, Object> contextParams) {
+        if (permit.tryAcquire()) {
+            return true;
+        }
 
-                if (contextParams != null) {
-                    for (Map.Entry<String, Object> entry : contextParams.entrySet()) {
-                        String key = entry.getKey();
-                        ctx.addContextParam(key, entry.getValue());
-                        log.info("[{}]Added context parameter named '{}'", txId, key);
+        String interfaceId = info.getInterfaceId();
+        OverlapPolicy overlapPolicy = info.getOverlapPolicy();
+        if (overlapPolicy != null) {
+            switch (overlapPolicy) {
+                case QUEUE_ONE:
+                    if (permit.offerPending(contextParams)) {
+                        log.debug("The interface event of '{}' is queued until the running process ends.", interfaceId);
+                    } else {
+                        log.info("The interface event of '{}' was skipped. A pending event already exists.", interfaceId);
                     }
-                }
+                    break;
+                case COALESCE:
+                    permit.mergePending(contextParams);
+                    log.debug("The interface event of '{}' is coalesced into the pending event.", interfaceId);
+                    break;
+                default:
+                    permit.countSkip();
+                    log.info("The interface event of '{}' was skipped. The number of concurrent runs reached the limit: {}", interfaceId, permit.getMaxConcurrentRuns());
+                    return false;
+            }
+            drainPending(info, pool, permit);
+            return false;
+        }
 
-                ServiceProcessor.unfoldServices(ctx);
-                log.info("[{}]The interface transaction was ended", txId);
+        if (pool.getOverloadPolicy() == OverloadPolicy.BLOCK) {
+            try {
+                permit.acquire();
+                return true;
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
             }
-        });
+        }
+
+        pool.countRejection();
+        countRejection(interfaceId);
+        log.warn("The interface event of '{}' was rejected. The number of concurrent runs reached the limit: {}", interfaceId, permit.getMaxConcurrentRuns());
+        return false;
+    }
 
+    private void countRejection(String interfaceId) {
+        AtomicLong count = rejectedCounts.get(interfaceId);
+        if (count == null) {
+            AtomicLong newCount = new AtomicLong();
+            count = rejectedCounts.putIfAbsent(interfaceId, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
     }
 
+    private DispatchPool getPool(String poolName) {
+        if (poolName != null) {
+            DispatchPool pool = poolMap.get(poolName);
+            if (pool != null) {
+                return pool;
+            }
+            log.warn("There is no dispatch pool with name '{}'. The default pool is used instead.", poolName);
+        }
+
+        DispatchPool pool = defaultPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = defaultPool;
+                if (pool == null) {
+                    DispatchPoolTemplate template = new DispatchPoolTemplate();
+                    template.setTemplateName(DEFAULT_POOL_NAME);
+                    pool = new DispatchPool(template);
+                    poolMap.put(DEFAULT_POOL_NAME, pool);
+                    defaultPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * 이름과 일치하는 {@link DispatchPool} 을 가져온다.
+     *
+     * @param poolName the pool name
+     * @return the dispatch pool, 존재하지 않는 경우 null
+     */
+    public DispatchPool getDispatchPool(String poolName) {
+        return poolMap.get(poolName);
+    }
+
+    /**
+     * 인터페이스의 이벤트가 거부된 횟수를 가져온다.
+     *
+     * @param interfaceId the interface id
+     * @return the rejected count
+     */
+    public long getRejectedCount(String interfaceId) {
+        AtomicLong count = rejectedCounts.get(interfaceId);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * 인터페이스의 현재 실행 중인 Service-process 의 수를 가져온다.
+     * {@code maxConcurrentRuns} 또는 {@code overlapPolicy} 가 설정되지 않은 인터페이스는 0 을 반환한다.
+     *
+     * @param interfaceId the interface id
+     * @return the running count
+     */
+    public int getRunningCount(String interfaceId) {
+        RunPermit permit = runPermits.get(interfaceId);
+        return permit == null ? 0 : permit.getRunningCount();
+    }
+
+    /**
+     * {@link OverlapPolicy} 에 의해 인터페이스의 이벤트가 건너뛰어진 횟수를 가져온다.
+     *
+     * @param interfaceId the interface id
+     * @return the skipped count
+     */
+    public long getSkippedCount(String interfaceId) {
+        RunPermit permit = runPermits.get(interfaceId);
+        return permit == null ? 0 : permit.getSkippedCount();
+    }
+
+    /**
+     * {@link OverlapPolicy#COALESCE} 정책에 의해 인터페이스의 이벤트가 대기 중인 이벤트에 병합된 횟수를 가져온다.
+     *
+     * @param interfaceId the interface id
+     * @return the coalesced count
+     */
+    public long getCoalescedCount(String interfaceId) {
+        RunPermit permit = runPermits.get(interfaceId);
+        return permit == null ? 0 : permit.getCoalescedCount();
+    }
+
+    /**
+     * 등록된 모든 {@link DispatchPool} 의 상태 및 인터페이스별 거부 횟수를 Map 으로 가져온다.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        Map<String, Object> pools = new LinkedHashMap<>();
+        for (Map.Entry<String, DispatchPool> entry : poolMap.entrySet()) {
+            pools.put(entry.getKey(), entry.getValue().toMap());
+        }
+        statistics.put("pools", pools);
+
+        Map<String, Object> rejections = new LinkedHashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : rejectedCounts.entrySet()) {
+            rejections.put(entry.getKey(), entry.getValue().get());
+        }
+        statistics.put("interface_rejections", rejections);
+
+        Map<String, Object> runs = new LinkedHashMap<>();
+        for (Map.Entry<String, RunPermit> entry : runPermits.entrySet()) {
+            runs.put(entry.getKey(), entry.getValue().toMap());
+        }
+        statistics.put("interface_runs", runs);
+        return statistics;
+    }
+
+    /**
+     * 등록된 모든 {@link DispatchPool} 을 종료한다. 이미 전달된 작업은 모두 실행된다.
+     */
+    public void shutdown() {
+        for (DispatchPool pool : poolMap.values()) {
+            pool.shutdown();
+        }
+    }
 
 }
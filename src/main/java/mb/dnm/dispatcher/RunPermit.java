@@ -0,0 +1,176 @@
+package mb.dnm.dispatcher;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link NewTaskDispatcher} 가 인터페이스별 동시 실행 수를 제한하기 위해 사용하는 실행 권한 객체이다.<br>
+ * 실행 권한의 획득/반환과 대기 중인 이벤트의 등록은 CAS 연산으로 처리되며, Lock 은 {@link mb.dnm.code.OverloadPolicy#BLOCK} 정책으로 대기하는 경우에만 사용된다.
+ */
+class RunPermit {
+    private final int maxConcurrentRuns;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final AtomicReference<Map<String, Object>> pending = new AtomicReference<>();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong queuedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    RunPermit(int maxConcurrentRuns) {
+        this.maxConcurrentRuns = maxConcurrentRuns;
+    }
+
+    /**
+     * 실행 권한 획득을 시도한다.
+     *
+     * @return 획득에 성공한 경우 true
+     */
+    boolean tryAcquire() {
+        for (;;) {
+            int cur = running.get();
+            if (cur >= maxConcurrentRuns)
+                return false;
+            if (running.compareAndSet(cur, cur + 1))
+                return true;
+        }
+    }
+
+    /**
+     * 실행 권한을 획득할 때까지 대기한다.
+     *
+     * @throws InterruptedException the interrupted exception
+     */
+    void acquire() throws InterruptedException {
+        while (!tryAcquire()) {
+            synchronized (this) {
+                waiters.incrementAndGet();
+                try {
+                    if (running.get() >= maxConcurrentRuns) {
+                        wait(100L);
+                    }
+                } finally {
+                    waiters.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * 실행 권한을 반환한다.
+     */
+    void release() {
+        running.decrementAndGet();
+        if (waiters.get() > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 대기 중인 이벤트가 없는 경우에만 이벤트를 대기시킨다.
+     *
+     * @param contextParams the context params
+     * @return 대기시킨 경우 true, 이미 대기 중인 이벤트가 있어 건너뛴 경우 false
+     */
+    boolean offerPending(Map<String, Object> contextParams) {
+        if (pending.compareAndSet(null, copyOf(contextParams, null))) {
+            queuedCount.incrementAndGet();
+            return true;
+        }
+        skippedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * 이벤트를 대기시킨다. 이미 대기 중인 이벤트가 있는 경우 context parameter 를 병합한다.
+     *
+     * @param contextParams the context params
+     */
+    void mergePending(Map<String, Object> contextParams) {
+        for (;;) {
+            Map<String, Object> cur = pending.get();
+            Map<String, Object> merged = copyOf(cur, contextParams);
+            if (pending.compareAndSet(cur, merged)) {
+                if (cur == null) {
+                    queuedCount.incrementAndGet();
+                } else {
+                    coalescedCount.incrementAndGet();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 실행하지 못한 이벤트를 다시 대기시킨다. 그 사이 대기된 이벤트가 있는 경우 나중에 대기된 이벤트의 context parameter 가 우선하도록 병합한다.
+     *
+     * @param contextParams the context params
+     */
+    void restorePending(Map<String, Object> contextParams) {
+        for (;;) {
+            Map<String, Object> cur = pending.get();
+            if (pending.compareAndSet(cur, copyOf(contextParams, cur))) {
+                return;
+            }
+        }
+    }
+
+    boolean hasPending() {
+        return pending.get() != null;
+    }
+
+    Map<String, Object> takePending() {
+        return pending.getAndSet(null);
+    }
+
+    void countSkip() {
+        skippedCount.incrementAndGet();
+    }
+
+    int getMaxConcurrentRuns() {
+        return maxConcurrentRuns;
+    }
+
+    int getRunningCount() {
+        return running.get();
+    }
+
+    long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    long getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("maxConcurrentRuns", maxConcurrentRuns);
+        map.put("runningCount", getRunningCount());
+        map.put("pending", hasPending());
+        map.put("skippedCount", getSkippedCount());
+        map.put("queuedCount", getQueuedCount());
+        map.put("coalescedCount", getCoalescedCount());
+        return map;
+    }
+
+    private static Map<String, Object> copyOf(Map<String, Object> base, Map<String, Object> overlay) {
+        Map<String, Object> copied = new HashMap<>();
+        if (base != null) {
+            copied.putAll(base);
+        }
+        if (overlay != null) {
+            copied.putAll(overlay);
+        }
+        return copied;
+    }
+}
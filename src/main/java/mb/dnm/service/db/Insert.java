@@ -3,8 +3,11 @@ package mb.dnm.service.db;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import mb.dnm.access.db.DataSourceProvider;
+import mb.dnm.access.db.PartitionReport;
+import mb.dnm.access.db.PartitionedWriter;
 import mb.dnm.access.db.QueryExecutor;
 import mb.dnm.access.db.QueryMap;
+import mb.dnm.access.db.RowCursor;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.core.context.TransactionContext;
 import mb.dnm.exeption.InvalidServiceConfigurationException;
@@ -12,6 +15,7 @@ import mb.dnm.service.ParameterAssignableService;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -22,7 +26,7 @@ import java.util.Set;
  * <br>
  * <br>
  * *<b>Input</b>: 쿼리 실행 시 사용할 파라미터<br>
- * *<b>Input type</b>: {@code Map<String, Object>}
+ * *<b>Input type</b>: {@code Map<String, Object>}, {@code List<Map<String, Object>>}, {@link RowCursor}, {@link mb.dnm.access.ftp.FTPRecordStream}
  * <br>
  * <br>
  * *<b>Output</b>: Insert 쿼리 실행에 영향 받은 row 수<br>
@@ -41,7 +45,20 @@ import java.util.Set;
  *     &lt;property name="queryId"                value="<span style="color: black; background-color: #FAF3D4;">queryId 만을 입력한다(executorName X / namespace X)</span>"/&gt;
  *     &lt;property name="input"                  value="<span style="color: black; background-color: #FAF3D4;">input 파라미터명</span>"/&gt;
  *     &lt;property name="output"                 value="<span style="color: black; background-color: #FAF3D4;">output 파라미터명</span>"/&gt;
+ * &lt;/bean&gt;
+ *
+ * &lt;!-- 트랜잭션 그룹을 사용하지 않는 대용량 insert. 입력 List 를 chunkSize 단위로 나누어 parallelism 개의 커넥션에서 동시에 실행한다.--&gt;
+ * &lt;bean class="mb.dnm.service.db.Insert"&gt;
+ *     &lt;property name="input"                  value="<span style="color: black; background-color: #FAF3D4;">input 파라미터명</span>"/&gt;
+ *     &lt;property name="output"                 value="<span style="color: black; background-color: #FAF3D4;">output 파라미터명</span>"/&gt;
+ *     &lt;property name="parallelism"            value="<span style="color: black; background-color: #FAF3D4;">동시에 사용할 커넥션 수</span>"/&gt;
+ *     &lt;property name="chunkSize"              value="<span style="color: black; background-color: #FAF3D4;">파티션 당 row 수</span>"/&gt;
  * &lt;/bean&gt;</pre>
+ * {@code parallelism} 이 1 보다 큰 경우 각 파티션은 별도의 트랜잭션으로 입력 순서대로 commit 되며, 파티션별 처리 결과({@link PartitionReport#toMap()})가
+ * {@code ServiceContext} 의 {@value PartitionedWriter#REPORT_PARAM} 파라미터에 저장된다.
+ * 어떤 파티션이 실패하면 그 뒤의 파티션은 모두 rollback 되고 에러가 발생한다.
+ *
+ * @see PartitionedWriter
  */
 @Slf4j
 @Setter
@@ -49,6 +66,16 @@ public class Insert extends ParameterAssignableService implements Serializable {
     private static final long serialVersionUID = 5157825800696290202L;
     private boolean errorQueryMode = false;
     private String queryId;
+    /**
+     * 기본값: 1<br>
+     * 입력 List 를 나누어 동시에 쓰기를 수행할 커넥션 수. 1 인 경우 하나의 커넥션으로 실행한다.
+     * */
+    private int parallelism = 1;
+    /**
+     * 기본값: 10000<br>
+     * {@code parallelism} 이 1 보다 큰 경우 파티션 당 row 수
+     * */
+    private int chunkSize = 10000;
 
     @Override
     public void process(ServiceContext ctx) throws Throwable {
@@ -88,6 +115,16 @@ public class Insert extends ParameterAssignableService implements Serializable {
         //(4) Execute query
         List<Map<String, Object>> insertParams = new ArrayList<>();
         Map<String, Object> ctxInfoMap = ctx.getContextInformation();
+        if (inValue instanceof Iterable && !(inValue instanceof Collection)) {
+            //Select 서비스의 streamResultSet 으로 열린 Cursor, ftp.ReadRecords 서비스로 열린 FTPRecordStream 등은 메모리에 적재하지 않고 가져오는 대로 Batch insert 한다.
+            insertedRows = executor.doBatchInsert(txContext, queryMap.getQueryId(), ((Iterable<Map<String, Object>>) inValue).iterator(), ctxInfoMap, executor.getBatchSize());
+            log.info("[{}]{} rows inserted", ctx.getTxId(), insertedRows);
+
+            if (getOutput() != null) {
+                setOutputValue(ctx, insertedRows);
+            }
+            return;
+        }
         if (inValue != null) {
             try {
                 if (inValue instanceof Map) {
@@ -101,7 +138,16 @@ public class Insert extends ParameterAssignableService implements Serializable {
             }
         }
 
-        insertedRows = executor.doBatchInsert(txContext, queryMap.getQueryId(), insertParams, ctxInfoMap);
+        if (parallelism > 1) {
+            if (txContext.isGroupTxEnabled()) {
+                throw new InvalidServiceConfigurationException(this.getClass(), "The property 'parallelism' can not be used with the group transaction of the executor '" + executorName + "'");
+            }
+        }
+        if (parallelism > 1 && insertParams.size() > chunkSize) {
+            insertedRows = insertPartitioned(ctx, executor, txContext, queryMap.getQueryId(), insertParams, ctxInfoMap);
+        } else {
+            insertedRows = executor.doBatchInsert(txContext, queryMap.getQueryId(), insertParams, ctxInfoMap);
+        }
 
         log.info("[{}]{} rows inserted", ctx.getTxId(), insertedRows);
 
@@ -110,6 +156,18 @@ public class Insert extends ParameterAssignableService implements Serializable {
         }
     }
 
+    private int insertPartitioned(ServiceContext ctx, QueryExecutor executor, TransactionContext txContext, String sqlId
+            , List<Map<String, Object>> params, Map<String, Object> ctxInfoMap) throws InterruptedException {
+        PartitionedWriter writer = new PartitionedWriter(executor, txContext, parallelism, chunkSize);
+        PartitionReport report = writer.insert(sqlId, params, ctxInfoMap);
+        ctx.addContextParam(PartitionedWriter.REPORT_PARAM, report.toMap());
+        if (!report.isSuccess()) {
+            throw new IllegalStateException("The partitioned insert failed. " + report.getCommittedRows() + " of " + params.size()
+                    + " rows are committed in " + report.getPartitionCount() + " partitions", report.getFirstError());
+        }
+        return report.getAffectedRows();
+    }
+
     @Override
     public void setExceptionHandlingMode(boolean exceptionHandlingMode) {
         this.errorQueryMode = exceptionHandlingMode;
@@ -10,6 +10,7 @@ import mb.dnm.service.ParameterAssignableService;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,8 +25,8 @@ import java.util.Set;
  * *<b>Input type</b>: {@code Map<String, Object>}
  * <br>
  * <br>
- * *<b>Output</b>: DB 조회 결과 / DB 조회 결과 수(handleResultSet=true 인 경우)<br>
- * *<b>Output type</b>: {@code List<Map<String, Object>>} / {code int}(handleResultSet=true 인 경우)
+ * *<b>Output</b>: DB 조회 결과 / DB 조회 결과 수(handleResultSet=true 인 경우) / DB 조회 결과 Cursor(streamResultSet=true 인 경우)<br>
+ * *<b>Output type</b>: {@code List<Map<String, Object>>} / {code int}(handleResultSet=true 인 경우) / {@link RowCursor}(streamResultSet=true 인 경우)
  * <br>
  * <br>
  * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
@@ -69,8 +70,17 @@ import java.util.Set;
  *             &lt;/property&gt;
  *     	&lt;/bean&gt;
  * &lt;/property&gt;
+ * &lt;/bean&gt;
+ *
+ * &lt;!-- {@code streamResultSet}이 true 인 경우. 트랜잭션 그룹이 열려있어야 한다.(StartTransaction 서비스 참고) --&gt;
+ * &lt;bean class="mb.dnm.service.db.Select"&gt;
+ *     &lt;property name="input"                  value="<span style="color: black; background-color: #FAF3D4;">input 파라미터명</span>"/&gt;
+ *     &lt;property name="output"                 value="<span style="color: black; background-color: #FAF3D4;">output 파라미터명(IterationGroup, WriteFile, Insert 서비스의 input 으로 사용)</span>"/&gt;
+ *     &lt;property name="streamResultSet"        value="true"/&gt;
+ *     &lt;property name="streamFetchSize"        value="<span style="color: black; background-color: #FAF3D4;">JDBC fetch size</span>"/&gt;
  * &lt;/bean&gt;</pre>
  *
+ * @see RowCursor
  * @see ResultHandlingSupport
  * @see ResultHandlingSupportFactory
  * @see mb.dnm.service.general.IterationGroup
@@ -82,6 +92,16 @@ public class Select extends ParameterAssignableService implements Serializable {
     private boolean errorQueryMode = false;
     private boolean handleResultSet = false;
     private ResultHandlingSupportFactory resultHandlingSupportFactory;
+    /**
+     * 기본값: false<br>
+     * 조회 결과를 {@code List} 로 적재하지 않고 {@link RowCursor} 로 output 한다.
+     * */
+    private boolean streamResultSet = false;
+    /**
+     * 기본값: 1000<br>
+     * {@code streamResultSet} 이 true 인 경우 DB 로부터 한 번에 전송받을 row 의 수(JDBC fetch size)
+     * */
+    private int streamFetchSize = 1000;
     private String queryId;
 
     @Override
@@ -119,11 +139,15 @@ public class Select extends ParameterAssignableService implements Serializable {
         //(2) Get parameter
         Object inValue = getInputValue(ctx);
 
+        Map<String, Object> ctxInfoMap = ctx.getContextInformation();
+        if (streamResultSet) {
+            openRowCursor(ctx, queryMap, txContext, executor, inValue, ctxInfoMap);
+            return;
+        }
+
         //(3) Prepare object for result
         List<Map<String, Object>> selectResult = new ArrayList<>();
 
-        Map<String, Object> ctxInfoMap = ctx.getContextInformation();
-
         //대용량 결과 처리를 위한 객체(ResultHandlingSupport) 생성
         ResultHandlingSupport resultHandlingSupport = null;
         if (handleResultSet) {
@@ -179,6 +203,33 @@ public class Select extends ParameterAssignableService implements Serializable {
         }
     }
 
+    private void openRowCursor(ServiceContext ctx, QueryMap queryMap, TransactionContext txContext, QueryExecutor executor
+            , Object inValue, Map<String, Object> ctxInfoMap) {
+        if (handleResultSet) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "The property 'handleResultSet' and 'streamResultSet' can not be true at the same time");
+        }
+        if (!txContext.isGroupTxEnabled()) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "The property 'streamResultSet' requires a group transaction of the executor '" + queryMap.getExecutorName() + "'. Use StartTransaction service first.");
+        }
+
+        Map<String, Object> param = new HashMap<>(ctxInfoMap);
+        if (inValue != null) {
+            if (!(inValue instanceof Map)) {
+                throw new IllegalArgumentException("The type of input parameter is invalid: " + inValue.getClass() + ". Only Map is allowed when the property 'streamResultSet' is true");
+            }
+            param.putAll((Map<String, Object>) inValue);
+        }
+
+        RowCursor cursor = executor.doOpenRowCursor(txContext, queryMap.getQueryId(), param, streamFetchSize);
+        //서비스 프로세스가 종료될 때 SessionCleanupCallback 에 의해 Cursor 가 닫히도록 등록한다.
+        ctx.addSession("$row_cursor@" + System.identityHashCode(cursor), cursor);
+        log.info("[{}]Row cursor opened. query: {}, fetch size: {}", ctx.getTxId(), queryMap.getQueryId(), streamFetchSize);
+
+        if (getOutput() != null) {
+            setOutputValue(ctx, cursor);
+        }
+    }
+
     @Override
     public void setExceptionHandlingMode(boolean exceptionHandlingMode) {
         this.errorQueryMode = exceptionHandlingMode;
@@ -229,6 +280,26 @@ public class Select extends ParameterAssignableService implements Serializable {
         this.handleResultSet = handleResultSet;
     }
 
+    /**
+     * 조회 결과를 {@link RowCursor} 로 output 할 지 설정한다.<br>
+     * {@code RowCursor} 는 {@link mb.dnm.service.general.IterationGroup}, {@link mb.dnm.service.file.WriteFile}, {@link Insert} 서비스의 input 으로 사용할 수 있으며
+     * 조회 결과를 모두 메모리에 적재하지 않으므로 대용량 데이터를 일정한 메모리로 처리할 수 있다.
+     *
+     * @param streamResultSet the stream result set
+     */
+    public void setStreamResultSet(boolean streamResultSet) {
+        this.streamResultSet = streamResultSet;
+    }
+
+    /**
+     * {@code streamResultSet} 이 true 인 경우 사용할 JDBC fetch size 를 설정한다.
+     *
+     * @param streamFetchSize the stream fetch size
+     */
+    public void setStreamFetchSize(int streamFetchSize) {
+        this.streamFetchSize = streamFetchSize;
+    }
+
     /**
      * Sets result handling support factory.
      *
@@ -3,6 +3,8 @@ package mb.dnm.service.db;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import mb.dnm.access.db.DataSourceProvider;
+import mb.dnm.access.db.PartitionReport;
+import mb.dnm.access.db.PartitionedWriter;
 import mb.dnm.access.db.QueryExecutor;
 import mb.dnm.access.db.QueryMap;
 import mb.dnm.core.context.ServiceContext;
@@ -41,7 +43,20 @@ import java.util.Set;
  *     &lt;property name="queryId"                value="<span style="color: black; background-color: #FAF3D4;">queryId 만을 입력한다(executorName X / namespace X)</span>"/&gt;
  *     &lt;property name="input"                  value="<span style="color: black; background-color: #FAF3D4;">input 파라미터명</span>"/&gt;
  *     &lt;property name="output"                 value="<span style="color: black; background-color: #FAF3D4;">output 파라미터명</span>"/&gt;
+ * &lt;/bean&gt;
+ *
+ * &lt;!-- 트랜잭션 그룹을 사용하지 않는 대용량 update. 입력 List 를 chunkSize 단위로 나누어 parallelism 개의 커넥션에서 동시에 실행한다.--&gt;
+ * &lt;bean class="mb.dnm.service.db.Update"&gt;
+ *     &lt;property name="input"                  value="<span style="color: black; background-color: #FAF3D4;">input 파라미터명</span>"/&gt;
+ *     &lt;property name="output"                 value="<span style="color: black; background-color: #FAF3D4;">output 파라미터명</span>"/&gt;
+ *     &lt;property name="parallelism"            value="<span style="color: black; background-color: #FAF3D4;">동시에 사용할 커넥션 수</span>"/&gt;
+ *     &lt;property name="chunkSize"              value="<span style="color: black; background-color: #FAF3D4;">파티션 당 row 수</span>"/&gt;
  * &lt;/bean&gt;</pre>
+ * {@code parallelism} 이 1 보다 큰 경우 각 파티션은 별도의 트랜잭션으로 입력 순서대로 commit 되며, 파티션별 처리 결과({@link PartitionReport#toMap()})가
+ * {@code ServiceContext} 의 {@value PartitionedWriter#REPORT_PARAM} 파라미터에 저장된다.
+ * 어떤 파티션이 실패하면 그 뒤의 파티션은 모두 rollback 되고 에러가 발생한다.
+ *
+ * @see PartitionedWriter
  */
 @Slf4j
 @Setter
@@ -49,6 +64,16 @@ public class Update extends ParameterAssignableService implements Serializable {
     private static final long serialVersionUID = -7949550931817011848L;
     private boolean errorQueryMode = false;
     private String queryId;
+    /**
+     * 기본값: 1<br>
+     * 입력 List 를 나누어 동시에 쓰기를 수행할 커넥션 수. 1 인 경우 하나의 커넥션으로 실행한다.
+     * */
+    private int parallelism = 1;
+    /**
+     * 기본값: 10000<br>
+     * {@code parallelism} 이 1 보다 큰 경우 파티션 당 row 수
+     * */
+    private int chunkSize = 10000;
 
     @Override
     public void process(ServiceContext ctx) throws Throwable {
@@ -103,7 +128,16 @@ public class Update extends ParameterAssignableService implements Serializable {
             }
         }
 
-        updatedRows = executor.doBatchUpdate(txContext, queryMap.getQueryId(), updateParams, ctxInfoMap);
+        if (parallelism > 1) {
+            if (txContext.isGroupTxEnabled()) {
+                throw new InvalidServiceConfigurationException(this.getClass(), "The property 'parallelism' can not be used with the group transaction of the executor '" + executorName + "'");
+            }
+        }
+        if (parallelism > 1 && updateParams.size() > chunkSize) {
+            updatedRows = updatePartitioned(ctx, executor, txContext, queryMap.getQueryId(), updateParams, ctxInfoMap);
+        } else {
+            updatedRows = executor.doBatchUpdate(txContext, queryMap.getQueryId(), updateParams, ctxInfoMap);
+        }
 
         log.info("[{}]{} rows updated", ctx.getTxId(), updatedRows);
 
@@ -146,6 +180,18 @@ public class Update extends ParameterAssignableService implements Serializable {
         this.queryId = queryId;
     }
 
+    private int updatePartitioned(ServiceContext ctx, QueryExecutor executor, TransactionContext txContext, String sqlId
+            , List<Map<String, Object>> params, Map<String, Object> ctxInfoMap) throws InterruptedException {
+        PartitionedWriter writer = new PartitionedWriter(executor, txContext, parallelism, chunkSize);
+        PartitionReport report = writer.update(sqlId, params, ctxInfoMap);
+        ctx.addContextParam(PartitionedWriter.REPORT_PARAM, report.toMap());
+        if (!report.isSuccess()) {
+            throw new IllegalStateException("The partitioned update failed. " + report.getCommittedRows() + " of " + params.size()
+                    + " rows are committed in " + report.getPartitionCount() + " partitions", report.getFirstError());
+        }
+        return report.getAffectedRows();
+    }
+
     @Override
     public void setExceptionHandlingMode(boolean exceptionHandlingMode) {
         this.errorQueryMode = exceptionHandlingMode;
@@ -3,6 +3,7 @@ package mb.dnm.service.file;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import mb.dnm.access.file.FileList;
+import mb.dnm.access.file.LocalFileTransfer;
 import mb.dnm.code.DirectoryType;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.exeption.InvalidServiceConfigurationException;
@@ -53,6 +54,24 @@ public class CopyFiles extends SourceAccessService implements Serializable {
      * */
     private boolean ignoreErrorFile = false;
     private boolean debuggingWhenCopied = true;
+    /**
+     * 기본값: false<br>
+     * true 인 경우 파일을 복사할 때 kernel 의 zero-copy 전송({@code FileChannel.transferTo})을 사용하며,
+     * {@code workers} 개의 thread 에서 동시에 복사한다. 디렉터리는 파일을 모두 복사한 뒤 기존과 같이 순서대로 처리된다.
+     * @see LocalFileTransfer
+     * */
+    private boolean bulkMode = false;
+    /**
+     * 기본값: 1<br>
+     * {@code bulkMode} 가 true 인 경우 파일을 동시에 복사할 thread 수이다.
+     * */
+    private int workers = 1;
+    /**
+     * 기본값: null<br>
+     * {@code bulkMode} 가 true 인 경우 복사한 파일 수, 전체 byte 수, 처리량과 파일 별 처리량({@code Map<String, Object>})을 output 할 파라미터명이다.
+     * @see LocalFileTransfer#getStatistics()
+     * */
+    private String statisticsOutput;
 
     @Override
     public void process(ServiceContext ctx) throws Throwable {
@@ -145,6 +164,10 @@ public class CopyFiles extends SourceAccessService implements Serializable {
 
         //복사할 파일이 디렉터리인 경우 디렉터리 하부 내용을 먼저 옮긴 뒤 디렉터리를 가장 마지막에 복사하기 위해 따로 저장한다.
         Map<Path, Path> pathsToCopiedLast = new HashMap<>();
+        //bulkMode 인 경우 파일은 목록을 모두 확인한 뒤 한 번에 처리하기 위해 따로 저장한다.
+        LocalFileTransfer transfer = bulkMode ? new LocalFileTransfer(false) : null;
+        List<Path> bulkSources = new ArrayList<>();
+        List<Path> bulkTargets = new ArrayList<>();
         log.info("[{}]Copying files ...", txId);
         for (String oldFilePathStr : targetFilePaths) {
             Path oldPath = null;
@@ -186,6 +209,11 @@ public class CopyFiles extends SourceAccessService implements Serializable {
                 
                 if (!dirFlag) {
                     if (Files.exists(oldPath)) {
+                        if (bulkMode) {
+                            bulkSources.add(oldPath);
+                            bulkTargets.add(pathToCp);
+                            continue;
+                        }
                         Path copied = Files.copy(oldPath, pathToCp, StandardCopyOption.REPLACE_EXISTING);
                         movedFileList.add(copied.toString());
                         ++successCount;
@@ -210,6 +238,25 @@ public class CopyFiles extends SourceAccessService implements Serializable {
             }
         }
 
+        if (!bulkSources.isEmpty()) {
+            log.info("[{}]Copying {} files with {} workers ...", txId, bulkSources.size(), workers);
+            List<Object> results = transfer.transferAll(bulkSources, bulkTargets, workers, !ignoreErrorFile);
+            for (int i = 0; i < results.size(); i++) {
+                Object result = results.get(i);
+                Path oldPath = bulkSources.get(i);
+                if (result instanceof Path) {
+                    movedFileList.add(result.toString());
+                    ++successCount;
+                    if (debuggingWhenCopied) {
+                        log.debug("[{}]File copy success. Old path: \"{}\", copied path: \"{}\"", txId, oldPath, result);
+                    }
+                } else {
+                    errorFilePaths.add(oldPath.toString());
+                    log.warn("[{}]Exception occurred when copying file but ignored. Cause: {}", txId, MessageUtil.toString((Throwable) result));
+                }
+            }
+        }
+
         if (!pathsToCopiedLast.isEmpty()) {
 
             //DirectoryNotEmptyException을 방지하기 위해 최하위 파일부터 복사할 수 있도록 정렬한다.
@@ -253,9 +300,22 @@ public class CopyFiles extends SourceAccessService implements Serializable {
                 setErrorOutputValue(ctx, errorFilePaths);
             }
         }
+        if (transfer != null) {
+            Map<String, Object> statistics = transfer.getStatistics();
+            if (statisticsOutput != null) {
+                ctx.addContextParam(statisticsOutput, statistics);
+            }
+            log.info("[{}]File copy throughput: files={}, bytes={}, elapsed={}ms, bytes_per_second={}", txId, statistics.get("file_count")
+                    , statistics.get("total_bytes"), statistics.get("elapsed_millis"), statistics.get("bytes_per_second"));
+        }
         log.info("[{}]File copy result: inputFileList[file={} / directory={}], copy_success={}, not_exist_in_source={}, error_count={}"
                 , txId, inputListSize - dirCount, dirCount, successCount, notExistInSource, errorFilePaths.size());
 
     }
 
+    public void setWorkers(int workers) {
+        if (workers < 1)
+            throw new IllegalArgumentException("The workers must be greater than 0. Inputted value: " + workers);
+        this.workers = workers;
+    }
 }
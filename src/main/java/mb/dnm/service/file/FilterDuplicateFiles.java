@@ -0,0 +1,158 @@
+package mb.dnm.service.file;
+
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.file.DuplicateFileFilter;
+import mb.dnm.access.file.FileList;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.exeption.InvalidServiceConfigurationException;
+import mb.dnm.service.ParameterAssignableService;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * 이미 처리한 파일과 같은 내용의 파일을 파일 목록에서 걸러낸다.<br>
+ * 파일 내용의 hash 를 {@code hashIndexFile} 에 저장된 hash 와 비교하며, 같은 파일이 다른 이름으로 다시 수신된 경우 DB 처리 등의 이후 서비스를 수행하지 않도록 할 때 사용한다.
+ * 걸러내지 않은 파일의 hash 는 기본적으로 서비스 프로세스가 성공적으로 종료된 뒤 등록된다.
+ * <br>
+ * <br>
+ * *<b>Input</b>: 확인할 파일의 경로<br>
+ * *<b>Input type</b>: {@code String}, {@code List<String>}, {@code Set<String>}, {@code FileList}
+ * <br>
+ * <br>
+ * *<b>Output</b>: 걸러내지 않은 파일의 경로<br>
+ * *<b>Output type</b>: {@code String}, {@code List<String>}, {@code FileList} (input 과 같은 타입. {@code Set<String>} 은 {@code List<String>})
+ * <br>
+ * <br>
+ * *<b>Duplicate Output</b>: 걸러낸 파일의 경로<br>
+ * *<b>Duplicate Output type</b>: {@code List<String>}
+ * <br>
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * &lt;bean class="mb.dnm.service.file.FilterDuplicateFiles"&gt;
+ *     &lt;property name="hashIndexFile"          value="<span style="color: black; background-color: #FAF3D4;">hash 저장 파일 경로</span>"/&gt;
+ *     &lt;property name="input"                  value="<span style="color: black; background-color: #FAF3D4;">input 파라미터명</span>"/&gt;
+ *     &lt;property name="output"                 value="<span style="color: black; background-color: #FAF3D4;">output 파라미터명</span>"/&gt;
+ *     &lt;property name="duplicateOutput"        value="<span style="color: black; background-color: #FAF3D4;">걸러낸 파일 목록의 파라미터명</span>"/&gt;
+ * &lt;/bean&gt;</pre>
+ *
+ * @see DuplicateFileFilter
+ * @see mb.dnm.access.file.ContentHashIndex
+ * */
+@Slf4j
+@Setter
+public class FilterDuplicateFiles extends ParameterAssignableService implements Serializable {
+    private static final long serialVersionUID = 5618410958290170348L;
+
+    private final DuplicateFileFilter filter = new DuplicateFileFilter();
+    /**
+     * 기본값: null<br>
+     * 걸러낸 파일 목록을 output 할 파라미터명이다.
+     * */
+    private String duplicateOutput;
+
+    @Override
+    public void process(ServiceContext ctx) throws Throwable {
+        if (getInput() == null) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "FilterDuplicateFiles service must have the input parameter in which contain the files to check");
+        }
+        if (filter.getHashIndexFile() == null || filter.getHashIndexFile().trim().isEmpty()) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "FilterDuplicateFiles service must have the 'hashIndexFile' property");
+        }
+        String txId = ctx.getTxId();
+
+        Object inputVal = getInputValue(ctx);
+        if (inputVal == null) {
+            log.debug("[{}]The value of input '{}' is not found. No file paths to check found in context data.", txId, getInput());
+            return;
+        }
+
+        List<Path> files = new ArrayList<>();
+        FileList fileList = null;
+        try {
+            if (inputVal instanceof FileList) {
+                fileList = (FileList) inputVal;
+                if (fileList.getFileList() != null) {
+                    for (String relativePath : fileList.getFileList()) {
+                        files.add(Paths.get(fileList.getBaseDirectory(), relativePath));
+                    }
+                }
+            } else if (inputVal instanceof String) {
+                files.add(Paths.get((String) inputVal));
+            } else if (inputVal instanceof List || inputVal instanceof Set) {
+                for (String filePath : (Collection<String>) inputVal) {
+                    files.add(Paths.get(filePath));
+                }
+            } else {
+                throw new ClassCastException();
+            }
+        } catch (ClassCastException ce) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "The type of the input parameter value is not String or List<String> or Set<String> or FileList. Inputted value's type: " + inputVal.getClass().getName());
+        }
+
+        List<Path> duplicates = new ArrayList<>();
+        List<Path> passed = filter.filter(ctx, files, duplicates);
+
+        if (getOutput() != null) {
+            if (fileList != null) {
+                setOutputValue(ctx, toFileList(fileList, passed));
+            } else if (inputVal instanceof String) {
+                if (!passed.isEmpty()) {
+                    setOutputValue(ctx, passed.get(0).toString());
+                }
+            } else {
+                setOutputValue(ctx, toStrings(passed));
+            }
+        }
+        if (duplicateOutput != null) {
+            ctx.addContextParam(duplicateOutput, toStrings(duplicates));
+        }
+        log.info("[{}]Duplicate file filter result: input={}, passed={}, duplicated={}", txId, files.size(), passed.size(), duplicates.size());
+    }
+
+    //input 으로 전달된 FileList 와 같은 baseDirectory 를 가지는 FileList 를 생성한다. 디렉터리는 경로의 끝에 파일 구분자를 유지한다.
+    private static FileList toFileList(FileList source, List<Path> passed) {
+        Path baseDir = Paths.get(source.getBaseDirectory());
+        Set<String> passedSet = new HashSet<>(toStrings(passed));
+        List<String> relativePaths = new ArrayList<>(passed.size());
+        for (String relativePath : source.getFileList()) {
+            if (passedSet.contains(baseDir.resolve(relativePath).toString())) {
+                relativePaths.add(relativePath);
+            }
+        }
+        FileList result = new FileList();
+        result.setBaseDirectory(source.getBaseDirectory());
+        result.setFileList(relativePaths);
+        return result;
+    }
+
+    private static List<String> toStrings(List<Path> paths) {
+        List<String> result = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            result.add(path.toString());
+        }
+        return result;
+    }
+
+    public void setHashIndexFile(String hashIndexFile) {
+        filter.setHashIndexFile(hashIndexFile);
+    }
+
+    public void setAlgorithm(String algorithm) {
+        filter.setAlgorithm(algorithm);
+    }
+
+    public void setTtlHours(int ttlHours) {
+        filter.setTtlHours(ttlHours);
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        filter.setMaxEntries(maxEntries);
+    }
+
+    public void setRegisterOnSuccess(boolean registerOnSuccess) {
+        filter.setRegisterOnSuccess(registerOnSuccess);
+    }
+}
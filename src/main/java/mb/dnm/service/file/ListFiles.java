@@ -2,19 +2,20 @@ package mb.dnm.service.file;
 
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.file.DirectoryScanner;
+import mb.dnm.access.file.DuplicateFileFilter;
 import mb.dnm.access.file.FileList;
+import mb.dnm.access.file.FileListStream;
 import mb.dnm.code.DirectoryType;
+import mb.dnm.code.FileSortOrder;
 import mb.dnm.code.FileType;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.exeption.InvalidServiceConfigurationException;
 import mb.dnm.service.SourceAccessService;
 import mb.dnm.access.file.FileTemplate;
 import mb.dnm.storage.InterfaceInfo;
-import org.apache.commons.io.filefilter.WildcardFileFilter;
 
 import java.io.File;
-import java.io.FileFilter;
-import java.io.IOException;
 import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -25,7 +26,8 @@ import java.util.Map;
 
 /**
  * 파일 또는 디렉터리 목록을 가져온다.
- * 가져올 파일의 디렉터리, 파일명 패턴 등에 대한 정보는 {@code InterfaceInfo} 에 저장된 {@code FileTemplate} 의 속성들로부터 가져온다.
+ * 가져올 파일의 디렉터리, 파일명 패턴 등에 대한 정보는 {@code InterfaceInfo} 에 저장된 {@code FileTemplate} 의 속성들로부터 가져온다.<br>
+ * 파일명 패턴은 glob 패턴(*, ?, [...], {...})으로 적용된다.
  * <br>
  * <br>
  * *<b>Input</b>: 목록을 가져올 디렉터리 경로<br>
@@ -33,7 +35,7 @@ import java.util.Map;
  * <br>
  * <br>
  * *<b>Output</b>: 파일 또는 디렉터리 목록<br>
- * *<b>Output type</b>: {@code FileList}
+ * *<b>Output type</b>: {@code FileList}, {@code FileListStream}
  * <br>
  * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
  * &lt;bean class="mb.dnm.service.file.ListFiles"&gt;
@@ -43,6 +45,7 @@ import java.util.Map;
  *     &lt;property name="output"                 value="<span style="color: black; background-color: #FAF3D4;">output 파라미터명</span>"/&gt;
  * &lt;/bean&gt;</pre>
  * @see mb.dnm.access.file.FileList
+ * @see mb.dnm.access.file.DirectoryScanner
  * */
 
 @Slf4j
@@ -65,6 +68,37 @@ public class ListFiles extends SourceAccessService implements Serializable  {
      * 목록을 탐색하려는 경로로 지정된 디렉터리가 존재하지 않는 경우 새로 생성하는 옵션
      * */
     private boolean createDirectoriesWhenNotExist = false;
+    /**
+     * 기본값: Integer.MAX_VALUE<br>
+     * {@code searchRecursively} 가 true 인 경우 파일 목록을 가져올 경로로부터 탐색할 최대 깊이이다. 1인 경우 지정한 경로 바로 아래의 파일만 가져온다.
+     * */
+    private int maxDepth = Integer.MAX_VALUE;
+    /**
+     * 기본값: 0<br>
+     * 가져올 최대 파일 수이다. 0 인 경우 모두 가져온다.
+     * {@code sortOrder} 가 지정된 경우 정렬 순서의 앞에서부터 {@code limit} 개를 가져오며, 정렬을 위해 {@code limit} 개의 경로만 메모리에 유지한다.
+     * */
+    private int limit = 0;
+    /**
+     * 기본값: NONE<br>
+     * 파일 목록의 정렬 순서이다. {@code OLDEST_FIRST} 를 {@code limit} 과 함께 사용하면 먼저 생성된 파일부터 정해진 수 만큼 처리(FIFO)할 수 있다.
+     * @see FileSortOrder
+     * */
+    private FileSortOrder sortOrder = FileSortOrder.NONE;
+    /**
+     * 기본값: false<br>
+     * true 인 경우 파일 목록을 모두 가져온 {@code FileList} 대신 반복하면서 파일을 탐색하는 {@code FileListStream}({@code Iterable&lt;String&gt;})을 output 한다.
+     * 파일이 매우 많은 디렉터리를 {@code IterationGroup} 으로 처리할 때 목록 전체를 메모리에 적재하지 않기 위해 사용한다.
+     * 이 속성이 true 인 경우 {@code sortOrder} 와 {@code limit} 은 사용할 수 없다.
+     * @see FileListStream
+     * */
+    private boolean streaming = false;
+    /**
+     * 기본값: null<br>
+     * 지정된 경우 이미 처리한 파일과 같은 내용의 파일을 파일 목록에서 제외한다. 이 속성은 {@code streaming} 속성이 true 인 경우 사용할 수 없다.
+     * @see DuplicateFileFilter
+     * */
+    private DuplicateFileFilter duplicateFilter;
 
 
     @Override
@@ -120,6 +154,16 @@ public class ListFiles extends SourceAccessService implements Serializable  {
             }
         }
 
+        if (streaming && (sortOrder != FileSortOrder.NONE || limit > 0)) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "The 'sortOrder' and 'limit' properties can not be used when the 'streaming' property is true");
+        }
+        if (duplicateFilter != null) {
+            if (streaming)
+                throw new InvalidServiceConfigurationException(this.getClass(), "The 'duplicateFilter' property can not be used when the 'streaming' property is true");
+            if (duplicateFilter.getHashIndexFile() == null)
+                throw new InvalidServiceConfigurationException(this.getClass(), "The 'hashIndexFile' property of the 'duplicateFilter' is required");
+        }
+
         if (!targetPath.endsWith(File.separator)) {
             targetPath = targetPath + File.separator;
         }
@@ -137,95 +181,58 @@ public class ListFiles extends SourceAccessService implements Serializable  {
             return;
         }
 
+        DirectoryScanner scanner = new DirectoryScanner(path, tmpFileNamePattern, tmpType, searchRecursively, maxDepth);
+        if (streaming) {
+            FileListStream fileListStream = new FileListStream(scanner);
+            //모든 파일을 가져오지 않은 경우 SessionCleanupCallback 에 의해 닫히도록 등록한다.
+            ctx.addSession("$file_list_stream@" + System.identityHashCode(fileListStream), fileListStream);
+            log.info("[{}]The files in the path \"{}\" will be listed while iterating.", ctx.getTxId(), targetPath);
+            setOutputValue(ctx, fileListStream);
+            return;
+        }
+
         FileList fileList = new FileList();
-        List<String> searchedFileList = new ArrayList<>();
         fileList.setBaseDirectory(targetPath);
-
-        File[] files = path.toFile().listFiles((FileFilter) new WildcardFileFilter(tmpFileNamePattern));
-        int baseDirIdx = 0;
-        for (File file : files) {
-            if (baseDirIdx == 0) {
-                baseDirIdx = file.toString().indexOf(targetPath) + targetPath.length();
-            }
-            String filePathAfterBaseDir = file.toString().substring(baseDirIdx);
-
-            //아래에 FileType이 DIRECTORY 이냐 FILE 이냐 또는 ALL 이냐에 따라 반복되는 코드는 굳이 정리하지 않았음
-            if (tmpType == FileType.DIRECTORY) {
-                if (file.isDirectory()) {
-                    if (!filePathAfterBaseDir.endsWith(File.separator)) {
-                        filePathAfterBaseDir += File.separator;
-                    }
-                    searchedFileList.add(filePathAfterBaseDir);
-                    if (searchRecursively) {
-                        searchedFileList.addAll(searchRecursively(targetPath, file));
-                    }
-                }
-            } else if (tmpType == FileType.FILE) {
-                if (file.isFile()) {
-                    if (filePathAfterBaseDir.startsWith(File.separator)) {
-                        filePathAfterBaseDir = filePathAfterBaseDir.substring(1);
-                    }
-                    searchedFileList.add(filePathAfterBaseDir);
-                }
-            } else {
-                if (file.isDirectory()) {
-                    if (!filePathAfterBaseDir.endsWith(File.separator)) {
-                        filePathAfterBaseDir += File.separator;
-                    }
-                    searchedFileList.add(filePathAfterBaseDir);
-                    if (searchRecursively) {
-                        searchedFileList.addAll(searchRecursively(targetPath, file));
-                    }
-                } else {
-                    if (filePathAfterBaseDir.startsWith(File.separator)) {
-                        filePathAfterBaseDir = filePathAfterBaseDir.substring(1);
-                    }
-                    searchedFileList.add(filePathAfterBaseDir);
-                }
-            }
-        }
+        List<String> searchedFileList = scanner.list(sortOrder, limit);
         log.info("[{}] {} files found in the path \"{}\".", ctx.getTxId(), searchedFileList.size(), targetPath);
+        if (duplicateFilter != null && !searchedFileList.isEmpty()) {
+            searchedFileList = filterDuplicates(ctx, path, searchedFileList);
+        }
         fileList.setFileList(searchedFileList);
         setOutputValue(ctx, fileList);
     }
 
-    /**
-     * 디렉터리를 재귀적으로 탐색하여 모든 파일 목록을 가져오는 메소드
-     *
-     * @param baseDir 파일 목록을 탐색하려는 최상위 경로 즉, 파일 목록을 가져오기로 설정된 경로.
-     * @param subDir 재귀적으로 탐색하고자 하는 디렉터리 경로
-     *
-     * */
-    private List<String> searchRecursively(String baseDir, File subDir) throws IOException {
-        List<String> innerFiles = new ArrayList<>();
-
-        File[] files = subDir.listFiles();
-        int baseDirIdx = 0;
-        if (files != null) {
-            for (File file : files) {
-                if (baseDirIdx == 0) {
-                    baseDirIdx = file.toString().indexOf(baseDir) + baseDir.length();
-                }
-                /*filePathAfterBaseDir -> baseDir 이후에 탐색된 디렉터리 또는 파일의 경로를 의미한다.
-                 현재 반복문을 통해 리스트에서 추출되는 File 객체가 디렉터리인 경우 filePathAfterBaseDir 을
-                 searchRecursively(String baseDir, File subDir) 메소드의 subDir 파라미터로 전달하여 재귀호출한다.
-                */
-                String filePathAfterBaseDir = file.toString().substring(baseDirIdx);
-                if (file.isDirectory()) {
-                    /*이 메소드를 통해 리턴되는 파일경로 리스트의 값들은 FileList 객체에 담기게 된다.
-                     FileList 객체를 통해 파일목록을 가져와 작업을 하는 경우 각 원소가 디렉터리인지 파일인지 구분할 수 없으므로
-                     디렉터리는 경로명 끝에 파일 구분자를 더하고 파일은 구분자 없이 목록에 추가한다.
-                    */
-                    if (!filePathAfterBaseDir.endsWith(File.separator))
-                        filePathAfterBaseDir += File.separator;
-                    innerFiles.add(filePathAfterBaseDir);
-                    innerFiles.addAll(searchRecursively(baseDir, file));
-                } else {
-                    innerFiles.add(filePathAfterBaseDir);
-                }
+    //baseDirectory 로부터의 상대경로를 유지하며 같은 내용의 파일을 제외한다.
+    private List<String> filterDuplicates(ServiceContext ctx, Path baseDir, List<String> relativePaths) throws Exception {
+        List<Path> files = new ArrayList<>(relativePaths.size());
+        for (String relativePath : relativePaths) {
+            files.add(baseDir.resolve(relativePath));
+        }
+        List<Path> passed = duplicateFilter.filter(ctx, files, null);
+        if (passed.size() == files.size())
+            return relativePaths;
+
+        List<String> result = new ArrayList<>(passed.size());
+        int idx = 0;
+        for (int i = 0; i < files.size() && idx < passed.size(); i++) {
+            if (files.get(i).equals(passed.get(idx))) {
+                result.add(relativePaths.get(i));
+                ++idx;
             }
         }
+        log.info("[{}] {} duplicate files are excluded from the file list.", ctx.getTxId(), relativePaths.size() - result.size());
+        return result;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 1)
+            throw new IllegalArgumentException("The max depth must be greater than 0. Inputted value: " + maxDepth);
+        this.maxDepth = maxDepth;
+    }
 
-        return innerFiles;
+    public void setLimit(int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("The limit must not be negative. Inputted value: " + limit);
+        this.limit = limit;
     }
 }
@@ -3,6 +3,7 @@ package mb.dnm.service.file;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import mb.dnm.access.file.FileList;
+import mb.dnm.access.file.LocalFileTransfer;
 import mb.dnm.code.DirectoryType;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.exeption.InvalidServiceConfigurationException;
@@ -54,6 +55,24 @@ public class MoveFiles extends SourceAccessService implements Serializable {
      * */
     private boolean ignoreErrorFile = false;
     private boolean debuggingWhenMoved = true;
+    /**
+     * 기본값: false<br>
+     * true 인 경우 파일을 이동할 때 같은 파일 시스템 안에서는 이름만 변경({@code ATOMIC_MOVE})하고 다른 파일 시스템인 경우 zero-copy 전송({@code FileChannel.transferTo})으로 복사한 뒤 원본을 삭제하며,
+     * {@code workers} 개의 thread 에서 동시에 이동한다. 디렉터리는 파일을 모두 이동한 뒤 기존과 같이 순서대로 처리된다.
+     * @see LocalFileTransfer
+     * */
+    private boolean bulkMode = false;
+    /**
+     * 기본값: 1<br>
+     * {@code bulkMode} 가 true 인 경우 파일을 동시에 이동할 thread 수이다.
+     * */
+    private int workers = 1;
+    /**
+     * 기본값: null<br>
+     * {@code bulkMode} 가 true 인 경우 이동한 파일 수, 전체 byte 수, 처리량과 파일 별 처리량({@code Map<String, Object>})을 output 할 파라미터명이다.
+     * @see LocalFileTransfer#getStatistics()
+     * */
+    private String statisticsOutput;
 
     @Override
     public void process(ServiceContext ctx) throws Throwable {
@@ -147,6 +166,10 @@ public class MoveFiles extends SourceAccessService implements Serializable {
 
         //이동할 파일이 디렉터리인 경우 디렉터리 하부 내용을 먼저 옮긴 뒤 디렉터리를 가장 마지막에 이동시키기 위해 따로 저장한다.
         Map<Path, Path> pathsToMovedLast = new HashMap<>();
+        //bulkMode 인 경우 파일은 목록을 모두 확인한 뒤 한 번에 처리하기 위해 따로 저장한다.
+        LocalFileTransfer transfer = bulkMode ? new LocalFileTransfer(true) : null;
+        List<Path> bulkSources = new ArrayList<>();
+        List<Path> bulkTargets = new ArrayList<>();
         log.info("[{}]Moving files ...", txId);
         for (String oldFilePathStr : targetFilePaths) {
             Path oldPath = null;
@@ -188,6 +211,11 @@ public class MoveFiles extends SourceAccessService implements Serializable {
 
                 if (!dirFlag) {
                     if (Files.exists(oldPath)) {
+                        if (bulkMode) {
+                            bulkSources.add(oldPath);
+                            bulkTargets.add(pathToMv);
+                            continue;
+                        }
                         Path moved = Files.move(oldPath, pathToMv, StandardCopyOption.REPLACE_EXISTING);
                         movedFileList.add(moved.toString());
                         ++successCount;
@@ -212,6 +240,25 @@ public class MoveFiles extends SourceAccessService implements Serializable {
             }
         }
 
+        if (!bulkSources.isEmpty()) {
+            log.info("[{}]Moving {} files with {} workers ...", txId, bulkSources.size(), workers);
+            List<Object> results = transfer.transferAll(bulkSources, bulkTargets, workers, !ignoreErrorFile);
+            for (int i = 0; i < results.size(); i++) {
+                Object result = results.get(i);
+                Path oldPath = bulkSources.get(i);
+                if (result instanceof Path) {
+                    movedFileList.add(result.toString());
+                    ++successCount;
+                    if (debuggingWhenMoved) {
+                        log.debug("[{}]File move success. Old path: \"{}\", Moved path: \"{}\"", txId, oldPath, result);
+                    }
+                } else {
+                    errorFilePaths.add(oldPath.toString());
+                    log.warn("[{}]Exception occurred when moving file but ignored. Cause: {}", txId, MessageUtil.toString((Throwable) result));
+                }
+            }
+        }
+
         if (!pathsToMovedLast.isEmpty()) {
 
             //DirectoryNotEmptyException을 방지하기 위해 최하위 파일부터 이동할 수 있도록 정렬한다.
@@ -258,9 +305,22 @@ public class MoveFiles extends SourceAccessService implements Serializable {
                 setErrorOutputValue(ctx, errorFilePaths);
             }
         }
+        if (transfer != null) {
+            Map<String, Object> statistics = transfer.getStatistics();
+            if (statisticsOutput != null) {
+                ctx.addContextParam(statisticsOutput, statistics);
+            }
+            log.info("[{}]File movement throughput: files={}, bytes={}, elapsed={}ms, bytes_per_second={}", txId, statistics.get("file_count")
+                    , statistics.get("total_bytes"), statistics.get("elapsed_millis"), statistics.get("bytes_per_second"));
+        }
         log.info("[{}]File movement result: inputFileList[file={} / directory={}], move_success={}, not_exist_in_source={}, error_count={}"
                 , txId, inputListSize - dirCount, dirCount, successCount, notExistInSource, errorFilePaths.size());
 
     }
 
+    public void setWorkers(int workers) {
+        if (workers < 1)
+            throw new IllegalArgumentException("The workers must be greater than 0. Inputted value: " + workers);
+        this.workers = workers;
+    }
 }
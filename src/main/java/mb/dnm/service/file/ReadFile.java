@@ -3,19 +3,34 @@ package mb.dnm.service.file;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.file.CheckpointCommitSession;
+import mb.dnm.access.file.DelimitedRecordReader;
+import mb.dnm.access.file.FileCheckpoint;
+import mb.dnm.access.file.FileCheckpointStore;
+import mb.dnm.access.file.FileChunks;
 import mb.dnm.access.file.FileList;
 import mb.dnm.access.file.FileParser;
 import mb.dnm.access.file.FileParserTemplate;
+import mb.dnm.access.file.FileStreamSession;
 import mb.dnm.access.file.FileTemplate;
+import mb.dnm.access.file.IncrementalRecordReader;
+import mb.dnm.access.file.ParallelRecordParser;
+import mb.dnm.code.BinaryEncoding;
+import mb.dnm.code.CompressionType;
 import mb.dnm.code.DataType;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.exeption.InvalidServiceConfigurationException;
 import mb.dnm.service.SourceAccessService;
 import mb.dnm.storage.InterfaceInfo;
+import mb.dnm.util.CompressionUtil;
 import mb.dnm.util.MessageUtil;
 import org.springframework.util.Assert;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -33,7 +48,8 @@ import java.util.*;
  * <br>
  * <br>
  * *<b>Output</b>: 파일의 데이터<br>
- * *<b>Output type</b>: {@code byte[]}, {@code String} ,{@code List<List<Object>>}, {@code List<Map<String, Object>>}
+ * *<b>Output type</b>: {@code byte[]}, {@code String} ,{@code List<List<Object>>}, {@code List<Map<String, Object>>},
+ * {@code MappedByteBuffer}, {@code FileChunks}, {@code InputStream}
  * <br>
  * <br>
  * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
@@ -61,10 +77,23 @@ import java.util.*;
  *     &lt;property name="input"                  value="<span style="color: black; background-color: #FAF3D4;">input 파라미터명</span>"/&gt;
  *     &lt;property name="output"                 value="<span style="color: black; background-color: #FAF3D4;">output 파라미터명</span>"/&gt;
  * &lt;/bean&gt;</pre>
+ * <br>
+ * 계속 데이터가 추가되는 파일에서 이전에 읽은 이후 추가된 record 만 읽는 경우
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * &lt;bean class="mb.dnm.service.file.ReadFile"&gt;
+ *     &lt;property name="sourceAlias"            value="<span style="color: black; background-color: #FAF3D4;">source alias</span>"/&gt;
+ *     &lt;property name="outputDataType"         value="PARSED_TEXT"/&gt;
+ *     &lt;property name="incremental"            value="true"/&gt;
+ *     &lt;property name="checkpointFile"         value="<span style="color: black; background-color: #FAF3D4;">checkpoint 저장 파일 경로</span>"/&gt;
+ *     &lt;property name="checkpointTtlHours"     value="168"/&gt;
+ *     &lt;property name="input"                  value="<span style="color: black; background-color: #FAF3D4;">input 파라미터명</span>"/&gt;
+ *     &lt;property name="output"                 value="<span style="color: black; background-color: #FAF3D4;">output 파라미터명</span>"/&gt;
+ * &lt;/bean&gt;</pre>
  *
  * @see FileTemplate
  * @see WriteFile
-
+ * @see FileChunks
+ * @see IncrementalRecordReader
  *
  * */
 @Slf4j
@@ -90,7 +119,10 @@ public class ReadFile extends SourceAccessService implements Serializable {
      *     &nbsp;{@code STRING}: 파일의 데이터를 설정된 charset 으로 읽은 뒤 {@code String}으로 output 한다.<br>
      *     &nbsp;{@code PARSED_TEXT}: 파일의 데이터를 설정된 charset 으로 읽은 뒤 정해진 형식대로 parsing 하여 {@code List&lt;List&lt;Object&gt;} 또는 {@code List&lt;Map&lt;String, Object&gt;&gt;}로 output 한다.<br>
      *     &nbsp;&nbsp;-{@code headerExist}가 false 인 경우 → {@code List&lt;List&lt;Object&gt;} 즉, {@code List&lt;List&lt;데이터&gt;}<br>
-     *     &nbsp;&nbsp;-{@code headerExist}가 true 인 경우 → {@code List&lt;Map&lt;String, Object&gt;&gt;} 즉, {@code List&lt;Map&lt;컬럼명, 데이터&gt;&gt;}
+     *     &nbsp;&nbsp;-{@code headerExist}가 true 인 경우 → {@code List&lt;Map&lt;String, Object&gt;&gt;} 즉, {@code List&lt;Map&lt;컬럼명, 데이터&gt;&gt;}<br>
+     *     &nbsp;{@code MAPPED_BUFFER}: 파일을 memory-mapped 방식으로 읽은 뒤 {@code MappedByteBuffer}로 output 한다.<br>
+     *     &nbsp;{@code BYTE_CHUNKS}: 파일을 {@code chunkSize} 크기로 나누어 순서대로 읽는 {@code FileChunks}({@code Iterable&lt;byte[]&gt;})를 output 한다.<br>
+     *     &nbsp;{@code INPUT_STREAM}: 파일의 {@code InputStream}을 output 한다.
      * </i>
      * <br>
      * <br>
@@ -170,6 +202,81 @@ public class ReadFile extends SourceAccessService implements Serializable {
      * */
     private boolean handleBinaryData = true;
 
+    /**
+     * 기본값: DECIMAL<br>
+     * 파일 내용을 읽은 뒤 output할 데이터의 타입이 PARSED_TEXT 인 경우
+     * BINARY_DATA_WRAPPER(&lt;![BINARY[...]]&gt;) 안의 내용이 어떤 형식으로 작성되어 있는지에 대한 설정이다.<br>
+     * metadataExist = true 이고 메타데이터에 {@code binary_encoding} 속성이 있는 경우 메타데이터의 값을 따르며,
+     * 속성이 없는 경우 이전 버전의 형식인 {@code DECIMAL} 로 간주한다.
+     * @see BinaryEncoding
+     * */
+    private BinaryEncoding binaryEncoding = BinaryEncoding.DECIMAL;
+
+    /**
+     * 기본값: 1048576 (1MB)<br>
+     * output할 데이터의 타입이 BYTE_CHUNKS 인 경우 chunk 하나의 최대 byte 수에 대한 설정이다.
+     * */
+    private int chunkSize = 1024 * 1024;
+
+    /**
+     * 기본값: 1<br>
+     * 파일 내용을 읽은 뒤 output할 데이터의 타입이 PARSED_TEXT 인 경우 하나의 파일을 최대 몇 개의 구간으로 나누어 동시에 parsing 할 지에 대한 설정이다.<br>
+     * 1보다 큰 경우 파일을 record 경계에서 나누어 여러 CPU core 에서 parsing 한 뒤 파일의 순서대로 합쳐서 output 한다.
+     * 구간의 크기가 1MB 보다 작아지는 경우 구간 수가 줄어들며, charset 이 UTF-8, US-ASCII, ISO-8859-1, EUC-KR 등이 아닌 경우에는 나누지 않는다.
+     * {@code qualifier} 가 두 문자 이상인 경우 구간의 경계를 찾기 위해 파일을 한 번 순서대로 읽은 뒤 parsing 한다.
+     * @see ParallelRecordParser
+     * */
+    private int parallelism = 1;
+
+    /**
+     * 기본값: false<br>
+     * 파일 내용을 읽은 뒤 output할 데이터의 타입이 PARSED_TEXT 인 경우 이전에 읽은 위치 이후에 추가된 record 만 읽을 지에 대한 설정이다.<br>
+     * 파일 별로 마지막으로 읽은 위치와 record 수 등을 {@code checkpointFile} 에 저장하며, 파일이 교체되거나 잘린 경우 처음부터 다시 읽는다.
+     * 파일의 끝에 record separator 로 끝나지 않은 record 가 있는 경우 작성 중인 record 로 보고 다음에 읽는다.<br>
+     * 이 속성이 true 인 경우 {@code parallelism} 은 사용되지 않으며, charset 이 UTF-8, US-ASCII, ISO-8859-1, EUC-KR 등이 아닌 경우에는 사용할 수 없다.
+     * @see IncrementalRecordReader
+     * */
+    private boolean incremental = false;
+
+    /**
+     * 기본값: null<br>
+     * {@code incremental} 이 true 인 경우 파일 별 checkpoint 를 저장할 파일의 경로이다. 같은 경로를 사용하는 서비스들은 checkpoint 를 공유한다.
+     * @see FileCheckpointStore
+     * */
+    private String checkpointFile;
+
+    /**
+     * 기본값: true<br>
+     * {@code incremental} 이 true 인 경우 checkpoint 를 서비스 프로세스가 성공적으로 종료된 뒤에 저장할 지에 대한 설정이다.<br>
+     * true 인 경우 프로세스가 실패하면 checkpoint 가 저장되지 않으므로 다음 프로세스에서 같은 record 들을 다시 읽는다.
+     * false 인 경우 파일을 읽은 즉시 checkpoint 를 저장한다.
+     * @see CheckpointCommitSession
+     * */
+    private boolean commitCheckpointOnSuccess = true;
+
+    /**
+     * 기본값: 168 (7일)<br>
+     * {@code incremental} 이 true 인 경우 checkpoint 가 변경되지 않은 채로 유지되는 시간이다.
+     * 지난 checkpoint 중 파일이 삭제되었거나 교체된 파일의 checkpoint 는 checkpoint 를 저장할 때 삭제된다. 0 인 경우 만료되지 않는다.
+     * @see FileCheckpointStore
+     * */
+    private int checkpointTtlHours = 168;
+
+    /**
+     * 기본값: 10000<br>
+     * {@code incremental} 이 true 인 경우 {@code checkpointFile} 에 저장할 최대 checkpoint 수이다. 넘는 경우 오래 변경되지 않은 checkpoint 부터 삭제된다.
+     * */
+    private int maxCheckpoints = 10000;
+
+    /**
+     * 기본값: NONE<br>
+     * 파일이 압축된 방식이다. {@code NONE} 이 아닌 경우 파일의 압축을 해제하면서 읽으며, 압축을 해제한 파일을 디스크에 만들지 않는다.<br>
+     * output할 데이터의 타입이 {@code BYTE_ARRAY}, {@code STRING}, {@code PARSED_TEXT}, {@code INPUT_STREAM} 인 경우에만 사용할 수 있으며,
+     * {@code PARSED_TEXT} 인 경우 {@code parallelism} 은 사용되지 않고 {@code incremental} 은 사용할 수 없다.
+     * @see CompressionType
+     * */
+    private CompressionType compression = CompressionType.NONE;
+
 
     @Override
     public void process(ServiceContext ctx) throws Throwable {
@@ -223,25 +330,47 @@ public class ReadFile extends SourceAccessService implements Serializable {
             charset = template.getCharset();
         }
 
+        if (incremental) {
+            if (outputType != DataType.PARSED_TEXT) {
+                throw new InvalidServiceConfigurationException(this.getClass(), "The 'incremental' property is only supported for the output data type PARSED_TEXT. Output data type: " + outputType);
+            }
+            if (checkpointFile == null || checkpointFile.trim().isEmpty()) {
+                throw new InvalidServiceConfigurationException(this.getClass(), "The 'checkpointFile' property is required when the 'incremental' property is true");
+            }
+            if (!IncrementalRecordReader.isSupported(charset)) {
+                throw new InvalidServiceConfigurationException(this.getClass(), "The charset '" + charset + "' is not supported for incremental reading");
+            }
+        }
+
+        if (compression != CompressionType.NONE) {
+            switch (outputType) {
+                case BYTE_ARRAY: case STRING: case PARSED_TEXT: case INPUT_STREAM: break;
+                default: throw new InvalidServiceConfigurationException(this.getClass(), "The 'compression' property is not supported for the output data type " + outputType);
+            }
+            if (incremental) {
+                throw new InvalidServiceConfigurationException(this.getClass(), "The 'incremental' property can not be used with the 'compression' property");
+            }
+        }
+
         Object fileData = null;
         try {
 
             switch (outputType) {
                 case BYTE_ARRAY: {
                     log.info("[{}]Reading file \"{}\" to 'byte array' ...", txId, readFilePath);
-                    fileData = Files.readAllBytes(readFilePath);
+                    fileData = readAllBytes(readFilePath);
                     log.info("[{}]Read complete. Size: {} bytes", txId, ((byte[]) fileData).length);
                     break;
                 }
                 case STRING: {
                     log.info("[{}]Reading file \"{}\" to 'String' using charset '{}' ...", txId, readFilePath, charset);
-                    fileData = new String(Files.readAllBytes(readFilePath), charset);
+                    fileData = new String(readAllBytes(readFilePath), charset);
                     log.info("[{}]Read complete. String encoding: '{}'", txId, charset);
                     break;
                 }
                 case PARSED_TEXT: {
                     log.info("[{}]Reading file \"{}\" to 'FORMATTED_DATA' ...", txId, readFilePath);
-                    fileData = readFormattedData(readFilePath, charset);
+                    fileData = readFormattedData(ctx, readFilePath, charset);
                     if (fileData != null) {
                         log.info("[{}]Read complete. Parsed records count: {}", txId, ((List) fileData).size());
                     } else {
@@ -249,6 +378,29 @@ public class ReadFile extends SourceAccessService implements Serializable {
                     }
                     break;
                 }
+                case MAPPED_BUFFER: {
+                    log.info("[{}]Reading file \"{}\" to 'MappedByteBuffer' ...", txId, readFilePath);
+                    fileData = mapFile(readFilePath);
+                    log.info("[{}]Read complete. Mapped size: {} bytes", txId, ((MappedByteBuffer) fileData).capacity());
+                    break;
+                }
+                case BYTE_CHUNKS: {
+                    FileChunks chunks = new FileChunks(readFilePath, chunkSize);
+                    //모든 chunk 를 읽지 않은 경우 SessionCleanupCallback 에 의해 파일이 닫히도록 등록한다.
+                    ctx.addSession("$file_chunks@" + System.identityHashCode(chunks), chunks);
+                    fileData = chunks;
+                    log.info("[{}]File \"{}\" will be read in chunks of {} bytes", txId, readFilePath, chunkSize);
+                    break;
+                }
+                case INPUT_STREAM: {
+                    InputStream inputStream = compression == CompressionType.NONE ? new BufferedInputStream(Files.newInputStream(readFilePath))
+                            : CompressionUtil.decompress(Files.newInputStream(readFilePath), compression);
+                    //서비스 프로세스가 종료될 때 SessionCleanupCallback 에 의해 stream 이 닫히도록 등록한다.
+                    ctx.addSession("$file_stream@" + System.identityHashCode(inputStream), new FileStreamSession(readFilePath, inputStream));
+                    fileData = inputStream;
+                    log.info("[{}]Input stream of the file \"{}\" opened", txId, readFilePath);
+                    break;
+                }
                 default: throw new IllegalArgumentException("Unsupported output data type: " + outputDataType);
             }
         } catch (Throwable t) {
@@ -262,65 +414,195 @@ public class ReadFile extends SourceAccessService implements Serializable {
 
     }
 
-    private List readFormattedData(Path filePath, Charset charset) throws Exception {
-        List resultData = null;
-        StringBuilder content = new StringBuilder(new String(Files.readAllBytes(filePath), charset));
-
-        String recordSeparator = this.recordSeparator;
-        String delimiter = this.delimiter;
-        String qualifier = this.qualifier;
-        String replacementOfNullValue = this.replacementOfNullValue;
-        String replacementOfEmptyValue = this.replacementOfEmptyValue;
-        String replacementOfLineFeed = this.replacementOfLineFeed;
-        String replacementOfCarriageReturn = this.replacementOfCarriageReturn;
-        boolean headerExist = this.headerExist;
-        boolean handleBinaryData = this.handleBinaryData;
-
-        //메타데이터를 읽고 검증하는 과정이다.
-        if (metadataExist) {
-            int firstLineEndIdx = content.indexOf("\n");
-            if (firstLineEndIdx == -1) {
-                throw new IllegalStateException("Can not parse metadata of the file \"" + filePath + "\". If the 'metadataExist' property is 'true', the first line of the file must contain only metadata.");
+    private MappedByteBuffer mapFile(Path filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IllegalStateException("The file \"" + filePath + "\" is too large to map into a single buffer. Size: " + size + " bytes. Use BYTE_CHUNKS or INPUT_STREAM output data type instead.");
+            //channel 을 닫아도 mapping 은 유효하다.
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private byte[] readAllBytes(Path filePath) throws IOException {
+        if (compression == CompressionType.NONE)
+            return Files.readAllBytes(filePath);
+        try (InputStream in = CompressionUtil.decompress(Files.newInputStream(filePath), compression)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(CompressionUtil.BUFFER_SIZE);
+            CompressionUtil.copy(in, out);
+            return out.toByteArray();
+        }
+    }
+
+    private List readFormattedData(ServiceContext ctx, Path filePath, Charset charset) throws Exception {
+        if (compression != CompressionType.NONE) {
+            return readCompressedFormattedData(filePath, charset);
+        }
+
+        FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ);
+        FileParserTemplate parserTemplate;
+        try {
+            //메타데이터를 읽고 검증하는 과정이다.
+            parserTemplate = newParserTemplate(filePath, metadataExist ? readMetadataLine(channel, charset) : null);
+        } catch (Throwable t) {
+            channel.close();
+            throw t;
+        }
+        boolean headerExist = parserTemplate.isHeaderExist();
+
+        if (incremental) {
+            try {
+                return readIncrementally(ctx, filePath, channel, charset, parserTemplate);
+            } finally {
+                channel.close();
             }
-            String metadataLine = content.substring(0, firstLineEndIdx).trim();
-            boolean mdPrefix = metadataLine.startsWith("<![METADATA[");
-            boolean mdSuffix = metadataLine.endsWith("]]>");
-            if (mdPrefix || mdSuffix)
-                throw new IllegalStateException("Can not parse metadata of the file \"" + filePath + "\". The metadata is not contained in the Metadata wrapper \"<![METADATA[]>\".");
-            metadataLine = metadataLine.substring("<![METADATA[".length(), metadataLine.length() - "]]>".length());
-
-            Map<String, Object> metadata = null;
+        }
+
+        if (parallelism > 1) {
             try {
-                metadata = MessageUtil.jsonToMap(metadataLine);
-                throwExceptionIfMetadataInvalid(metadata);
-                content.delete(0, firstLineEndIdx); //메타데이터 추출 후 데이터에서 메타데이터 부분은 지운다.
-            } catch (JsonProcessingException je) {
-                throw new IllegalStateException("Can not parse metadata of the file \"" + filePath + "\". The metadata is not JSON format.");
+                ParallelRecordParser parser = new ParallelRecordParser(parserTemplate, charset, parallelism);
+                return headerExist ? parser.readDataToRecord(channel, channel.position()) : parser.readDataToList(channel, channel.position());
+            } finally {
+                channel.close();
             }
-            recordSeparator = (String) metadata.get("record_separator");
-            delimiter = (String) metadata.get("delimiter");
-            qualifier = (String) metadata.get("qualifier");
-            replacementOfNullValue = (String) metadata.get("replacement_of_null_value");
-            replacementOfEmptyValue = (String) metadata.get("replacement_of_empty_value");
-            replacementOfLineFeed = (String) metadata.get("replacement_of_line_feed");
-            replacementOfCarriageReturn = (String) metadata.get("replacement_of_carriage_return");
-            headerExist = Boolean.parseBoolean((String) metadata.get("add_header"));
-            handleBinaryData =  Boolean.parseBoolean((String) metadata.get("handle_binary_as_it_is"));
         }
 
-        FileParserTemplate parserTemplate = new FileParserTemplate(recordSeparator, delimiter, qualifier,
-                replacementOfNullValue, replacementOfEmptyValue, replacementOfLineFeed,
-                replacementOfCarriageReturn, headerExist, handleBinaryData);
+        //메타데이터 다음 위치부터 파일을 memory-mapped 방식으로 읽는다.
+        try (DelimitedRecordReader reader = DelimitedRecordReader.open(channel, charset, parserTemplate)) {
+            return readRecords(reader, headerExist);
+        }
+    }
 
+    //압축된 파일의 압축을 해제하면서 순서대로 parsing 한다.
+    private List readCompressedFormattedData(Path filePath, Charset charset) throws Exception {
+        InputStream in = CompressionUtil.decompress(Files.newInputStream(filePath), compression);
+        FileParserTemplate parserTemplate;
+        try {
+            parserTemplate = newParserTemplate(filePath, metadataExist ? readMetadataLine(in, charset) : null);
+        } catch (Throwable t) {
+            in.close();
+            throw t;
+        }
+        try (DelimitedRecordReader reader = new DelimitedRecordReader(Channels.newChannel(in), charset, parserTemplate)) {
+            return readRecords(reader, parserTemplate.isHeaderExist());
+        }
+    }
+
+    private List readRecords(DelimitedRecordReader reader, boolean headerExist) throws IOException {
         if (headerExist) {
             //List<Map<String, Object>> 형태로 parsing
-            resultData = FileParser.readDataToRecord(content.toString(), parserTemplate);
+            List<Map<String, Object>> records = new ArrayList<>();
+            reader.readHeader();
+            for (Map<String, Object> record : reader.records()) {
+                records.add(record);
+            }
+            return records;
         } else {
             //List<List<Object>> 형태로 parsing
-            resultData = FileParser.readDataToList(content.toString(), parserTemplate);
+            List<List<Object>> records = new ArrayList<>();
+            for (List<Object> record : reader.lists()) {
+                records.add(record);
+            }
+            return records;
+        }
+    }
+
+    /*
+     * metadataLine 이 null 인 경우 이 서비스의 속성으로, 그렇지 않은 경우 메타데이터의 속성으로 FileParserTemplate 을 생성한다.
+     * metadataExist 가 true 인 경우 metadataLine 은 파일의 첫번째 줄이다.
+     */
+    private FileParserTemplate newParserTemplate(Path filePath, String metadataLine) {
+        if (!metadataExist) {
+            return new FileParserTemplate(recordSeparator, delimiter, qualifier,
+                    replacementOfNullValue, replacementOfEmptyValue, replacementOfLineFeed,
+                    replacementOfCarriageReturn, headerExist, handleBinaryData, binaryEncoding);
+        }
+        if (metadataLine == null) {
+            throw new IllegalStateException("Can not parse metadata of the file \"" + filePath + "\". If the 'metadataExist' property is 'true', the first line of the file must contain only metadata.");
+        }
+        metadataLine = metadataLine.trim();
+        boolean mdPrefix = metadataLine.startsWith("<![METADATA[");
+        boolean mdSuffix = metadataLine.endsWith("]]>");
+        if (!mdPrefix || !mdSuffix)
+            throw new IllegalStateException("Can not parse metadata of the file \"" + filePath + "\". The metadata is not contained in the Metadata wrapper \"<![METADATA[]>\".");
+        metadataLine = metadataLine.substring("<![METADATA[".length(), metadataLine.length() - "]]>".length());
+
+        Map<String, Object> metadata = null;
+        try {
+            metadata = MessageUtil.jsonToMap(metadataLine);
+            throwExceptionIfMetadataInvalid(metadata);
+        } catch (JsonProcessingException je) {
+            throw new IllegalStateException("Can not parse metadata of the file \"" + filePath + "\". The metadata is not JSON format.");
         }
+        //WriteFile 은 boolean 속성을 JSON boolean 으로 기록한다.
+        boolean headerExist = Boolean.parseBoolean(String.valueOf(metadata.get("add_header")));
+        boolean handleBinaryData = Boolean.parseBoolean(String.valueOf(metadata.get("handle_binary_as_it_is")));
+        //binary_encoding 속성이 없는 파일은 이전 버전의 DECIMAL 형식으로 작성된 파일이다.
+        Object encodingVal = metadata.get("binary_encoding");
+        BinaryEncoding binaryEncoding = encodingVal == null ? BinaryEncoding.DECIMAL : BinaryEncoding.valueOf(String.valueOf(encodingVal).toUpperCase());
+        return new FileParserTemplate((String) metadata.get("record_separator"), (String) metadata.get("delimiter"), (String) metadata.get("qualifier"),
+                (String) metadata.get("replacement_of_null_value"), (String) metadata.get("replacement_of_empty_value"), (String) metadata.get("replacement_of_line_feed"),
+                (String) metadata.get("replacement_of_carriage_return"), headerExist, handleBinaryData, binaryEncoding);
+    }
 
-        return resultData;
+    //checkpoint 이후에 추가된 record 를 읽고 새로운 checkpoint 를 저장한다.
+    private List readIncrementally(ServiceContext ctx, Path filePath, FileChannel channel, Charset charset, FileParserTemplate parserTemplate) throws IOException {
+        String txId = ctx.getTxId();
+        FileCheckpointStore store = FileCheckpointStore.access(Paths.get(checkpointFile));
+        FileCheckpoint previous = store.get(filePath);
+        IncrementalRecordReader reader = new IncrementalRecordReader(parserTemplate, charset);
+        List<Object> records = reader.read(filePath, channel, channel.position(), previous);
+        FileCheckpoint checkpoint = reader.getCheckpoint();
+        log.info("[{}]Read {} new records of the file \"{}\". Next checkpoint: {}", txId, records.size(), filePath, checkpoint);
+
+        long ttlMillis = checkpointTtlHours * 3600000L;
+        if (commitCheckpointOnSuccess) {
+            ctx.addSession("$file_checkpoint@" + System.identityHashCode(checkpoint), new CheckpointCommitSession(ctx, store, checkpoint, ttlMillis, maxCheckpoints));
+        } else {
+            store.put(checkpoint, ttlMillis, maxCheckpoints);
+        }
+        return records;
+    }
+
+    /*
+     * 파일의 첫번째 줄을 읽고 channel 의 위치를 다음 줄의 시작 위치로 이동한다.
+     * 첫번째 줄의 끝(\n)이 없는 경우 null 을 반환한다.
+     */
+    private String readMetadataLine(FileChannel channel, Charset charset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        while (true) {
+            boolean eof = channel.read(buffer) < 0;
+            String head = new String(buffer.array(), 0, buffer.position(), charset);
+            int lineEndIdx = head.indexOf('\n');
+            if (lineEndIdx != -1) {
+                String line = head.substring(0, lineEndIdx);
+                channel.position((line + "\n").getBytes(charset).length);
+                return line;
+            }
+            if (eof)
+                return null;
+            if (!buffer.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+    }
+
+    /*
+     * stream 에서 파일의 첫번째 줄을 읽는다. stream 은 다음 줄의 시작 위치까지 읽힌 상태가 된다.
+     * 첫번째 줄의 끝(\n)이 없는 경우 null 을 반환한다.
+     */
+    private String readMetadataLine(InputStream in, Charset charset) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(1024);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n')
+                return new String(line.toByteArray(), charset);
+            line.write(b);
+        }
+        return null;
     }
 
     private void throwExceptionIfMetadataInvalid(Map<String, Object> metadata) {
@@ -337,11 +619,36 @@ public class ReadFile extends SourceAccessService implements Serializable {
 
     public void setOutputDataType(DataType outputDataType) {
         switch (outputDataType) {
-            case STRING: case BYTE_ARRAY: case PARSED_TEXT: this.outputDataType = outputDataType; break;
+            case STRING: case BYTE_ARRAY: case PARSED_TEXT:
+            case MAPPED_BUFFER: case BYTE_CHUNKS: case INPUT_STREAM: this.outputDataType = outputDataType; break;
             default: throw new IllegalArgumentException("Unsupported output data type: " + outputDataType);
         }
     }
 
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be greater than 0. Inputted value: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    public void setCheckpointTtlHours(int checkpointTtlHours) {
+        if (checkpointTtlHours < 0)
+            throw new IllegalArgumentException("The checkpoint ttl hours must not be negative. Inputted value: " + checkpointTtlHours);
+        this.checkpointTtlHours = checkpointTtlHours;
+    }
+
+    public void setMaxCheckpoints(int maxCheckpoints) {
+        if (maxCheckpoints < 1)
+            throw new IllegalArgumentException("The max checkpoints must be greater than 0. Inputted value: " + maxCheckpoints);
+        this.maxCheckpoints = maxCheckpoints;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("The chunkSize must be greater than 0. Inputted value: " + chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
     public void setDelimiter(String delimiter) {
         if (delimiter.equals(recordSeparator))
             throw new IllegalArgumentException("The delimiter '" + delimiter + "' must be different with recordSeparator '" + recordSeparator + "'");
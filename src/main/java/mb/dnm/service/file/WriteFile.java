@@ -2,19 +2,28 @@ package mb.dnm.service.file;
 
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.db.RowCursor;
+import mb.dnm.access.file.DelimitedRecordWriter;
 import mb.dnm.access.file.FileParser;
+import mb.dnm.access.file.FileParserTemplate;
 import mb.dnm.access.file.FileTemplate;
+import mb.dnm.code.BinaryEncoding;
+import mb.dnm.code.CompressionType;
 import mb.dnm.code.DirectoryType;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.exeption.InvalidServiceConfigurationException;
 import mb.dnm.service.SourceAccessService;
 import mb.dnm.storage.InterfaceInfo;
+import mb.dnm.util.CompressionUtil;
 import mb.dnm.util.MessageUtil;
 import mb.dnm.util.SortingUtil;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -27,7 +36,8 @@ import java.util.*;
  * <br>
  * <br>
  * *<b>Input</b>: 생성할 파일의 데이터<br>
- * *<b>Input type</b>: {@code byte[]}, {@code String}, {@code Map<String, Object>}, {@code List<Map<String, Object>>}
+ * *<b>Input type</b>: {@code byte[]}, {@code String}, {@code Map<String, Object>}, {@code List<Map<String, Object>>}, {@link RowCursor},
+ * {@code Iterable<Map<String, Object>>}, {@code Iterator<Map<String, Object>>}
  * <br>
  * <br>
  * *<b>Output</b>: 파일이 성성/저장된 경로<br>
@@ -187,6 +197,20 @@ public class WriteFile extends SourceAccessService implements Serializable {
      * </pre>
      * */
     private boolean handleBinaryAsItIs = true;
+    /**
+     * 기본값: DECIMAL<br>
+     * handleBinaryAsItIs = true 인 경우 바이트 배열을 BINARY_DATA_WRAPPER(<![BINARY[...]]>) 안에 어떤 형식으로 작성할 지에 대한 설정이다.<br>
+     * {@code BASE64} 또는 {@code HEX} 는 {@code DECIMAL} 보다 파일의 크기가 작고 빠르게 읽을 수 있다.
+     * addMetadata = true 인 경우 메타데이터의 {@code binary_encoding} 속성에 기록되어 {@link ReadFile} 이 자동으로 인식한다.<br>
+     * <i>예시)</i>
+     * <pre>
+     *    DECIMAL → <![BINARY[65 66 67]]>
+     *    BASE64  → <![BINARY[QUJD]]>
+     *    HEX     → <![BINARY[414243]]>
+     * </pre>
+     * @see BinaryEncoding
+     * */
+    private BinaryEncoding binaryEncoding = BinaryEncoding.DECIMAL;
 
     /**
      * 파일명 앞에 붙일 접두사에 대한 설정<br>
@@ -221,6 +245,21 @@ public class WriteFile extends SourceAccessService implements Serializable {
      * */
     private Charset commonCharset;
 
+    /**
+     * 기본값: NONE<br>
+     * 파일을 쓰면서 압축할 방식이다. {@code NONE} 이 아닌 경우 파일명이 압축 방식의 확장자(.gz, .bz2)로 끝나지 않으면 확장자가 추가되며,
+     * {@link ReadFile} 의 {@code compression} 속성을 같은 값으로 지정하여 압축을 해제하며 읽을 수 있다.<br>
+     * {@code overwrite} 가 false 인 경우 기존 파일의 끝에 새로운 압축 member 로 덧붙여진다.
+     * @see CompressionType
+     * */
+    private CompressionType compression = CompressionType.NONE;
+
+    /**
+     * 기본값: -1 (압축 방식의 기본값)<br>
+     * {@code compression} 이 {@code NONE} 이 아닌 경우 압축 레벨(1~9)이다. 1 은 압축 속도를, 9 는 압축률을 우선한다.
+     * */
+    private int compressionLevel = CompressionUtil.DEFAULT_LEVEL;
+
     @Override
     public void process(ServiceContext ctx) throws Throwable {
         if (getInput() == null) {
@@ -303,7 +342,7 @@ public class WriteFile extends SourceAccessService implements Serializable {
 
         String contentStr = null;
         byte[] contentBytes = null;
-        List<Map<String, Object>> contentListMap = null;
+        Iterable<Map<String, Object>> contentListMap = null;
         try {
             if (inputVal != null) { //allowCreateEmptyFile = true 인 경우 현재 위치에서 inputVal이 null 일 수 있기 때문에 null 인지 검증
                 if (inputVal instanceof byte[]) {
@@ -313,12 +352,24 @@ public class WriteFile extends SourceAccessService implements Serializable {
                     contentStr = new String(inputVal.toString().getBytes(charset), charset);
 
                 } else if (inputVal instanceof Map) {
-                    contentListMap = new ArrayList<>();
-                    contentListMap.add((Map<String, Object>) inputVal);
+                    contentListMap = Collections.singletonList((Map<String, Object>) inputVal);
 
                 } else if (inputVal instanceof List) {
                     contentListMap = (List<Map<String, Object>>) inputVal;
 
+                } else if (inputVal instanceof Iterable) {
+                    //RowCursor 등 row 를 하나씩 가져오는 객체
+                    contentListMap = (Iterable<Map<String, Object>>) inputVal;
+
+                } else if (inputVal instanceof Iterator) {
+                    final Iterator<Map<String, Object>> iterator = (Iterator<Map<String, Object>>) inputVal;
+                    contentListMap = new Iterable<Map<String, Object>>() {
+                        @Override
+                        public Iterator<Map<String, Object>> iterator() {
+                            return iterator;
+                        }
+                    };
+
                 } else {
                     throw new ClassCastException();
                 }
@@ -326,9 +377,12 @@ public class WriteFile extends SourceAccessService implements Serializable {
                 contentBytes = new byte[0];
             }
         } catch (ClassCastException ce) {
-            throw new InvalidServiceConfigurationException(this.getClass(), "The type of the input parameter value is not contained in [String, byte[], Map<String, Object>, List<Map<String, Object>>]. Inputted value's type: " + inputVal.getClass().getName());
+            throw new InvalidServiceConfigurationException(this.getClass(), "The type of the input parameter value is not contained in [String, byte[], Map<String, Object>, List<Map<String, Object>>, Iterable<Map<String, Object>>, Iterator<Map<String, Object>>]. Inputted value's type: " + inputVal.getClass().getName());
         }
 
+        if (compression != CompressionType.NONE) {
+            filename = CompressionUtil.appendExtension(filename, compression);
+        }
         Path filePath = path.resolve(filename);
         if (overwrite) {
             if (Files.exists(filePath)) {
@@ -338,42 +392,29 @@ public class WriteFile extends SourceAccessService implements Serializable {
         }
         log.info("[{}]Writing file to \"{}\" ...", txId, savePath);
 
-        OutputStream os = null;
         long filesize = 0;
         try {
-            //addMetadata 가 true 이고 input 된 데이터의 타입이 Map<String, Object> 또는 List<Map<String, Object>>인 경우에만 메타데이터를 작성한다.
-            if (addMetadata && contentListMap != null) {
-                log.debug("[{}]Adding metadata to \"{}\"", txId, filePath);
-                if (Files.exists(filePath)) {
-                    if (Files.size(path) != 0) {
-                        throw new IllegalStateException("The file " + filePath + "'s content is exists. Can not write metadata.");
-                    }
-                } else {
-                    Files.createFile(filePath);
-                }
-                Map<String, Object> metadata = new LinkedHashMap<>();
-                metadata.put("add_header", addHeader);
-                metadata.put("record_separator", recordSeparator);
-                metadata.put("delimiter", delimiter);
-                metadata.put("qualifier", qualifier);
-                metadata.put("replacement_of_null_value", replacementOfNullValue);
-                metadata.put("replacement_of_empty_value", replacementOfEmptyValue);
-                metadata.put("replacement_of_line_feed", replacementOfLineFeed);
-                metadata.put("replacement_of_carriage_return", replacementOfCarriageReturn);
-                metadata.put("handle_binary_as_it_is", handleBinaryAsItIs);
-                metadata.put("handle_binary_to_string", handleBinaryToString);
-                StringBuilder mdbd = new StringBuilder();
-                mdbd.append("<![METADATA[")
-                        .append(MessageUtil.mapToJson(metadata, false))
-                        .append("]]>\n");
-
-                Files.write(filePath, mdbd.toString().getBytes(charset), StandardOpenOption.APPEND);
-                filesize = Files.size(filePath);
-            }
             if (contentListMap != null) {
+                if (handleBinaryAsItIs && binaryEncoding == BinaryEncoding.BASE64 && qualifier.isEmpty()
+                        && (containsAny(delimiter, "+/=") || containsAny(recordSeparator, "+/="))) {
+                    throw new InvalidServiceConfigurationException(this.getClass(), "The delimiter and recordSeparator must not contain BASE64 characters '+', '/', '=' when the qualifier is empty.");
+                }
+                //addMetadata 가 true 이고 input 된 데이터의 타입이 Map<String, Object> 또는 List<Map<String, Object>>인 경우에만 메타데이터를 작성한다.
+                if (addMetadata && Files.exists(filePath) && Files.size(filePath) != 0) {
+                    throw new IllegalStateException("The file " + filePath + "'s content is exists. Can not write metadata.");
+                }
                 log.debug("[{}]Content type: formatted text \"{}\"", txId, filePath);
-                os = Files.newOutputStream(filePath, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-                filesize += writeFileAsFormattedData(filePath, charset, contentListMap, os);
+                WritableByteChannel channel = openChannel(filePath);
+                try (DelimitedRecordWriter writer = new DelimitedRecordWriter(channel, charset, newParserTemplate(), handleBinaryToString)) {
+                    if (addMetadata) {
+                        log.debug("[{}]Adding metadata to \"{}\"", txId, filePath);
+                        writeMetadata(writer);
+                    }
+                    writeFileAsFormattedData(writer, contentListMap);
+                    writer.flush();
+                    filesize = writer.getBytesWritten();
+                    log.debug("[{}]{} records written", txId, writer.getRecordCount());
+                }
             } else if (contentStr != null) {
                 log.debug("[{}]Content type: text \"{}\"", txId, filePath);
                 filesize += writeFile(filePath, charset, contentStr);
@@ -381,15 +422,15 @@ public class WriteFile extends SourceAccessService implements Serializable {
                 log.debug("[{}]Content type: bytes \"{}\"", txId, filePath);
                 filesize += writeFile(filePath, charset, contentBytes);
             }
-            log.info("[{}]The file was saved at \"{}\"", txId, filePath, savePath);
+            if (compression != CompressionType.NONE) {
+                log.info("[{}]The file was saved at \"{}\". Size: {} bytes (uncompressed: {} bytes, compression: {})", txId, filePath, Files.size(filePath), filesize, compression);
+            } else {
+                log.info("[{}]The file was saved at \"{}\". Size: {} bytes", txId, filePath, filesize);
+            }
         } catch (Throwable t) {
             Files.deleteIfExists(filePath);
             log.warn("[{}]An error occurred while writing file to \"{}\". Error file is deleted", txId, savePath);
             throw t;
-        } finally {
-            if (os != null) {
-                os.close();
-            }
         }
 
         if (getOutput() != null) {
@@ -398,25 +439,60 @@ public class WriteFile extends SourceAccessService implements Serializable {
 
     }
 
+    //compression 이 NONE 이 아닌 경우 쓰는 데이터를 압축하는 channel 을 연다. channel 을 닫아야 압축이 완료된다.
+    private WritableByteChannel openChannel(Path filePath) throws IOException {
+        if (compression == CompressionType.NONE) {
+            return FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        OutputStream out = Files.newOutputStream(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return Channels.newChannel(CompressionUtil.compress(out, compression, compressionLevel));
+    }
+
+    private FileParserTemplate newParserTemplate() {
+        return new FileParserTemplate(recordSeparator, delimiter, qualifier,
+                replacementOfNullValue, replacementOfEmptyValue, replacementOfLineFeed,
+                replacementOfCarriageReturn, addHeader, handleBinaryAsItIs, binaryEncoding);
+    }
+
+    private static boolean containsAny(String value, String chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            if (value.indexOf(chars.charAt(i)) != -1)
+                return true;
+        }
+        return false;
+    }
+
+    private void writeMetadata(DelimitedRecordWriter writer) throws IOException {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("add_header", addHeader);
+        metadata.put("record_separator", recordSeparator);
+        metadata.put("delimiter", delimiter);
+        metadata.put("qualifier", qualifier);
+        metadata.put("replacement_of_null_value", replacementOfNullValue);
+        metadata.put("replacement_of_empty_value", replacementOfEmptyValue);
+        metadata.put("replacement_of_line_feed", replacementOfLineFeed);
+        metadata.put("replacement_of_carriage_return", replacementOfCarriageReturn);
+        metadata.put("handle_binary_as_it_is", handleBinaryAsItIs);
+        metadata.put("handle_binary_to_string", handleBinaryToString);
+        metadata.put("binary_encoding", binaryEncoding.name());
+        writer.write("<![METADATA[" + MessageUtil.mapToJson(metadata, false) + "]]>\n");
+    }
+
     /**
-     * @param path 
-     * 파일이 저장될 경로
-     * @param charset
-     * 파일의 인코딩
+     * @param writer
+     * 파일에 데이터를 쓰는 writer
      * @param content
-     * 파일에 쓰일 데이터
-     * @return 생성된 파일의 크기
+     * 파일에 쓰일 데이터. RowCursor 등이 input 된 경우 첫번째 row 부터 한 row 씩 가져와 작성한다.
      * */
-    private long writeFileAsFormattedData(Path path, Charset charset, List<Map<String, Object>> content, OutputStream os) throws IOException {
-        if (content.size() == 0) {
-            if (!Files.exists(path)) {
-                Files.createFile(path);
-            }
-            return 0;
+    private void writeFileAsFormattedData(DelimitedRecordWriter writer, Iterable<Map<String, Object>> content) throws IOException {
+        Iterator<Map<String, Object>> rows = content.iterator();
+        if (!rows.hasNext()) {
+            return;
         }
 
-        //헤더(컬럼명) 작성 시작
-        List<String> columns = new ArrayList<>(content.get(0).keySet());
+        //헤더(컬럼명) 작성 시작. 첫번째 row 의 KeySet 이 컬럼명으로 사용된다.
+        Map<String, Object> firstRow = rows.next();
+        List<String> columns = new ArrayList<>(firstRow.keySet());
         if (addHeader) {
             //headerColumnSorting 이 1 또는 -1 인 경우 파일의 헤더 컬럼을 정렬한다.
             if (headerColumnSorting == 1) {
@@ -424,88 +500,14 @@ public class WriteFile extends SourceAccessService implements Serializable {
             } else if (headerColumnSorting == -1) {
                 SortingUtil.sortList(columns, SortingUtil.Sorting.DESC);
             }
-
-            StringBuffer headerBf = new StringBuffer();
-            for (String column : columns) {
-                headerBf.append(qualifier).append(column).append(qualifier).append(delimiter);
-            }
-            if (headerBf.length() > 0) {
-                headerBf.setLength(headerBf.length() - delimiter.length());
-                headerBf.append(recordSeparator);
-            }
-            os.write(headerBf.toString().getBytes(charset));
+            writer.writeHeader(columns);
         }
 
-
-        long bytesWritten = 0;
-
         //파일 본문 작성시작
-        for (Map<String, Object> row : content) {
-            StringBuffer rowBf = new StringBuffer();
-
-            for (String column : columns) {
-                Object objVal = row.get(column);
-                String val = null;
-                if (objVal == null) {
-                    val = replacementOfNullValue;
-                } else {
-                    Class clazz = objVal.getClass();
-                    if (clazz == byte[].class) { //데이터 타입이 바이트 배열인 경우 이 서비스의 설정에 따라 바이트배열이 문자열로 변환되거나 그대로 쓰여진다.
-                        if (handleBinaryToString) {
-                            val = new String((byte[]) objVal, charset);
-                        } else if (handleBinaryAsItIs) {
-                            StringBuffer byteBf = new StringBuffer("<![BINARY[");
-                            for (byte b : (byte[]) objVal) {
-                                byteBf.append(b).append(" ");
-                            }
-                            if (byteBf.length() > 0) {
-                                byteBf.setLength(byteBf.length() - 1);
-                            }
-                            byteBf.append("]]>");
-                            val = byteBf.toString();
-                        }
-                    } else {
-                        val = String.valueOf(objVal);
-                    }
-                }
-                if (val.isEmpty()) {
-                    val = replacementOfEmptyValue;
-                }
-                rowBf.append(qualifier).append(val).append(qualifier).append(delimiter);
-            }
-
-            //Carriage Return 과 Line Feed 를 교체하는 과정
-            while (true) {
-                int crIdx = rowBf.indexOf("\r");
-                int lfIdx = rowBf.indexOf("\n");
-
-                if (crIdx != -1) {
-                    rowBf.deleteCharAt(crIdx);
-                    rowBf.insert(crIdx, replacementOfCarriageReturn);
-                    continue;
-                }
-                if (lfIdx != -1) {
-                    rowBf.deleteCharAt(lfIdx);
-                    rowBf.insert(lfIdx, replacementOfLineFeed);
-                    continue;
-                }
-                if (crIdx == -1 && lfIdx == -1) {
-                    break;
-                }
-            }
-
-            //문자열의 끝부분 불필요한 delimiter를 제거한 뒤 각 라인을 구분할 수 있는 구분자를 추가한다.
-            if (rowBf.length() > 0) {
-                rowBf.setLength(rowBf.length() - delimiter.length());
-                rowBf.append(recordSeparator);
-            }
-
-            byte[] dataToWrite = rowBf.toString().getBytes(charset);
-            os.write(dataToWrite);
-            bytesWritten += dataToWrite.length;
+        writer.writeRecord(firstRow, columns);
+        while (rows.hasNext()) {
+            writer.writeRecord(rows.next(), columns);
         }
-
-        return bytesWritten;
     }
 
     /**
@@ -532,7 +534,13 @@ public class WriteFile extends SourceAccessService implements Serializable {
      * @return 생성된 파일의 크기
      * */
     private long writeFile(Path path, Charset charset, byte[] content) throws IOException {
-        Files.write(path, content, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (compression == CompressionType.NONE) {
+            Files.write(path, content, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } else {
+            try (OutputStream out = CompressionUtil.compress(Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), compression, compressionLevel)) {
+                out.write(content);
+            }
+        }
         return content.length;
     }
 
@@ -682,6 +690,11 @@ public class WriteFile extends SourceAccessService implements Serializable {
         this.handleBinaryAsItIs = handleBinaryAsItIs;
     }
 
+    public void setCompressionLevel(int compressionLevel) {
+        CompressionUtil.checkLevel(compressionLevel);
+        this.compressionLevel = compressionLevel;
+    }
+
     public void setHeaderColumnSorting(int headerColumnSorting) {
         switch (headerColumnSorting) {
             case -1 : case 0 : case 1 : this.headerColumnSorting = headerColumnSorting;
@@ -1,10 +1,13 @@
 package mb.dnm.service.ftp;
 
+import mb.dnm.access.ftp.FTPClientTemplate;
 import mb.dnm.access.ftp.FTPSession;
+import mb.dnm.access.ftp.FTPSourceProvider;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.exeption.InvalidServiceConfigurationException;
 import mb.dnm.service.SourceAccessService;
 import mb.dnm.storage.InterfaceInfo;
+import org.apache.commons.net.ftp.FTP;
 
 import java.io.Serializable;
 
@@ -41,5 +44,29 @@ public abstract class AbstractFTPService extends SourceAccessService implements
         return super.getSourceName(info);
     }
 
+    /**
+     * FTP 서버의 cache 된 디렉터리 목록({@link mb.dnm.access.ftp.FTPListingCache})을 제거한다.<br>
+     * FTP 서버의 파일을 변경하는 서비스는 변경을 시작하기 전과, 변경이 끝난 뒤 {@code finally} 에서 호출한다.
+     * 변경하는 동안 다른 Thread 의 {@link ListFiles} 가 변경 전의 목록을 다시 cache 할 수 있기 때문이다.
+     *
+     * @param srcName the src name
+     */
+    protected void invalidateListing(String srcName) {
+        FTPSourceProvider.access().invalidateListing(srcName);
+    }
+
+    /**
+     * 이어서 전송하는 REST, APPE 명령과 파일의 크기를 확인하는 SIZE 명령은 BINARY 전송에서만 로컬 파일과 byte 단위로 일치하므로
+     * {@link mb.dnm.access.ftp.ResumableTransfer} 를 사용하는 서비스는 FTP 소스의 fileType 이 BINARY 인지 확인한다.
+     *
+     * @param srcName the src name
+     */
+    protected void checkResumableFileType(String srcName) {
+        FTPClientTemplate template = FTPSourceProvider.access().getFtpClientTemplate(srcName);
+        if (template != null && template.getFileType() != FTP.BINARY_FILE_TYPE) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "The resumable transfer is supported only when the fileType of the FTP source '" + srcName + "' is BINARY_FILE_TYPE");
+        }
+    }
+
 
 }
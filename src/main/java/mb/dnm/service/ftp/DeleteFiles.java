@@ -107,59 +107,63 @@ public class DeleteFiles extends AbstractFTPService implements Serializable {
             session = (FTPSession) ctx.getSession(srcName);
         }
         FTPClient ftp = session.getFTPClient();
+        invalidateListing(srcName);
+        try {
+            // 파일 삭제 중 에러가 나는 경우 그 파일의 FTP 경로가 담길 리스트를 생성
+            List<String> errorFilePaths = new ArrayList<>();
+            int inputListSize = targetFileNames.size();
+            int successCount = 0;
 
-        // 파일 삭제 중 에러가 나는 경우 그 파일의 FTP 경로가 담길 리스트를 생성
-        List<String> errorFilePaths = new ArrayList<>();
-        int inputListSize = targetFileNames.size();
-        int successCount = 0;
-
-        // 최하위 파일부터 삭제하기 위한 정렬
-        Collections.sort(targetFileNames, new Comparator<String>() {
-            @Override
-            public int compare(String o1, String o2) {
-                return o2.compareToIgnoreCase(o1);
-            }
-        });
-
-        List<String> deletedFileList = new ArrayList<>();
-        log.info("[{}]Deleting files ...", txId);
-        for (String targetFileName : targetFileNames) {
-            try {
-                boolean deleted = false;
-                if (targetFileName.endsWith("/")) {
-                    deleted = ftp.removeDirectory(targetFileName);
-                } else {
-                    deleted = ftp.deleteFile(targetFileName);
+            // 최하위 파일부터 삭제하기 위한 정렬
+            Collections.sort(targetFileNames, new Comparator<String>() {
+                @Override
+                public int compare(String o1, String o2) {
+                    return o2.compareToIgnoreCase(o1);
                 }
-                if (deleted) {
-                    ++successCount;
-                    deletedFileList.add(targetFileName);
-                    if (debuggingWhenDeleted) {
-                        log.debug("[{}]The file '{}' is deleted.", txId, targetFileName);
+            });
+
+            List<String> deletedFileList = new ArrayList<>();
+            log.info("[{}]Deleting files ...", txId);
+            for (String targetFileName : targetFileNames) {
+                try {
+                    boolean deleted = false;
+                    if (targetFileName.endsWith("/")) {
+                        deleted = ftp.removeDirectory(targetFileName);
+                    } else {
+                        deleted = ftp.deleteFile(targetFileName);
+                    }
+                    if (deleted) {
+                        ++successCount;
+                        deletedFileList.add(targetFileName);
+                        if (debuggingWhenDeleted) {
+                            log.debug("[{}]The file '{}' is deleted.", txId, targetFileName);
+                        }
+                    } else {
+                        String reply = ftp.getReplyString();
+                        log.debug("[{}]Could not delete the file '{}'. Reply: {}", txId, targetFileName, reply);
+                    }
+                } catch (Throwable t) {
+                    if (ignoreErrorFile) {
+                        errorFilePaths.add(targetFileName);
+                        log.warn("[{}]Exception occurred when deleting file but ignored. Cause: {}", txId, MessageUtil.toString(t));
+                    } else {
+                        throw t;
                     }
-                } else {
-                    String reply = ftp.getReplyString();
-                    log.debug("[{}]Could not delete the file '{}'. Reply: {}", txId, targetFileName, reply);
-                }
-            } catch (Throwable t) {
-                if (ignoreErrorFile) {
-                    errorFilePaths.add(targetFileName);
-                    log.warn("[{}]Exception occurred when deleting file but ignored. Cause: {}", txId, MessageUtil.toString(t));
-                } else {
-                    throw t;
                 }
             }
-        }
 
-        if (getOutput() != null) {
-            setOutputValue(ctx, deletedFileList);
-        }
-        if (getErrorOutput() != null) {
-            if (!errorFilePaths.isEmpty()) {
-                setErrorOutputValue(ctx, errorFilePaths);
+            if (getOutput() != null) {
+                setOutputValue(ctx, deletedFileList);
+            }
+            if (getErrorOutput() != null) {
+                if (!errorFilePaths.isEmpty()) {
+                    setErrorOutputValue(ctx, errorFilePaths);
+                }
             }
+            log.info("[{}]File delete result: input_count={}, delete_success={}, error_count={}"
+                    , txId, inputListSize, successCount, errorFilePaths.size());
+        } finally {
+            invalidateListing(srcName);
         }
-        log.info("[{}]File delete result: input_count={}, delete_success={}, error_count={}"
-                , txId, inputListSize, successCount, errorFilePaths.size());
     }
 }
@@ -2,14 +2,19 @@ package mb.dnm.service.ftp;
 
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.file.DuplicateFileFilter;
 import mb.dnm.access.file.FileList;
 import mb.dnm.access.ftp.FTPSession;
+import mb.dnm.access.ftp.ParallelFTPTransfer;
+import mb.dnm.access.ftp.ResumableTransfer;
+import mb.dnm.code.CompressionType;
 import mb.dnm.code.DataType;
 import mb.dnm.code.DirectoryType;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.exeption.InvalidServiceConfigurationException;
 import mb.dnm.access.file.FileTemplate;
 import mb.dnm.storage.InterfaceInfo;
+import mb.dnm.util.CompressionUtil;
 import mb.dnm.util.FileUtil;
 import mb.dnm.util.MessageUtil;
 import org.apache.commons.net.ftp.FTPClient;
@@ -68,16 +73,57 @@ public class DownloadFiles extends AbstractFTPService implements Serializable {
     private boolean deleteDownloadedFileWhenError = true;
 
     private DirectoryType directoryType = DirectoryType.LOCAL_RECEIVE;
+    /**
+     * 기본값: null<br>
+     * 지정된 경우 다운로드 한 파일 중 이미 처리한 파일과 같은 내용의 파일을 로컬 저장경로에서 삭제하고 output 에서 제외한다.
+     * {@code downloadType} 이 BYTE_ARRAY 인 경우에는 적용되지 않는다.
+     * @see DuplicateFileFilter
+     * */
+    private DuplicateFileFilter duplicateFilter;
+    /**
+     * 기본값: NONE<br>
+     * FTP 서버의 파일이 압축된 방식이다. {@code NONE} 이 아닌 경우 다운로드 하면서 압축을 해제하여 저장하거나 output 하며,
+     * 파일명이 압축 방식의 확장자(.gz, .bz2)로 끝나는 경우 확장자를 제거한 이름으로 저장한다.
+     * @see CompressionType
+     * */
+    private CompressionType compression = CompressionType.NONE;
+    /**
+     * 기본값: 1<br>
+     * 파일을 동시에 다운로드 할 FTP session 의 수이다. 1보다 큰 경우 같은 {@code FTPClientTemplate} 으로 최대 {@code parallelism - 1} 개의 session 을 추가로 열어
+     * 다운로드 할 파일들을 나누어 다운로드 하며, 추가로 연 session 은 다운로드가 끝나면 닫는다.
+     * output 의 순서와 에러 처리 방식은 1인 경우와 같다.
+     * @see ParallelFTPTransfer
+     * @see mb.dnm.access.ftp.FTPConnectionPool
+     * */
+    private int parallelism = 1;
+    /**
+     * 기본값: false<br>
+     * true 인 경우 파일을 {@code .part} 파일로 다운로드 한 뒤 크기를 검증하고 원래의 이름으로 변경한다.
+     * 다운로드가 중단된 경우 {@code .part} 파일은 삭제되지 않으며, 다음 다운로드 시 FTP 서버의 파일이 변경되지 않았다면 중단된 지점부터 이어받는다.
+     * {@code downloadType} 이 FILE 이고 {@code compression} 이 NONE 이며 FTP 소스의 {@code fileType} 이 BINARY 인 경우에만 사용할 수 있다.
+     * @see ResumableTransfer
+     * */
+    private boolean resumable = false;
 
     @Override
     public void process(ServiceContext ctx) throws Throwable {
         if (getInput() == null) {
             throw new InvalidServiceConfigurationException(this.getClass(), "DownloadFiles service must have the input parameter in which contain the files to download");
         }
+        if (duplicateFilter != null && duplicateFilter.getHashIndexFile() == null) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "The 'hashIndexFile' property of the 'duplicateFilter' is required");
+        }
+
+        if (resumable && (downloadType != DataType.FILE || compression != CompressionType.NONE)) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "The resumable download is supported only when the downloadType is FILE and the compression is NONE");
+        }
 
         InterfaceInfo info = ctx.getInfo();
         String srcName = getFTPSourceName(info);
         String txId = ctx.getTxId();
+        if (resumable) {
+            checkResumableFileType(srcName);
+        }
 
         //input으로 전달된 다운로드 대상 파일에 대한 정보의 타입을 검증하고 이 서비스에서 사용되는 공통된 형식으로 맞춰주는 과정
         Object inputVal = getInputValue(ctx);
@@ -175,88 +221,55 @@ public class DownloadFiles extends AbstractFTPService implements Serializable {
 
             List<String> localSavedPaths = new ArrayList<>();
 
-            for (String ftpPath : targetFileNames) {
-                Path localPath = null;
-                
-                //saveStructureAsIs가 true인 경우 즉, input 객체로 FileList가 전달된 경우 FTP 서버의 디렉터리 구조를 그대로 하여 파일을 다운로드 하기 위해 로컬에도 동일한 디렉터리 구조를 만드는 과정이다.
-                if (saveStructureAsIs) {
-                    StringBuffer dirToMadeBf = new StringBuffer();
-                    dirToMadeBf.append(savePath)
-                            .append(savePath.endsWith(File.separator) ? "" : File.separator);
-                    dirToMadeBf.append(FileUtil.replaceToOSFileSeparator(ftpPath));
-
-                    Path dirToMade = Paths.get(dirToMadeBf.toString());
-                    if (dirToMadeBf.charAt(dirToMadeBf.length() - 1) != File.separatorChar) {
-                        dirToMade = dirToMade.getParent();
-                    }
-                    if (!Files.exists(dirToMade)) {
-                        Files.createDirectories(dirToMade);
-                    }
-                    localPath = dirToMade.resolve(new File(ftpPath).getName());
-                } else {
-                    localPath = Paths.get(savePath, new File(ftpPath).getName());
-                }
-
-                OutputStream os = null;
-                try {
-                    //위에서 saveStructureAsIs가 true 인 경우 필요한 디렉터리들을 만들었다면 이 부분은 빈 파일을 생성하는 과정이다.
-                    if (!Files.exists(localPath)) {
-                        Files.createFile(localPath);
-                    }
-
-                    os = Files.newOutputStream(localPath);
-
-                    //파일경로가 디렉터리 구조인 경우에는 다운로드 시도 안함.
-                    if (!(ftpPath.endsWith(pathSeparator))) {
-                        if (ftp.retrieveFile(ftpPath, os)) {
-                            localSavedPaths.add(localPath.toString());
-                            ++successCount;
-                            log.debug("[{}]FTP download success. FTP file: \"{}\", Local file: \"{}\"", txId, ftpPath, localPath);
-                        } else {
-                            Files.deleteIfExists(localPath);
-                            log.warn("[{}]FTP download failed. File: \"{}\", Reply: {} ", txId, ftpPath, ftp.getReplyString().trim());
-                            if (!ignoreErrorFile) {
-                                throw new IllegalStateException("The file '" + ftpPath + "' is not found in the FTP server '" + srcName + "'.");
+            if (parallelism > 1 && inputListSize > 1) {
+                dirCount = downloadInParallel(ctx, srcName, session, targetFileNames, savePath, saveStructureAsIs, pathSeparator, localSavedPaths, errorFilePaths);
+                successCount = localSavedPaths.size();
+            } else {
+                for (String ftpPath : targetFileNames) {
+                    Path localPath = localPath(savePath, ftpPath, saveStructureAsIs);
+
+                    try {
+                        //파일경로가 디렉터리 구조인 경우에는 다운로드 시도 안함.
+                        if (!(ftpPath.endsWith(pathSeparator))) {
+                            if (downloadFile(ftp, ftpPath, localPath)) {
+                                localSavedPaths.add(localPath.toString());
+                                ++successCount;
+                                log.debug("[{}]FTP download success. FTP file: \"{}\", Local file: \"{}\"", txId, ftpPath, localPath);
+                            } else {
+                                Files.deleteIfExists(localPath);
+                                log.warn("[{}]FTP download failed. File: \"{}\", Reply: {} ", txId, ftpPath, ftp.getReplyString().trim());
+                                if (!ignoreErrorFile) {
+                                    throw new IllegalStateException("The file '" + ftpPath + "' is not found in the FTP server '" + srcName + "'.");
+                                }
                             }
+                        } else {
+                            ++dirCount;
                         }
-                    } else {
-                        ++dirCount;
-                    }
 
-                } catch (Throwable t) {
-                    if (getErrorOutput() != null && ignoreErrorFile) {
-                        // 2. 다운로드에 실패한 파일은 건너뛰고 계속 다운로드를 진행한 후, 실패한 파일의 FTP 서버 경로를 error output 으로 output 한다.<br>
-                        errorFilePaths.add(ftpPath);
-                        log.warn("[{}]Exception occurred during download the file \"{}\", but continue the download. Cause: {}", txId, ftpPath, MessageUtil.toString(t));
+                    } catch (Throwable t) {
+                        if (getErrorOutput() != null && ignoreErrorFile) {
+                            // 2. 다운로드에 실패한 파일은 건너뛰고 계속 다운로드를 진행한 후, 실패한 파일의 FTP 서버 경로를 error output 으로 output 한다.<br>
+                            errorFilePaths.add(ftpPath);
+                            log.warn("[{}]Exception occurred during download the file \"{}\", but continue the download. Cause: {}", txId, ftpPath, MessageUtil.toString(t));
 
-                    } else if (!deleteDownloadedFileWhenError && !ignoreErrorFile) {
-                        //3. 파일 다운로드 중 다운로드에 실패하면 다운로드에 성공한 파일은 그대로 두고 Exception 을 throw 한다.
-                        throw t;
+                        } else if (!deleteDownloadedFileWhenError && !ignoreErrorFile) {
+                            //3. 파일 다운로드 중 다운로드에 실패하면 다운로드에 성공한 파일은 그대로 두고 Exception 을 throw 한다.
+                            throw t;
 
-                    } else {
-                        //1. 파일 다운로드 중 다운로드에 실패하면 다운로드에 성공했던 모든 파일을 파일 저장경로에서 삭제한 뒤 Exception 을 throw 한다.(기본 설정값)
-                        //그 외
-                        for (String succFile : localSavedPaths) {
-                            Path succPath = Paths.get(succFile);
-                            if (Files.exists(succPath)) {
-                                try {
-                                    Files.delete(succPath);
-                                } catch (IOException e) {
-                                    log.warn("[{}]Failed to delete success file when error. Cause", MessageUtil.toString(t));
-                                }
-                            }
+                        } else {
+                            //1. 파일 다운로드 중 다운로드에 실패하면 다운로드에 성공했던 모든 파일을 파일 저장경로에서 삭제한 뒤 Exception 을 throw 한다.(기본 설정값)
+                            //그 외
+                            deleteDownloadedFiles(txId, localSavedPaths);
+                            throw t;
                         }
-                        throw t;
-                    }
-                } finally {
-                    if (os != null) {
-                        try {
-                            os.close();
-                        } catch (IOException ie) {}
                     }
                 }
             }
 
+            if (duplicateFilter != null && !localSavedPaths.isEmpty()) {
+                localSavedPaths = removeDuplicates(ctx, localSavedPaths);
+            }
+
             if (getOutput() != null) {
                 if (downloadType == DataType.FILE) {
                     if (localSavedPaths.size() == 1) {
@@ -286,34 +299,39 @@ public class DownloadFiles extends AbstractFTPService implements Serializable {
             // downloadType 이 dataTypeDataType.BYTE_ARRAY 인 경우 List<Map<String, byte[]>> 즉, List<Map<파일명, byte array형태의 파일데이터>> 형태로 ContextData에 저장됨
             List<Map<String, byte[]>> resultFileData = new ArrayList<>();
 
-            for (String ftpPath : targetFileNames) {
-                ByteArrayOutputStream os = new ByteArrayOutputStream();
-                try {
-                    //파일경로가 디렉터리 구조인 경우에는 다운로드 시도 안함.
-                    if (!(ftpPath.endsWith("/") || ftpPath.endsWith("\\"))) {
-                        if (ftp.retrieveFile(ftpPath, os)) {
-                            Map<String, byte[]> data = new HashMap<>();
-                            data.put(new File(ftpPath).getName(), os.toByteArray());
-                            resultFileData.add(data);
-                            ++successCount;
-                            log.debug("[{}]FTP download success. FTP file: \"{}\" saved as a byte array", txId, ftpPath);
+            if (parallelism > 1 && inputListSize > 1) {
+                dirCount = downloadBytesInParallel(ctx, srcName, session, targetFileNames, resultFileData, errorFilePaths);
+                successCount = resultFileData.size();
+            } else {
+                for (String ftpPath : targetFileNames) {
+                    ByteArrayOutputStream os = new ByteArrayOutputStream();
+                    try {
+                        //파일경로가 디렉터리 구조인 경우에는 다운로드 시도 안함.
+                        if (!(ftpPath.endsWith("/") || ftpPath.endsWith("\\"))) {
+                            if (retrieveFile(ftp, ftpPath, os)) {
+                                Map<String, byte[]> data = new HashMap<>();
+                                data.put(localFileName(ftpPath), os.toByteArray());
+                                resultFileData.add(data);
+                                ++successCount;
+                                log.debug("[{}]FTP download success. FTP file: \"{}\" saved as a byte array", txId, ftpPath);
+                            } else {
+                                log.warn("[{}]FTP download failed. File: \"{}\", Reply: {} ", txId, ftpPath, ftp.getReplyString().trim());
+                            }
                         } else {
-                            log.warn("[{}]FTP download failed. File: \"{}\", Reply: {} ", txId, ftpPath, ftp.getReplyString().trim());
+                            ++dirCount;
                         }
-                    } else {
-                        ++dirCount;
-                    }
-                } catch (Throwable t) {
-                    // 파일 다운로드 중 에러 발생하는 경우 무시하여 진행하는 옵션
-                    if (getErrorOutput() != null && ignoreErrorFile) {
-                        errorFilePaths.add(ftpPath);
-                        log.warn("[{}]Exception occurred during download the file \"{}\", but continue the download. Cause: {}", txId, ftpPath, MessageUtil.toString(t));
-                    } else {
-                        log.warn("[{}]FTP file download failed.", txId);
-                        throw t;
+                    } catch (Throwable t) {
+                        // 파일 다운로드 중 에러 발생하는 경우 무시하여 진행하는 옵션
+                        if (getErrorOutput() != null && ignoreErrorFile) {
+                            errorFilePaths.add(ftpPath);
+                            log.warn("[{}]Exception occurred during download the file \"{}\", but continue the download. Cause: {}", txId, ftpPath, MessageUtil.toString(t));
+                        } else {
+                            log.warn("[{}]FTP file download failed.", txId);
+                            throw t;
+                        }
+                    } finally {
+                        os.close();
                     }
-                } finally {
-                    os.close();
                 }
             }
             if (getOutput() != null) {
@@ -331,8 +349,231 @@ public class DownloadFiles extends AbstractFTPService implements Serializable {
 
     }
 
+    /*
+     * 파일들을 parallelism 개의 session 으로 동시에 다운로드 하고 디렉터리 경로의 수를 반환한다.
+     * 다운로드 결과는 input 의 순서대로 처리하므로 output 과 에러 처리 방식은 하나의 session 으로 다운로드 하는 경우와 같다.
+     */
+    private int downloadInParallel(ServiceContext ctx, final String srcName, FTPSession session, List<String> targetFileNames, String savePath
+            , boolean saveStructureAsIs, String pathSeparator, List<String> localSavedPaths, List<String> errorFilePaths) throws Throwable {
+        final String txId = ctx.getTxId();
+        final List<String> ftpPaths = new ArrayList<>();
+        final List<Path> localPaths = new ArrayList<>();
+        int dirCount = 0;
+        for (String ftpPath : targetFileNames) {
+            //파일경로가 디렉터리 구조인 경우에는 다운로드 시도 안함.
+            if (ftpPath.endsWith(pathSeparator)) {
+                ++dirCount;
+                continue;
+            }
+            ftpPaths.add(ftpPath);
+            localPaths.add(localPath(savePath, ftpPath, saveStructureAsIs));
+        }
 
+        final boolean continueOnError = getErrorOutput() != null && ignoreErrorFile;
+        List<Object> results = new ParallelFTPTransfer(srcName, parallelism).run(session, ftpPaths.size(), new ParallelFTPTransfer.Task() {
+            @Override
+            public Object transfer(FTPClient ftp, int index) throws Exception {
+                String ftpPath = ftpPaths.get(index);
+                Path localPath = localPaths.get(index);
+                if (downloadFile(ftp, ftpPath, localPath)) {
+                    log.debug("[{}]FTP download success. FTP file: \"{}\", Local file: \"{}\"", txId, ftpPath, localPath);
+                    return true;
+                }
+                Files.deleteIfExists(localPath);
+                log.warn("[{}]FTP download failed. File: \"{}\", Reply: {} ", txId, ftpPath, ftp.getReplyString().trim());
+                if (!ignoreErrorFile) {
+                    throw new IllegalStateException("The file '" + ftpPath + "' is not found in the FTP server '" + srcName + "'.");
+                }
+                return false;
+            }
+        }, !continueOnError);
+
+        Throwable error = null;
+        for (int i = 0; i < results.size(); i++) {
+            Object result = results.get(i);
+            String ftpPath = ftpPaths.get(i);
+            if (Boolean.TRUE.equals(result)) {
+                localSavedPaths.add(localPaths.get(i).toString());
+            } else if (result instanceof Throwable || (result == null && continueOnError)) {
+                Throwable t = result != null ? (Throwable) result : notTransferred(ftpPath);
+                if (continueOnError) {
+                    errorFilePaths.add(ftpPath);
+                    log.warn("[{}]Exception occurred during download the file \"{}\", but continue the download. Cause: {}", txId, ftpPath, MessageUtil.toString(t));
+                } else if (error == null) {
+                    error = t;
+                }
+            }
+        }
+        //다른 파일의 에러로 중단되지 않았는데 다운로드 되지 않은 파일이 있는 경우는 모든 session 의 연결이 끊어진 경우이다.
+        if (error == null && !continueOnError && results.contains(null)) {
+            error = notTransferred(ftpPaths.get(results.indexOf(null)));
+        }
+        if (error != null) {
+            if (deleteDownloadedFileWhenError || ignoreErrorFile) {
+                deleteDownloadedFiles(txId, localSavedPaths);
+            }
+            throw error;
+        }
+        return dirCount;
+    }
+
+    /*
+     * 파일들을 parallelism 개의 session 으로 동시에 다운로드 하여 byte array 로 저장하고 디렉터리 경로의 수를 반환한다.
+     */
+    private int downloadBytesInParallel(ServiceContext ctx, String srcName, FTPSession session, List<String> targetFileNames
+            , List<Map<String, byte[]>> resultFileData, List<String> errorFilePaths) throws Throwable {
+        final String txId = ctx.getTxId();
+        final List<String> ftpPaths = new ArrayList<>();
+        int dirCount = 0;
+        for (String ftpPath : targetFileNames) {
+            //파일경로가 디렉터리 구조인 경우에는 다운로드 시도 안함.
+            if (ftpPath.endsWith("/") || ftpPath.endsWith("\\")) {
+                ++dirCount;
+                continue;
+            }
+            ftpPaths.add(ftpPath);
+        }
+
+        final boolean continueOnError = getErrorOutput() != null && ignoreErrorFile;
+        List<Object> results = new ParallelFTPTransfer(srcName, parallelism).run(session, ftpPaths.size(), new ParallelFTPTransfer.Task() {
+            @Override
+            public Object transfer(FTPClient ftp, int index) throws Exception {
+                String ftpPath = ftpPaths.get(index);
+                ByteArrayOutputStream os = new ByteArrayOutputStream();
+                if (retrieveFile(ftp, ftpPath, os)) {
+                    log.debug("[{}]FTP download success. FTP file: \"{}\" saved as a byte array", txId, ftpPath);
+                    return os.toByteArray();
+                }
+                log.warn("[{}]FTP download failed. File: \"{}\", Reply: {} ", txId, ftpPath, ftp.getReplyString().trim());
+                return false;
+            }
+        }, !continueOnError);
+
+        for (int i = 0; i < results.size(); i++) {
+            Object result = results.get(i);
+            String ftpPath = ftpPaths.get(i);
+            if (result instanceof byte[]) {
+                Map<String, byte[]> data = new HashMap<>();
+                data.put(localFileName(ftpPath), (byte[]) result);
+                resultFileData.add(data);
+            } else if (result instanceof Throwable || result == null) {
+                Throwable t = result != null ? (Throwable) result : notTransferred(ftpPath);
+                if (continueOnError) {
+                    errorFilePaths.add(ftpPath);
+                    log.warn("[{}]Exception occurred during download the file \"{}\", but continue the download. Cause: {}", txId, ftpPath, MessageUtil.toString(t));
+                } else {
+                    log.warn("[{}]FTP file download failed.", txId);
+                    throw firstError(results, t);
+                }
+            }
+        }
+        return dirCount;
+    }
+
+    //중단되어 다운로드 되지 않은 파일보다 중단의 원인이 된 에러를 우선한다.
+    private static Throwable firstError(List<Object> results, Throwable defaultError) {
+        for (Object result : results) {
+            if (result instanceof Throwable)
+                return (Throwable) result;
+        }
+        return defaultError;
+    }
+
+    private static IllegalStateException notTransferred(String ftpPath) {
+        return new IllegalStateException("The file '" + ftpPath + "' is not downloaded because all FTP sessions were stopped.");
+    }
+
+    private void deleteDownloadedFiles(String txId, List<String> localSavedPaths) {
+        for (String succFile : localSavedPaths) {
+            Path succPath = Paths.get(succFile);
+            if (Files.exists(succPath)) {
+                try {
+                    Files.delete(succPath);
+                } catch (IOException e) {
+                    log.warn("[{}]Failed to delete success file when error. Cause: {}", txId, MessageUtil.toString(e));
+                }
+            }
+        }
+    }
+
+    //saveStructureAsIs가 true인 경우 즉, input 객체로 FileList가 전달된 경우 FTP 서버의 디렉터리 구조를 그대로 하여 파일을 다운로드 하기 위해 로컬에도 동일한 디렉터리 구조를 만드는 과정이다.
+    private Path localPath(String savePath, String ftpPath, boolean saveStructureAsIs) throws IOException {
+        if (!saveStructureAsIs)
+            return Paths.get(savePath, localFileName(ftpPath));
+
+        StringBuffer dirToMadeBf = new StringBuffer();
+        dirToMadeBf.append(savePath)
+                .append(savePath.endsWith(File.separator) ? "" : File.separator);
+        dirToMadeBf.append(FileUtil.replaceToOSFileSeparator(ftpPath));
+
+        Path dirToMade = Paths.get(dirToMadeBf.toString());
+        if (dirToMadeBf.charAt(dirToMadeBf.length() - 1) != File.separatorChar) {
+            dirToMade = dirToMade.getParent();
+        }
+        if (!Files.exists(dirToMade)) {
+            Files.createDirectories(dirToMade);
+        }
+        return dirToMade.resolve(localFileName(ftpPath));
+    }
+
+    //resumable 이 true 인 경우 .part 파일로 이어받은 뒤 localPath 로 이름을 변경한다.
+    private boolean downloadFile(FTPClient ftp, String ftpPath, Path localPath) throws IOException {
+        if (resumable)
+            return ResumableTransfer.download(ftp, ftpPath, localPath);
+        try (OutputStream os = Files.newOutputStream(localPath)) {
+            return retrieveFile(ftp, ftpPath, os);
+        }
+    }
 
+    //compression 이 NONE 이 아닌 경우 전송받은 데이터의 압축을 해제하면서 os 에 쓴다.
+    private boolean retrieveFile(FTPClient ftp, String ftpPath, OutputStream os) throws IOException {
+        if (compression == CompressionType.NONE)
+            return ftp.retrieveFile(ftpPath, os);
+        InputStream is = ftp.retrieveFileStream(ftpPath);
+        if (is == null)
+            return false;
+        try (InputStream in = CompressionUtil.decompress(is, compression)) {
+            CompressionUtil.copy(in, os);
+        } catch (IOException ie) {
+            //data connection 이 닫힌 뒤 전송 결과 응답을 읽어야 다음 명령을 실행할 수 있다.
+            try {
+                ftp.completePendingCommand();
+            } catch (IOException ignored) {}
+            throw ie;
+        }
+        return ftp.completePendingCommand();
+    }
+
+    private String localFileName(String ftpPath) {
+        return CompressionUtil.removeExtension(new File(ftpPath).getName(), compression);
+    }
+
+    //이미 처리한 파일과 같은 내용의 파일을 로컬 저장경로에서 삭제하고 나머지 파일의 경로를 반환한다.
+    private List<String> removeDuplicates(ServiceContext ctx, List<String> localSavedPaths) throws IOException {
+        List<Path> files = new ArrayList<>(localSavedPaths.size());
+        for (String localSavedPath : localSavedPaths) {
+            files.add(Paths.get(localSavedPath));
+        }
+        List<Path> duplicates = new ArrayList<>();
+        List<Path> passed = duplicateFilter.filter(ctx, files, duplicates);
+        for (Path duplicate : duplicates) {
+            Files.deleteIfExists(duplicate);
+        }
+        if (!duplicates.isEmpty()) {
+            log.info("[{}]{} downloaded files are deleted because the same contents were already processed.", ctx.getTxId(), duplicates.size());
+        }
+        List<String> result = new ArrayList<>(passed.size());
+        for (Path path : passed) {
+            result.add(path.toString());
+        }
+        return result;
+    }
+
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be greater than 0. Inputted value: " + parallelism);
+        this.parallelism = parallelism;
+    }
 
     public void setDownloadType(DataType downloadType) {
         switch (downloadType) {
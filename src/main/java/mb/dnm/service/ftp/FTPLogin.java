@@ -41,7 +41,12 @@ public class FTPLogin extends AbstractFTPService implements Serializable {
         String srcName = getFTPSourceName(info);
 
         FTPSession session = (FTPSession) ctx.getSession(srcName);
-        if (session == null) {
+        //연결이 끊어졌거나 pool 에 반환된 session 은 새로운 session 으로 교체한다.
+        if (session == null || !session.isConnected()) {
+            if (session != null) {
+                //서버가 연결을 끊은 pooled session 도 pool 에 반환되어야 사용 중인 connection 수에서 제외된다.
+                session.close();
+            }
             session = FTPSourceProvider.access().getNewSession(srcName);
             ctx.addSession(srcName, session);
             log.info("[{}]Login success. The FTPSession for '{}({}:{})' is gained.", ctx.getTxId(),
@@ -3,7 +3,10 @@ package mb.dnm.service.ftp;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import mb.dnm.access.file.FileList;
+import mb.dnm.access.ftp.FTPClientTemplate;
+import mb.dnm.access.ftp.FTPListingCache;
 import mb.dnm.access.ftp.FTPSession;
+import mb.dnm.access.ftp.FTPSourceProvider;
 import mb.dnm.code.DirectoryType;
 import mb.dnm.code.FileType;
 import mb.dnm.core.context.ServiceContext;
@@ -14,6 +17,9 @@ import mb.dnm.util.FileUtil;
 import org.apache.commons.io.filefilter.WildcardFileFilter;
 import org.apache.commons.net.ftp.FTPClient;
 import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileFilter;
+import org.apache.commons.net.ftp.FTPFileFilters;
+import org.apache.commons.net.ftp.FTPReply;
 
 import java.io.IOException;
 import java.io.Serializable;
@@ -27,6 +33,10 @@ import java.util.Map;
  * FTP 서버의 파일 또는 디렉터리 목록을 가져온다.
  * 가져올 파일의 디렉터리, 파일명 패턴 등에 대한 정보는 {@code InterfaceInfo} 에 저장된 {@code FileTemplate} 의 속성들로부터 가져온다.
  * <br>
+ * FTP 서버가 MLSD 명령을 지원하는 경우(FEAT 응답에 MLST 가 있는 경우) 서버마다 형식이 다른 LIST 대신 MLSD 로 목록을 가져온다.
+ * 파일명 패턴과 파일 유형은 목록을 parsing 할 때 적용되어 조건에 맞지 않는 파일은 목록에 담기지 않는다.
+ * {@code FTPSourceProvider} 에 {@link FTPListingCache} 가 등록된 경우 짧은 시간 안에 같은 디렉터리를 다시 탐색할 때 cache 된 목록을 사용한다.
+ * <br>
  * <br>
  * *<b>Input</b>: 목록을 가져올 디렉터리 경로<br>
  * *<b>Input type</b>: {@code String}
@@ -67,6 +77,23 @@ public class ListFiles extends AbstractFTPService implements Serializable {
      * 다시 그 디렉터리의 하위를 탐색할 때는 파일과 디렉터리 구분에 대한 필터링이 적용되지 않는다.
      * */
     private boolean searchRecursively = false;
+    /**
+     * 기본값: 0<br>
+     * <code>searchRecursively</code> 가 true 인 경우 탐색할 하위 디렉터리의 최대 단계이다.
+     * 1 인 경우 목록을 가져올 경로 바로 아래의 디렉터리까지만 탐색한다. 0 인 경우 제한하지 않는다.
+     * */
+    private int maxDepth = 0;
+    /**
+     * 기본값: true<br>
+     * FTP 서버가 지원하는 경우 MLSD 명령으로 목록을 가져올 지에 대한 설정이다. MLSD 명령이 실패한 경우 LIST 명령으로 다시 가져온다.
+     * */
+    private boolean useMlsd = true;
+    /**
+     * 기본값: true<br>
+     * {@code FTPSourceProvider} 에 {@link FTPListingCache} 가 등록된 경우 cache 된 디렉터리 목록을 사용할 지에 대한 설정이다.
+     * 다른 시스템이 변경한 파일을 즉시 확인해야 하는 경우 false 로 설정한다.
+     * */
+    private boolean useListingCache = true;
 
     @Override
     public void process(ServiceContext ctx) throws Throwable {
@@ -166,51 +193,29 @@ public class ListFiles extends AbstractFTPService implements Serializable {
             }
         }
 
-        FTPFile[] files = ftp.listFiles();
         String workingDir = ftp.printWorkingDirectory();
 
         if (!workingDir.endsWith(pathSeparator)) {
             workingDir += pathSeparator;
         }
         fileList.setBaseDirectory(workingDir);
-        WildcardFileFilter filter = new WildcardFileFilter(tmpFileNamePattern);
+        FTPFile[] files = listDirectory(ftp, srcName, workingDir, newFilter(tmpFileNamePattern, tmpType, pathSeparator));
 
         for (FTPFile file : files) {
             String fileName = file.getName();
             if (fileName.startsWith(pathSeparator))
                 fileName = fileName.substring(pathSeparator.length());
 
-            if (filter.accept(null, fileName)) {
-
-                if (tmpType == FileType.DIRECTORY) {
-                    if (!file.isDirectory())
-                        continue;
-                    if (!fileName.endsWith(pathSeparator))
-                        fileName += pathSeparator;
-                    searchedFileList.add(fileName);
-                    if (searchRecursively) {
-                        searchedFileList.addAll(searchRecursively(ftp, workingDir, fileName, pathSeparator));
-                    }
-
-                } else if (tmpType == FileType.FILE) {
-                    if (file.isDirectory())
-                        continue;
-                    searchedFileList.add(fileName);
-
-                } else {
-                    if (file.isDirectory()) {
-                        if (!fileName.endsWith(pathSeparator))
-                            fileName += pathSeparator;
-                        searchedFileList.add(fileName);
-                        if (searchRecursively) {
-                            searchedFileList.addAll(searchRecursively(ftp, workingDir, fileName, pathSeparator));
-                        }
-                    } else {
-                        searchedFileList.add(fileName);
-                    }
+            if (file.isDirectory()) {
+                if (!fileName.endsWith(pathSeparator))
+                    fileName += pathSeparator;
+                searchedFileList.add(fileName);
+                if (searchRecursively) {
+                    searchedFileList.addAll(searchRecursively(ftp, srcName, workingDir, fileName, pathSeparator, 1));
                 }
+            } else {
+                searchedFileList.add(fileName);
             }
-
         }
         log.info("[{}] {} files found in the path \"{}\".", ctx.getTxId(), searchedFileList.size(), workingDir);
         fileList.setFileList(searchedFileList);
@@ -223,10 +228,14 @@ public class ListFiles extends AbstractFTPService implements Serializable {
      * @param ftp Connection이 맺어져 있는 FTPClient 객체
      * @param workingDir 파일 목록을 탐색하려는 최상위 경로 즉, 파일 목록을 가져오기로 설정된 경로.
      * @param dirName 재귀적으로 탐색하고자 하는 디렉터리 경로
+     * @param depth 탐색하고자 하는 디렉터리가 최상위 경로로부터 몇 단계 아래에 있는지
      *                  
      * */
-    private List<String> searchRecursively(FTPClient ftp, String workingDir, String dirName, String pathSeparator) throws IOException {
+    private List<String> searchRecursively(FTPClient ftp, String srcName, String workingDir, String dirName, String pathSeparator, int depth) throws IOException {
         List<String> innerFiles = new ArrayList<>();
+        if (maxDepth > 0 && depth > maxDepth) {
+            return innerFiles;
+        }
 
         if (dirName.equals(pathSeparator)) {
             dirName = "";
@@ -237,7 +246,7 @@ public class ListFiles extends AbstractFTPService implements Serializable {
 
         String searchPath = workingDir + dirName;
 
-        FTPFile[] files = ftp.listFiles(searchPath);
+        FTPFile[] files = listDirectory(ftp, srcName, searchPath, FTPFileFilters.NON_NULL);
         if (files != null) {
             for (FTPFile file : files) {
                 String fileName = file.getName();
@@ -257,7 +266,7 @@ public class ListFiles extends AbstractFTPService implements Serializable {
                     if (!pathAfterWorkingDir.endsWith(pathSeparator))
                         pathAfterWorkingDir += pathSeparator;
                     innerFiles.add(pathAfterWorkingDir);
-                    innerFiles.addAll(searchRecursively(ftp, workingDir, pathAfterWorkingDir, pathSeparator));
+                    innerFiles.addAll(searchRecursively(ftp, srcName, workingDir, pathAfterWorkingDir, pathSeparator, depth + 1));
                 } else {
                     innerFiles.add(pathAfterWorkingDir);
                 }
@@ -267,4 +276,89 @@ public class ListFiles extends AbstractFTPService implements Serializable {
         return innerFiles;
     }
 
+    /**
+     * 디렉터리의 목록 중 <code>filter</code> 의 조건에 맞는 파일들을 가져온다. 현재 디렉터리(.)와 상위 디렉터리(..)는 제외된다.
+     * cache 를 사용하는 경우 FTP 서버에서 가져온 전체 목록을 cache 에 저장하고 <code>filter</code> 는 cache 된 목록에 적용한다.
+     *
+     * @param ftp Connection이 맺어져 있는 FTPClient 객체
+     * @param srcName FTP 서버의 FTPClientTemplate 이름
+     * @param path 목록을 가져올 디렉터리의 절대경로
+     * @param filter 목록에 담을 파일의 조건
+     * */
+    private FTPFile[] listDirectory(FTPClient ftp, String srcName, String path, FTPFileFilter filter) throws IOException {
+        FTPSourceProvider provider = FTPSourceProvider.access();
+        FTPListingCache cache = useListingCache ? provider.getListingCache() : null;
+        FTPClientTemplate template = cache != null ? provider.getFtpClientTemplate(srcName) : null;
+        if (template == null) {
+            return listFromServer(ftp, path, filter);
+        }
+
+        FTPFile[] files = cache.get(template, path);
+        if (files != null) {
+            log.debug("The cached listing of the directory '{}' of the FTP server '{}' is used", path, srcName);
+        } else {
+            files = listFromServer(ftp, path, FTPFileFilters.NON_NULL);
+            if (FTPReply.isPositiveCompletion(ftp.getReplyCode())) {
+                cache.put(template, path, files);
+            }
+        }
+        List<FTPFile> accepted = new ArrayList<>();
+        for (FTPFile file : files) {
+            if (filter.accept(file))
+                accepted.add(file);
+        }
+        return accepted.toArray(new FTPFile[0]);
+    }
+
+    private FTPFile[] listFromServer(FTPClient ftp, String path, final FTPFileFilter filter) throws IOException {
+        FTPFileFilter withoutDots = new FTPFileFilter() {
+            @Override
+            public boolean accept(FTPFile file) {
+                if (file == null)
+                    return false;
+                String name = file.getName();
+                return !".".equals(name) && !"..".equals(name) && filter.accept(file);
+            }
+        };
+        //RFC 3659 에 따라 MLST 를 지원하는 서버는 MLSD 도 지원한다.
+        if (useMlsd && (ftp.hasFeature("MLST") || ftp.hasFeature("MLSD"))) {
+            FTPFile[] files = ftp.mlistDir(path, withoutDots);
+            if (FTPReply.isPositiveCompletion(ftp.getReplyCode())) {
+                return files;
+            }
+            log.debug("Failed to list the directory '{}' with MLSD. Retrying with LIST. Reply: {}", path, ftp.getReplyString().trim());
+        }
+        return ftp.listFiles(path, withoutDots);
+    }
+
+    private FTPFileFilter newFilter(String fileNamePattern, final FileType type, final String pathSeparator) {
+        final WildcardFileFilter wildcard = new WildcardFileFilter(fileNamePattern);
+        return new FTPFileFilter() {
+            @Override
+            public boolean accept(FTPFile file) {
+                if (file == null)
+                    return false;
+                if (type == FileType.DIRECTORY && !file.isDirectory())
+                    return false;
+                if (type == FileType.FILE && file.isDirectory())
+                    return false;
+                String fileName = file.getName();
+                if (fileName.startsWith(pathSeparator))
+                    fileName = fileName.substring(pathSeparator.length());
+                return wildcard.accept(null, fileName);
+            }
+        };
+    }
+
+    /**
+     * Sets max depth.
+     *
+     * @param maxDepth the max depth
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("maxDepth must be greater than or equal to 0: " + maxDepth);
+        this.maxDepth = maxDepth;
+    }
+
 }
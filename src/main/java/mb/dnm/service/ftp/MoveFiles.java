@@ -127,144 +127,149 @@ public class MoveFiles extends AbstractFTPService implements Serializable {
             session = (FTPSession) ctx.getSession(srcName);
         }
         FTPClient ftp = session.getFTPClient();
-        String pathSeparator = String.valueOf(ftp.printWorkingDirectory().charAt(0)).trim();
-        if (pathSeparator.equals("null") || pathSeparator.isEmpty()) {
-            pathSeparator = "/";
-        }
+        invalidateListing(srcName);
+        try {
+            String pathSeparator = String.valueOf(ftp.printWorkingDirectory().charAt(0)).trim();
+            if (pathSeparator.equals("null") || pathSeparator.isEmpty()) {
+                pathSeparator = "/";
+            }
 
-        List<String> movedFileList = new ArrayList<>();
-        // 파일 이동 중 에러가 나는 경우 그 파일의 FTP 경로가 담길 리스트를 생성
-        List<String> errorFilePaths = new ArrayList<>();
-        int inputListSize = targetFileNames.size();
-        int successCount = 0;
+            List<String> movedFileList = new ArrayList<>();
+            // 파일 이동 중 에러가 나는 경우 그 파일의 FTP 경로가 담길 리스트를 생성
+            List<String> errorFilePaths = new ArrayList<>();
+            int inputListSize = targetFileNames.size();
+            int successCount = 0;
 
-        FileTemplate template = info.getFileTemplate(srcName);
-        String savePath = null;
-        if (template == null)
-            throw new InvalidServiceConfigurationException(this.getClass(), "The File template with name '" + srcName + "' of the interface '" + info.getInterfaceId() + "' is null.");
-        savePath = template.getFilePath(directoryType);
-        if (savePath == null)
-            throw new InvalidServiceConfigurationException(this.getClass(), "The value of " + directoryType + " of the template with name '" + srcName + "' is null");
-        if (savePath.contains("@{if_id}")) {
-            savePath = savePath.replace("@{if_id}", ctx.getInterfaceId());
-        }
-        //PlaceHolder mapping 을 적용할 것
-        for (Map.Entry<String, Object> entry : ctx.getContextInformation().entrySet()) {
-            StringBuilder keyBd = new StringBuilder(entry.getKey());
-            String value = String.valueOf(entry.getValue());
-            keyBd.deleteCharAt(0)
-                    .insert(0, "@{")
-                    .append("}");
-            if (savePath.contains(keyBd)) {
-                savePath = savePath.replace(keyBd, value);
+            FileTemplate template = info.getFileTemplate(srcName);
+            String savePath = null;
+            if (template == null)
+                throw new InvalidServiceConfigurationException(this.getClass(), "The File template with name '" + srcName + "' of the interface '" + info.getInterfaceId() + "' is null.");
+            savePath = template.getFilePath(directoryType);
+            if (savePath == null)
+                throw new InvalidServiceConfigurationException(this.getClass(), "The value of " + directoryType + " of the template with name '" + srcName + "' is null");
+            if (savePath.contains("@{if_id}")) {
+                savePath = savePath.replace("@{if_id}", ctx.getInterfaceId());
+            }
+            //PlaceHolder mapping 을 적용할 것
+            for (Map.Entry<String, Object> entry : ctx.getContextInformation().entrySet()) {
+                StringBuilder keyBd = new StringBuilder(entry.getKey());
+                String value = String.valueOf(entry.getValue());
+                keyBd.deleteCharAt(0)
+                        .insert(0, "@{")
+                        .append("}");
+                if (savePath.contains(keyBd)) {
+                    savePath = savePath.replace(keyBd, value);
+                }
             }
-        }
-
-        if (!savePath.endsWith(pathSeparator)) {
-            savePath = savePath + pathSeparator;
-        }
 
-        String[] savePaths = savePath.split(pathSeparator);
-        StringBuilder pathBd = new StringBuilder();
-        for (int i = 0; i < savePaths.length; i++) {
-            String path = pathBd.append(pathSeparator).append(savePaths[i]).toString();
-            if (!FTPUtil.isDirectoryExists(ftp, path)) {
-                ftp.makeDirectory(path);
+            if (!savePath.endsWith(pathSeparator)) {
+                savePath = savePath + pathSeparator;
             }
-        }
 
-        Collections.sort(targetFileNames, new Comparator<String>() {
-            @Override
-            public int compare(String o1, String o2) {
-                return o2.compareToIgnoreCase(o1);
+            String[] savePaths = savePath.split(pathSeparator);
+            StringBuilder pathBd = new StringBuilder();
+            for (int i = 0; i < savePaths.length; i++) {
+                String path = pathBd.append(pathSeparator).append(savePaths[i]).toString();
+                if (!FTPUtil.isDirectoryExists(ftp, path)) {
+                    ftp.makeDirectory(path);
+                }
             }
-        });
 
-        for (String targetFile : targetFileNames) {
-            String tmpTargetFile = null;
-            String oldPath = null;
-            String newPath = null;
-            if (baseDir != null) {
-                oldPath = baseDir + targetFile;
-                newPath = savePath + targetFile;
-            } else {
+            Collections.sort(targetFileNames, new Comparator<String>() {
+                @Override
+                public int compare(String o1, String o2) {
+                    return o2.compareToIgnoreCase(o1);
+                }
+            });
 
-                if (targetFile.endsWith(pathSeparator)) {
-                    tmpTargetFile = targetFile.substring(0, targetFile.length() - 1);
-                    tmpTargetFile = tmpTargetFile.substring(tmpTargetFile.lastIndexOf(pathSeparator) + 1);
+            for (String targetFile : targetFileNames) {
+                String tmpTargetFile = null;
+                String oldPath = null;
+                String newPath = null;
+                if (baseDir != null) {
+                    oldPath = baseDir + targetFile;
+                    newPath = savePath + targetFile;
                 } else {
-                    int lastPathSepIdx = targetFile.lastIndexOf(pathSeparator);
-                    if (lastPathSepIdx != -1) {
-                        tmpTargetFile = targetFile.substring(lastPathSepIdx + 1);
+
+                    if (targetFile.endsWith(pathSeparator)) {
+                        tmpTargetFile = targetFile.substring(0, targetFile.length() - 1);
+                        tmpTargetFile = tmpTargetFile.substring(tmpTargetFile.lastIndexOf(pathSeparator) + 1);
                     } else {
-                        tmpTargetFile = targetFile;
+                        int lastPathSepIdx = targetFile.lastIndexOf(pathSeparator);
+                        if (lastPathSepIdx != -1) {
+                            tmpTargetFile = targetFile.substring(lastPathSepIdx + 1);
+                        } else {
+                            tmpTargetFile = targetFile;
+                        }
                     }
+                    oldPath = targetFile;
+                    newPath = savePath + tmpTargetFile;
                 }
-                oldPath = targetFile;
-                newPath = savePath + tmpTargetFile;
-            }
 
-            String originalNewPath = newPath;
-            boolean overwritten = false;
-            boolean moved = false;
-            try {
-                int i = 0;
-                while (true) {
-                    //파일 덮어쓰기 옵션이 true인 경우 파일을 이동할 때 복사본을 먼저 만든다.
-                    if (FTPUtil.isFileExists(ftp, newPath)) {
-                        if (overwrite) {
-                            //ftp.deleteFile(newPath);
-                            //newPath =  newPath + "_" + (++i);
-                            newPath =  savePath + "$" + tmpTargetFile + "(" + (++i) + ")";
-                            overwritten = true;
+                String originalNewPath = newPath;
+                boolean overwritten = false;
+                boolean moved = false;
+                try {
+                    int i = 0;
+                    while (true) {
+                        //파일 덮어쓰기 옵션이 true인 경우 파일을 이동할 때 복사본을 먼저 만든다.
+                        if (FTPUtil.isFileExists(ftp, newPath)) {
+                            if (overwrite) {
+                                //ftp.deleteFile(newPath);
+                                //newPath =  newPath + "_" + (++i);
+                                newPath =  savePath + "$" + tmpTargetFile + "(" + (++i) + ")";
+                                overwritten = true;
+                            } else {
+                                break;
+                            }
                         } else {
                             break;
                         }
-                    } else {
-                        break;
                     }
-                }
 
-                moved = ftp.rename(oldPath, newPath);
-                if (moved) {
-                    if (overwritten) {
-                        log.info("[{}]Overwriting file '{}'...", txId, originalNewPath);
-                        ftp.deleteFile(originalNewPath);
-                        ftp.rename(newPath, originalNewPath);
+                    moved = ftp.rename(oldPath, newPath);
+                    if (moved) {
+                        if (overwritten) {
+                            log.info("[{}]Overwriting file '{}'...", txId, originalNewPath);
+                            ftp.deleteFile(originalNewPath);
+                            ftp.rename(newPath, originalNewPath);
+                        }
+                        ++successCount;
+                        movedFileList.add(newPath);
+                        if (debuggingWhenMoved) {
+                            log.debug("[{}]The file is moved from '{}' to '{}'", txId, oldPath, originalNewPath);
+                        }
+                    } else {
+                        String reply = ftp.getReplyString();
+                        log.debug("[{}]Could not move the file '{}' to '{}'. Reply: {}", txId, oldPath, newPath, reply);
+                        throw new IllegalStateException("Could not move the file '" + oldPath + "' to '" + newPath + "'. Reply: " + reply);
                     }
-                    ++successCount;
-                    movedFileList.add(newPath);
-                    if (debuggingWhenMoved) {
-                        log.debug("[{}]The file is moved from '{}' to '{}'", txId, oldPath, originalNewPath);
+                } catch (Throwable t) {
+                    if (ignoreErrorFile) {
+                        // 이동에 실패한 파일은 건너뛰고 계속 이동을 진행한 후, 실패한 파일의 FTP 서버 경로를 error output 으로 output 한다.<br>
+                        errorFilePaths.add(oldPath);
+                        log.warn("[{}]Exception occurred during move the file \"{}\", but continue to move. Cause: {}", txId, oldPath, MessageUtil.toString(t));
+                    } else {
+                        throw t;
                     }
-                } else {
-                    String reply = ftp.getReplyString();
-                    log.debug("[{}]Could not move the file '{}' to '{}'. Reply: {}", txId, oldPath, newPath, reply);
-                    throw new IllegalStateException("Could not move the file '" + oldPath + "' to '" + newPath + "'. Reply: " + reply);
-                }
-            } catch (Throwable t) {
-                if (ignoreErrorFile) {
-                    // 이동에 실패한 파일은 건너뛰고 계속 이동을 진행한 후, 실패한 파일의 FTP 서버 경로를 error output 으로 output 한다.<br>
-                    errorFilePaths.add(oldPath);
-                    log.warn("[{}]Exception occurred during move the file \"{}\", but continue to move. Cause: {}", txId, oldPath, MessageUtil.toString(t));
-                } else {
-                    throw t;
                 }
             }
-        }
 
 
-        if (getOutput() != null) {
-            setOutputValue(ctx, movedFileList);
-        }
-        if (getErrorOutput() != null) {
-            if (!errorFilePaths.isEmpty()) {
-                setErrorOutputValue(ctx, errorFilePaths);
+            if (getOutput() != null) {
+                setOutputValue(ctx, movedFileList);
             }
-        }
-        log.info("[{}]File movement result: input_count={}, move_success={}, error_count={}"
-                , txId, inputListSize, successCount, errorFilePaths.size());
+            if (getErrorOutput() != null) {
+                if (!errorFilePaths.isEmpty()) {
+                    setErrorOutputValue(ctx, errorFilePaths);
+                }
+            }
+            log.info("[{}]File movement result: input_count={}, move_success={}, error_count={}"
+                    , txId, inputListSize, successCount, errorFilePaths.size());
 
+        } finally {
+            invalidateListing(srcName);
+        }
     }
 
 }
@@ -0,0 +1,203 @@
+package mb.dnm.service.ftp;
+
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.file.DelimitedRecordReader;
+import mb.dnm.access.file.FileParserTemplate;
+import mb.dnm.access.file.FileTemplate;
+import mb.dnm.access.ftp.FTPRecordStream;
+import mb.dnm.access.ftp.FTPSession;
+import mb.dnm.code.BinaryEncoding;
+import mb.dnm.code.CompressionType;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.exeption.InvalidServiceConfigurationException;
+import mb.dnm.storage.InterfaceInfo;
+import mb.dnm.util.CompressionUtil;
+import org.apache.commons.net.ftp.FTPClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * FTP 서버의 구분자 파일을 다운로드 하지 않고 record 단위로 읽는 {@link FTPRecordStream} 을 연다.
+ * <br>
+ * <br>
+ * *<b>Input</b>: 읽을 파일의 FTP 경로<br>
+ * *<b>Input type</b>: {@code String}
+ * <br>
+ * <br>
+ * *<b>Output</b>: 파일의 record 들을 {@code Map<컬럼명, 데이터>} 형태로 순서대로 가져오는 객체<br>
+ * *<b>Output type</b>: {@link FTPRecordStream} ({@code Iterable<Map<String, Object>>})
+ * <br>
+ * <br>
+ * 파일의 데이터는 로컬 파일이나 {@code byte[]} 에 저장되지 않고 output 된 객체를 사용하는 서비스가 record 를 가져가는 만큼만 FTP 서버로부터 전송된다.
+ * output 을 {@link mb.dnm.service.db.Insert} 의 input 으로 전달하면 전송받은 record 가 parsing 되는 대로 Batch insert 된다.<br>
+ * stream 이 닫히기 전까지는 같은 FTP session 으로 다른 FTP 서비스를 실행할 수 없다.
+ * 모든 record 를 읽으면 stream 이 닫히며, 그렇지 않은 경우 서비스 프로세스가 종료될 때 닫힌다.
+ * 파일의 인코딩은 {@code commonCharset} 이 지정되지 않은 경우 {@code FileTemplate} 의 {@code charset} 을 따른다.
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * &lt;bean class="mb.dnm.service.ftp.ReadRecords"&gt;
+ *     &lt;property name="sourceAlias"            value="<span style="color: black; background-color: #FAF3D4;">source alias</span>"/&gt;
+ *     &lt;property name="input"                  value="<span style="color: black; background-color: #FAF3D4;">input 파라미터명</span>"/&gt;
+ *     &lt;property name="output"                 value="<span style="color: black; background-color: #FAF3D4;">output 파라미터명</span>"/&gt;
+ * &lt;/bean&gt;
+ * &lt;bean class="mb.dnm.service.db.Insert"&gt;
+ *     &lt;property name="input"                  value="<span style="color: black; background-color: #FAF3D4;">ReadRecords 의 output 파라미터명</span>"/&gt;
+ * &lt;/bean&gt;</pre>
+ *
+ * @see FTPRecordStream
+ * @see WriteRecords
+ * @see mb.dnm.service.file.ReadFile
+ * */
+@Slf4j
+@Setter
+public class ReadRecords extends AbstractFTPService implements Serializable {
+    private static final long serialVersionUID = -2671925419870153712L;
+    /**
+     * 기본값: \n<br>
+     * record 를 구분하는 문자
+     * */
+    private String recordSeparator = "\n";
+    /**
+     * 기본값: |<br>
+     * 컬럼을 구분하는 문자
+     * */
+    private String delimiter = "|";
+    /**
+     * 기본값: "" (빈값, empty string)<br>
+     * 값을 감싸는 문자
+     * */
+    private String qualifier = "";
+    /**
+     * 기본값: "" (빈값, empty string)<br>
+     * null 인 데이터가 파일에 어떤 문자로 대체되어 기입되어있는지에 대한 설정이다.
+     * */
+    private String replacementOfNullValue = "";
+    /**
+     * 기본값: "" (빈값, empty string)<br>
+     * 빈 문자열이 파일에 어떤 문자로 대체되어 기입되어있는지에 대한 설정이다.
+     * */
+    private String replacementOfEmptyValue = "";
+    /**
+     * 기본값: &amp;lf;<br>
+     * 파일 내용 중 Line Feed (\n) 가 어떤 문자로 대체되어 기입되어있는지에 대한 설정이다.
+     * */
+    private String replacementOfLineFeed = "&lf;";
+    /**
+     * 기본값: &amp;cr;<br>
+     * 파일 내용 중 Carriage return (\r) 이 어떤 문자로 대체되어 기입되어있는지에 대한 설정이다.
+     * */
+    private String replacementOfCarriageReturn = "&cr;";
+    /**
+     * 기본값: true<br>
+     * 파일의 첫번째 record 가 컬럼명인지에 대한 설정이다. false 인 경우 {@code columns} 를 컬럼명으로 사용한다.
+     * */
+    private boolean headerExist = true;
+    /**
+     * 기본값: null<br>
+     * {@code headerExist} 가 false 인 경우 record 의 각 값에 순서대로 사용할 컬럼명
+     * */
+    private List<String> columns;
+    /**
+     * 기본값: true<br>
+     * BINARY_DATA_WRAPPER(&lt;![BINARY[...]]&gt;) 안에 쓰여진 내용을 byte array로 Parsing 할 것인지에 대한 옵션이다.
+     * */
+    private boolean handleBinaryData = true;
+    /**
+     * 기본값: DECIMAL<br>
+     * BINARY_DATA_WRAPPER(&lt;![BINARY[...]]&gt;) 안의 내용이 어떤 형식으로 작성되어 있는지에 대한 설정이다.
+     * @see BinaryEncoding
+     * */
+    private BinaryEncoding binaryEncoding = BinaryEncoding.DECIMAL;
+    /**
+     * 파일의 인코딩. 지정되지 않은 경우 {@code FileTemplate} 의 {@code charset} 을 사용한다.
+     * */
+    private Charset commonCharset;
+    /**
+     * 기본값: NONE<br>
+     * FTP 서버의 파일이 압축된 방식이다. {@code NONE} 이 아닌 경우 전송받으면서 압축을 해제하여 읽는다.
+     * @see CompressionType
+     * */
+    private CompressionType compression = CompressionType.NONE;
+
+    @Override
+    public void process(ServiceContext ctx) throws Throwable {
+        if (getInput() == null) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "ReadRecords service must have the input parameter in which contain the file to read");
+        }
+        if (!headerExist && (columns == null || columns.isEmpty())) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "The 'columns' property is required when the 'headerExist' property is false");
+        }
+
+        InterfaceInfo info = ctx.getInfo();
+        String srcName = getFTPSourceName(info);
+        String txId = ctx.getTxId();
+
+        Object inputVal = getInputValue(ctx);
+        if (inputVal == null) {
+            log.debug("[{}]The value of input '{}' is not found. No file path to read found in context data.", txId, getInput());
+            return;
+        }
+        if (!(inputVal instanceof String)) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "The type of the input parameter value is not String. Inputted value's type: " + inputVal.getClass().getName());
+        }
+        String ftpPath = (String) inputVal;
+
+        Charset charset = commonCharset;
+        if (charset == null) {
+            FileTemplate template = info.getFileTemplate(srcName);
+            if (template == null)
+                throw new InvalidServiceConfigurationException(this.getClass(), "The File template with name '" + srcName + "' of the interface '" + info.getInterfaceId() + "' is null.");
+            charset = template.getCharset();
+        }
+
+        FTPSession session = getFTPSession(ctx, srcName);
+        if (!session.isConnected()) {
+            new FTPLogin(getSourceAlias()).process(ctx);
+            session = (FTPSession) ctx.getSession(srcName);
+        }
+        FTPClient ftp = session.getFTPClient();
+
+        InputStream is = ftp.retrieveFileStream(ftpPath);
+        if (is == null) {
+            throw new IllegalStateException("The file '" + ftpPath + "' is not found in the FTP server '" + srcName + "'. FTP reply: " + ftp.getReplyString().trim());
+        }
+        DelimitedRecordReader reader;
+        try {
+            reader = new DelimitedRecordReader(Channels.newChannel(CompressionUtil.decompress(is, compression)), charset, newParserTemplate());
+        } catch (IOException ie) {
+            is.close();
+            ftp.completePendingCommand();
+            throw ie;
+        }
+
+        FTPRecordStream stream = new FTPRecordStream(session, ftpPath, reader);
+        //서비스 프로세스가 종료될 때 SessionCleanupCallback 에 의해 stream 이 닫히도록 등록한다.
+        ctx.addSession("$ftp_record_stream@" + System.identityHashCode(stream), stream);
+        try {
+            if (headerExist) {
+                reader.readHeader();
+            } else {
+                reader.setHeaders(columns);
+            }
+        } catch (Throwable t) {
+            stream.close();
+            throw t;
+        }
+        log.info("[{}]FTP record stream opened. File: \"{}\", columns: {}", txId, ftpPath, reader.getHeaders());
+
+        if (getOutput() != null) {
+            setOutputValue(ctx, stream);
+        }
+    }
+
+    private FileParserTemplate newParserTemplate() {
+        return new FileParserTemplate(recordSeparator, delimiter, qualifier,
+                replacementOfNullValue, replacementOfEmptyValue, replacementOfLineFeed,
+                replacementOfCarriageReturn, headerExist, handleBinaryData, binaryEncoding);
+    }
+}
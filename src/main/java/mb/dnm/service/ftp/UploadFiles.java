@@ -5,19 +5,25 @@ import lombok.extern.slf4j.Slf4j;
 import mb.dnm.access.file.FileList;
 import mb.dnm.access.file.FileTemplate;
 import mb.dnm.access.ftp.FTPSession;
+import mb.dnm.access.ftp.ParallelFTPTransfer;
+import mb.dnm.access.ftp.ResumableTransfer;
+import mb.dnm.code.CompressionType;
 import mb.dnm.code.DirectoryType;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.exeption.InvalidServiceConfigurationException;
 import mb.dnm.service.ParameterAssignableService;
 import mb.dnm.service.SourceAccessService;
 import mb.dnm.storage.InterfaceInfo;
+import mb.dnm.util.CompressionUtil;
 import mb.dnm.util.FTPUtil;
 import mb.dnm.util.FileUtil;
 import mb.dnm.util.MessageUtil;
 import org.apache.commons.net.ftp.FTPClient;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -70,6 +76,35 @@ public class UploadFiles extends AbstractFTPService implements Serializable {
      * 파일 업로드 중 에러가 발생하는 경우 업로드한 파일을 모두 삭제한다. ignoreErrorFile 속성이 false인 경우에만 유효하다.
      * */
     private boolean deleteUploadedFileWhenError = false;
+    /**
+     * 기본값: NONE<br>
+     * 파일을 업로드 하면서 압축할 방식이다. 로컬 파일을 읽으면서 압축한 데이터를 바로 전송하므로 압축된 파일을 로컬에 만들지 않는다.
+     * {@code NONE} 이 아닌 경우 FTP 서버의 파일명에 압축 방식의 확장자(.gz, .bz2)가 추가된다.
+     * @see CompressionType
+     * */
+    private CompressionType compression = CompressionType.NONE;
+    /**
+     * 기본값: -1 (압축 방식의 기본값)<br>
+     * {@code compression} 이 {@code NONE} 이 아닌 경우 압축 레벨(1~9)이다. 1 은 압축 속도를, 9 는 압축률을 우선한다.
+     * */
+    private int compressionLevel = CompressionUtil.DEFAULT_LEVEL;
+    /**
+     * 기본값: 1<br>
+     * 파일을 동시에 업로드 할 FTP session 의 수이다. 1보다 큰 경우 같은 {@code FTPClientTemplate} 으로 최대 {@code parallelism - 1} 개의 session 을 추가로 열어
+     * 업로드 할 파일들을 나누어 업로드 하며, 추가로 연 session 은 업로드가 끝나면 닫는다.
+     * 디렉터리는 파일을 업로드 하기 전에 순서대로 만들어지며, output 의 순서와 에러 처리 방식은 1인 경우와 같다.
+     * @see ParallelFTPTransfer
+     * @see mb.dnm.access.ftp.FTPConnectionPool
+     * */
+    private int parallelism = 1;
+    /**
+     * 기본값: false<br>
+     * true 인 경우 파일을 FTP 서버에 {@code .part} 파일로 업로드 한 뒤 크기를 검증하고 원래의 이름으로 변경한다.
+     * 업로드가 중단된 경우 {@code .part} 파일은 삭제되지 않으며, 다음 업로드 시 로컬 파일이 변경되지 않았다면 중단된 지점부터 이어 올린다.
+     * {@code compression} 이 NONE 이고 FTP 소스의 {@code fileType} 이 BINARY 인 경우에만 사용할 수 있다.
+     * @see ResumableTransfer
+     * */
+    private boolean resumable = false;
 
     @Override
     public void process(ServiceContext ctx) throws Throwable {
@@ -77,9 +112,16 @@ public class UploadFiles extends AbstractFTPService implements Serializable {
             throw new InvalidServiceConfigurationException(this.getClass(), "UploadFiles service must have the input parameter in which contain the files to upload");
         }
 
+        if (resumable && compression != CompressionType.NONE) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "The resumable upload is supported only when the compression is NONE");
+        }
+
         InterfaceInfo info = ctx.getInfo();
         String srcName = getFTPSourceName(info);
-        String txId = ctx.getTxId();
+        final String txId = ctx.getTxId();
+        if (resumable) {
+            checkResumableFileType(srcName);
+        }
 
         Object inputVal = getInputValue(ctx);
         List<String> targetFileNames = new ArrayList<>();
@@ -129,187 +171,301 @@ public class UploadFiles extends AbstractFTPService implements Serializable {
             session = (FTPSession) ctx.getSession(srcName);
         }
         FTPClient ftp = session.getFTPClient();
-        String ftpPathSeparator = String.valueOf(ftp.printWorkingDirectory().charAt(0)).trim();
-        if (ftpPathSeparator.equals("null") || ftpPathSeparator.isEmpty()) {
-            ftpPathSeparator = "/";
-        }
-
-        List<String> uploadedFileList = new ArrayList<>();
-        // 파일 업로드 중 에러가 나는 경우 그 파일의 FTP 경로가 담길 리스트를 생성
-        List<String> errorFilePaths = new ArrayList<>();
-        int inputListSize = targetFileNames.size();
-        int successCount = 0;
-        int dirCount = 0;
-        int fileCount = 0;
-
-        FileTemplate template = info.getFileTemplate(srcName);
-        String savePath = null;
-        if (template == null)
-            throw new InvalidServiceConfigurationException(this.getClass(), "The File template with name '" + srcName + "' of the interface '" + info.getInterfaceId() + "' is null.");
-        savePath = template.getFilePath(directoryType);
-        if (savePath == null)
-            throw new InvalidServiceConfigurationException(this.getClass(), "The value of " + directoryType + " of the template with name '" + srcName + "' is null");
-        /*if (savePath.contains("@{if_id}")) {
-            savePath = savePath.replace("@{if_id}", ctx.getInterfaceId());
-        }*/
-        //PlaceHolder mapping 을 적용할 것
-        for (Map.Entry<String, Object> entry : ctx.getContextInformation().entrySet()) {
-            StringBuilder keyBd = new StringBuilder(entry.getKey());
-            String value = String.valueOf(entry.getValue());
-            keyBd.deleteCharAt(0)
-                    .insert(0, "@{")
-                    .append("}");
-            if (savePath.contains(keyBd)) {
-                savePath = savePath.replace(keyBd, value);
+        invalidateListing(srcName);
+        try {
+            String ftpPathSeparator = String.valueOf(ftp.printWorkingDirectory().charAt(0)).trim();
+            if (ftpPathSeparator.equals("null") || ftpPathSeparator.isEmpty()) {
+                ftpPathSeparator = "/";
             }
-        }
 
-        if (!savePath.endsWith(ftpPathSeparator)) {
-            savePath = savePath + ftpPathSeparator;
-        }
+            List<String> uploadedFileList = new ArrayList<>();
+            // 파일 업로드 중 에러가 나는 경우 그 파일의 FTP 경로가 담길 리스트를 생성
+            List<String> errorFilePaths = new ArrayList<>();
+            int inputListSize = targetFileNames.size();
+            int successCount = 0;
+            int dirCount = 0;
+            int fileCount = 0;
 
-        if (!FTPUtil.isDirectoryExists(ftp, savePath)) {
-            StringBuilder pathBd = null;
-            if (savePath.indexOf(ftpPathSeparator) == 0) {
-                pathBd = new StringBuilder(ftpPathSeparator);
-            } else {
-                pathBd = new StringBuilder();
-            }
-            for (String dirToMade : savePath.split(ftpPathSeparator)) {
-                dirToMade = dirToMade.trim();
-                pathBd.append(dirToMade);
-                if (dirToMade.equals("..") || dirToMade.equals(".")) {
-                    continue;
+            FileTemplate template = info.getFileTemplate(srcName);
+            String savePath = null;
+            if (template == null)
+                throw new InvalidServiceConfigurationException(this.getClass(), "The File template with name '" + srcName + "' of the interface '" + info.getInterfaceId() + "' is null.");
+            savePath = template.getFilePath(directoryType);
+            if (savePath == null)
+                throw new InvalidServiceConfigurationException(this.getClass(), "The value of " + directoryType + " of the template with name '" + srcName + "' is null");
+            /*if (savePath.contains("@{if_id}")) {
+                savePath = savePath.replace("@{if_id}", ctx.getInterfaceId());
+            }*/
+            //PlaceHolder mapping 을 적용할 것
+            for (Map.Entry<String, Object> entry : ctx.getContextInformation().entrySet()) {
+                StringBuilder keyBd = new StringBuilder(entry.getKey());
+                String value = String.valueOf(entry.getValue());
+                keyBd.deleteCharAt(0)
+                        .insert(0, "@{")
+                        .append("}");
+                if (savePath.contains(keyBd)) {
+                    savePath = savePath.replace(keyBd, value);
                 }
-                ftp.makeDirectory(pathBd.toString());
-                pathBd.append(ftpPathSeparator);
             }
 
-            log.info("[{}]The directory \"{}\" is made at FTP server",  txId, savePath);
-        }
-
-        Collections.sort(targetFileNames, new Comparator<String>() {
-            @Override
-            public int compare(String o1, String o2) {
-                return o1.compareToIgnoreCase(o2);
+            if (!savePath.endsWith(ftpPathSeparator)) {
+                savePath = savePath + ftpPathSeparator;
             }
-        });
 
-        /*
-        * 파일을 본래의 구조대로(디렉터리 구조) 업로드 하려면 FileList 객체를 사용해야만 함
-        * */
-        for (String targetFileName : targetFileNames) {
-            String tmpTargetFileName = FileUtil.replaceSeparator(targetFileName, ftpPathSeparator);
-            String localPath = null;
-            String remotePath = null;
-
-            if (baseDir != null) {
-                localPath = baseDir + targetFileName;
-                remotePath = savePath + tmpTargetFileName;
-            } else {
-                localPath = targetFileName;
-                tmpTargetFileName = new File(tmpTargetFileName).getName();
-                remotePath = savePath + tmpTargetFileName;
-            }
-            if (!Files.exists(Paths.get(localPath))) {
-                log.warn("[{}]There is no file with name '{}'", txId, localPath);
-                continue;
+            if (!FTPUtil.isDirectoryExists(ftp, savePath)) {
+                StringBuilder pathBd = null;
+                if (savePath.indexOf(ftpPathSeparator) == 0) {
+                    pathBd = new StringBuilder(ftpPathSeparator);
+                } else {
+                    pathBd = new StringBuilder();
+                }
+                for (String dirToMade : savePath.split(ftpPathSeparator)) {
+                    dirToMade = dirToMade.trim();
+                    pathBd.append(dirToMade);
+                    if (dirToMade.equals("..") || dirToMade.equals(".")) {
+                        continue;
+                    }
+                    ftp.makeDirectory(pathBd.toString());
+                    pathBd.append(ftpPathSeparator);
+                }
+
+                log.info("[{}]The directory \"{}\" is made at FTP server",  txId, savePath);
             }
 
-            InputStream is = null;
-            String existRemotePath = remotePath;
-            boolean overwritten = false;
-            boolean existFileDeleted = false;
-            try {
-                Path path = Paths.get(localPath);
-                if (Files.isDirectory(path)) {
-                    if (ftp.makeDirectory(remotePath)) {
-                        uploadedFileList.add(remotePath);
-                        ++dirCount;
-                        ++successCount;
-                    }
+            Collections.sort(targetFileNames, new Comparator<String>() {
+                @Override
+                public int compare(String o1, String o2) {
+                    return o1.compareToIgnoreCase(o2);
+                }
+            });
+
+            //parallelism 이 1보다 큰 경우 디렉터리는 순서대로 만들고 파일은 모아두었다가 여러 session 으로 동시에 업로드 한다.
+            boolean parallel = parallelism > 1 && inputListSize > 1;
+            final List<String> parallelLocalPaths = new ArrayList<>();
+            final List<String> parallelRemotePaths = new ArrayList<>();
+            final List<String> parallelTargetFileNames = new ArrayList<>();
+
+            /*
+            * 파일을 본래의 구조대로(디렉터리 구조) 업로드 하려면 FileList 객체를 사용해야만 함
+            * */
+            for (String targetFileName : targetFileNames) {
+                String tmpTargetFileName = FileUtil.replaceSeparator(targetFileName, ftpPathSeparator);
+                String localPath = null;
+                String remotePath = null;
+
+                if (baseDir != null) {
+                    localPath = baseDir + targetFileName;
+                    remotePath = savePath + tmpTargetFileName;
+                } else {
+                    localPath = targetFileName;
+                    tmpTargetFileName = new File(tmpTargetFileName).getName();
+                    remotePath = savePath + tmpTargetFileName;
+                }
+                if (!Files.exists(Paths.get(localPath))) {
+                    log.warn("[{}]There is no file with name '{}'", txId, localPath);
                     continue;
                 }
-                int i = 0;
-                while (true) {
-                    //파일 덮어쓰기 옵션이 true인 경우 파일을 이동할 때 복사본을 먼저 만든다.
-                    if (FTPUtil.isFileExists(ftp, remotePath)) {
-                        if (overwrite) {
-                            //remotePath = remotePath + "(" + (++i) + ")";
-                            remotePath = savePath + "$" + tmpTargetFileName + "(" + (++i) + ")";
-                            overwritten = true;
-                        } else {
-                            break;
-                        }
-                    } else {
-                        break;
-                    }
+
+                if (compression != CompressionType.NONE && !Files.isDirectory(Paths.get(localPath))) {
+                    tmpTargetFileName = CompressionUtil.appendExtension(tmpTargetFileName, compression);
+                    remotePath = CompressionUtil.appendExtension(remotePath, compression);
                 }
 
-                is = Files.newInputStream(path);
-                boolean uploaded = ftp.storeFile(remotePath, is);
-                if (uploaded) {
-                    if (overwritten) {
-                        log.info("[{}]Overwriting file '{}'...", txId, existRemotePath);
-                        ftp.deleteFile(existRemotePath);
-                        ftp.rename(remotePath, existRemotePath);
+                try {
+                    Path path = Paths.get(localPath);
+                    if (Files.isDirectory(path)) {
+                        if (ftp.makeDirectory(remotePath)) {
+                            uploadedFileList.add(remotePath);
+                            ++dirCount;
+                            ++successCount;
+                        }
+                        continue;
+                    }
+                    if (parallel) {
+                        parallelLocalPaths.add(localPath);
+                        parallelRemotePaths.add(remotePath);
+                        parallelTargetFileNames.add(tmpTargetFileName);
+                        continue;
                     }
 
-                    uploadedFileList.add(remotePath);
-                    ++fileCount;
-                    ++successCount;
-                    if (debuggingWhenUploaded) {
-                        log.debug("[{}]The file \"{}\" is upload to \"{}\"", txId, localPath, existRemotePath);
+                    String uploadedPath = uploadFile(ftp, txId, savePath, tmpTargetFileName, remotePath, path);
+                    if (uploadedPath != null) {
+                        uploadedFileList.add(uploadedPath);
+                        ++fileCount;
+                        ++successCount;
+                        if (debuggingWhenUploaded) {
+                            log.debug("[{}]The file \"{}\" is upload to \"{}\"", txId, localPath, remotePath);
+                        }
+                    } else {
+                        String reply = ftp.getReplyString();
+                        if (ignoreErrorFile) {
+                            errorFilePaths.add(localPath.toString());
+                            log.warn("[{}]Couldn't upload the file \"{}\" to \"{}\", but continue to upload. Reply: {}", txId, localPath, remotePath, reply);
+                        } else {
+                            throw new IllegalStateException("Couldn't upload the file \"" + localPath + "\" to \"" + remotePath + "\". FTP reply: " + reply);
+                        }
                     }
-                } else {
-                    String reply = ftp.getReplyString();
+
+                } catch (Throwable t) {
                     if (ignoreErrorFile) {
                         errorFilePaths.add(localPath.toString());
-                        log.warn("[{}]Couldn't upload the file \"{}\" to \"{}\", but continue to upload. Reply: {}", txId, localPath, remotePath, reply);
+                        log.warn("[{}]Exception occurred during upload the file \"{}\", but continue to upload. Cause: {}", txId, localPath, MessageUtil.toString(t));
                     } else {
-                        throw new IllegalStateException("Couldn't upload the file \"" + localPath + "\" to \"" + remotePath + "\". FTP reply: " + reply);
+                        if (deleteUploadedFileWhenError) {
+                            deleteUploadedFiles(ftp, uploadedFileList);
+                        }
+                        throw t;
                     }
                 }
+            }
 
-            } catch (Throwable t) {
-                if (ignoreErrorFile) {
-                    errorFilePaths.add(localPath.toString());
-                    log.warn("[{}]Exception occurred during upload the file \"{}\", but continue to upload. Cause: {}", txId, localPath, MessageUtil.toString(t));
-                } else {
-                    if (deleteUploadedFileWhenError) {
-                        Collections.sort(targetFileNames, new Comparator<String>() {
-                            @Override
-                            public int compare(String o1, String o2) {
-                                return o2.compareToIgnoreCase(o1);
-                            }
-                        });
-                        for (String fileToDelete : uploadedFileList) {
-                            if (fileToDelete.endsWith(ftpPathSeparator)) {
-                                ftp.removeDirectory(targetFileName);
-                            } else {
-                                ftp.deleteFile(targetFileName);
-                            }
+            if (!parallelLocalPaths.isEmpty()) {
+                final String finalSavePath = savePath;
+                List<Object> results = new ParallelFTPTransfer(srcName, parallelism).run(session, parallelLocalPaths.size(), new ParallelFTPTransfer.Task() {
+                    @Override
+                    public Object transfer(FTPClient ftp, int index) throws Exception {
+                        String localPath = parallelLocalPaths.get(index);
+                        String remotePath = parallelRemotePaths.get(index);
+                        String uploadedPath = uploadFile(ftp, txId, finalSavePath, parallelTargetFileNames.get(index), remotePath, Paths.get(localPath));
+                        if (uploadedPath == null)
+                            throw new IllegalStateException("Couldn't upload the file \"" + localPath + "\" to \"" + remotePath + "\". FTP reply: " + ftp.getReplyString());
+                        if (debuggingWhenUploaded) {
+                            log.debug("[{}]The file \"{}\" is upload to \"{}\"", txId, localPath, remotePath);
                         }
+                        return uploadedPath;
+                    }
+                }, !ignoreErrorFile);
+
+                //업로드 결과는 input 의 순서대로 처리하므로 output 과 에러 처리 방식은 하나의 session 으로 업로드 하는 경우와 같다.
+                Throwable error = null;
+                for (int i = 0; i < results.size(); i++) {
+                    Object result = results.get(i);
+                    String localPath = parallelLocalPaths.get(i);
+                    if (result instanceof String) {
+                        uploadedFileList.add((String) result);
+                        ++fileCount;
+                        ++successCount;
+                    } else if (ignoreErrorFile) {
+                        Throwable t = result != null ? (Throwable) result : notTransferred(localPath);
+                        errorFilePaths.add(localPath);
+                        log.warn("[{}]Exception occurred during upload the file \"{}\", but continue to upload. Cause: {}", txId, localPath, MessageUtil.toString(t));
+                    } else if (result instanceof Throwable && error == null) {
+                        error = (Throwable) result;
+                    }
+                }
+                //다른 파일의 에러로 중단되지 않았는데 업로드 되지 않은 파일이 있는 경우는 모든 session 의 연결이 끊어진 경우이다.
+                if (error == null && !ignoreErrorFile && results.contains(null)) {
+                    error = notTransferred(parallelLocalPaths.get(results.indexOf(null)));
+                }
+                if (error != null) {
+                    if (deleteUploadedFileWhenError) {
+                        deleteUploadedFiles(ftp, uploadedFileList);
                     }
-                    throw t;
+                    throw error;
                 }
-            } finally {
-                if (is != null) {
-                    is.close();
+            }
+
+            if (getOutput() != null) {
+                setOutputValue(ctx, uploadedFileList);
+            }
+            if (getErrorOutput() != null) {
+                if (!errorFilePaths.isEmpty()) {
+                    setErrorOutputValue(ctx, errorFilePaths);
                 }
             }
+            log.info("[{}]FTP file upload result: input_count={}, uploaded_file={}, uploaded_directory={}, upload_success={}, error_count={}"
+                    , txId, inputListSize, fileCount, dirCount, successCount, errorFilePaths.size());
+        } finally {
+            invalidateListing(srcName);
         }
+    }
 
-        if (getOutput() != null) {
-            setOutputValue(ctx, uploadedFileList);
+    //remotePath 에 파일을 업로드 하고 업로드 한 경로를 반환한다. 업로드 하지 못한 경우 null 을 반환한다.
+    private String uploadFile(FTPClient ftp, String txId, String savePath, String tmpTargetFileName, String remotePath, Path path) throws IOException {
+        String existRemotePath = remotePath;
+        boolean overwritten = false;
+        int i = 0;
+        while (true) {
+            //파일 덮어쓰기 옵션이 true인 경우 파일을 이동할 때 복사본을 먼저 만든다.
+            if (FTPUtil.isFileExists(ftp, remotePath)) {
+                if (overwrite) {
+                    //remotePath = remotePath + "(" + (++i) + ")";
+                    remotePath = savePath + "$" + tmpTargetFileName + "(" + (++i) + ")";
+                    overwritten = true;
+                } else {
+                    break;
+                }
+            } else {
+                break;
+            }
+        }
+
+        if (!storeFile(ftp, remotePath, path))
+            return null;
+        if (overwritten) {
+            log.info("[{}]Overwriting file '{}'...", txId, existRemotePath);
+            ftp.deleteFile(existRemotePath);
+            ftp.rename(remotePath, existRemotePath);
         }
-        if (getErrorOutput() != null) {
-            if (!errorFilePaths.isEmpty()) {
-                setErrorOutputValue(ctx, errorFilePaths);
+        return remotePath;
+    }
+
+    //하위 경로부터 삭제되도록 역순으로 정렬하여 업로드 한 파일과 디렉터리를 삭제한다.
+    private void deleteUploadedFiles(FTPClient ftp, List<String> uploadedFileList) throws IOException {
+        List<String> filesToDelete = new ArrayList<>(uploadedFileList);
+        Collections.sort(filesToDelete, new Comparator<String>() {
+            @Override
+            public int compare(String o1, String o2) {
+                return o2.compareToIgnoreCase(o1);
+            }
+        });
+        for (String fileToDelete : filesToDelete) {
+            if (!ftp.deleteFile(fileToDelete)) {
+                ftp.removeDirectory(fileToDelete);
             }
         }
-        log.info("[{}]FTP file upload result: input_count={}, uploaded_file={}, uploaded_directory={}, upload_success={}, error_count={}"
-                , txId, inputListSize, fileCount, dirCount, successCount, errorFilePaths.size());
+    }
+
+    private static IllegalStateException notTransferred(String localPath) {
+        return new IllegalStateException("The file '" + localPath + "' is not uploaded because all FTP sessions were stopped.");
+    }
+
+    //compression 이 NONE 이 아닌 경우 파일을 읽으면서 압축한 데이터를 전송하고, resumable 이 true 인 경우 .part 파일로 이어 올린 뒤 remotePath 로 이름을 변경한다.
+    private boolean storeFile(FTPClient ftp, String remotePath, Path path) throws IOException {
+        if (resumable)
+            return ResumableTransfer.upload(ftp, path, remotePath);
+        if (compression == CompressionType.NONE) {
+            try (InputStream is = Files.newInputStream(path)) {
+                return ftp.storeFile(remotePath, is);
+            }
+        }
+        OutputStream os = ftp.storeFileStream(remotePath);
+        if (os == null)
+            return false;
+        try (OutputStream out = CompressionUtil.compress(os, compression, compressionLevel)) {
+            Files.copy(path, out);
+        } catch (IOException | RuntimeException e) {
+            //압축 stream 을 만들지 못한 경우에도 data connection 을 닫은 뒤 전송 결과 응답을 읽어야 다음 명령을 실행할 수 있다.
+            try {
+                os.close();
+            } catch (IOException ignored) {}
+            try {
+                ftp.completePendingCommand();
+            } catch (IOException ignored) {}
+            throw e;
+        }
+        return ftp.completePendingCommand();
+    }
+
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be greater than 0. Inputted value: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        CompressionUtil.checkLevel(compressionLevel);
+        this.compressionLevel = compressionLevel;
     }
 
 
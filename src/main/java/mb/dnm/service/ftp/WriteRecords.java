@@ -0,0 +1,342 @@
+package mb.dnm.service.ftp;
+
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import mb.dnm.access.db.RowCursor;
+import mb.dnm.access.file.DelimitedRecordWriter;
+import mb.dnm.access.file.FileParserTemplate;
+import mb.dnm.access.file.FileTemplate;
+import mb.dnm.access.ftp.FTPSession;
+import mb.dnm.access.ftp.ResumableTransfer;
+import mb.dnm.code.BinaryEncoding;
+import mb.dnm.code.CompressionType;
+import mb.dnm.code.DirectoryType;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.exeption.InvalidServiceConfigurationException;
+import mb.dnm.storage.InterfaceInfo;
+import mb.dnm.util.CompressionUtil;
+import mb.dnm.util.FTPUtil;
+import mb.dnm.util.MessageUtil;
+import org.apache.commons.net.ftp.FTPClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * row 들을 로컬 파일에 저장하지 않고 구분자 파일 형식으로 변환하면서 바로 FTP 서버에 업로드 한다.
+ * <br>
+ * <br>
+ * *<b>Input</b>: 파일에 작성할 row 들<br>
+ * *<b>Input type</b>: {@code Map<String, Object>}, {@code List<Map<String, Object>>}, {@link RowCursor},
+ * {@code Iterable<Map<String, Object>>}, {@code Iterator<Map<String, Object>>}
+ * <br>
+ * <br>
+ * *<b>Output</b>: 업로드 된 파일의 FTP 경로<br>
+ * *<b>Output type</b>: {@code String}
+ * <br>
+ * <br>
+ * {@code FTPClient.storeFileStream(String)} 으로 연 data connection 에 {@link DelimitedRecordWriter} 로 row 를 하나씩 작성하므로
+ * {@link mb.dnm.service.db.Select} 의 {@code streamResultSet} 으로 연 {@link RowCursor} 를 input 으로 전달하면 조회 결과의 크기와 관계없이 일정한 메모리로 동작한다.
+ * 첫번째 row 의 KeySet 이 컬럼명으로 사용된다.<br>
+ * 파일은 먼저 {@code .part} 이름으로 업로드 된 뒤 전송이 완료되면 원래의 이름으로 변경되며, 업로드 중 에러가 발생한 경우 {@code .part} 파일은 삭제된다.
+ * 파일의 저장 경로, 이름, 인코딩에 대한 정보는 {@code InterfaceInfo} 에 저장된 {@code FileTemplate} 의 속성들로부터 가져온다.
+ * <pre style="border: 1px solid #ccc; padding: 10px; border-radius: 5px;">
+ * &lt;bean class="mb.dnm.service.ftp.WriteRecords"&gt;
+ *     &lt;property name="sourceAlias"            value="<span style="color: black; background-color: #FAF3D4;">source alias</span>"/&gt;
+ *     &lt;property name="directoryType"          value="<span style="color: black; background-color: #FAF3D4;">DirectoryType</span>"/&gt;
+ *     &lt;property name="input"                  value="<span style="color: black; background-color: #FAF3D4;">input 파라미터명</span>"/&gt;
+ *     &lt;property name="output"                 value="<span style="color: black; background-color: #FAF3D4;">output 파라미터명</span>"/&gt;
+ * &lt;/bean&gt;</pre>
+ *
+ * @see ReadRecords
+ * @see mb.dnm.service.file.WriteFile
+ * */
+@Slf4j
+@Setter
+public class WriteRecords extends AbstractFTPService implements Serializable {
+    private static final long serialVersionUID = 4417583066263420158L;
+    private DirectoryType directoryType = DirectoryType.REMOTE_SEND;
+    /**
+     * 기본값: true<br>
+     * 같은 이름의 파일이 FTP 서버에 이미 존재하는 경우 덮어쓰기를 한다. false 인 경우 에러가 발생한다.
+     * */
+    private boolean overwrite = true;
+    /**
+     * 기본값: \n<br>
+     * record 를 구분하는 문자
+     * */
+    private String recordSeparator = "\n";
+    /**
+     * 기본값: |<br>
+     * 컬럼을 구분하는 문자
+     * */
+    private String delimiter = "|";
+    /**
+     * 기본값: "" (빈값, empty string)<br>
+     * 값을 감싸는 문자
+     * */
+    private String qualifier = "";
+    /**
+     * 기본값: "" (빈값, empty string)<br>
+     * null 인 데이터를 대체하여 작성할 문자
+     * */
+    private String replacementOfNullValue = "";
+    /**
+     * 기본값: "" (빈값, empty string)<br>
+     * 빈 문자열을 대체하여 작성할 문자
+     * */
+    private String replacementOfEmptyValue = "";
+    /**
+     * 기본값: &amp;lf;<br>
+     * 데이터 중 Line Feed (\n) 를 대체하여 작성할 문자
+     * */
+    private String replacementOfLineFeed = "&lf;";
+    /**
+     * 기본값: &amp;cr;<br>
+     * 데이터 중 Carriage return (\r) 을 대체하여 작성할 문자
+     * */
+    private String replacementOfCarriageReturn = "&cr;";
+    /**
+     * 기본값: true<br>
+     * 파일의 상단에 컬럼명을 기입할 지에 대한 설정이다.
+     * */
+    private boolean addHeader = true;
+    /**
+     * 기본값: false<br>
+     * 바이트 배열({@code byte[]}) 데이터를 charset 으로 변환한 문자열로 작성할 지에 대한 설정이다.
+     * */
+    private boolean handleBinaryToString = false;
+    /**
+     * 기본값: true<br>
+     * 바이트 배열({@code byte[]}) 데이터를 BINARY_DATA_WRAPPER(&lt;![BINARY[...]]&gt;) 안에 {@code binaryEncoding} 형식으로 작성할 지에 대한 설정이다.
+     * */
+    private boolean handleBinaryAsItIs = true;
+    /**
+     * 기본값: DECIMAL<br>
+     * handleBinaryAsItIs = true 인 경우 바이트 배열을 BINARY_DATA_WRAPPER(&lt;![BINARY[...]]&gt;) 안에 어떤 형식으로 작성할 지에 대한 설정이다.
+     * @see BinaryEncoding
+     * */
+    private BinaryEncoding binaryEncoding = BinaryEncoding.DECIMAL;
+    /**
+     * 파일명 앞에 붙일 접두사에 대한 설정
+     * */
+    private String filenamePrefix = null;
+    /**
+     * 파일명 끝에 붙일 접미사에 대한 설정
+     * */
+    private String filenameSuffix = null;
+    /**
+     * 파일명을 FileTemplate 이 아닌 ServiceContext 의 특정 값으로 사용하고자 할 때 그 파라미터 명을 지정한다.
+     * 이 설정을 사용하는 경우 filenamePrefix 속성과 filenameSuffix 속성은 무효하다.
+     * */
+    private String filenameInput = null;
+    /**
+     * 파일의 인코딩. 지정되지 않은 경우 {@code FileTemplate} 의 {@code charset} 을 사용한다.
+     * */
+    private Charset commonCharset;
+    /**
+     * 기본값: NONE<br>
+     * 업로드 하면서 압축할 방식이다. {@code NONE} 이 아닌 경우 파일명에 압축 방식의 확장자(.gz, .bz2)가 추가된다.
+     * @see CompressionType
+     * */
+    private CompressionType compression = CompressionType.NONE;
+    /**
+     * 기본값: -1 (압축 방식의 기본값)<br>
+     * {@code compression} 이 {@code NONE} 이 아닌 경우 압축 레벨(1~9)이다.
+     * */
+    private int compressionLevel = CompressionUtil.DEFAULT_LEVEL;
+
+    @Override
+    public void process(ServiceContext ctx) throws Throwable {
+        if (getInput() == null) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "WriteRecords service must have the input parameter in which contain the rows to write");
+        }
+
+        InterfaceInfo info = ctx.getInfo();
+        String srcName = getFTPSourceName(info);
+        String txId = ctx.getTxId();
+
+        Object inputVal = getInputValue(ctx);
+        if (inputVal == null) {
+            log.debug("[{}]The value of input '{}' is not found. No rows to write found in context data.", txId, getInput());
+            return;
+        }
+        Iterable<Map<String, Object>> rows;
+        try {
+            if (inputVal instanceof Map) {
+                rows = Collections.singletonList((Map<String, Object>) inputVal);
+            } else if (inputVal instanceof Iterable) {
+                //List 또는 RowCursor 등 row 를 하나씩 가져오는 객체
+                rows = (Iterable<Map<String, Object>>) inputVal;
+            } else if (inputVal instanceof Iterator) {
+                final Iterator<Map<String, Object>> iterator = (Iterator<Map<String, Object>>) inputVal;
+                rows = new Iterable<Map<String, Object>>() {
+                    @Override
+                    public Iterator<Map<String, Object>> iterator() {
+                        return iterator;
+                    }
+                };
+            } else {
+                throw new ClassCastException();
+            }
+        } catch (ClassCastException ce) {
+            throw new InvalidServiceConfigurationException(this.getClass(), "The type of the input parameter value is not contained in [Map<String, Object>, List<Map<String, Object>>, Iterable<Map<String, Object>>, Iterator<Map<String, Object>>]. Inputted value's type: " + inputVal.getClass().getName());
+        }
+
+        FileTemplate template = info.getFileTemplate(srcName);
+        if (template == null)
+            throw new InvalidServiceConfigurationException(this.getClass(), "The File template with name '" + srcName + "' of the interface '" + info.getInterfaceId() + "' is null.");
+        String filename = null;
+        if (filenameInput == null) {
+            filename = template.getFileName(ctx);
+            if (filename == null)
+                throw new InvalidServiceConfigurationException(this.getClass(), "The FileTemplate's filename configuration is null. interface id: " + info.getInterfaceId());
+            if (filenamePrefix != null && !filenamePrefix.isEmpty()) {
+                filename = filenamePrefix + filename;
+            }
+            if (filenameSuffix != null && !filenameSuffix.isEmpty()) {
+                filename += filenameSuffix;
+            }
+        } else {
+            Object filenameInputVal = ctx.getContextParam(filenameInput);
+            if (filenameInputVal == null)
+                throw new InvalidServiceConfigurationException(this.getClass(), "The property filenameInput is exist but there is no value with name '" + filenameInput + "' in the context");
+            filename = filenameInputVal.toString();
+        }
+        if (compression != CompressionType.NONE) {
+            filename = CompressionUtil.appendExtension(filename, compression);
+        }
+        Charset charset = commonCharset != null ? commonCharset : template.getCharset();
+
+        String savePath = template.getFilePath(directoryType);
+        if (savePath == null)
+            throw new InvalidServiceConfigurationException(this.getClass(), "The value of " + directoryType + " of the template with name '" + srcName + "' is null");
+        //PlaceHolder mapping 을 적용할 것
+        for (Map.Entry<String, Object> entry : ctx.getContextInformation().entrySet()) {
+            StringBuilder keyBd = new StringBuilder(entry.getKey());
+            String value = String.valueOf(entry.getValue());
+            keyBd.deleteCharAt(0)
+                    .insert(0, "@{")
+                    .append("}");
+            if (savePath.contains(keyBd)) {
+                savePath = savePath.replace(keyBd, value);
+            }
+        }
+
+        FTPSession session = getFTPSession(ctx, srcName);
+        if (!session.isConnected()) {
+            new FTPLogin(getSourceAlias()).process(ctx);
+            session = (FTPSession) ctx.getSession(srcName);
+        }
+        FTPClient ftp = session.getFTPClient();
+        invalidateListing(srcName);
+        try {
+            String ftpPathSeparator = String.valueOf(ftp.printWorkingDirectory().charAt(0)).trim();
+            if (ftpPathSeparator.equals("null") || ftpPathSeparator.isEmpty()) {
+                ftpPathSeparator = "/";
+            }
+            if (!savePath.endsWith(ftpPathSeparator)) {
+                savePath = savePath + ftpPathSeparator;
+            }
+            String remotePath = savePath + filename;
+            String partPath = remotePath + ResumableTransfer.PART_SUFFIX;
+
+            if (!overwrite && FTPUtil.isFileExists(ftp, remotePath)) {
+                throw new IllegalStateException("The file '" + remotePath + "' already exists in the FTP server '" + srcName + "'");
+            }
+
+            log.info("[{}]Writing records to the FTP file \"{}\" ...", txId, remotePath);
+            long bytesWritten;
+            long recordCount;
+            OutputStream os = ftp.storeFileStream(partPath);
+            if (os == null) {
+                throw new IllegalStateException("Couldn't upload the file \"" + partPath + "\". FTP reply: " + ftp.getReplyString().trim());
+            }
+            try {
+                try (DelimitedRecordWriter writer = new DelimitedRecordWriter(Channels.newChannel(CompressionUtil.compress(os, compression, compressionLevel))
+                        , charset, newParserTemplate(), handleBinaryToString)) {
+                    writeRecords(writer, rows);
+                    writer.flush();
+                    bytesWritten = writer.getBytesWritten();
+                    recordCount = writer.getRecordCount();
+                } catch (Throwable t) {
+                    //data connection 이 닫힌 뒤 전송 결과 응답을 읽어야 다음 명령을 실행할 수 있다.
+                    os.close();
+                    ftp.completePendingCommand();
+                    throw t;
+                }
+                if (!ftp.completePendingCommand()) {
+                    throw new IllegalStateException("Couldn't upload the file \"" + partPath + "\". FTP reply: " + ftp.getReplyString().trim());
+                }
+                if (overwrite) {
+                    ftp.deleteFile(remotePath);
+                }
+                if (!ftp.rename(partPath, remotePath)) {
+                    throw new IllegalStateException("Couldn't rename the file \"" + partPath + "\" to \"" + remotePath + "\". FTP reply: " + ftp.getReplyString().trim());
+                }
+            } catch (Throwable t) {
+                try {
+                    ftp.deleteFile(partPath);
+                } catch (IOException ie) {
+                    log.warn("[{}]Failed to delete the FTP file \"{}\". Cause: {}", txId, partPath, MessageUtil.toString(ie));
+                }
+                log.warn("[{}]An error occurred while writing records to the FTP file \"{}\". Error file is deleted", txId, remotePath);
+                throw t;
+            }
+            log.info("[{}]The FTP file was saved at \"{}\". Records: {}, size: {} bytes{}", txId, remotePath, recordCount, bytesWritten
+                    , compression != CompressionType.NONE ? " (uncompressed, compression: " + compression + ")" : "");
+
+            if (getOutput() != null) {
+                setOutputValue(ctx, remotePath);
+            }
+        } finally {
+            invalidateListing(srcName);
+        }
+    }
+
+    //첫번째 row 의 KeySet 을 컬럼명으로 사용하여 row 를 하나씩 작성한다.
+    private void writeRecords(DelimitedRecordWriter writer, Iterable<Map<String, Object>> content) throws IOException {
+        Iterator<Map<String, Object>> rows = content.iterator();
+        if (!rows.hasNext()) {
+            return;
+        }
+        Map<String, Object> firstRow = rows.next();
+        List<String> columns = new ArrayList<>(firstRow.keySet());
+        if (addHeader) {
+            writer.writeHeader(columns);
+        }
+        writer.writeRecord(firstRow, columns);
+        while (rows.hasNext()) {
+            writer.writeRecord(rows.next(), columns);
+        }
+    }
+
+    private FileParserTemplate newParserTemplate() {
+        return new FileParserTemplate(recordSeparator, delimiter, qualifier,
+                replacementOfNullValue, replacementOfEmptyValue, replacementOfLineFeed,
+                replacementOfCarriageReturn, addHeader, handleBinaryAsItIs, binaryEncoding);
+    }
+
+    public void setHandleBinaryToString(boolean handleBinaryToString) {
+        handleBinaryAsItIs = !handleBinaryToString;
+        this.handleBinaryToString = handleBinaryToString;
+    }
+
+    public void setHandleBinaryAsItIs(boolean handleBinaryAsItIs) {
+        handleBinaryToString = !handleBinaryAsItIs;
+        this.handleBinaryAsItIs = handleBinaryAsItIs;
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        CompressionUtil.checkLevel(compressionLevel);
+        this.compressionLevel = compressionLevel;
+    }
+}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import mb.dnm.code.ProcessCode;
 import mb.dnm.core.ErrorHandler;
 import mb.dnm.core.Service;
+import mb.dnm.core.ServicePlan;
 import mb.dnm.core.callback.AfterProcessCallback;
 import mb.dnm.core.callback.SessionCleanupCallback;
 import mb.dnm.core.callback.TransactionCleanupCallback;
@@ -66,6 +67,7 @@ public class IterationGroup extends ParameterAssignableService implements Serial
      * IterationGroup 에서 실행될 service strategies
      * */
     private List<Service> services;
+    private ServicePlan servicePlan;
     /**
      * 각각의 Iteration 에서 service strategies 를 실행하는 도중 에러발생 시 등록할 수 있는 error handlers
      * */
@@ -213,8 +215,9 @@ public class IterationGroup extends ParameterAssignableService implements Serial
                             innerCtx.addContextParam("$total_iter_position", ++total_iter_position);
                         }
                         log.info("[{}]Iteration-Group: Unfold the services", innerTxId);
-                        for (Service service : services) {
-                            Class serviceClass = service.getClass();
+                        for (int svcIdx = 0; svcIdx < serviceCount; svcIdx++) {
+                            Service service = servicePlan.getService(svcIdx);
+                            Class<? extends Service> serviceClass = servicePlan.getServiceClass(svcIdx);
                             if (!createNewContextEachLoop) {
                                 innerCtx.addInnerServiceTrace(curServiceIdx, cnt1 + 1, serviceClass);
                             } else {
@@ -231,7 +234,9 @@ public class IterationGroup extends ParameterAssignableService implements Serial
                             try {
                                 if (innerCtx.isProcessOn()) {
                                     ++cnt1;
-                                    log.debug("[{}]Iteration-Group: Start the service '{}'({}/{})", innerTxId, serviceClass, cnt1, serviceCount);
+                                    if (log.isDebugEnabled()) {
+                                        log.debug("[{}]Iteration-Group: Start the service '{}'({}/{})", innerTxId, serviceClass, cnt1, serviceCount);
+                                    }
                                     service.process(innerCtx);
                                 } else {
                                     log.warn("[{}]Iteration-Group: Service chain is broken. An error may be exist.({}/{})\nService trace: {}", innerTxId, cnt1, serviceCount, innerCtx.getServiceTraceMessage());
@@ -450,8 +455,9 @@ public class IterationGroup extends ParameterAssignableService implements Serial
                             innerCtx.addContextParam("$total_iter_position", ++total_iter_position);
                         }
                         log.info("[{}]Iteration-Group: Unfold the services", innerTxId);
-                        for (Service service : services) {
-                            Class serviceClass = service.getClass();
+                        for (int svcIdx = 0; svcIdx < serviceCount; svcIdx++) {
+                            Service service = servicePlan.getService(svcIdx);
+                            Class<? extends Service> serviceClass = servicePlan.getServiceClass(svcIdx);
 
                             try {
                                 if (innerCtx.isProcessOn()) {
@@ -470,7 +476,9 @@ public class IterationGroup extends ParameterAssignableService implements Serial
                                     }
 
                                     ++cnt1;
-                                    log.debug("[{}]Iteration-Group: Start the service '{}'({}/{})", innerTxId, serviceClass, cnt1, serviceCount);
+                                    if (log.isDebugEnabled()) {
+                                        log.debug("[{}]Iteration-Group: Start the service '{}'({}/{})", innerTxId, serviceClass, cnt1, serviceCount);
+                                    }
                                     service.process(innerCtx);
                                 } else {
                                     log.warn("[{}]Iteration-Group: Service chain is broken. An error may be exist.({}/{})\nService trace: {}", innerTxId, cnt1, serviceCount, innerCtx.getServiceTraceMessage());
@@ -675,6 +683,7 @@ public class IterationGroup extends ParameterAssignableService implements Serial
      */
     public void setServices(List<Service> services) {
         this.services = services;
+        this.servicePlan = (services == null || services.isEmpty()) ? null : ServicePlan.compile(getClass().getSimpleName(), services);
     }
 
     /**
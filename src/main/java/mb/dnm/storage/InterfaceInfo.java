@@ -1,9 +1,12 @@
 package mb.dnm.storage;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import mb.dnm.access.db.QueryMap;
 import mb.dnm.access.file.FileTemplate;
 import mb.dnm.access.http.HttpAPITemplate;
+import mb.dnm.code.OverlapPolicy;
 import mb.dnm.core.context.ServiceContext;
 
 import java.io.Serializable;
@@ -32,6 +35,9 @@ import java.util.*;
  * 	&lt;property name="errorDynamicCodeSequence"   value="<span style="color: black; background-color: #FAF3D4;">에러 발생 시 DNC(Dynamic-Code) 시퀀스 설정</span>"/&gt;
  * 	&lt;property name="serviceId"                  value="<span style="color: black; background-color: #FAF3D4;">사용할 Service-Strategy ID</span>"/&gt;
  * 	&lt;property name="errorHandlerId"             value="<span style="color: black; background-color: #FAF3D4;">사용할 Error-Handler ID</span>"/&gt;
+ * 	&lt;property name="dispatchPoolName"           value="<span style="color: black; background-color: #FAF3D4;">Service-process 를 실행할 Dispatch pool 명</span>"/&gt;
+ * 	&lt;property name="maxConcurrentRuns"          value="<span style="color: black; background-color: #FAF3D4;">Service-process 최대 동시 실행 수</span>"/&gt;
+ * 	&lt;property name="overlapPolicy"              value="<span style="color: black; background-color: #FAF3D4;">Service-process 중복 실행 시 처리 정책(SKIP, QUEUE_ONE, COALESCE)</span>"/&gt;
  * 	&lt;property name="fileTemplates"&gt;
  * 	    &lt;list&gt;
  * 	        &lt;bean class="mb.dnm.access.file.FileTemplate"&gt;
@@ -100,6 +106,16 @@ public class InterfaceInfo implements Serializable {
      * errorQueryId가 저장되는 일종의 Queue 역할을 하는 배열이다. Error-Handling 과정에서 배열에 저장된 순서대로 errorQueryId가 소진된다.
      */
     protected String[] errorQuerySequenceArr;
+    /**
+     * {@code querySequenceArr} 로부터 만들어진 {@link QueryMap} 테이블이다. 최초 조회 시점에 생성된다.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private transient volatile QueryMapTable queryMapTable;
+    /**
+     * {@code errorQuerySequenceArr} 로부터 만들어진 {@link QueryMap} 테이블이다. 최초 조회 시점에 생성된다.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private transient volatile QueryMapTable errorQueryMapTable;
 
     /**
      * The Executor names.
@@ -140,6 +156,24 @@ public class InterfaceInfo implements Serializable {
      */
     protected boolean loggingWhenError = true;
 
+    /**
+     * {@link mb.dnm.dispatcher.NewTaskDispatcher} 에서 Service-process 를 실행할 {@link mb.dnm.dispatcher.DispatchPool} 의 이름<br>
+     * 지정하지 않은 경우 {@code DEFAULT} Pool 에서 실행된다.
+     */
+    protected String dispatchPoolName;
+    /**
+     * {@link mb.dnm.dispatcher.NewTaskDispatcher} 에서 동시에 실행될 수 있는 이 인터페이스의 Service-process 최대 개수<br>
+     * 0 이하인 경우 제한하지 않는다.<br>
+     * default: 0
+     */
+    protected int maxConcurrentRuns = 0;
+    /**
+     * {@link mb.dnm.dispatcher.NewTaskDispatcher} 에서 이 인터페이스의 Service-process 가 끝나기 전에 이벤트가 다시 수신된 경우의 처리 정책<br>
+     * 지정한 경우 {@code maxConcurrentRuns} 가 0 이하이면 1로 간주한다.<br>
+     * default: null (Dispatch pool 의 {@link mb.dnm.code.OverloadPolicy} 를 따른다)
+     */
+    protected OverlapPolicy overlapPolicy;
+
 
     /**
      * 실행할 쿼리 Sequence 를 설정한다.<br>
@@ -225,7 +259,7 @@ public class InterfaceInfo implements Serializable {
      * @see ServiceContext#getCurrentQueryOrder() ServiceContext#getCurrentQueryOrder()
      */
     public void setQuerySequence(String querySequence) {
-        this.querySequenceArr = parseQuerySequence(querySequence);
+        setQuerySequenceArr(parseQuerySequence(querySequence));
     }
 
     /**
@@ -287,7 +321,38 @@ public class InterfaceInfo implements Serializable {
      * @see ServiceContext#getCurrentErrorQueryOrder() ServiceContext#getCurrentErrorQueryOrder()
      */
     public void setErrorQuerySequence(String errorQuerySequence) {
-        this.errorQuerySequenceArr = parseQuerySequence(errorQuerySequence);
+        setErrorQuerySequenceArr(parseQuerySequence(errorQuerySequence));
+    }
+
+    /**
+     * Sets query sequence arr.
+     *
+     * @param querySequenceArr the query sequence arr
+     */
+    public void setQuerySequenceArr(String[] querySequenceArr) {
+        this.querySequenceArr = querySequenceArr;
+        this.queryMapTable = null;
+    }
+
+    /**
+     * Sets error query sequence arr.
+     *
+     * @param errorQuerySequenceArr the error query sequence arr
+     */
+    public void setErrorQuerySequenceArr(String[] errorQuerySequenceArr) {
+        this.errorQuerySequenceArr = errorQuerySequenceArr;
+        this.errorQueryMapTable = null;
+    }
+
+    /**
+     * Sets tx timeout second.
+     *
+     * @param txTimeoutSecond the tx timeout second
+     */
+    public void setTxTimeoutSecond(int txTimeoutSecond) {
+        this.txTimeoutSecond = txTimeoutSecond;
+        this.queryMapTable = null;
+        this.errorQueryMapTable = null;
     }
 
     /**
@@ -792,6 +857,42 @@ public class InterfaceInfo implements Serializable {
         return errorQuerySequenceArr;
     }
 
+    /**
+     * {@code querySequence} 로부터 만들어진 {@link QueryMapTable} 을 가져온다.<br>
+     * 테이블은 최초 조회 시점에 한 번만 생성되며 {@code querySequence} 또는 {@code txTimeoutSecond} 가 변경되면 다시 생성된다.
+     *
+     * @return the query map table, {@code querySequence} 가 등록되지 않은 경우 null
+     */
+    public QueryMapTable getQueryMapTable() {
+        QueryMapTable table = queryMapTable;
+        if (table == null) {
+            String[] sequence = querySequenceArr;
+            if (sequence == null)
+                return null;
+            table = new QueryMapTable(sequence, txTimeoutSecond);
+            queryMapTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * {@code errorQuerySequence} 로부터 만들어진 {@link QueryMapTable} 을 가져온다.<br>
+     * 테이블은 최초 조회 시점에 한 번만 생성되며 {@code errorQuerySequence} 또는 {@code txTimeoutSecond} 가 변경되면 다시 생성된다.
+     *
+     * @return the error query map table, {@code errorQuerySequence} 가 등록되지 않은 경우 null
+     */
+    public QueryMapTable getErrorQueryMapTable() {
+        QueryMapTable table = errorQueryMapTable;
+        if (table == null) {
+            String[] sequence = errorQuerySequenceArr;
+            if (sequence == null)
+                return null;
+            table = new QueryMapTable(sequence, txTimeoutSecond);
+            errorQueryMapTable = table;
+        }
+        return table;
+    }
+
     /**
      * {@code InterfaceInfo}의 HTTP 수신 Method 를 지정한다.
      * <br>
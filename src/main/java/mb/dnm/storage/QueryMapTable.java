@@ -0,0 +1,84 @@
+package mb.dnm.storage;
+
+import mb.dnm.access.db.QueryMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link InterfaceInfo} 에 등록된 query sequence 를 한 번만 분석하여 만든 불변 {@link QueryMap} 테이블이다.<br>
+ * {@link mb.dnm.core.context.ServiceContext} 는 매번 query 문자열을 분석하거나 {@code QueryMap} 을 생성하지 않고 이 테이블의 {@code QueryMap} 을 그대로 사용한다.<br>
+ * queryId 로 {@code QueryMap} 을 찾는 경우 "." 뒤에 오는 모든 접미사(예: {@code SELECT}, {@code IF_TEST.SELECT})를 키로 하는 인덱스를 사용하며,
+ * 같은 키를 가진 query 가 여러개인 경우 sequence 에서 먼저 등록된 query 가 선택된다.
+ *
+ * @see InterfaceInfo#getQueryMapTable()
+ * @see InterfaceInfo#getErrorQueryMapTable()
+ */
+public final class QueryMapTable {
+    private final QueryMap[] queryMaps;
+    private final Map<String, Integer> idIndex;
+
+    /**
+     * Instantiates a new Query map table.
+     *
+     * @param querySequence the query sequence
+     * @param timeoutSecond the timeout second
+     */
+    QueryMapTable(String[] querySequence, int timeoutSecond) {
+        int size = querySequence.length;
+        queryMaps = new QueryMap[size];
+        idIndex = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            String query = querySequence[i];
+            int executorNameIdx = query.indexOf('$');
+            if (executorNameIdx == -1) {
+                throw new IllegalArgumentException("The query must contain the QueryExecutor separating character '$': " + query);
+            }
+            String executorName = query.substring(0, executorNameIdx);
+            String queryId = query.substring(executorNameIdx + 1);
+            queryMaps[i] = new QueryMap(executorName, queryId, timeoutSecond);
+
+            int dotIdx = query.indexOf('.');
+            while (dotIdx != -1) {
+                String key = query.substring(dotIdx + 1);
+                if (!idIndex.containsKey(key)) {
+                    idIndex.put(key, i);
+                }
+                dotIdx = query.indexOf('.', dotIdx + 1);
+            }
+        }
+    }
+
+    /**
+     * 테이블의 크기를 가져온다.
+     *
+     * @return the size
+     */
+    public int size() {
+        return queryMaps.length;
+    }
+
+    /**
+     * 순번에 해당하는 {@code QueryMap} 을 가져온다.
+     *
+     * @param idx the index
+     * @return the query map
+     */
+    public QueryMap get(int idx) {
+        return queryMaps[idx];
+    }
+
+    /**
+     * queryId 로 {@code QueryMap} 을 찾는다.
+     *
+     * @param id the query id. 공백은 무시된다.
+     * @return the query map, 존재하지 않는 경우 null
+     */
+    public QueryMap find(String id) {
+        if (id.indexOf(' ') != -1) {
+            id = id.replace(" ", "");
+        }
+        Integer idx = idIndex.get(id);
+        return idx == null ? null : queryMaps[idx];
+    }
+}
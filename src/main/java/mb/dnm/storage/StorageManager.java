@@ -2,6 +2,7 @@ package mb.dnm.storage;
 
 import mb.dnm.core.ErrorHandler;
 import mb.dnm.core.Service;
+import mb.dnm.core.ServicePlan;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.Serializable;
@@ -20,6 +21,8 @@ public class StorageManager implements Serializable {
     private Map<String, InterfaceInfo> interfaceRegistry;
     private Map<String, List<Service>> serviceRegistry;
     private Map<String, List<ErrorHandler>> errorHandlerRegistry;
+    private Map<String, ServicePlan> servicePlanRegistry;
+    private Map<String, ErrorHandler[]> errorHandlerPlanRegistry;
     private Map<String, String> httpRequestMappingRegistry;
     private boolean httpInterfaceEnabled = true;
     private boolean defaultInterfaceEnabled = true;
@@ -33,6 +36,8 @@ public class StorageManager implements Serializable {
             instance.interfaceRegistry = new HashMap<>();
             instance.serviceRegistry = new HashMap<>();
             instance.errorHandlerRegistry = new HashMap<>();
+            instance.servicePlanRegistry = new HashMap<>();
+            instance.errorHandlerPlanRegistry = new HashMap<>();
             instance.httpRequestMappingRegistry = new HashMap<>();
         }
     }
@@ -102,7 +107,8 @@ public class StorageManager implements Serializable {
     }
 
     /**
-     * {@code StorageManager}의 ServiceRegistry 에 Service-Strategies 를 등록한다.
+     * {@code StorageManager}의 ServiceRegistry 에 Service-Strategies 를 등록한다.<br>
+     * 등록된 Service-Strategy 는 {@link ServicePlan} 으로 변환되어 함께 저장된다.
      *
      * @param services the services
      */
@@ -112,6 +118,7 @@ public class StorageManager implements Serializable {
             if (serviceList.isEmpty())
                 throw new IllegalArgumentException("Service list for service id '" + id + "' is empty");
             this.serviceRegistry.put(id, serviceList);
+            this.servicePlanRegistry.put(id, ServicePlan.compile(id, serviceList));
         }
     }
 
@@ -126,6 +133,7 @@ public class StorageManager implements Serializable {
             if (errorHandlerList.isEmpty())
                 throw new IllegalArgumentException("ErrorHandler list for errorHandler id '" + id + "' is empty");
             this.errorHandlerRegistry.put(id, errorHandlerList);
+            this.errorHandlerPlanRegistry.put(id, errorHandlerList.toArray(new ErrorHandler[errorHandlerList.size()]));
         }
     }
 
@@ -156,6 +164,32 @@ public class StorageManager implements Serializable {
         return instance.serviceRegistry.get(id);
     }
 
+    /**
+     * serviceId 를 사용하여 {@code StorageManager}에 등록된 ServiceStrategy 의 {@link ServicePlan} 을 가져온다.
+     *
+     * @param id ID of serviceStrategy
+     * @return the service plan, 존재하지 않는 경우 null
+     * @see InterfaceInfo#getServiceId()
+     */
+    public ServicePlan getServicePlan(String id) {
+        if (id == null)
+            return null;
+        return instance.servicePlanRegistry.get(id);
+    }
+
+    /**
+     * errorHandlerId 를 사용하여 {@code StorageManager}에 등록된 ErrorHandler 를 배열로 가져온다.
+     *
+     * @param id errorHandlerId
+     * @return ErrorHandler 배열, 존재하지 않는 경우 null
+     * @see InterfaceInfo#getErrorHandlerId()
+     */
+    public ErrorHandler[] getErrorHandlerPlan(String id) {
+        if (id == null)
+            return null;
+        return instance.errorHandlerPlanRegistry.get(id);
+    }
+
     /**
      * errorHandlerId 를 사용하여 {@code StorageManager}에 등록된 ErrorHandler 를 가져온다.
      *
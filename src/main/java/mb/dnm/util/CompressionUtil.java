@@ -0,0 +1,141 @@
+package mb.dnm.util;
+
+import mb.dnm.code.CompressionType;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+/**
+ * {@link CompressionType} 에 따라 stream 을 압축하거나 압축을 해제한다.<br>
+ * 데이터 전체를 메모리에 올리지 않고 stream 으로 쓰거나 읽는 만큼 압축/해제하므로 큰 파일의 쓰기, 읽기, FTP 전송에 사용된다.
+ *
+ * @see CompressionType
+ */
+public class CompressionUtil {
+    /**
+     * 압축하거나 압축을 해제할 때 사용하는 buffer 의 크기
+     */
+    public static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * 압축 방식의 기본 압축 레벨을 사용한다.
+     */
+    public static final int DEFAULT_LEVEL = -1;
+
+    private CompressionUtil() {}
+
+    /**
+     * {@code out} 에 쓰는 데이터를 압축하는 {@code OutputStream} 을 생성한다.
+     * 반환된 stream 을 닫아야 압축이 완료되며 {@code out} 도 함께 닫힌다.
+     *
+     * @param out   압축된 데이터를 쓸 stream
+     * @param type  압축 방식. {@code NONE} 인 경우 압축하지 않는다.
+     * @param level 압축 레벨(1~9). {@link #DEFAULT_LEVEL} 인 경우 압축 방식의 기본값을 사용한다.
+     * @return the output stream
+     * @throws IOException the io exception
+     */
+    public static OutputStream compress(OutputStream out, CompressionType type, int level) throws IOException {
+        checkLevel(level);
+        OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        switch (type) {
+            case NONE:
+                return buffered;
+            case GZIP: {
+                GzipParameters parameters = new GzipParameters();
+                parameters.setCompressionLevel(level == DEFAULT_LEVEL ? Deflater.DEFAULT_COMPRESSION : level);
+                return new GzipCompressorOutputStream(buffered, parameters);
+            }
+            case BZIP2:
+                return new BZip2CompressorOutputStream(buffered, level == DEFAULT_LEVEL ? BZip2CompressorOutputStream.MAX_BLOCKSIZE : level);
+            default:
+                throw new IllegalArgumentException("Unsupported compression type: " + type);
+        }
+    }
+
+    /**
+     * {@code in} 의 데이터를 압축 해제하며 읽는 {@code InputStream} 을 생성한다. 여러 개의 압축 member 가 이어진 데이터는 하나의 데이터로 읽는다.
+     *
+     * @param in   압축된 데이터를 읽을 stream
+     * @param type 압축 방식. {@code NONE} 인 경우 압축을 해제하지 않는다.
+     * @return the input stream
+     * @throws IOException the io exception
+     */
+    public static InputStream decompress(InputStream in, CompressionType type) throws IOException {
+        InputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        switch (type) {
+            case NONE:
+                return buffered;
+            case GZIP:
+                return new GzipCompressorInputStream(buffered, true);
+            case BZIP2:
+                return new BZip2CompressorInputStream(buffered, true);
+            default:
+                throw new IllegalArgumentException("Unsupported compression type: " + type);
+        }
+    }
+
+    /**
+     * {@code in} 의 데이터를 모두 {@code out} 에 쓴다. 두 stream 모두 닫지 않는다.
+     *
+     * @param in  the in
+     * @param out the out
+     * @return 읽은 byte 수
+     * @throws IOException the io exception
+     */
+    public static long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * 파일명이 압축 방식의 확장자로 끝나지 않는 경우 확장자를 붙인다.
+     *
+     * @param filename the filename
+     * @param type     the type
+     * @return the string
+     */
+    public static String appendExtension(String filename, CompressionType type) {
+        String extension = type.extension();
+        if (extension.isEmpty() || filename.toLowerCase().endsWith(extension))
+            return filename;
+        return filename + extension;
+    }
+
+    /**
+     * 파일명이 압축 방식의 확장자로 끝나는 경우 확장자를 제거한다.
+     *
+     * @param filename the filename
+     * @param type     the type
+     * @return the string
+     */
+    public static String removeExtension(String filename, CompressionType type) {
+        String extension = type.extension();
+        if (extension.isEmpty() || filename.length() <= extension.length() || !filename.toLowerCase().endsWith(extension))
+            return filename;
+        return filename.substring(0, filename.length() - extension.length());
+    }
+
+    /**
+     * 압축 레벨을 검증한다.
+     *
+     * @param level the level
+     */
+    public static void checkLevel(int level) {
+        if (level != DEFAULT_LEVEL && (level < 1 || level > 9))
+            throw new IllegalArgumentException("The compression level must be between 1 and 9, or -1 for the default level. Inputted value: " + level);
+    }
+}
@@ -0,0 +1,113 @@
+package com.mb.service.db;
+
+import com.mb.service.helper.MockServiceContextBuilder;
+import com.mb.service.helper.StubDataSources;
+import mb.dnm.access.db.DataSourceProvider;
+import mb.dnm.access.db.QueryExecutor;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.core.context.TransactionContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchWriterTest {
+
+    private QueryExecutor executor;
+    private TransactionContext txCtx;
+
+    @Before
+    public void setUp() throws Exception {
+        StubDataSources.register();
+        StubDataSources.clearEvents();
+        StubDataSources.addMapper(StubDataSources.EXECUTOR_A, "BATCH_IF",
+                "<insert id=\"INSERT\">INSERT INTO ROWS_T (ID, NAME, IF_ID) VALUES (#{ID}, #{NAME}, #{IF_ID})</insert>"
+                + "<insert id=\"INSERT_REMOVING\"><if test=\"_parameter.remove('NAME') != null\"></if>INSERT INTO ROWS_T (ID) VALUES (#{ID})</insert>");
+        executor = DataSourceProvider.access().getExecutor(StubDataSources.EXECUTOR_A);
+
+        ServiceContext ctx = MockServiceContextBuilder.createDefault().build();
+        ctx.setGroupTransaction(StubDataSources.EXECUTOR_A, false);
+        txCtx = ctx.getTransactionContext(StubDataSources.EXECUTOR_A);
+    }
+
+    @Test
+    public void testDoBatchInsert_FlushesAtBatchSizeAndFinalPartialBatch() {
+        // When
+        int inserted = executor.doBatchInsert(txCtx, "BATCH_IF.INSERT", rows(5), null, 2);
+
+        // Then
+        assertEquals(5, inserted);
+        assertEquals(Arrays.asList("executeBatch:2", "executeBatch:2", "executeBatch:1", "commit:unlabeled"), StubDataSources.events());
+        assertEquals(5, StubDataSources.parameters().size());
+    }
+
+    @Test
+    public void testDoBatchInsert_IteratorInput_FlushesAtBatchSize() {
+        // When
+        int inserted = executor.doBatchInsert(txCtx, "BATCH_IF.INSERT", rows(4).iterator(), null, 3);
+
+        // Then
+        assertEquals(4, inserted);
+        assertEquals(Arrays.asList("executeBatch:3", "executeBatch:1", "commit:unlabeled"), StubDataSources.events());
+    }
+
+    @Test
+    public void testDoBatchInsert_RowParameters_TakePrecedenceOverContextInformation() {
+        // Given - 두번째 row 는 NAME 을 null 로 가지고 있다.
+        List<Map<String, Object>> rows = rows(2);
+        rows.get(1).put("NAME", null);
+        Map<String, Object> ctxInfo = new HashMap<>();
+        ctxInfo.put("NAME", "ctx_name");
+        ctxInfo.put("IF_ID", "TEST_IF");
+
+        // When
+        executor.doBatchInsert(txCtx, "BATCH_IF.INSERT", rows, ctxInfo, 10);
+
+        // Then
+        assertEquals(Arrays.asList(
+                Arrays.<Object>asList(0, "name0", "TEST_IF"),
+                Arrays.<Object>asList(1, null, "TEST_IF")), StubDataSources.parameters());
+        assertEquals(2, ctxInfo.size());
+        assertEquals(2, rows.get(0).size());
+    }
+
+    @Test
+    public void testDoBatchInsert_QueryRemovingParameter_IsRejected() {
+        // Given
+        List<Map<String, Object>> rows = rows(1);
+
+        // When
+        try {
+            executor.doBatchInsert(txCtx, "BATCH_IF.INSERT_REMOVING", rows, null, 10);
+            fail("Removing a batch parameter must be rejected");
+        } catch (RuntimeException e) {
+            // Then
+            Throwable cause = e;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertTrue(cause instanceof UnsupportedOperationException);
+        }
+        assertEquals("name0", rows.get(0).get("NAME"));
+        assertEquals(Arrays.asList("rollback:unlabeled"), StubDataSources.events());
+    }
+
+    private static List<Map<String, Object>> rows(int count) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("ID", i);
+            row.put("NAME", "name" + i);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,142 @@
+package com.mb.service.db;
+
+import com.mb.service.helper.StubDataSources;
+import mb.dnm.access.db.CompactRow;
+import mb.dnm.access.db.QueryExecutor;
+import mb.dnm.access.db.RowSchema;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactRowTest {
+    private static final String MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">"
+            + "<mapper namespace=\"stub\"><select id=\"select\" resultType=\"map\">SELECT * FROM STUB</select></mapper>";
+    //HashMap 의 순회 순서와 다른 컬럼 순서
+    private static final String[] LABELS = {"ZIP_CODE", "ADDRESS", "NAME", "ID"};
+
+    private QueryExecutor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        Object[][] rows = {
+                {"04524", "Seoul", "kim", "1"},
+                {"48058", null, "lee", "2"}
+        };
+        Configuration configuration = new Configuration(new Environment("stub", new JdbcTransactionFactory(),
+                StubDataSources.newQueryDataSource(LABELS, rows)));
+        new XMLMapperBuilder(new ByteArrayInputStream(MAPPER.getBytes("UTF-8")), configuration, "stub.xml",
+                configuration.getSqlFragments()).parse();
+
+        executor = new QueryExecutor();
+        executor.setCompactRows(true);
+        executor.setDefaultExecutorType(ExecutorType.SIMPLE);
+        executor.initialize(new SqlSessionFactoryBuilder().build(configuration));
+    }
+
+    @Test
+    public void testDoSelect_IteratesInColumnOrder() {
+        // When
+        List<Map<String, Object>> rows = executor.doSelect(null, "stub.select");
+
+        // Then
+        assertEquals(2, rows.size());
+        assertEquals(Arrays.asList(LABELS), new ArrayList<>(rows.get(0).keySet()));
+        assertFalse(Arrays.asList(LABELS).equals(new ArrayList<>(new HashMap<>(rows.get(0)).keySet())));
+        assertEquals(Arrays.asList("ZIP_CODE", "NAME", "ID"), new ArrayList<>(rows.get(1).keySet()));
+    }
+
+    @Test
+    public void testDoSelect_RowsShareSchema() {
+        // When
+        List<Map<String, Object>> rows = executor.doSelects(null, "stub.select",
+                Arrays.asList(new HashMap<String, Object>(), new HashMap<String, Object>()));
+
+        // Then
+        assertEquals(4, rows.size());
+        RowSchema schema = ((CompactRow) rows.get(0)).getSchema();
+        for (Map<String, Object> row : rows) {
+            assertSame(schema, ((CompactRow) row).getSchema());
+        }
+        assertEquals(LABELS.length, schema.size());
+    }
+
+    @Test
+    public void testPut_NewKey_AddsColumnOnlyToThatRow() {
+        // Given
+        List<Map<String, Object>> rows = executor.doSelect(null, "stub.select");
+        Map<String, Object> first = rows.get(0);
+        Map<String, Object> second = rows.get(1);
+
+        // When
+        Object old = first.put("EXTRA", "x");
+
+        // Then
+        assertNull(old);
+        assertEquals(5, first.size());
+        assertEquals("x", first.get("EXTRA"));
+        assertEquals("EXTRA", new ArrayList<>(first.keySet()).get(4));
+        assertFalse(second.containsKey("EXTRA"));
+        assertEquals(3, second.size());
+        assertEquals(5, ((CompactRow) second).getSchema().size());
+    }
+
+    @Test
+    public void testEqualsAndHashCode_MatchHashMap() {
+        // Given
+        RowSchema schema = new RowSchema(new String[]{"A", "B", "C"});
+        Map<String, Object> hashRow = new HashMap<>();
+        hashRow.put("A", 1);
+        hashRow.put("C", null);
+        CompactRow row = CompactRow.copyOf(schema, hashRow);
+
+        // Then - 값이 null 인 컬럼과 존재하지 않는 컬럼이 구분된다.
+        assertEquals(hashRow, row);
+        assertEquals(row, hashRow);
+        assertEquals(hashRow.hashCode(), row.hashCode());
+        assertTrue(row.containsKey("C"));
+        assertFalse(row.containsKey("B"));
+
+        // When
+        hashRow.put("B", null);
+
+        // Then
+        assertFalse(hashRow.equals(row));
+        assertFalse(row.equals(hashRow));
+    }
+
+    @Test
+    public void testRemove_KeepsOrderOfRemainingColumns() {
+        // Given
+        CompactRow row = new CompactRow(new RowSchema(LABELS));
+        for (String label : LABELS) {
+            row.put(label, label.toLowerCase());
+        }
+
+        // When
+        row.remove("ADDRESS");
+        row.put("ADDRESS", "again");
+
+        // Then
+        assertEquals(Arrays.asList(LABELS), new ArrayList<>(row.keySet()));
+        assertEquals(LABELS.length, row.size());
+    }
+}
@@ -0,0 +1,103 @@
+package com.mb.service.db;
+
+import com.mb.service.helper.MockServiceContextBuilder;
+import com.mb.service.helper.StubDataSources;
+import mb.dnm.access.db.QueryExecutor;
+import mb.dnm.access.db.TransactionRouter;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.core.context.TransactionContext;
+import mb.dnm.service.db.Commit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class GroupTransactionTest {
+
+    private final List<String> committedSynchronizations = Collections.synchronizedList(new ArrayList<String>());
+    private QueryExecutor executorA;
+    private QueryExecutor executorB;
+    private ServiceContext ctx;
+
+    @Before
+    public void setUp() throws Exception {
+        StubDataSources.register();
+        StubDataSources.clearEvents();
+        executorA = TransactionRouter.createProxy(new SynchronizingExecutor(), StubDataSources.EXECUTOR_A);
+        executorB = TransactionRouter.createProxy(new SynchronizingExecutor(), StubDataSources.EXECUTOR_B);
+
+        ctx = MockServiceContextBuilder.createDefault().build();
+        ctx.getInfo().setExecutorNames(new LinkedHashSet<>(Arrays.asList(StubDataSources.EXECUTOR_A, StubDataSources.EXECUTOR_B)));
+        ctx.setGroupTransaction(StubDataSources.EXECUTOR_A, true);
+        ctx.setGroupTransaction(StubDataSources.EXECUTOR_B, false);
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    @Test
+    public void testCommit_StandaloneCallBetweenGroupCalls_DoesNotJoinGroupTransaction() throws Throwable {
+        // Given
+        TransactionContext groupTx = ctx.getTransactionContext(StubDataSources.EXECUTOR_A);
+        TransactionContext standaloneTx = ctx.getTransactionContext(StubDataSources.EXECUTOR_B);
+        Map<String, Object> row = new HashMap<>();
+
+        // When
+        executorA.doInsert(groupTx, "A1", row);
+        executorB.doInsert(null, "B1", row);
+        executorB.doInsert(standaloneTx, "B2", row);
+        executorA.doInsert(groupTx, "A2", row);
+        executorB.doInsert(null, "B3", row);
+        executorB.doInsert(standaloneTx, "B4", row);
+        List<String> beforeGroupCommit = new ArrayList<>(committedSynchronizations);
+        committedSynchronizations.clear();
+        new Commit().process(ctx);
+
+        // Then
+        assertEquals(Arrays.asList("B2", "B4"), beforeGroupCommit);
+        assertEquals(Arrays.asList("A1", "A2"), committedSynchronizations);
+        assertEquals(Arrays.asList("commit:B2", "commit:B4", "commit:A2"), StubDataSources.events());
+    }
+
+    /**
+     * SqlSessionTemplate 처럼 쿼리를 실행할 때 synchronization 이 활성화되어 있으면 synchronization 을 등록하는 executor
+     */
+    private class SynchronizingExecutor extends QueryExecutor {
+
+        @Override
+        public int doInsert(TransactionContext txCtx, final String sqlId, Map<String, Object> insertRow) {
+            if (txCtx != null) {
+                try {
+                    StubDataSources.label(txCtx.getName(), sqlId);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return 1;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    committedSynchronizations.add(sqlId);
+                }
+            });
+            return 1;
+        }
+    }
+}
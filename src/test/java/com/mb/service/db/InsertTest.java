@@ -67,6 +67,17 @@ public class InsertTest {
         assertTrue(true);
     }
 
+    @Test(expected = InvalidServiceConfigurationException.class)
+    public void testProcess_ParallelismWithGroupTransaction_ThrowsException() throws Throwable {
+        // Given
+        service.setParallelism(4);
+        service.setChunkSize(5000);
+        ctx.setGroupTransaction("TEST_DB", true);
+
+        // When
+        service.process(ctx);
+    }
+
     @Test
     public void testSetIgnoreError() {
         // Given
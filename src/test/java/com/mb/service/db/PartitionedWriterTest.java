@@ -0,0 +1,124 @@
+package com.mb.service.db;
+
+import com.mb.service.helper.MockServiceContextBuilder;
+import com.mb.service.helper.StubDataSources;
+import mb.dnm.access.db.PartitionReport;
+import mb.dnm.access.db.PartitionedWriter;
+import mb.dnm.access.db.QueryExecutor;
+import mb.dnm.access.db.TransactionRouter;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.core.context.TransactionContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PartitionedWriterTest {
+
+    private PartitionWritingExecutor target;
+    private QueryExecutor executor;
+    private TransactionContext txCtx;
+
+    @Before
+    public void setUp() throws Exception {
+        StubDataSources.register();
+        StubDataSources.clearEvents();
+        target = new PartitionWritingExecutor();
+        executor = TransactionRouter.createProxy(target, StubDataSources.EXECUTOR_A);
+
+        ServiceContext ctx = MockServiceContextBuilder.createDefault().build();
+        ctx.setGroupTransaction(StubDataSources.EXECUTOR_A, false);
+        txCtx = ctx.getTransactionContext(StubDataSources.EXECUTOR_A);
+    }
+
+    @Test
+    public void testInsert_CommitsPartitionsInInputOrder() throws Exception {
+        // Given - 앞선 파티션의 쓰기가 더 오래 걸린다.
+        target.delays = new long[]{150, 0, 100, 0};
+        PartitionedWriter writer = new PartitionedWriter(executor, txCtx, 2, 2);
+
+        // When
+        PartitionReport report = writer.insert("INSERT", rows(8), null);
+
+        // Then
+        assertTrue(report.isSuccess());
+        assertEquals(4, report.getPartitionCount());
+        assertEquals(8, report.getCommittedRows());
+        assertEquals(8, report.getAffectedRows());
+        assertEquals(Arrays.asList("commit:p0", "commit:p1", "commit:p2", "commit:p3"), StubDataSources.events());
+        assertTrue(target.maxConcurrency.get() <= 2);
+    }
+
+    @Test
+    public void testInsert_FailedPartition_RollsBackItAndFollowingPartitions() throws Exception {
+        // Given - 두 번째 파티션은 다른 파티션의 쓰기가 끝난 뒤 실패한다.
+        target.delays = new long[]{0, 100, 0, 0};
+        target.failingPartition = 1;
+        PartitionedWriter writer = new PartitionedWriter(executor, txCtx, 4, 2);
+
+        // When
+        PartitionReport report = writer.insert("INSERT", rows(8), null);
+
+        // Then
+        assertFalse(report.isSuccess());
+        assertEquals(2, report.getCommittedRows());
+        assertEquals("Partition 1 failed", report.getFirstError().getMessage());
+        assertEquals(Arrays.asList("commit:p0", "rollback:p1", "rollback:p2", "rollback:p3"), StubDataSources.events());
+        Map<String, Object> reportMap = report.toMap();
+        assertEquals(2, reportMap.get("committed_rows"));
+    }
+
+    private static List<Map<String, Object>> rows(int count) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", i);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * 파티션의 커넥션에 파티션 번호를 붙이고, 파티션 별로 지정된 시간 동안 쓰기를 수행하는 executor
+     */
+    private static class PartitionWritingExecutor extends QueryExecutor {
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+        private volatile long[] delays = new long[0];
+        private volatile int failingPartition = -1;
+
+        @Override
+        public int doBatchInsert(TransactionContext txCtx, String sqlId, List<Map<String, Object>> insertRows, Map<String, Object> commonParam) {
+            int partition = (Integer) insertRows.get(0).get("id") / insertRows.size();
+            updateMaxConcurrency(concurrency.incrementAndGet());
+            try {
+                StubDataSources.label(txCtx.getName(), "p" + partition);
+                if (partition < delays.length && delays[partition] > 0) {
+                    Thread.sleep(delays[partition]);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                concurrency.decrementAndGet();
+            }
+            if (partition == failingPartition) {
+                throw new IllegalStateException("Partition " + partition + " failed");
+            }
+            return insertRows.size();
+        }
+
+        private synchronized void updateMaxConcurrency(int current) {
+            if (current > maxConcurrency.get())
+                maxConcurrency.set(current);
+        }
+    }
+}
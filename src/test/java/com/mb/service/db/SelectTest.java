@@ -128,6 +128,29 @@ public class SelectTest {
         assertTrue(true);
     }
 
+    @Test(expected = InvalidServiceConfigurationException.class)
+    public void testProcess_StreamResultSetWithoutGroupTransaction_ThrowsException() throws Throwable {
+        // Given
+        service.setOutput("output");
+        service.setQueryId("SELECT");
+        service.setStreamResultSet(true);
+
+        // When - StartTransaction 으로 트랜잭션 그룹이 열리지 않은 상태
+        service.process(ctx);
+    }
+
+    @Test(expected = InvalidServiceConfigurationException.class)
+    public void testProcess_StreamResultSetWithHandleResultSet_ThrowsException() throws Throwable {
+        // Given
+        service.setOutput("output");
+        service.setQueryId("SELECT");
+        service.setHandleResultSet(true);
+        service.setStreamResultSet(true);
+
+        // When
+        service.process(ctx);
+    }
+
     @Test
     public void testSetIgnoreError() {
         // Given
@@ -14,6 +14,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -95,6 +96,38 @@ public class CopyFilesTest {
         assertTrue(result instanceof List);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProcess_CopyFilesInBulkMode() throws Throwable {
+        // Given
+        List<String> filePaths = new ArrayList<>();
+        filePaths.add(sourceFile.toString());
+        for (int i = 0; i < 10; i++) {
+            filePaths.add(TestDataFactory.createTempFile(tempDir, "bulk" + i + ".txt", "Bulk Content " + i).toString());
+        }
+        filePaths.add(tempDir.resolve("not_exist.txt").toString());
+        service.setInput("filePaths");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setBulkMode(true);
+        service.setWorkers(4);
+        service.setStatisticsOutput("statistics");
+        ctx.addContextParam("filePaths", filePaths);
+
+        // When
+        service.process(ctx);
+
+        // Then
+        List<String> result = (List<String>) ctx.getContextParam("output");
+        assertEquals(11, result.size());
+        Path dest = tempDir.resolve("copy_dest");
+        assertEquals("Bulk Content 7", new String(Files.readAllBytes(dest.resolve("bulk7.txt")), "UTF-8"));
+        assertTrue(Files.exists(sourceFile));
+        Map<String, Object> statistics = (Map<String, Object>) ctx.getContextParam("statistics");
+        assertEquals(11, statistics.get("file_count"));
+        assertEquals(11, ((List<?>) statistics.get("files")).size());
+    }
+
     @Test
     public void testProcess_NullInputValue_ReturnsEarly() throws Throwable {
         // Given
@@ -0,0 +1,109 @@
+package com.mb.service.file;
+
+import com.mb.service.helper.MockServiceContextBuilder;
+import com.mb.service.helper.TestDataFactory;
+import mb.dnm.access.file.ContentHashIndex;
+import mb.dnm.access.file.DuplicateFileFilter;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.service.file.FilterDuplicateFiles;
+import mb.dnm.util.MessageUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FilterDuplicateFilesTest {
+
+    private FilterDuplicateFiles service;
+    private ServiceContext ctx;
+    private Path tempDir;
+    private Path indexFile;
+
+    @Before
+    public void setUp() throws Exception {
+        tempDir = TestDataFactory.createTempDirectory("duplicate_test");
+        //index 는 저장 파일 별로 공유되므로 테스트마다 다른 파일을 사용한다.
+        indexFile = tempDir.resolve("index/hashes_" + System.nanoTime() + ".json");
+        service = new FilterDuplicateFiles();
+        service.setHashIndexFile(indexFile.toString());
+        service.setRegisterOnSuccess(false);
+        service.setInput("files");
+        service.setOutput("passed");
+        service.setDuplicateOutput("duplicates");
+        ctx = MockServiceContextBuilder.createDefault().build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (tempDir != null && Files.exists(tempDir)) {
+            TestDataFactory.cleanupTempFile(tempDir);
+        }
+    }
+
+    @Test
+    public void testProcess_SameContent_FiltersLaterFiles() throws Throwable {
+        // Given
+        String first = write("a.dat", "same content");
+        String second = write("b.dat", "same content");
+        String other = write("c.dat", "other content");
+        ctx.addContextParam("files", Arrays.asList(first, second, other));
+
+        // When
+        service.process(ctx);
+
+        // Then
+        assertEquals(Arrays.asList(first, other), ctx.getContextParam("passed"));
+        assertEquals(Collections.singletonList(second), ctx.getContextParam("duplicates"));
+        Map<String, Object> stored = MessageUtil.jsonToMap(new String(Files.readAllBytes(indexFile), "UTF-8"));
+        assertEquals(2, stored.size());
+        assertTrue(stored.containsKey(DuplicateFileFilter.hash(tempDir.resolve("a.dat"), "SHA-256")));
+    }
+
+    @Test
+    public void testProcess_EmptyFiles_AreNotFiltered() throws Throwable {
+        // Given
+        String first = write("empty1.dat", "");
+        String second = write("empty2.dat", "");
+        ctx.addContextParam("files", Arrays.asList(first, second));
+
+        // When
+        service.process(ctx);
+
+        // Then
+        assertEquals(Arrays.asList(first, second), ctx.getContextParam("passed"));
+        assertEquals(0, ((List<?>) ctx.getContextParam("duplicates")).size());
+        assertEquals(0, ContentHashIndex.access(indexFile).size());
+    }
+
+    @Test
+    public void testProcess_ContentProcessedBefore_FilteredInNextProcess() throws Throwable {
+        // Given
+        String first = write("a.dat", "same content");
+        ctx.addContextParam("files", Collections.singletonList(first));
+        service.process(ctx);
+        String renamed = write("a_renamed.dat", "same content");
+        ctx.addContextParam("files", Collections.singletonList(renamed));
+
+        // When
+        service.process(ctx);
+
+        // Then
+        assertEquals(0, ((List<?>) ctx.getContextParam("passed")).size());
+        assertEquals(Collections.singletonList(renamed), ctx.getContextParam("duplicates"));
+    }
+
+    private String write(String fileName, String content) throws Exception {
+        Path file = tempDir.resolve(fileName);
+        Files.write(file, content.getBytes("UTF-8"));
+        return file.toString();
+    }
+}
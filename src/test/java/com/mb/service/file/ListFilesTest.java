@@ -2,9 +2,14 @@ package com.mb.service.file;
 
 import com.mb.service.helper.MockServiceContextBuilder;
 import com.mb.service.helper.TestDataFactory;
+import mb.dnm.access.file.DuplicateFileFilter;
 import mb.dnm.access.file.FileList;
+import mb.dnm.access.file.FileListStream;
 import mb.dnm.access.file.FileTemplate;
 import mb.dnm.code.DirectoryType;
+import mb.dnm.code.FileSortOrder;
+import mb.dnm.code.ProcessCode;
+import mb.dnm.core.callback.SessionCleanupCallback;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.exeption.InvalidServiceConfigurationException;
 import mb.dnm.service.file.ListFiles;
@@ -12,8 +17,13 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -84,6 +94,89 @@ public class ListFilesTest {
         assertTrue(result instanceof FileList);
     }
 
+    @Test
+    public void testProcess_ListOldestFilesWithLimit() throws Throwable {
+        // Given
+        Path file3 = TestDataFactory.createTempFile(tempDir, "file3.txt", "Content 3");
+        TestDataFactory.createTempFile(tempDir, "file4.dat", "Content 4");
+        long now = System.currentTimeMillis();
+        Files.setLastModifiedTime(file3, FileTime.fromMillis(now - 30000));
+        Files.setLastModifiedTime(tempDir.resolve("file1.txt"), FileTime.fromMillis(now - 20000));
+        Files.setLastModifiedTime(tempDir.resolve("file2.txt"), FileTime.fromMillis(now - 10000));
+        service.setListDirectory(tempDir.toString());
+        service.setFileNamePattern("*.txt");
+        service.setSortOrder(FileSortOrder.OLDEST_FIRST);
+        service.setLimit(2);
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+
+        // When
+        service.process(ctx);
+
+        // Then
+        FileList fileList = (FileList) ctx.getContextParam("output");
+        assertEquals(Arrays.asList("file3.txt", "file1.txt"), fileList.getFileList());
+    }
+
+    @Test
+    public void testProcess_StreamFilesRecursively() throws Throwable {
+        // Given
+        Path subDir = Files.createDirectories(tempDir.resolve("sub").resolve("inner"));
+        TestDataFactory.createTempFile(subDir, "file3.txt", "Content 3");
+        service.setListDirectory(tempDir.toString());
+        service.setSearchRecursively(true);
+        service.setMaxDepth(2);
+        service.setStreaming(true);
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+
+        // When
+        service.process(ctx);
+
+        // Then
+        FileListStream stream = (FileListStream) ctx.getContextParam("output");
+        List<String> paths = new ArrayList<>();
+        for (String path : stream) {
+            paths.add(path);
+        }
+        String base = stream.getBaseDirectory();
+        String sep = File.separator;
+        assertEquals(4, paths.size());
+        assertTrue(paths.contains(base + "sub" + sep));
+        assertTrue(paths.contains(base + "sub" + sep + "inner" + sep));
+        assertFalse(paths.contains(base + "sub" + sep + "inner" + sep + "file3.txt"));
+        assertFalse(stream.isConnected());
+    }
+
+    @Test
+    public void testProcess_ExcludeDuplicateContents() throws Throwable {
+        // Given
+        TestDataFactory.createTempFile(tempDir, "file3.txt", "Content 1");
+        DuplicateFileFilter filter = new DuplicateFileFilter();
+        filter.setHashIndexFile(tempDir.resolve("hash_index.json").toString());
+        service.setListDirectory(tempDir.toString());
+        service.setFileNamePattern("*.txt");
+        service.setSortOrder(FileSortOrder.NAME);
+        service.setDuplicateFilter(filter);
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+
+        // When
+        service.process(ctx);
+        //hash 는 프로세스가 성공적으로 종료된 뒤 SessionCleanupCallback 에 의해 등록된다.
+        ctx.setProcessStatus(ProcessCode.SUCCESS);
+        new SessionCleanupCallback().afterProcess(ctx);
+        FileList first = (FileList) ctx.getContextParam("output");
+        TestDataFactory.createTempFile(tempDir, "file4.txt", "Content 2");
+        TestDataFactory.createTempFile(tempDir, "file5.txt", "Content 5");
+        service.process(ctx);
+
+        // Then
+        assertEquals(Arrays.asList("file1.txt", "file2.txt"), first.getFileList());
+        FileList second = (FileList) ctx.getContextParam("output");
+        assertEquals(Arrays.asList("file5.txt"), second.getFileList());
+    }
+
     @Test(expected = InvalidServiceConfigurationException.class)
     public void testProcess_NullInputValue_ThrowsException() throws Throwable {
         // Given
@@ -12,7 +12,9 @@ import org.junit.Test;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -74,6 +76,33 @@ public class MoveFilesTest {
         assertTrue(result instanceof List);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProcess_MoveFilesInBulkMode() throws Throwable {
+        // Given
+        Path sourceFile2 = TestDataFactory.createTempFile(tempDir, "source2.txt", "Test Content 2");
+        service.setInput("filePaths");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setBulkMode(true);
+        service.setWorkers(2);
+        service.setStatisticsOutput("statistics");
+        ctx.addContextParam("filePaths", Arrays.asList(sourceFile.toString(), sourceFile2.toString()));
+
+        // When
+        service.process(ctx);
+
+        // Then
+        List<String> result = (List<String>) ctx.getContextParam("output");
+        assertEquals(2, result.size());
+        assertFalse(Files.exists(sourceFile));
+        assertFalse(Files.exists(sourceFile2));
+        assertEquals("Test Content 2", new String(Files.readAllBytes(tempDir.resolve("move_dest").resolve("source2.txt")), "UTF-8"));
+        Map<String, Object> statistics = (Map<String, Object>) ctx.getContextParam("statistics");
+        assertEquals(2, statistics.get("file_count"));
+        assertEquals(2, statistics.get("renamed_count"));
+    }
+
     @Test
     public void testProcess_NullInputValue_ReturnsEarly() throws Throwable {
         // Given
@@ -2,8 +2,14 @@ package com.mb.service.file;
 
 import com.mb.service.helper.MockServiceContextBuilder;
 import com.mb.service.helper.TestDataFactory;
+import mb.dnm.access.ClosableStreamWrapper;
+import mb.dnm.access.file.FileCheckpoint;
+import mb.dnm.access.file.FileCheckpointStore;
+import mb.dnm.access.file.FileChunks;
 import mb.dnm.access.file.FileTemplate;
 import mb.dnm.code.DataType;
+import mb.dnm.code.ProcessCode;
+import mb.dnm.core.callback.SessionCleanupCallback;
 import mb.dnm.core.context.ServiceContext;
 import mb.dnm.exeption.InvalidServiceConfigurationException;
 import mb.dnm.service.file.ReadFile;
@@ -11,9 +17,15 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -94,6 +106,292 @@ public class ReadFileTest {
         assertArrayEquals(testData, (byte[]) result);
     }
 
+    @Test
+    public void testProcess_ReadParsedTextWithMetadata() throws Throwable {
+        // Given
+        String content = "<![METADATA[{\"record_separator\":\"\\n\",\"delimiter\":\",\",\"qualifier\":\"\\\"\","
+                + "\"replacement_of_null_value\":\"\",\"replacement_of_empty_value\":\"\",\"replacement_of_line_feed\":\"&lf;\","
+                + "\"replacement_of_carriage_return\":\"&cr;\",\"add_header\":true,\"handle_binary_as_it_is\":false}]]>\n"
+                + "\"ID\",\"NAME\"\n"
+                + "\"1\",\"a,b\"\n"
+                + "\"2\",\"c&lf;d\"";
+        tempFile = TestDataFactory.createTempFile("test.dat", content);
+        service.setInput("filePath");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setOutputDataType(DataType.PARSED_TEXT);
+        service.setMetadataExist(true);
+        ctx.addContextParam("filePath", tempFile.toString());
+
+        // When
+        service.process(ctx);
+
+        // Then
+        List<Map<String, Object>> result = (List<Map<String, Object>>) ctx.getContextParam("output");
+        assertEquals(2, result.size());
+        assertEquals("1", result.get(0).get("ID"));
+        assertEquals("a,b", result.get(0).get("NAME"));
+        assertEquals("c\nd", result.get(1).get("NAME"));
+    }
+
+    @Test
+    public void testProcess_ReadParsedTextWithHexBinary() throws Throwable {
+        // Given
+        String content = "<![METADATA[{\"record_separator\":\"\\n\",\"delimiter\":\"|\",\"qualifier\":\"\","
+                + "\"replacement_of_null_value\":\"\",\"replacement_of_empty_value\":\"\",\"replacement_of_line_feed\":\"&lf;\","
+                + "\"replacement_of_carriage_return\":\"&cr;\",\"add_header\":true,\"handle_binary_as_it_is\":true,"
+                + "\"binary_encoding\":\"HEX\"}]]>\n"
+                + "DATA\n"
+                + "<![BINARY[41ff00]]>\n";
+        tempFile = TestDataFactory.createTempFile("test.dat", content);
+        service.setInput("filePath");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setOutputDataType(DataType.PARSED_TEXT);
+        service.setMetadataExist(true);
+        ctx.addContextParam("filePath", tempFile.toString());
+
+        // When
+        service.process(ctx);
+
+        // Then
+        List<Map<String, Object>> result = (List<Map<String, Object>>) ctx.getContextParam("output");
+        assertArrayEquals(new byte[]{65, -1, 0}, (byte[]) result.get(0).get("DATA"));
+    }
+
+    @Test
+    public void testProcess_ReadParsedTextInParallel() throws Throwable {
+        // Given: 구간이 나누어지도록 2MB 보다 큰 파일을 사용한다.
+        StringBuilder content = new StringBuilder("\"ID\"|\"NAME\"\n");
+        int rowCount = 100000;
+        for (int i = 0; i < rowCount; i++) {
+            content.append('"').append(i).append("\"|\"line\nbreak ").append(i).append("\"\n");
+        }
+        tempFile = TestDataFactory.createTempFile("test.dat", content.toString());
+        service.setInput("filePath");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setOutputDataType(DataType.PARSED_TEXT);
+        service.setQualifier("\"");
+        service.setParallelism(4);
+        ctx.addContextParam("filePath", tempFile.toString());
+
+        // When
+        service.process(ctx);
+
+        // Then
+        List<Map<String, Object>> result = (List<Map<String, Object>>) ctx.getContextParam("output");
+        assertEquals(rowCount, result.size());
+        for (int i = 0; i < rowCount; i++) {
+            assertEquals(String.valueOf(i), result.get(i).get("ID"));
+        }
+        assertEquals("line\nbreak 99999", result.get(rowCount - 1).get("NAME"));
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("record-parser-"))
+                assertTrue(thread.isDaemon());
+        }
+    }
+
+    @Test
+    public void testProcess_ReadParsedTextIncrementally() throws Throwable {
+        // Given: 마지막 record 는 아직 작성 중이다.
+        tempFile = TestDataFactory.createTempFile("test.log", "ID|NAME\n1|a\n2|b\n3|c");
+        Path checkpointFile = tempFile.resolveSibling("test.log.checkpoint");
+        service.setInput("filePath");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setOutputDataType(DataType.PARSED_TEXT);
+        service.setIncremental(true);
+        service.setCheckpointFile(checkpointFile.toString());
+        ctx.addContextParam("filePath", tempFile.toString());
+
+        try {
+            // When: 처음 읽는 경우 완성된 record 만 읽는다.
+            List<Map<String, Object>> result = readAndCommit();
+
+            // Then
+            assertEquals(2, result.size());
+            assertEquals("b", result.get(1).get("NAME"));
+
+            // When: 추가된 record 만 읽는다.
+            Files.write(tempFile, "\n4|d\n".getBytes("UTF-8"), StandardOpenOption.APPEND);
+            result = readAndCommit();
+
+            // Then
+            assertEquals(2, result.size());
+            assertEquals("3", result.get(0).get("ID"));
+            assertEquals("d", result.get(1).get("NAME"));
+            assertTrue(readAndCommit().isEmpty());
+
+            // When: 파일이 잘린 경우 처음부터 다시 읽는다.
+            Files.write(tempFile, "ID|NAME\n9|z\n".getBytes("UTF-8"));
+            result = readAndCommit();
+
+            // Then
+            assertEquals(1, result.size());
+            assertEquals("z", result.get(0).get("NAME"));
+        } finally {
+            Files.deleteIfExists(checkpointFile);
+        }
+    }
+
+    @Test
+    public void testProcess_MaxCheckpointsExceeded_EvictsOldestCheckpoint() throws Throwable {
+        // Given
+        Path dir = TestDataFactory.createTempDirectory("checkpoint_max_test");
+        Path first = TestDataFactory.createTempFile(dir, "first.log", "ID|NAME\n1|a\n");
+        Path second = TestDataFactory.createTempFile(dir, "second.log", "ID|NAME\n2|b\n");
+        Path checkpointFile = dir.resolve("max.checkpoint");
+        service.setInput("filePath");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setOutputDataType(DataType.PARSED_TEXT);
+        service.setIncremental(true);
+        service.setCheckpointFile(checkpointFile.toString());
+        service.setMaxCheckpoints(1);
+
+        try {
+            // When
+            ctx.addContextParam("filePath", first.toString());
+            readAndCommit();
+            ctx.addContextParam("filePath", second.toString());
+            readAndCommit();
+
+            // Then
+            FileCheckpointStore store = FileCheckpointStore.access(checkpointFile);
+            assertEquals(1, store.size());
+            assertNull(store.get(first));
+            assertNotNull(store.get(second));
+        } finally {
+            TestDataFactory.cleanupTempFile(dir);
+        }
+    }
+
+    @Test
+    public void testProcess_CheckpointTtlExpired_EvictsOnlyCheckpointsOfRemovedFiles() throws Throwable {
+        // Given - 삭제된 파일과 남아있는 파일의 checkpoint 가 2시간 동안 변경되지 않았다.
+        Path dir = TestDataFactory.createTempDirectory("checkpoint_ttl_test");
+        Path idle = TestDataFactory.createTempFile(dir, "idle.log", "ID|NAME\n1|a\n");
+        Path removed = dir.resolve("removed.log");
+        Path current = TestDataFactory.createTempFile(dir, "current.log", "ID|NAME\n2|b\n");
+        Path checkpointFile = dir.resolve("ttl.checkpoint");
+        FileCheckpointStore store = FileCheckpointStore.access(checkpointFile);
+        store.put(oldCheckpoint(removed, null));
+        store.put(oldCheckpoint(idle, FileCheckpoint.fileKeyOf(idle)));
+        service.setInput("filePath");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setOutputDataType(DataType.PARSED_TEXT);
+        service.setIncremental(true);
+        service.setCheckpointFile(checkpointFile.toString());
+        service.setCheckpointTtlHours(1);
+        ctx.addContextParam("filePath", current.toString());
+
+        try {
+            // When
+            readAndCommit();
+
+            // Then
+            assertEquals(2, store.size());
+            assertNull(store.get(removed));
+            assertNotNull(store.get(idle));
+            assertNotNull(store.get(current));
+        } finally {
+            TestDataFactory.cleanupTempFile(dir);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetMaxCheckpoints_Zero_ThrowsException() {
+        service.setMaxCheckpoints(0);
+    }
+
+    private static FileCheckpoint oldCheckpoint(Path file, String fileKey) {
+        FileCheckpoint checkpoint = new FileCheckpoint();
+        checkpoint.setPath(FileCheckpointStore.keyOf(file));
+        checkpoint.setFileKey(fileKey);
+        checkpoint.setUpdatedTime(System.currentTimeMillis() - 2 * 3600000L);
+        return checkpoint;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> readAndCommit() throws Throwable {
+        service.process(ctx);
+        //checkpoint 는 프로세스가 성공적으로 종료된 뒤 SessionCleanupCallback 에 의해 저장된다.
+        ctx.setProcessStatus(ProcessCode.SUCCESS);
+        new SessionCleanupCallback().afterProcess(ctx);
+        return (List<Map<String, Object>>) ctx.getContextParam("output");
+    }
+
+    @Test
+    public void testProcess_ReadByteChunks() throws Throwable {
+        // Given
+        byte[] testData = "Hello World".getBytes();
+        tempFile = TestDataFactory.createTempFile("test.bin", testData);
+        service.setInput("filePath");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setOutputDataType(DataType.BYTE_CHUNKS);
+        service.setChunkSize(4);
+        ctx.addContextParam("filePath", tempFile.toString());
+
+        // When
+        service.process(ctx);
+
+        // Then
+        FileChunks chunks = (FileChunks) ctx.getContextParam("output");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int count = 0;
+        for (byte[] chunk : chunks) {
+            out.write(chunk);
+            ++count;
+        }
+        assertEquals(3, count);
+        assertArrayEquals(testData, out.toByteArray());
+        assertFalse(chunks.isConnected());
+    }
+
+    @Test
+    public void testProcess_ReadInputStream_RegisteredAsSession() throws Throwable {
+        // Given
+        tempFile = TestDataFactory.createTempFile("test.txt", "Hello World");
+        service.setInput("filePath");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setOutputDataType(DataType.INPUT_STREAM);
+        ctx.addContextParam("filePath", tempFile.toString());
+
+        // When
+        service.process(ctx);
+
+        // Then
+        InputStream in = (InputStream) ctx.getContextParam("output");
+        assertEquals('H', in.read());
+        assertEquals(1, ctx.getSessionMap().size());
+        ClosableStreamWrapper session = ctx.getSessionMap().values().iterator().next();
+        assertTrue(session.close());
+        assertFalse(session.isConnected());
+    }
+
+    @Test
+    public void testProcess_ReadMappedBuffer() throws Throwable {
+        // Given
+        tempFile = TestDataFactory.createTempFile("test.txt", "Hello World");
+        service.setInput("filePath");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setOutputDataType(DataType.MAPPED_BUFFER);
+        ctx.addContextParam("filePath", tempFile.toString());
+
+        // When
+        service.process(ctx);
+
+        // Then
+        MappedByteBuffer buffer = (MappedByteBuffer) ctx.getContextParam("output");
+        assertEquals(11, buffer.remaining());
+        assertEquals('W', buffer.get(6));
+    }
+
     @Test(expected = FileNotFoundException.class)
     public void testProcess_FileNotFound_ThrowsException() throws Throwable {
         // Given
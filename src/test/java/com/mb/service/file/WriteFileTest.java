@@ -3,8 +3,11 @@ package com.mb.service.file;
 import com.mb.service.helper.MockServiceContextBuilder;
 import com.mb.service.helper.TestDataFactory;
 import mb.dnm.access.file.FileTemplate;
+import mb.dnm.code.BinaryEncoding;
+import mb.dnm.code.CompressionType;
 import mb.dnm.code.DataType;
 import mb.dnm.core.context.ServiceContext;
+import mb.dnm.service.file.ReadFile;
 import mb.dnm.service.file.WriteFile;
 import org.junit.After;
 import org.junit.Before;
@@ -12,6 +15,11 @@ import org.junit.Test;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -63,6 +71,117 @@ public class WriteFileTest {
         assertTrue(result instanceof String);
     }
 
+    @Test
+    public void testProcess_WriteFormattedDataFromIterator() throws Throwable {
+        // Given
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Map<String, Object> row1 = new LinkedHashMap<>();
+        row1.put("ID", 1);
+        row1.put("NAME", "a\nb");
+        row1.put("DATA", new byte[]{1, -2});
+        rows.add(row1);
+        Map<String, Object> row2 = new LinkedHashMap<>();
+        row2.put("ID", 2);
+        row2.put("NAME", null);
+        row2.put("DATA", new byte[0]);
+        rows.add(row2);
+        service.setInput("data");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        ctx.addContextParam("data", rows.iterator());
+
+        // When
+        service.process(ctx);
+
+        // Then
+        String content = new String(Files.readAllBytes(Paths.get((String) ctx.getContextParam("output"))), "UTF-8");
+        assertEquals("ID|NAME|DATA\n1|a&lf;b|<![BINARY[1 -2]]>\n2||<![BINARY[]]>\n", content);
+    }
+
+    @Test
+    public void testProcess_EmptyReplacementOfNullValue_WritesReplacementOfEmptyValue() throws Throwable {
+        // Given
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("ID", 1);
+        row.put("NAME", null);
+        row.put("MEMO", "");
+        rows.add(row);
+        service.setInput("data");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setReplacementOfEmptyValue("?");
+        ctx.addContextParam("data", rows);
+
+        // When
+        service.process(ctx);
+
+        // Then
+        String content = new String(Files.readAllBytes(Paths.get((String) ctx.getContextParam("output"))), "UTF-8");
+        assertEquals("ID|NAME|MEMO\n1|?|?\n", content);
+    }
+
+    @Test
+    public void testProcess_WriteBase64BinaryWithMetadata() throws Throwable {
+        // Given
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("DATA", new byte[]{65, 66, 67});
+        service.setInput("data");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setAddMetadata(true);
+        service.setBinaryEncoding(BinaryEncoding.BASE64);
+        ctx.addContextParam("data", row);
+
+        // When
+        service.process(ctx);
+
+        // Then
+        String content = new String(Files.readAllBytes(Paths.get((String) ctx.getContextParam("output"))), "UTF-8");
+        assertTrue(content.contains("\"binary_encoding\":\"BASE64\""));
+        assertTrue(content.endsWith("DATA\n<![BINARY[QUJD]]>\n"));
+    }
+
+    @Test
+    public void testProcess_WriteCompressedFileAndReadBack() throws Throwable {
+        // Given
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", String.valueOf(i));
+            row.put("NAME", "name_" + i);
+            rows.add(row);
+        }
+        service.setInput("data");
+        service.setOutput("output");
+        service.setSourceAlias("LOCAL");
+        service.setAddMetadata(true);
+        service.setCompression(CompressionType.GZIP);
+        service.setCompressionLevel(1);
+        ctx.addContextParam("data", rows);
+
+        ReadFile reader = new ReadFile();
+        reader.setInput("output");
+        reader.setOutput("records");
+        reader.setSourceAlias("LOCAL");
+        reader.setOutputDataType(DataType.PARSED_TEXT);
+        reader.setMetadataExist(true);
+        reader.setCompression(CompressionType.GZIP);
+
+        // When
+        service.process(ctx);
+        reader.process(ctx);
+
+        // Then
+        Path written = Paths.get((String) ctx.getContextParam("output"));
+        assertTrue(written.toString().endsWith("TEST_FILE.gz"));
+        byte[] bytes = Files.readAllBytes(written);
+        assertEquals((byte) 0x1f, bytes[0]);
+        assertEquals((byte) 0x8b, bytes[1]);
+        List<Map<String, Object>> records = (List<Map<String, Object>>) ctx.getContextParam("records");
+        assertEquals(rows, records);
+    }
+
     @Test
     public void testProcess_WriteByteArrayFile() throws Throwable {
         // Given
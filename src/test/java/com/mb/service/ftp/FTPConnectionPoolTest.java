@@ -0,0 +1,248 @@
+package com.mb.service.ftp;
+
+import com.mb.service.helper.MockServiceContextBuilder;
+import mb.dnm.access.file.DelimitedRecordReader;
+import mb.dnm.access.file.FileParserTemplate;
+import mb.dnm.access.ftp.FTPClientTemplate;
+import mb.dnm.access.ftp.FTPConnectionPool;
+import mb.dnm.access.ftp.FTPRecordStream;
+import mb.dnm.access.ftp.FTPSession;
+import mb.dnm.access.ftp.FTPSourceProvider;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.service.ftp.FTPLogin;
+import org.apache.commons.net.ftp.FTPClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FTPConnectionPoolTest {
+
+    private static final String SOURCE_NAME = "POOL_TEST_SOURCE";
+    private static final StubTemplate template = new StubTemplate();
+
+    private FTPConnectionPool pool;
+
+    @Before
+    public void setUp() {
+        FTPSourceProvider provider = FTPSourceProvider.access();
+        if (provider.getFtpClientTemplate(SOURCE_NAME) == null) {
+            template.setTemplateName(SOURCE_NAME);
+            template.setHost("localhost");
+            provider.setFtpClients(Collections.<FTPClientTemplate>singletonList(template));
+        }
+        template.created.clear();
+
+        pool = new FTPConnectionPool();
+        pool.setMaxActive(1);
+        pool.setMaxWaitMillis(200);
+        pool.setEvictionIntervalMillis(0);
+        provider.setConnectionPool(pool);
+    }
+
+    @After
+    public void tearDown() {
+        FTPSourceProvider.access().setConnectionPool(null);
+        pool.close();
+    }
+
+    @Test
+    public void testClose_ReturnsConnectionToPool() throws Exception {
+        // Given
+        FTPSession session = FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+        FTPClient ftp = session.getFTPClient();
+        ftp.changeWorkingDirectory("/data/in");
+
+        // When
+        session.close();
+        FTPSession reused = FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+
+        // Then
+        assertFalse(session.isConnected());
+        assertSame(ftp, reused.getFTPClient());
+        assertEquals("/home", reused.getFTPClient().printWorkingDirectory());
+        assertEquals(1, template.created.size());
+        reused.close();
+    }
+
+    @Test
+    public void testClose_DroppedConnection_IsInvalidated() throws Exception {
+        // Given
+        FTPSession session = FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+        StubFTPClient ftp = (StubFTPClient) session.getFTPClient();
+        ftp.drop();
+
+        // When
+        session.close();
+        FTPSession next = FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+
+        // Then
+        assertNotSame(ftp, next.getFTPClient());
+        assertEquals(0, pool.getStatistics().get("idle_count"));
+        assertEquals(1, pool.getStatistics().get("active_count"));
+        next.close();
+    }
+
+    @Test
+    public void testLogout_InvalidatesConnection() throws Exception {
+        // Given
+        FTPSession session = FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+
+        // When
+        session.logout();
+
+        // Then
+        assertFalse(session.getFTPClient().isConnected());
+        assertEquals(0, pool.getStatistics().get("active_count"));
+        assertEquals(0, pool.getStatistics().get("idle_count"));
+    }
+
+    @Test
+    public void testBorrow_ExpiredIdleConnection_IsReplaced() throws Exception {
+        // Given
+        pool.setMaxLifetimeMillis(50);
+        FTPSession session = FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+        FTPClient ftp = session.getFTPClient();
+        session.close();
+        Thread.sleep(80);
+
+        // When
+        FTPSession next = FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+
+        // Then
+        assertNotSame(ftp, next.getFTPClient());
+        assertFalse(ftp.isConnected());
+        assertEquals(2, template.created.size());
+        next.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testBorrow_Exhausted_ThrowsAfterMaxWait() throws Exception {
+        // Given
+        FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+
+        // When
+        FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+    }
+
+    @Test
+    public void testClose_OpenRecordStream_CompletesTransferBeforeReturn() throws Exception {
+        // Given
+        FTPSession session = FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+        StubFTPClient ftp = (StubFTPClient) session.getFTPClient();
+        DelimitedRecordReader reader = new DelimitedRecordReader("a|b\n1|2\n",
+                new FileParserTemplate("\n", "|", "", "", "", "", "", true, false));
+        reader.readHeader();
+        FTPRecordStream stream = new FTPRecordStream(session, "/data/in/records.txt", reader);
+
+        // When
+        session.close();
+
+        // Then - 전송 결과 응답을 읽은 뒤 pool 이 작업 디렉터리를 초기화해야 한다.
+        assertTrue(stream.isClosed());
+        assertEquals(Arrays.asList("completePendingCommand", "CWD /home"), ftp.commands);
+        assertTrue(stream.close());
+        assertEquals(2, ftp.commands.size());
+    }
+
+    @Test
+    public void testFTPLogin_DroppedPooledSession_ReleasesItsSlot() throws Throwable {
+        // Given
+        ServiceContext ctx = MockServiceContextBuilder.createDefault()
+                .addSourceAlias("FTP", SOURCE_NAME)
+                .build();
+        FTPLogin login = new FTPLogin("FTP");
+        login.process(ctx);
+        FTPSession dropped = (FTPSession) ctx.getSession(SOURCE_NAME);
+        ((StubFTPClient) dropped.getFTPClient()).drop();
+
+        // When - maxActive 가 1 이므로 끊어진 session 이 반환되지 않으면 대기 후 실패한다.
+        login.process(ctx);
+
+        // Then
+        FTPSession session = (FTPSession) ctx.getSession(SOURCE_NAME);
+        assertNotSame(dropped, session);
+        assertTrue(session.isConnected());
+        assertEquals(1, pool.getStatistics().get("active_count"));
+        session.close();
+    }
+
+    private static class StubTemplate extends FTPClientTemplate {
+        private final List<FTPClient> created = Collections.synchronizedList(new ArrayList<FTPClient>());
+
+        @Override
+        public FTPClient login() {
+            StubFTPClient ftp = new StubFTPClient();
+            created.add(ftp);
+            return ftp;
+        }
+    }
+
+    private static class StubFTPClient extends FTPClient {
+        private boolean connected = true;
+        private String workingDirectory = "/home";
+        private final List<String> commands = new ArrayList<>();
+
+        void drop() {
+            connected = false;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public String printWorkingDirectory() {
+            return workingDirectory;
+        }
+
+        @Override
+        public boolean changeWorkingDirectory(String pathname) {
+            commands.add("CWD " + pathname);
+            workingDirectory = pathname;
+            return true;
+        }
+
+        @Override
+        public boolean completePendingCommand() {
+            commands.add("completePendingCommand");
+            return true;
+        }
+
+        @Override
+        public boolean sendNoOp() {
+            return connected;
+        }
+
+        @Override
+        public boolean setFileType(int fileType) {
+            return true;
+        }
+
+        @Override
+        public void enterLocalPassiveMode() {
+        }
+
+        @Override
+        public boolean logout() {
+            return true;
+        }
+
+        @Override
+        public void disconnect() {
+            connected = false;
+        }
+    }
+}
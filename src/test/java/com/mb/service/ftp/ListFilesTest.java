@@ -1,25 +1,54 @@
 package com.mb.service.ftp;
 
 import com.mb.service.helper.MockServiceContextBuilder;
+import com.mb.service.helper.StubFTPServer;
+import mb.dnm.access.file.FileList;
+import mb.dnm.access.ftp.FTPClientTemplate;
+import mb.dnm.access.ftp.FTPListingCache;
+import mb.dnm.access.ftp.FTPSourceProvider;
 import mb.dnm.core.context.ServiceContext;
+import mb.dnm.service.ftp.DeleteFiles;
 import mb.dnm.service.ftp.ListFiles;
+import org.apache.commons.net.ftp.FTPFile;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class ListFilesTest {
 
     private ListFiles service;
     private ServiceContext ctx;
+    private StubFTPServer server;
+    private FTPClientTemplate template;
 
     @Before
     public void setUp() {
         service = new ListFiles();
         ctx = MockServiceContextBuilder.createDefault()
-                .addSourceAlias("FTP", "FTP_SOURCE")
+                .addSourceAlias("FTP", "LIST_SOURCE")
                 .build();
+
+        server = new StubFTPServer();
+        server.put("/in/a.txt", "a");
+        server.put("/in/b.csv", "b");
+        server.put("/in/sub/c.txt", "c");
+        server.put("/in/sub/deep/d.txt", "d");
+        template = server.register("LIST_SOURCE");
+    }
+
+    @After
+    public void tearDown() {
+        FTPSourceProvider.access().setListingCache(null);
+        FTPSourceProvider.access().getFtpClientTemplateMap().remove("LIST_SOURCE");
     }
 
     @Test
@@ -36,6 +65,170 @@ public class ListFilesTest {
         }
     }
 
+    @Test
+    public void testProcess_MlsdSupported_ListsWithMlsd() throws Throwable {
+        // Given
+        server.addFeature("MLST");
+
+        // When
+        List<String> files = list(newService("*"));
+
+        // Then
+        assertEquals(Arrays.asList("sub/", "a.txt", "b.csv"), files);
+        assertEquals(1, server.count("MLSD"));
+        assertEquals(0, server.count("LIST"));
+    }
+
+    @Test
+    public void testProcess_MlsdFails_FallsBackToList() throws Throwable {
+        // Given
+        server.addFeature("MLST");
+        server.setMlsdFailing(true);
+
+        // When
+        List<String> files = list(newService("*"));
+
+        // Then
+        assertEquals(Arrays.asList("sub/", "a.txt", "b.csv"), files);
+        assertEquals(1, server.count("MLSD"));
+        assertEquals(1, server.count("LIST /in"));
+    }
+
+    @Test
+    public void testProcess_MlsdNotSupported_ListsWithList() throws Throwable {
+        // When
+        list(newService("*"));
+
+        // Then
+        assertEquals(0, server.count("MLSD"));
+        assertEquals(1, server.count("LIST"));
+    }
+
+    @Test
+    public void testProcess_MaxDepth_StopsAtDepth() throws Throwable {
+        // Given
+        ListFiles unlimited = newService("*");
+        unlimited.setSearchRecursively(true);
+        ListFiles limited = newService("*");
+        limited.setSearchRecursively(true);
+        limited.setMaxDepth(1);
+
+        // When
+        List<String> all = list(unlimited);
+        List<String> firstLevel = list(limited);
+
+        // Then
+        assertEquals(Arrays.asList("sub/", "sub/deep/", "sub/deep/d.txt", "sub/c.txt", "a.txt", "b.csv"), all);
+        assertEquals(Arrays.asList("sub/", "sub/deep/", "sub/c.txt", "a.txt", "b.csv"), firstLevel);
+    }
+
+    @Test
+    public void testProcess_ListingCache_CachesUnfilteredListingAndFiltersAfterwards() throws Throwable {
+        // Given
+        FTPSourceProvider.access().setListingCache(new FTPListingCache());
+
+        // When
+        List<String> textFiles = list(newService("*.txt"));
+        List<String> csvFiles = list(newService("*.csv"));
+
+        // Then - 두 번째 목록은 첫 번째 목록을 가져올 때 cache 된 전체 목록에서 필터링된다.
+        assertEquals(Collections.singletonList("a.txt"), textFiles);
+        assertEquals(Collections.singletonList("b.csv"), csvFiles);
+        assertEquals(1, server.count("LIST"));
+    }
+
+    @Test
+    public void testProcess_ListingCache_ExpiresAfterTtl() throws Throwable {
+        // Given
+        FTPListingCache cache = new FTPListingCache();
+        cache.setTtlMillis(50);
+        FTPSourceProvider.access().setListingCache(cache);
+        list(newService("*"));
+        server.put("/in/e.txt", "e");
+
+        // When
+        List<String> cached = list(newService("*.txt"));
+        Thread.sleep(80);
+        List<String> refreshed = list(newService("*.txt"));
+
+        // Then
+        assertEquals(Collections.singletonList("a.txt"), cached);
+        assertEquals(Arrays.asList("a.txt", "e.txt"), refreshed);
+        assertEquals(2, server.count("LIST"));
+    }
+
+    @Test
+    public void testProcess_UseListingCacheFalse_ListsFromServer() throws Throwable {
+        // Given
+        FTPSourceProvider.access().setListingCache(new FTPListingCache());
+        ListFiles uncached = newService("*");
+        uncached.setUseListingCache(false);
+
+        // When
+        list(newService("*"));
+        list(uncached);
+
+        // Then
+        assertEquals(2, server.count("LIST"));
+    }
+
+    @Test
+    public void testListingCache_MaxEntries_EvictsLeastRecentlyUsed() {
+        // Given
+        FTPListingCache cache = new FTPListingCache();
+        cache.setMaxEntries(2);
+        FTPFile[] listing = new FTPFile[0];
+        cache.put(template, "/a/", listing);
+        cache.put(template, "/b/", listing);
+        cache.get(template, "/a/");
+
+        // When
+        cache.put(template, "/c/", listing);
+
+        // Then
+        assertNotNull(cache.get(template, "/a/"));
+        assertNull(cache.get(template, "/b/"));
+        assertNotNull(cache.get(template, "/c/"));
+    }
+
+    @Test
+    public void testDeleteFiles_ListingCachedDuringChange_IsInvalidatedAfterChange() throws Throwable {
+        // Given - 삭제하는 동안 다른 Thread 의 ListFiles 가 삭제 전의 목록을 cache 한다.
+        final FTPListingCache cache = new FTPListingCache();
+        FTPSourceProvider.access().setListingCache(cache);
+        server.onCommand("DELE", new Runnable() {
+            @Override
+            public void run() {
+                cache.put(template, "/in/", new FTPFile[0]);
+            }
+        });
+        DeleteFiles delete = new DeleteFiles();
+        delete.setSourceAlias("FTP");
+        delete.setInput("targets");
+        ctx.addContextParam("targets", "/in/a.txt");
+
+        // When
+        delete.process(ctx);
+
+        // Then
+        assertNull(cache.get(template, "/in/"));
+        assertEquals(Arrays.asList("sub/", "b.csv"), list(newService("*")));
+    }
+
+    private ListFiles newService(String fileNamePattern) {
+        ListFiles listFiles = new ListFiles();
+        listFiles.setSourceAlias("FTP");
+        listFiles.setListDirectory("/in");
+        listFiles.setFileNamePattern(fileNamePattern);
+        listFiles.setOutput("files");
+        return listFiles;
+    }
+
+    private List<String> list(ListFiles listFiles) throws Throwable {
+        listFiles.process(ctx);
+        return ((FileList) ctx.getContextParam("files")).getFileList();
+    }
+
     @Test
     public void testSetIgnoreError() {
         // Given
@@ -57,5 +250,3 @@ public class ListFilesTest {
         assertEquals(description, service.getDescription());
     }
 }
-
-
@@ -0,0 +1,204 @@
+package com.mb.service.ftp;
+
+import com.mb.service.helper.MockServiceContextBuilder;
+import com.mb.service.helper.StubFTPServer;
+import com.mb.service.helper.TestDataFactory;
+import mb.dnm.access.file.FileTemplate;
+import mb.dnm.access.ftp.FTPConnectionPool;
+import mb.dnm.access.ftp.FTPSession;
+import mb.dnm.access.ftp.FTPSourceProvider;
+import mb.dnm.access.ftp.ParallelFTPTransfer;
+import mb.dnm.code.DataType;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.service.ftp.DownloadFiles;
+import org.apache.commons.net.ftp.FTPClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelFTPTransferTest {
+
+    private static final String SOURCE_NAME = "PARALLEL_SOURCE";
+
+    private StubFTPServer server;
+    private FTPSession session;
+    private Path tempDir;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubFTPServer();
+        for (int i = 0; i < 6; i++) {
+            server.put("/in/f" + i + ".dat", "content" + i);
+        }
+        server.register(SOURCE_NAME);
+        session = FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        session.close();
+        FTPConnectionPool pool = FTPSourceProvider.access().getConnectionPool();
+        if (pool != null) {
+            FTPSourceProvider.access().setConnectionPool(null);
+            pool.close();
+        }
+        FTPSourceProvider.access().getFtpClientTemplateMap().remove(SOURCE_NAME);
+        if (tempDir != null) {
+            TestDataFactory.cleanupTempFile(tempDir);
+        }
+    }
+
+    @Test
+    public void testRun_ResultsStayInInputOrder() throws Exception {
+        // Given - 앞선 파일의 전송이 더 오래 걸린다.
+        ParallelFTPTransfer transfer = new ParallelFTPTransfer(SOURCE_NAME, 3);
+
+        // When
+        List<Object> results = transfer.run(session, 6, new ParallelFTPTransfer.Task() {
+            @Override
+            public Object transfer(FTPClient ftp, int index) throws Exception {
+                Thread.sleep((6 - index) * 20L);
+                return retrieve(ftp, "/in/f" + index + ".dat");
+            }
+        }, true);
+
+        // Then
+        assertEquals(Arrays.<Object>asList("content0", "content1", "content2", "content3", "content4", "content5"), results);
+        assertEquals(3, server.clients().size());
+    }
+
+    @Test
+    public void testRun_AdditionalSessions_StartInWorkingDirectoryOfGivenSession() throws Exception {
+        // Given
+        session.getFTPClient().changeWorkingDirectory("/in");
+        ParallelFTPTransfer transfer = new ParallelFTPTransfer(SOURCE_NAME, 3);
+
+        // When - 상대경로로 전송한다.
+        List<Object> results = transfer.run(session, 6, new ParallelFTPTransfer.Task() {
+            @Override
+            public Object transfer(FTPClient ftp, int index) throws Exception {
+                Thread.sleep(20);
+                return retrieve(ftp, "f" + index + ".dat");
+            }
+        }, true);
+
+        // Then
+        assertEquals(Arrays.<Object>asList("content0", "content1", "content2", "content3", "content4", "content5"), results);
+        assertEquals(3, server.clients().size());
+        assertEquals(3, server.count("CWD /in"));
+    }
+
+    @Test
+    public void testRun_SessionDropped_OtherWorkersTransferRemainingFiles() throws Exception {
+        // Given
+        ParallelFTPTransfer transfer = new ParallelFTPTransfer(SOURCE_NAME, 2);
+
+        // When - 두번째 파일을 전송하는 session 의 연결이 끊어진다.
+        List<Object> results = transfer.run(session, 6, new ParallelFTPTransfer.Task() {
+            @Override
+            public Object transfer(FTPClient ftp, int index) throws Exception {
+                Thread.sleep(20);
+                if (index == 1) {
+                    ((StubFTPServer.Client) ftp).drop();
+                }
+                return retrieve(ftp, "/in/f" + index + ".dat");
+            }
+        }, false);
+
+        // Then
+        assertTrue(results.get(1) instanceof IOException);
+        for (int i = 0; i < results.size(); i++) {
+            if (i != 1)
+                assertEquals("content" + i, results.get(i));
+        }
+    }
+
+    @Test
+    public void testRun_PoolExhausted_DoesNotWaitForConnections() throws Exception {
+        // Given - 전달된 session 과 다른 서비스가 사용 중인 session 으로 pool 의 connection 이 모두 사용 중이다.
+        session.close();
+        FTPConnectionPool pool = new FTPConnectionPool();
+        pool.setMaxActive(2);
+        pool.setMaxWaitMillis(2000);
+        pool.setEvictionIntervalMillis(0);
+        FTPSourceProvider.access().setConnectionPool(pool);
+        session = FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+        FTPSession other = FTPSourceProvider.access().getNewSession(SOURCE_NAME);
+        int clients = server.clients().size();
+        ParallelFTPTransfer transfer = new ParallelFTPTransfer(SOURCE_NAME, 4);
+        long start = System.currentTimeMillis();
+
+        // When
+        List<Object> results;
+        try {
+            results = transfer.run(session, 6, new ParallelFTPTransfer.Task() {
+                @Override
+                public Object transfer(FTPClient ftp, int index) throws Exception {
+                    return retrieve(ftp, "/in/f" + index + ".dat");
+                }
+            }, true);
+        } finally {
+            other.close();
+        }
+
+        // Then
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertFalse(results.contains(null));
+        assertEquals(clients, server.clients().size());
+    }
+
+    @Test
+    public void testDownloadFiles_StopOnError_DeletesFilesDownloadedByOtherWorkers() throws Throwable {
+        // Given
+        tempDir = TestDataFactory.createTempDirectory("parallel_test");
+        FileTemplate template = new FileTemplate();
+        template.setTemplateName(SOURCE_NAME);
+        template.setDataType(DataType.FILE);
+        template.setLocalReceiveDir(tempDir.toString());
+        ServiceContext ctx = MockServiceContextBuilder.createDefault()
+                .addSourceAlias("FTP", SOURCE_NAME)
+                .addFileTemplate(SOURCE_NAME, template)
+                .build();
+        ctx.addContextParam("files", Arrays.asList("/in/f0.dat", "/in/f1.dat", "/in/f2.dat", "/in/f3.dat"));
+        server.failTransfer("/in/f2.dat");
+        server.setTransferDelayMillis(20);
+        DownloadFiles service = new DownloadFiles();
+        service.setSourceAlias("FTP");
+        service.setInput("files");
+        service.setParallelism(3);
+
+        // When
+        try {
+            service.process(ctx);
+            fail("The failed download must be thrown");
+        } catch (IllegalStateException e) {
+            // Then
+            assertTrue(e.getMessage().contains("/in/f2.dat"));
+        }
+        assertTrue(server.count("RETR") > 1);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tempDir)) {
+            assertFalse(files.iterator().hasNext());
+        }
+    }
+
+    private static String retrieve(FTPClient ftp, String path) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ftp.retrieveFile(path, out))
+            throw new IOException("RETR failed: " + ftp.getReplyString());
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
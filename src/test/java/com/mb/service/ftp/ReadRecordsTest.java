@@ -0,0 +1,129 @@
+package com.mb.service.ftp;
+
+import com.mb.service.helper.MockServiceContextBuilder;
+import com.mb.service.helper.StubDataSources;
+import com.mb.service.helper.StubFTPServer;
+import mb.dnm.access.ftp.FTPRecordStream;
+import mb.dnm.access.ftp.FTPSourceProvider;
+import mb.dnm.code.CompressionType;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.service.db.Insert;
+import mb.dnm.service.ftp.ReadRecords;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReadRecordsTest {
+
+    private static final String CONTENT = "ID|NAME\n1|kim\n2|lee\n3|park\n";
+
+    private ReadRecords service;
+    private ServiceContext ctx;
+    private StubFTPServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        StubDataSources.register();
+        StubDataSources.clearEvents();
+        StubDataSources.addMapper(StubDataSources.EXECUTOR_A, "RECORD_IF",
+                "<insert id=\"INSERT\">INSERT INTO RECORDS (ID, NAME) VALUES (#{ID}, #{NAME})</insert>");
+
+        server = new StubFTPServer();
+        server.register("RECORD_SOURCE");
+        ctx = MockServiceContextBuilder.createDefault()
+                .addSourceAlias("FTP", "RECORD_SOURCE")
+                .addFileTemplate("RECORD_SOURCE", "UTF-8")
+                .querySequence(StubDataSources.EXECUTOR_A + "$RECORD_IF.INSERT")
+                .build();
+        ctx.addContextParam("file", "/in/rows.txt");
+
+        service = new ReadRecords();
+        service.setSourceAlias("FTP");
+        service.setInput("file");
+        service.setOutput("records");
+    }
+
+    @After
+    public void tearDown() {
+        FTPSourceProvider.access().getFtpClientTemplateMap().remove("RECORD_SOURCE");
+    }
+
+    @Test
+    public void testProcess_StreamIntoInsert_InsertsAllRecords() throws Throwable {
+        // Given
+        server.put("/in/rows.txt", CONTENT);
+        Insert insert = new Insert();
+        insert.setInput("records");
+        insert.setOutput("inserted");
+
+        // When
+        service.process(ctx);
+        insert.process(ctx);
+
+        // Then
+        assertEquals(3, ctx.getContextParam("inserted"));
+        assertEquals(Arrays.asList(Arrays.<Object>asList("1", "kim"), Arrays.<Object>asList("2", "lee"), Arrays.<Object>asList("3", "park"))
+                , StubDataSources.parameters());
+        FTPRecordStream stream = (FTPRecordStream) ctx.getContextParam("records");
+        assertTrue(stream.isClosed());
+        assertEquals(3, stream.getRecordCount());
+        assertEquals(0, server.count("ABOR"));
+        assertEquals(1, server.count("completePendingCommand"));
+    }
+
+    @Test
+    public void testClose_BeforeLastRecord_AbortsTransferBeforeCompleting() throws Throwable {
+        // Given
+        server.put("/in/rows.txt", CONTENT);
+        service.process(ctx);
+        FTPRecordStream stream = (FTPRecordStream) ctx.getContextParam("records");
+        Iterator<Map<String, Object>> records = stream.iterator();
+        assertEquals("kim", records.next().get("NAME"));
+
+        // When
+        boolean closed = stream.close();
+
+        // Then
+        assertTrue(closed);
+        assertEquals(1, stream.getRecordCount());
+        List<String> commands = server.commands();
+        int abort = commands.indexOf("ABOR");
+        assertTrue(abort >= 0);
+        assertTrue(abort < commands.indexOf("completePendingCommand"));
+        assertFalse(records.hasNext());
+    }
+
+    @Test
+    public void testProcess_GzipCompressedFile_DecompressesWhileReading() throws Throwable {
+        // Given
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        server.put("/in/rows.txt", compressed.toByteArray());
+        service.setCompression(CompressionType.GZIP);
+
+        // When
+        service.process(ctx);
+
+        // Then
+        int count = 0;
+        for (Map<String, Object> record : (FTPRecordStream) ctx.getContextParam("records")) {
+            assertEquals(String.valueOf(++count), record.get("ID"));
+        }
+        assertEquals(3, count);
+        assertEquals(0, server.count("ABOR"));
+    }
+}
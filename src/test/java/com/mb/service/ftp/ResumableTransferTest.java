@@ -0,0 +1,282 @@
+package com.mb.service.ftp;
+
+import com.mb.service.helper.MockServiceContextBuilder;
+import com.mb.service.helper.StubFTPServer;
+import com.mb.service.helper.TestDataFactory;
+import mb.dnm.access.ftp.FTPSourceProvider;
+import mb.dnm.access.ftp.ResumableTransfer;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.exeption.InvalidServiceConfigurationException;
+import mb.dnm.service.ftp.DownloadFiles;
+import mb.dnm.service.ftp.UploadFiles;
+import org.apache.commons.net.ftp.FTP;
+import org.apache.commons.net.ftp.FTPClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResumableTransferTest {
+
+    private static final String CONTENT = "0123456789";
+
+    private StubFTPServer server;
+    private StubFTPServer.StubTemplate template;
+    private FTPClient ftp;
+    private Path tempDir;
+    private Path localFile;
+    private Path part;
+    private Path meta;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubFTPServer();
+        template = server.register("RESUMABLE_SOURCE");
+        ftp = template.login();
+        tempDir = TestDataFactory.createTempDirectory("resumable_test");
+        localFile = tempDir.resolve("a.dat");
+        part = tempDir.resolve("a.dat" + ResumableTransfer.PART_SUFFIX);
+        meta = tempDir.resolve("a.dat" + ResumableTransfer.PART_SUFFIX + ResumableTransfer.META_SUFFIX);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FTPSourceProvider.access().getFtpClientTemplateMap().remove("RESUMABLE_SOURCE");
+        TestDataFactory.cleanupTempFile(tempDir);
+    }
+
+    @Test
+    public void testDownload_Interrupted_ResumesFromPartFile() throws Exception {
+        // Given
+        server.put("/in/a.dat", CONTENT);
+        interruptedDownload();
+        assertEquals("0123", read(part));
+        assertTrue(Files.exists(meta));
+
+        // When
+        boolean done = ResumableTransfer.download(ftp, "/in/a.dat", localFile);
+
+        // Then
+        assertTrue(done);
+        assertEquals(CONTENT, read(localFile));
+        assertEquals(1, server.count("RETR /in/a.dat @4"));
+        assertFalse(Files.exists(part));
+        assertFalse(Files.exists(meta));
+    }
+
+    @Test
+    public void testDownload_SourceChanged_RestartsFromBeginning() throws Exception {
+        // Given - .part.meta 에 기록된 원본의 크기와 수정시간이 FTP 서버의 파일과 다르다.
+        server.put("/in/a.dat", CONTENT);
+        interruptedDownload();
+        server.put("/in/a.dat", "abcdefghijkl");
+        server.clearCommands();
+
+        // When
+        boolean done = ResumableTransfer.download(ftp, "/in/a.dat", localFile);
+
+        // Then
+        assertTrue(done);
+        assertEquals("abcdefghijkl", read(localFile));
+        assertEquals(0, server.count("RETR /in/a.dat @"));
+        assertEquals(1, server.count("RETR /in/a.dat"));
+    }
+
+    @Test
+    public void testDownload_RestRejected_DownloadsAgainFromBeginning() throws Exception {
+        // Given
+        server.put("/in/a.dat", CONTENT);
+        interruptedDownload();
+        server.setRestSupported(false);
+        server.clearCommands();
+
+        // When
+        boolean done = ResumableTransfer.download(ftp, "/in/a.dat", localFile);
+
+        // Then
+        assertTrue(done);
+        assertEquals(CONTENT, read(localFile));
+        assertEquals(1, server.count("RETR /in/a.dat @4"));
+        assertEquals(2, server.count("RETR /in/a.dat"));
+    }
+
+    @Test
+    public void testDownload_SizeMismatch_DeletesPartFiles() throws Exception {
+        // Given - SIZE 로 크기를 확인한 뒤 다운로드 전에 FTP 서버의 파일이 변경된다.
+        server.put("/in/a.dat", CONTENT);
+        server.onCommand("RETR /in/a.dat", new Runnable() {
+            @Override
+            public void run() {
+                server.put("/in/a.dat", "0123");
+            }
+        });
+
+        // When
+        try {
+            ResumableTransfer.download(ftp, "/in/a.dat", localFile);
+            fail("The size mismatch must fail the download");
+        } catch (IOException e) {
+            // Then
+            assertTrue(e.getMessage().contains("expected 10 bytes"));
+        }
+        assertFalse(Files.exists(localFile));
+        assertFalse(Files.exists(part));
+        assertFalse(Files.exists(meta));
+    }
+
+    @Test
+    public void testUpload_Interrupted_ResumesWithAppend() throws Exception {
+        // Given
+        Files.write(localFile, CONTENT.getBytes(StandardCharsets.UTF_8));
+        interruptedUpload();
+        assertEquals("012", server.getString("/out/a.dat.part"));
+        server.clearCommands();
+
+        // When
+        boolean done = ResumableTransfer.upload(ftp, localFile, "/out/a.dat");
+
+        // Then
+        assertTrue(done);
+        assertEquals(CONTENT, server.getString("/out/a.dat"));
+        assertEquals(1, server.count("APPE /out/a.dat.part"));
+        assertEquals(0, server.count("STOR /out/a.dat.part"));
+        assertFalse(server.exists("/out/a.dat.part"));
+        assertFalse(server.exists("/out/a.dat.part.meta"));
+    }
+
+    @Test
+    public void testUpload_AppendRejected_UploadsAgainFromBeginning() throws Exception {
+        // Given
+        Files.write(localFile, CONTENT.getBytes(StandardCharsets.UTF_8));
+        interruptedUpload();
+        server.setAppendSupported(false);
+        server.clearCommands();
+
+        // When
+        boolean done = ResumableTransfer.upload(ftp, localFile, "/out/a.dat");
+
+        // Then
+        assertTrue(done);
+        assertEquals(CONTENT, server.getString("/out/a.dat"));
+        assertEquals(1, server.count("APPE /out/a.dat.part"));
+        assertEquals(1, server.count("STOR /out/a.dat.part.meta"));
+        assertEquals(2, server.count("STOR /out/a.dat.part"));
+    }
+
+    @Test
+    public void testUpload_SizeMismatch_DeletesRemotePartFiles() throws Exception {
+        // Given - 업로드한 .part 파일의 크기를 확인하기 전에 다른 클라이언트가 파일을 변경한다.
+        Files.write(localFile, CONTENT.getBytes(StandardCharsets.UTF_8));
+        server.mkdirs("/out");
+        final AtomicInteger sizeCommands = new AtomicInteger();
+        server.onCommand("SIZE /out/a.dat.part", new Runnable() {
+            @Override
+            public void run() {
+                if (sizeCommands.incrementAndGet() == 2)
+                    server.put("/out/a.dat.part", "01");
+            }
+        });
+
+        // When
+        try {
+            ResumableTransfer.upload(ftp, localFile, "/out/a.dat");
+            fail("The size mismatch must fail the upload");
+        } catch (IOException e) {
+            // Then
+            assertTrue(e.getMessage().contains("expected 10 bytes"));
+        }
+        assertFalse(server.exists("/out/a.dat"));
+        assertFalse(server.exists("/out/a.dat.part"));
+        assertFalse(server.exists("/out/a.dat.part.meta"));
+    }
+
+    @Test
+    public void testDownloadFiles_ResumableWithAsciiFileType_ThrowsException() throws Throwable {
+        // Given
+        template.setFileType(FTP.ASCII_FILE_TYPE);
+        ServiceContext ctx = MockServiceContextBuilder.createDefault()
+                .addSourceAlias("FTP", "RESUMABLE_SOURCE")
+                .build();
+        ctx.addContextParam("files", "/in/a.dat");
+        DownloadFiles service = new DownloadFiles();
+        service.setSourceAlias("FTP");
+        service.setInput("files");
+        service.setResumable(true);
+
+        // When
+        try {
+            service.process(ctx);
+            fail("The resumable transfer must be rejected in ASCII mode");
+        } catch (InvalidServiceConfigurationException e) {
+            // Then
+            assertTrue(e.getMessage().contains("BINARY_FILE_TYPE"));
+        }
+    }
+
+    @Test
+    public void testUploadFiles_ResumableWithAsciiFileType_ThrowsException() throws Throwable {
+        // Given
+        template.setFileType(FTP.ASCII_FILE_TYPE);
+        ServiceContext ctx = MockServiceContextBuilder.createDefault()
+                .addSourceAlias("FTP", "RESUMABLE_SOURCE")
+                .build();
+        ctx.addContextParam("files", localFile.toString());
+        UploadFiles service = new UploadFiles();
+        service.setSourceAlias("FTP");
+        service.setInput("files");
+        service.setResumable(true);
+
+        // When
+        try {
+            service.process(ctx);
+            fail("The resumable transfer must be rejected in ASCII mode");
+        } catch (InvalidServiceConfigurationException e) {
+            // Then
+            assertTrue(e.getMessage().contains("BINARY_FILE_TYPE"));
+        }
+    }
+
+    private void interruptedDownload() throws Exception {
+        server.setInterruptAfterBytes(4);
+        try {
+            ResumableTransfer.download(ftp, "/in/a.dat", localFile);
+            fail("The interrupted download must throw IOException");
+        } catch (IOException expected) {
+        } finally {
+            server.setInterruptAfterBytes(-1);
+        }
+    }
+
+    private void interruptedUpload() throws Exception {
+        server.mkdirs("/out");
+        //.part.meta 파일은 전송하고 .part 파일의 전송만 중단한다.
+        server.onCommand("STOR /out/a.dat.part", new Runnable() {
+            @Override
+            public void run() {
+                server.setInterruptAfterBytes(server.count("STOR /out/a.dat.part.meta") > 0 ? 3 : -1);
+            }
+        });
+        try {
+            ResumableTransfer.upload(ftp, localFile, "/out/a.dat");
+            fail("The interrupted upload must throw IOException");
+        } catch (IOException expected) {
+        } finally {
+            server.onCommand("STOR /out/a.dat.part", null);
+            server.setInterruptAfterBytes(-1);
+        }
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
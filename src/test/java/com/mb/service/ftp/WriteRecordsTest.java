@@ -0,0 +1,129 @@
+package com.mb.service.ftp;
+
+import com.mb.service.helper.MockServiceContextBuilder;
+import com.mb.service.helper.StubFTPServer;
+import mb.dnm.access.file.FileTemplate;
+import mb.dnm.access.ftp.FTPSourceProvider;
+import mb.dnm.code.DataType;
+import mb.dnm.core.context.ServiceContext;
+import mb.dnm.service.ftp.WriteRecords;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WriteRecordsTest {
+
+    private WriteRecords service;
+    private ServiceContext ctx;
+    private StubFTPServer server;
+
+    @Before
+    public void setUp() {
+        server = new StubFTPServer();
+        server.mkdirs("/out");
+        server.register("RECORD_SOURCE");
+
+        FileTemplate template = new FileTemplate();
+        template.setTemplateName("RECORD_SOURCE");
+        template.setCharset("UTF-8");
+        template.setDataType(DataType.STRING);
+        template.setFileName("rows.txt");
+        template.setRemoteSendDir("/out");
+        ctx = MockServiceContextBuilder.createDefault()
+                .addSourceAlias("FTP", "RECORD_SOURCE")
+                .addFileTemplate("RECORD_SOURCE", template)
+                .build();
+
+        service = new WriteRecords();
+        service.setSourceAlias("FTP");
+        service.setInput("rows");
+        service.setOutput("written");
+    }
+
+    @After
+    public void tearDown() {
+        FTPSourceProvider.access().getFtpClientTemplateMap().remove("RECORD_SOURCE");
+    }
+
+    @Test
+    public void testProcess_UploadsPartFileThenRenames() throws Throwable {
+        // Given
+        server.put("/out/rows.txt", "old");
+        ctx.addContextParam("rows", Arrays.asList(row("1", "kim"), row("2", "lee")));
+
+        // When
+        service.process(ctx);
+
+        // Then
+        assertEquals("/out/rows.txt", ctx.getContextParam("written"));
+        assertEquals("ID|NAME\n1|kim\n2|lee\n", server.getString("/out/rows.txt"));
+        assertFalse(server.exists("/out/rows.txt.part"));
+        List<String> commands = server.commands();
+        int store = commands.indexOf("STOR /out/rows.txt.part");
+        int complete = commands.indexOf("completePendingCommand");
+        int rename = commands.indexOf("RNFR /out/rows.txt.part RNTO /out/rows.txt");
+        assertTrue(store >= 0);
+        assertTrue(store < complete);
+        assertTrue(complete < rename);
+        assertEquals(0, server.count("STOR /out/rows.txt "));
+    }
+
+    @Test
+    public void testProcess_WriterFails_DeletesPartFile() throws Throwable {
+        // Given - 두번째 row 를 가져올 때 에러가 발생한다.
+        server.put("/out/rows.txt", "old");
+        final Iterator<Map<String, Object>> rows = Arrays.asList(row("1", "kim"), row("2", "lee")).iterator();
+        ctx.addContextParam("rows", new Iterator<Map<String, Object>>() {
+            private int count = 0;
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (++count == 2)
+                    throw new IllegalStateException("Cursor closed");
+                return rows.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("remove");
+            }
+        });
+
+        // When
+        try {
+            service.process(ctx);
+            fail("The writer failure must be thrown");
+        } catch (IllegalStateException e) {
+            // Then
+            assertEquals("Cursor closed", e.getMessage());
+        }
+        assertFalse(server.exists("/out/rows.txt.part"));
+        assertEquals(1, server.count("DELE /out/rows.txt.part"));
+        assertEquals(0, server.count("RNFR"));
+        assertEquals("old", server.getString("/out/rows.txt"));
+        assertEquals(null, ctx.getContextParam("written"));
+    }
+
+    private static Map<String, Object> row(String id, String name) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("ID", id);
+        row.put("NAME", name);
+        return row;
+    }
+}
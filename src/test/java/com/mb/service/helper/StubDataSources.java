@@ -0,0 +1,311 @@
+package com.mb.service.helper;
+
+import mb.dnm.access.db.DataSourceProvider;
+import mb.dnm.access.db.ExecutorTemplate;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.session.Configuration;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DB 없이 트랜잭션 흐름을 검증하기 위한 JDBC stub 이다.
+ * {@link DataSourceProvider} 에 stub DataSource 를 사용하는 executor 를 등록하고, 커넥션의 commit/rollback 을 순서대로 기록한다.
+ * {@link #newQueryDataSource(String[], Object[][])} 는 모든 쿼리가 지정된 조회 결과를 반환하는 DataSource 를 생성한다.<br>
+ * 등록된 executor 의 커넥션은 Batch 로 실행된 쿼리의 파라미터를 {@link #parameters()} 에 기록하고, Batch 가 실행될 때 마다 {@code executeBatch:건수} 를 기록한다.
+ */
+public class StubDataSources {
+    public static final String EXECUTOR_A = "STUB_A";
+    public static final String EXECUTOR_B = "STUB_B";
+
+    private static final Map<String, DataSource> dataSources = new LinkedHashMap<>();
+    private static final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+    private static final List<List<Object>> parameters = Collections.synchronizedList(new ArrayList<List<Object>>());
+
+    private StubDataSources() {}
+
+    public static synchronized void register() throws Exception {
+        if (!dataSources.isEmpty()) {
+            return;
+        }
+        List<ExecutorTemplate> templates = new ArrayList<>();
+        for (String name : new String[]{EXECUTOR_A, EXECUTOR_B}) {
+            DataSource dataSource = newDataSource();
+            ExecutorTemplate template = new ExecutorTemplate();
+            template.setTemplateName(name);
+            template.setDataSource(dataSource);
+            templates.add(template);
+            dataSources.put(name, dataSource);
+        }
+        DataSourceProvider.access().setQueryExecutors(templates);
+    }
+
+    /**
+     * 현재 Thread 의 트랜잭션에 연결된 커넥션에 이름을 붙인다. 이후 commit/rollback 이 이 이름으로 기록된다.
+     */
+    public static void label(String executorName, String label) throws Exception {
+        Connection connection = DataSourceUtils.getConnection(dataSources.get(executorName));
+        connection.setClientInfo("label", label);
+    }
+
+    public static List<String> events() {
+        synchronized (events) {
+            return new ArrayList<>(events);
+        }
+    }
+
+    public static void clearEvents() {
+        events.clear();
+        parameters.clear();
+    }
+
+    /**
+     * Batch 로 실행된 쿼리들의 파라미터 값을 실행된 순서대로 반환한다.
+     */
+    public static List<List<Object>> parameters() {
+        synchronized (parameters) {
+            return new ArrayList<>(parameters);
+        }
+    }
+
+    /**
+     * {@code executorName} 의 executor 에 {@code mapperXml} 의 쿼리들을 등록한다. 이미 등록된 namespace 인 경우 무시한다.
+     */
+    public static void addMapper(String executorName, String namespace, String mapperXml) throws Exception {
+        Configuration configuration = DataSourceProvider.access().getExecutor(executorName).getDefaultExecutor().getConfiguration();
+        synchronized (configuration) {
+            if (configuration.isResourceLoaded(namespace + ".xml"))
+                return;
+            String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                    + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">"
+                    + "<mapper namespace=\"" + namespace + "\">" + mapperXml + "</mapper>";
+            new XMLMapperBuilder(new ByteArrayInputStream(xml.getBytes("UTF-8")), configuration, namespace + ".xml",
+                    configuration.getSqlFragments()).parse();
+        }
+    }
+
+    /**
+     * 모든 쿼리가 {@code labels} 컬럼의 {@code rows} 를 조회 결과로 반환하는 DataSource 를 생성한다.
+     */
+    public static DataSource newQueryDataSource(String[] labels, Object[][] rows) {
+        return newDataSource(labels, rows);
+    }
+
+    private static DataSource newDataSource() {
+        return newDataSource(null, null);
+    }
+
+    private static DataSource newDataSource(final String[] labels, final Object[][] rows) {
+        return (DataSource) Proxy.newProxyInstance(StubDataSources.class.getClassLoader(), new Class[]{DataSource.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getConnection")) {
+                    return newConnection(labels, rows);
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    private static Connection newConnection(final String[] labels, final Object[][] rows) {
+        return (Connection) Proxy.newProxyInstance(StubDataSources.class.getClassLoader(), new Class[]{Connection.class}, new InvocationHandler() {
+            private String label = "unlabeled";
+            private boolean autoCommit = true;
+            private boolean closed = false;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                switch (method.getName()) {
+                    case "setClientInfo":
+                        if (args.length == 2 && "label".equals(args[0]))
+                            label = (String) args[1];
+                        return null;
+                    case "commit":
+                        events.add("commit:" + label);
+                        return null;
+                    case "rollback":
+                        events.add("rollback:" + label);
+                        return null;
+                    case "getAutoCommit":
+                        return autoCommit;
+                    case "setAutoCommit":
+                        autoCommit = (Boolean) args[0];
+                        return null;
+                    case "isClosed":
+                        return closed;
+                    case "close":
+                        closed = true;
+                        return null;
+                    case "getTransactionIsolation":
+                        return Connection.TRANSACTION_READ_COMMITTED;
+                    case "isValid":
+                        return true;
+                    case "getMetaData":
+                        return newMetaData();
+                    case "prepareStatement":
+                        if (labels != null)
+                            return newStatement((Connection) proxy, labels, rows);
+                        return newBatchStatement((Connection) proxy);
+                    default:
+                        return defaultValue(proxy, method, args);
+                }
+            }
+        });
+    }
+
+    private static PreparedStatement newStatement(final Connection connection, final String[] labels, final Object[][] rows) {
+        return (PreparedStatement) Proxy.newProxyInstance(StubDataSources.class.getClassLoader(), new Class[]{PreparedStatement.class}, new InvocationHandler() {
+            private ResultSet resultSet;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                switch (method.getName()) {
+                    case "execute":
+                        resultSet = newResultSet(labels, rows);
+                        return true;
+                    case "executeQuery":
+                        resultSet = newResultSet(labels, rows);
+                        return resultSet;
+                    case "getResultSet":
+                        ResultSet current = resultSet;
+                        resultSet = null;
+                        return current;
+                    case "getUpdateCount":
+                        return -1;
+                    case "getConnection":
+                        return connection;
+                    default:
+                        return defaultValue(proxy, method, args);
+                }
+            }
+        });
+    }
+
+    private static PreparedStatement newBatchStatement(final Connection connection) {
+        return (PreparedStatement) Proxy.newProxyInstance(StubDataSources.class.getClassLoader(), new Class[]{PreparedStatement.class}, new InvocationHandler() {
+            private final Map<Integer, Object> current = new TreeMap<>();
+            private final List<List<Object>> batch = new ArrayList<>();
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("addBatch")) {
+                    batch.add(new ArrayList<>(current.values()));
+                    current.clear();
+                    return null;
+                } else if (name.equals("executeBatch")) {
+                    events.add("executeBatch:" + batch.size());
+                    parameters.addAll(batch);
+                    int[] counts = new int[batch.size()];
+                    Arrays.fill(counts, 1);
+                    batch.clear();
+                    return counts;
+                } else if (name.equals("getConnection")) {
+                    return connection;
+                } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    current.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                    return null;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    private static ResultSet newResultSet(final String[] labels, final Object[][] rows) {
+        return (ResultSet) Proxy.newProxyInstance(StubDataSources.class.getClassLoader(), new Class[]{ResultSet.class}, new InvocationHandler() {
+            private int row = -1;
+            private boolean wasNull = false;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("next")) {
+                    return ++row < rows.length;
+                } else if (name.equals("wasNull")) {
+                    return wasNull;
+                } else if (name.equals("getType")) {
+                    return ResultSet.TYPE_FORWARD_ONLY;
+                } else if (name.equals("getMetaData")) {
+                    return newResultSetMetaData(labels);
+                } else if (name.startsWith("get") && args != null && args.length == 1) {
+                    int idx = args[0] instanceof String ? Arrays.asList(labels).indexOf(args[0]) : (Integer) args[0] - 1;
+                    Object value = rows[row][idx];
+                    wasNull = value == null;
+                    return value;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    private static ResultSetMetaData newResultSetMetaData(final String[] labels) {
+        return (ResultSetMetaData) Proxy.newProxyInstance(StubDataSources.class.getClassLoader(), new Class[]{ResultSetMetaData.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                switch (method.getName()) {
+                    case "getColumnCount":
+                        return labels.length;
+                    case "getColumnLabel":
+                    case "getColumnName":
+                        return labels[(Integer) args[0] - 1];
+                    case "getColumnType":
+                        return Types.VARCHAR;
+                    case "getColumnClassName":
+                        return String.class.getName();
+                    default:
+                        return defaultValue(proxy, method, args);
+                }
+            }
+        });
+    }
+
+    private static DatabaseMetaData newMetaData() {
+        return (DatabaseMetaData) Proxy.newProxyInstance(StubDataSources.class.getClassLoader(), new Class[]{DatabaseMetaData.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getDatabaseProductName")) {
+                    return "Stub";
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Stub" + method.getDeclaringClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+            case "isWrapperFor":
+                return false;
+        }
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class)
+            return false;
+        if (type == int.class)
+            return 0;
+        if (type == long.class)
+            return 0L;
+        return null;
+    }
+}
@@ -0,0 +1,594 @@
+package com.mb.service.helper;
+
+import mb.dnm.access.ftp.FTPClientTemplate;
+import mb.dnm.access.ftp.FTPSourceProvider;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileFilter;
+import org.apache.commons.net.ftp.FTPFileFilters;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * FTP 서버 없이 FTP 서비스를 검증하기 위한 메모리 FTP 서버 stub 이다.<br>
+ * {@link #register(String)} 로 {@link FTPSourceProvider} 에 등록한 {@link FTPClientTemplate} 은 로그인할 때 마다
+ * 이 서버의 파일을 공유하는 새 {@link Client} 를 반환하며, 각 Client 는 독립된 작업 디렉터리를 가진다.
+ * 실행된 명령은 {@link #commands()} 에 순서대로 기록된다.
+ */
+public class StubFTPServer {
+    private final Map<String, byte[]> files = new TreeMap<>();
+    private final Map<String, Long> modificationTimes = new HashMap<>();
+    private final Set<String> directories = new TreeSet<>();
+    private final List<String> commands = Collections.synchronizedList(new ArrayList<String>());
+    private final List<Client> clients = Collections.synchronizedList(new ArrayList<Client>());
+    private final Set<String> features = new HashSet<>();
+    private final Set<String> failingPaths = Collections.synchronizedSet(new HashSet<String>());
+    private volatile boolean mlsdFailing = false;
+    private volatile boolean restSupported = true;
+    private volatile boolean appendSupported = true;
+    private volatile long interruptAfterBytes = -1;
+    private volatile long transferDelayMillis = 0;
+    private final Map<String, Runnable> commandHooks = Collections.synchronizedMap(new HashMap<String, Runnable>());
+    private long clock = 1000;
+
+    public StubFTPServer() {
+        directories.add("/");
+    }
+
+    /**
+     * {@code templateName} 으로 이 서버에 접속하는 {@link FTPClientTemplate} 을 {@link FTPSourceProvider} 에 등록한다.
+     * 같은 이름으로 등록된 template 은 교체된다.
+     */
+    public StubTemplate register(String templateName) {
+        StubTemplate template = new StubTemplate();
+        template.setTemplateName(templateName);
+        template.setHost("stub");
+        FTPSourceProvider.access().getFtpClientTemplateMap().put(templateName, template);
+        return template;
+    }
+
+    public synchronized void mkdirs(String path) {
+        String dir = normalize(path);
+        while (!dir.equals("/")) {
+            directories.add(dir);
+            dir = parentOf(dir);
+        }
+    }
+
+    public synchronized void put(String path, byte[] data) {
+        String file = normalize(path);
+        mkdirs(parentOf(file));
+        files.put(file, data);
+        modificationTimes.put(file, ++clock);
+    }
+
+    public void put(String path, String data) {
+        put(path, data.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+    }
+
+    public synchronized byte[] get(String path) {
+        return files.get(normalize(path));
+    }
+
+    public String getString(String path) {
+        byte[] data = get(path);
+        return data == null ? null : new String(data, java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    public synchronized boolean exists(String path) {
+        String p = normalize(path);
+        return files.containsKey(p) || directories.contains(p);
+    }
+
+    public synchronized Set<String> fileNames() {
+        return new TreeSet<>(files.keySet());
+    }
+
+    public List<String> commands() {
+        synchronized (commands) {
+            return new ArrayList<>(commands);
+        }
+    }
+
+    public int count(String commandPrefix) {
+        int count = 0;
+        for (String command : commands()) {
+            if (command.startsWith(commandPrefix))
+                ++count;
+        }
+        return count;
+    }
+
+    public void clearCommands() {
+        commands.clear();
+    }
+
+    public List<Client> clients() {
+        synchronized (clients) {
+            return new ArrayList<>(clients);
+        }
+    }
+
+    public void addFeature(String feature) {
+        features.add(feature);
+    }
+
+    /**
+     * MLSD 명령이 500 응답으로 실패하도록 한다.
+     */
+    public void setMlsdFailing(boolean mlsdFailing) {
+        this.mlsdFailing = mlsdFailing;
+    }
+
+    /**
+     * false 인 경우 REST 명령이 502 응답으로 거부된다.
+     */
+    public void setRestSupported(boolean restSupported) {
+        this.restSupported = restSupported;
+    }
+
+    /**
+     * false 인 경우 APPE 명령이 502 응답으로 거부된다.
+     */
+    public void setAppendSupported(boolean appendSupported) {
+        this.appendSupported = appendSupported;
+    }
+
+    /**
+     * 0 이상인 경우 RETR, STOR, APPE 명령이 지정된 byte 만큼 전송한 뒤 426 응답으로 중단된다.
+     */
+    public void setInterruptAfterBytes(long interruptAfterBytes) {
+        this.interruptAfterBytes = interruptAfterBytes;
+    }
+
+    /**
+     * RETR, STOR 명령을 실행할 때 마다 지정된 시간 동안 대기한다.
+     */
+    public void setTransferDelayMillis(long transferDelayMillis) {
+        this.transferDelayMillis = transferDelayMillis;
+    }
+
+    /**
+     * {@code commandPrefix} 로 시작하는 명령이 실행되기 직전에 {@code hook} 을 실행한다. {@code hook} 이 null 인 경우 등록된 hook 을 제거한다.
+     */
+    public void onCommand(String commandPrefix, Runnable hook) {
+        if (hook == null) {
+            commandHooks.remove(commandPrefix);
+        } else {
+            commandHooks.put(commandPrefix, hook);
+        }
+    }
+
+    /**
+     * 지정된 경로의 RETR, STOR 명령이 550 응답으로 실패하도록 한다.
+     */
+    public void failTransfer(String path) {
+        failingPaths.add(normalize(path));
+    }
+
+    private synchronized FTPFile[] list(String dir) {
+        List<FTPFile> children = new ArrayList<>();
+        for (String d : directories) {
+            if (!d.equals("/") && parentOf(d).equals(dir))
+                children.add(ftpFile(nameOf(d), FTPFile.DIRECTORY_TYPE, 0));
+        }
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            if (parentOf(entry.getKey()).equals(dir))
+                children.add(ftpFile(nameOf(entry.getKey()), FTPFile.FILE_TYPE, entry.getValue().length));
+        }
+        return children.toArray(new FTPFile[0]);
+    }
+
+    private static FTPFile ftpFile(String name, int type, long size) {
+        FTPFile file = new FTPFile();
+        file.setName(name);
+        file.setType(type);
+        file.setSize(size);
+        return file;
+    }
+
+    private static String normalize(String path) {
+        String p = path.replaceAll("/+", "/");
+        if (p.length() > 1 && p.endsWith("/"))
+            p = p.substring(0, p.length() - 1);
+        return p.isEmpty() ? "/" : p;
+    }
+
+    private static String parentOf(String path) {
+        int idx = path.lastIndexOf('/');
+        return idx <= 0 ? "/" : path.substring(0, idx);
+    }
+
+    private static String nameOf(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private void delay() {
+        if (transferDelayMillis > 0) {
+            try {
+                Thread.sleep(transferDelayMillis);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 이 서버에 접속하는 {@link FTPClientTemplate}
+     */
+    public class StubTemplate extends FTPClientTemplate {
+        @Override
+        public FTPClient login() {
+            Client client = new Client();
+            client.setFileType(getFileType());
+            clients.add(client);
+            return client;
+        }
+    }
+
+    /**
+     * 이 서버의 파일을 사용하는 {@link FTPClient}
+     */
+    public class Client extends FTPClient {
+        private volatile boolean connected = true;
+        private String workingDirectory = "/";
+        private int replyCode = 220;
+        private String replyString = "220 Ready\r\n";
+        private int fileType = FTPClient.BINARY_FILE_TYPE;
+        private String pendingTransfer;
+
+        /**
+         * 서버가 연결을 끊은 것처럼 이후의 명령을 모두 실패시킨다.
+         */
+        public void drop() {
+            connected = false;
+        }
+
+        public int getCurrentFileType() {
+            return fileType;
+        }
+
+        private String resolve(String path) {
+            return normalize(path.startsWith("/") ? path : workingDirectory + "/" + path);
+        }
+
+        private boolean reply(int code, String message) {
+            replyCode = code;
+            replyString = code + " " + message + "\r\n";
+            return code < 400;
+        }
+
+        private boolean command(String command) throws IOException {
+            synchronized (commandHooks) {
+                for (Map.Entry<String, Runnable> hook : commandHooks.entrySet()) {
+                    if (command.startsWith(hook.getKey()))
+                        hook.getValue().run();
+                }
+            }
+            commands.add(command);
+            if (!connected) {
+                reply(421, "Connection closed");
+                throw new IOException("Connection closed without indication.");
+            }
+            return true;
+        }
+
+        @Override
+        public int getReplyCode() {
+            return replyCode;
+        }
+
+        @Override
+        public String getReplyString() {
+            return replyString;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public void disconnect() {
+            connected = false;
+        }
+
+        @Override
+        public boolean logout() {
+            commands.add("QUIT");
+            return true;
+        }
+
+        @Override
+        public boolean sendNoOp() {
+            return connected;
+        }
+
+        @Override
+        public boolean setFileType(int fileType) {
+            this.fileType = fileType;
+            return true;
+        }
+
+        @Override
+        public void enterLocalPassiveMode() {
+        }
+
+        @Override
+        public boolean hasFeature(String feature) {
+            return features.contains(feature);
+        }
+
+        @Override
+        public String printWorkingDirectory() throws IOException {
+            command("PWD");
+            reply(257, "\"" + workingDirectory + "\"");
+            return workingDirectory;
+        }
+
+        @Override
+        public boolean changeWorkingDirectory(String pathname) throws IOException {
+            String dir = resolve(pathname);
+            command("CWD " + dir);
+            synchronized (StubFTPServer.this) {
+                if (!directories.contains(dir))
+                    return reply(550, "No such directory");
+            }
+            workingDirectory = dir;
+            return reply(250, "OK");
+        }
+
+        @Override
+        public boolean makeDirectory(String pathname) throws IOException {
+            String dir = resolve(pathname);
+            command("MKD " + dir);
+            synchronized (StubFTPServer.this) {
+                if (directories.contains(dir) || !directories.contains(parentOf(dir)))
+                    return reply(550, "Can not create directory");
+                directories.add(dir);
+            }
+            return reply(257, "Created");
+        }
+
+        @Override
+        public boolean removeDirectory(String pathname) throws IOException {
+            String dir = resolve(pathname);
+            command("RMD " + dir);
+            synchronized (StubFTPServer.this) {
+                if (!directories.remove(dir))
+                    return reply(550, "No such directory");
+            }
+            return reply(250, "Removed");
+        }
+
+        @Override
+        public boolean deleteFile(String pathname) throws IOException {
+            String file = resolve(pathname);
+            command("DELE " + file);
+            synchronized (StubFTPServer.this) {
+                if (files.remove(file) == null)
+                    return reply(550, "No such file");
+            }
+            return reply(250, "Deleted");
+        }
+
+        @Override
+        public boolean rename(String from, String to) throws IOException {
+            String source = resolve(from);
+            String target = resolve(to);
+            command("RNFR " + source + " RNTO " + target);
+            synchronized (StubFTPServer.this) {
+                byte[] data = files.remove(source);
+                if (data == null)
+                    return reply(550, "No such file");
+                files.put(target, data);
+                modificationTimes.put(target, modificationTimes.remove(source));
+            }
+            return reply(250, "Renamed");
+        }
+
+        @Override
+        public int sendCommand(String command, String args) throws IOException {
+            String path = resolve(args);
+            command(command + " " + path);
+            if ("SIZE".equals(command)) {
+                byte[] data = get(path);
+                if (data == null) {
+                    reply(550, "No such file");
+                } else {
+                    reply(213, String.valueOf(data.length));
+                }
+                return replyCode;
+            }
+            reply(500, "Unknown command");
+            return replyCode;
+        }
+
+        @Override
+        public String getModificationTime(String pathname) throws IOException {
+            String file = resolve(pathname);
+            command("MDTM " + file);
+            synchronized (StubFTPServer.this) {
+                Long time = modificationTimes.get(file);
+                if (time == null) {
+                    reply(550, "No such file");
+                    return null;
+                }
+                reply(213, String.valueOf(time));
+                return String.valueOf(time);
+            }
+        }
+
+        @Override
+        public FTPFile[] listFiles(String pathname) throws IOException {
+            return listFiles(pathname, FTPFileFilters.NON_NULL);
+        }
+
+        @Override
+        public FTPFile[] listFiles(String pathname, FTPFileFilter filter) throws IOException {
+            return list("LIST", pathname, filter);
+        }
+
+        @Override
+        public FTPFile[] mlistDir(String pathname, FTPFileFilter filter) throws IOException {
+            if (mlsdFailing) {
+                command("MLSD " + resolve(pathname));
+                reply(500, "MLSD not understood");
+                return new FTPFile[0];
+            }
+            return list("MLSD", pathname, filter);
+        }
+
+        private FTPFile[] list(String command, String pathname, FTPFileFilter filter) throws IOException {
+            String dir = resolve(pathname);
+            command(command + " " + dir);
+            List<FTPFile> accepted = new ArrayList<>();
+            for (FTPFile file : StubFTPServer.this.list(dir)) {
+                if (filter.accept(file))
+                    accepted.add(file);
+            }
+            reply(226, "Transfer complete");
+            return accepted.toArray(new FTPFile[0]);
+        }
+
+        private boolean checkTransfer(String command, String file) throws IOException {
+            command(command + " " + file + (getRestartOffset() > 0 ? " @" + getRestartOffset() : ""));
+            if (getRestartOffset() > 0 && !restSupported) {
+                return reply(502, "REST not implemented");
+            }
+            if (failingPaths.contains(file)) {
+                return reply(550, "Permission denied");
+            }
+            delay();
+            return true;
+        }
+
+        @Override
+        public boolean retrieveFile(String remote, OutputStream local) throws IOException {
+            String file = resolve(remote);
+            if (!checkTransfer("RETR", file))
+                return false;
+            byte[] data = get(file);
+            if (data == null)
+                return reply(550, "No such file");
+            int offset = (int) Math.min(getRestartOffset(), data.length);
+            int length = data.length - offset;
+            if (interruptAfterBytes >= 0 && interruptAfterBytes < length) {
+                local.write(data, offset, (int) interruptAfterBytes);
+                return reply(426, "Connection closed; transfer aborted");
+            }
+            local.write(data, offset, length);
+            return reply(226, "Transfer complete");
+        }
+
+        @Override
+        public boolean storeFile(String remote, InputStream local) throws IOException {
+            return store("STOR", remote, local, false);
+        }
+
+        @Override
+        public boolean appendFile(String remote, InputStream local) throws IOException {
+            if (!appendSupported) {
+                command("APPE " + resolve(remote));
+                return reply(502, "APPE not implemented");
+            }
+            return store("APPE", remote, local, true);
+        }
+
+        private boolean store(String command, String remote, InputStream local, boolean append) throws IOException {
+            String file = resolve(remote);
+            if (!checkTransfer(command, file))
+                return false;
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            if (append) {
+                byte[] existing = get(file);
+                if (existing != null)
+                    received.write(existing);
+            }
+            byte[] buffer = new byte[8192];
+            long limit = interruptAfterBytes;
+            long copied = 0;
+            int read;
+            while ((read = local.read(buffer)) != -1) {
+                if (limit >= 0 && copied + read > limit) {
+                    received.write(buffer, 0, (int) (limit - copied));
+                    put(file, received.toByteArray());
+                    return reply(426, "Connection closed; transfer aborted");
+                }
+                received.write(buffer, 0, read);
+                copied += read;
+            }
+            put(file, received.toByteArray());
+            return reply(226, "Transfer complete");
+        }
+
+        @Override
+        public InputStream retrieveFileStream(String remote) throws IOException {
+            String file = resolve(remote);
+            if (!checkTransfer("RETR", file))
+                return null;
+            byte[] data = get(file);
+            if (data == null) {
+                reply(550, "No such file");
+                return null;
+            }
+            pendingTransfer = "RETR";
+            reply(150, "Opening data connection");
+            return new ByteArrayInputStream(data);
+        }
+
+        @Override
+        public OutputStream storeFileStream(final String remote) throws IOException {
+            final String file = resolve(remote);
+            if (!checkTransfer("STOR", file))
+                return null;
+            pendingTransfer = "STOR";
+            reply(150, "Opening data connection");
+            return new ByteArrayOutputStream() {
+                private boolean closed = false;
+
+                @Override
+                public void close() throws IOException {
+                    if (closed)
+                        return;
+                    closed = true;
+                    commands.add("CLOSE " + file);
+                    put(file, toByteArray());
+                }
+            };
+        }
+
+        @Override
+        public boolean abort() throws IOException {
+            command("ABOR");
+            if (pendingTransfer != null)
+                pendingTransfer = "ABOR";
+            return reply(226, "Abort successful");
+        }
+
+        @Override
+        public boolean completePendingCommand() throws IOException {
+            command("completePendingCommand");
+            if (pendingTransfer == null)
+                return reply(503, "No transfer in progress");
+            boolean aborted = pendingTransfer.equals("ABOR");
+            pendingTransfer = null;
+            if (aborted)
+                return reply(426, "Connection closed; transfer aborted");
+            return reply(226, "Transfer complete");
+        }
+    }
+}